@@ -0,0 +1,78 @@
+package pageobjects;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Field decorator for CachingElementLocatorFactory: when a cached element has gone stale,
+ * the call is retried once on a freshly located element.
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+
+    public CachingFieldDecorator(CachingElementLocatorFactory factory) {
+        super(factory);
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        return (WebElement) Proxy.newProxyInstance(loader,
+                new Class[] {WebElement.class, WrapsElement.class, Locatable.class},
+                new RetryingHandler(locator, false));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected List<WebElement> proxyForListLocator(ClassLoader loader, ElementLocator locator) {
+        return (List<WebElement>) Proxy.newProxyInstance(loader, new Class[] {List.class},
+                new RetryingHandler(locator, true));
+    }
+
+    private static class RetryingHandler implements InvocationHandler {
+        private final ElementLocator locator;
+        private final boolean list;
+
+        RetryingHandler(ElementLocator locator, boolean list) {
+            this.locator = locator;
+            this.list = list;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            for (int attempt = 0; ; attempt++) {
+                Object target;
+                try {
+                    target = list ? locator.findElements() : locator.findElement();
+                } catch (NoSuchElementException e) {
+                    if ("toString".equals(method.getName())) {
+                        return "Proxy element for: " + locator;
+                    }
+                    throw e;
+                }
+                if ("getWrappedElement".equals(method.getName())) {
+                    return target;
+                }
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    boolean retry = e.getCause() instanceof StaleElementReferenceException && attempt == 0
+                            && locator instanceof CachingElementLocatorFactory.CachingElementLocator;
+                    if (!retry) {
+                        throw e.getCause();
+                    }
+                    ((CachingElementLocatorFactory.CachingElementLocator) locator).invalidate();
+                }
+            }
+        }
+    }
+}
@@ -7,7 +7,7 @@ import org.openqa.selenium.support.*;
 public class CheckBoxPage {
 
     public CheckBoxPage(WebDriver driver) {
-        PageFactory.initElements(driver, this);
+        CachingElementLocatorFactory.initElements(driver, this);
     }
 
     @FindBy(xpath = "//span[text()='Check Box']")
@@ -7,7 +7,7 @@ import org.openqa.selenium.support.*;
 public class HomePage {
 
     public HomePage(WebDriver driver) {
-        PageFactory.initElements(driver, this);
+        CachingElementLocatorFactory.initElements(driver, this);
     }
 
     @FindBy(xpath = "//h5[text()='Elements']")
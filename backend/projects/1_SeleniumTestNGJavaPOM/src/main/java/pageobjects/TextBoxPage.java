@@ -7,7 +7,7 @@ import org.openqa.selenium.support.*;
 public class TextBoxPage {
 
     public TextBoxPage(WebDriver driver) {
-        PageFactory.initElements(driver, this);
+        CachingElementLocatorFactory.initElements(driver, this);
     }
 
     @FindBy(id = "userName")
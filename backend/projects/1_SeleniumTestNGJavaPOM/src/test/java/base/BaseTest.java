@@ -1,26 +1,19 @@
 package base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
 import org.testng.annotations.*;
 
-import java.time.Duration;
-
 public class BaseTest {
     protected WebDriver driver;
 
     @BeforeClass
     public void setup() {
-        WebDriverManager.chromedriver().setup();
-        driver = new ChromeDriver();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().window().maximize();
+        driver = DriverPool.lease();
         driver.get("https://demoqa.com/");
     }
 
     @AfterClass
     public void tearDown() {
-        if (driver != null) driver.quit();
+        if (driver != null) DriverPool.release(driver);
     }
 }
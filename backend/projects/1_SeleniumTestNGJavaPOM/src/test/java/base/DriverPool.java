@@ -0,0 +1,155 @@
+package base;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import pageobjects.CachingElementLocatorFactory;
+import pageobjects.DomEpoch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps warm Chrome sessions between test classes.
+ * At most pool.maxSize sessions are leased at once; further leases wait for a release (pool.leaseTimeoutSeconds).
+ * A session is reset (tabs, storage, cookies) when released and recycled after pool.maxUses leases;
+ * a session whose reset fails is discarded.
+ * Sessions are decorated with a DomEpoch listener so page objects know when cached elements are outdated.
+ */
+public class DriverPool {
+    private static final int MAX_USES = Integer.getInteger("pool.maxUses", 20);
+    private static final int MAX_SIZE = Math.max(1, Integer.getInteger("pool.maxSize", 2));
+    private static final long LEASE_TIMEOUT_SECONDS = Long.getLong("pool.leaseTimeoutSeconds", 300L);
+
+    private static final Semaphore permits = new Semaphore(MAX_SIZE, true);
+
+    private static final LinkedBlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private static final Map<WebDriver, Integer> uses = new ConcurrentHashMap<>();
+    private static final Set<WebDriver> leased = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong leases = new AtomicLong();
+    private static final AtomicLong reused = new AtomicLong();
+    private static final AtomicLong created = new AtomicLong();
+    private static final AtomicLong leaseWaitNanos = new AtomicLong();
+    private static final AtomicLong createNanos = new AtomicLong();
+    private static volatile boolean driverBinaryReady;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdown, "driver-pool-shutdown"));
+    }
+
+    public static WebDriver lease() {
+        // Lease wait is the time spent waiting for a free slot; starting a new browser is timed separately
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new RuntimeException("No WebDriver session became free within " + LEASE_TIMEOUT_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a WebDriver session", e);
+        }
+        leaseWaitNanos.addAndGet(System.nanoTime() - start);
+        try {
+            WebDriver driver = idle.pollFirst();
+            if (driver != null) {
+                reused.incrementAndGet();
+            } else {
+                long createStart = System.nanoTime();
+                driver = createDriver();
+                createNanos.addAndGet(System.nanoTime() - createStart);
+                created.incrementAndGet();
+            }
+            uses.merge(driver, 1, Integer::sum);
+            leased.add(driver);
+            leases.incrementAndGet();
+            return driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public static void release(WebDriver driver) {
+        if (!leased.remove(driver)) {
+            return;
+        }
+        try {
+            if (uses.get(driver) >= MAX_USES || !reset(driver)) {
+                uses.remove(driver);
+                quietQuit(driver);
+                return;
+            }
+            idle.offerFirst(driver);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public static String metrics() {
+        return "Driver pool: leases=" + leases.get() + " reused=" + reused.get() + " created=" + created.get()
+                + " leaseWait=" + leaseWaitNanos.get() / 1_000_000 + "ms"
+                + " sessionStart=" + createNanos.get() / 1_000_000 + "ms";
+    }
+
+    private static synchronized WebDriver createDriver() {
+        if (!driverBinaryReady) {
+            WebDriverManager.chromedriver().setup();
+            driverBinaryReady = true;
+        }
+        ChromeDriver chrome = new ChromeDriver();
+        chrome.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+        chrome.manage().window().maximize();
+        DomEpoch epoch = new DomEpoch();
+        WebDriver driver = new EventFiringDecorator<WebDriver>(epoch).decorate(chrome);
+        DomEpoch.register(driver, epoch);
+        return driver;
+    }
+
+    private static boolean reset(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (String handle : handles.subList(1, handles.size())) {
+                driver.switchTo().window(handle).close();
+            }
+            driver.switchTo().window(handles.get(0));
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { localStorage.clear(); sessionStorage.clear(); } catch (e) {}");
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.err.println("Discarding pooled driver after failed reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void quietQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.err.println("Failed to quit pooled driver: " + e.getMessage());
+        }
+    }
+
+    private static void shutdown() {
+        WebDriver driver;
+        while ((driver = idle.pollFirst()) != null) {
+            quietQuit(driver);
+        }
+        if (leases.get() > 0) {
+            System.out.println(metrics());
+            System.out.println(CachingElementLocatorFactory.metrics());
+        }
+    }
+}
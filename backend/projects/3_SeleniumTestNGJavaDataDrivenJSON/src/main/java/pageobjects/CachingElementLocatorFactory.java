@@ -0,0 +1,122 @@
+package pageobjects;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PageFactory locator factory that remembers found elements per page instance.
+ * A cached element is reused until the driver navigates (DomEpoch) or it goes stale (CachingFieldDecorator).
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+    private static final AtomicLong totalHits = new AtomicLong();
+    private static final AtomicLong totalMisses = new AtomicLong();
+    private static final AtomicLong totalStale = new AtomicLong();
+
+    private final WebDriver driver;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    public CachingElementLocatorFactory(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public static CachingElementLocatorFactory initElements(WebDriver driver, Object page) {
+        CachingElementLocatorFactory factory = new CachingElementLocatorFactory(driver);
+        PageFactory.initElements(new CachingFieldDecorator(factory), page);
+        return factory;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new CachingElementLocator(driver, new Annotations(field).buildBy());
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getStaleRetries() {
+        return stale.get();
+    }
+
+    public static String metrics() {
+        return "Element cache: hits=" + totalHits.get() + " misses=" + totalMisses.get()
+                + " staleRetries=" + totalStale.get();
+    }
+
+    public class CachingElementLocator implements ElementLocator {
+        private final SearchContext context;
+        private final By by;
+        private WebElement element;
+        private List<WebElement> elements;
+        private long epoch = -1;
+
+        CachingElementLocator(SearchContext context, By by) {
+            this.context = context;
+            this.by = by;
+        }
+
+        @Override
+        public synchronized WebElement findElement() {
+            if (element != null && epoch == DomEpoch.current(driver)) {
+                hit();
+                return element;
+            }
+            miss();
+            epoch = DomEpoch.current(driver);
+            elements = null;
+            element = context.findElement(by);
+            return element;
+        }
+
+        @Override
+        public synchronized List<WebElement> findElements() {
+            if (elements != null && epoch == DomEpoch.current(driver)) {
+                hit();
+                return elements;
+            }
+            miss();
+            epoch = DomEpoch.current(driver);
+            element = null;
+            elements = context.findElements(by);
+            return elements;
+        }
+
+        public synchronized void invalidate() {
+            element = null;
+            elements = null;
+            stale.incrementAndGet();
+            totalStale.incrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            return "CachingElementLocator '" + by + "'";
+        }
+    }
+
+    private void hit() {
+        hits.incrementAndGet();
+        totalHits.incrementAndGet();
+    }
+
+    private void miss() {
+        misses.incrementAndGet();
+        totalMisses.incrementAndGet();
+    }
+}
@@ -0,0 +1,38 @@
+package pageobjects;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts navigations of one driver. Cached page elements found in an older epoch are looked up again.
+ * Attach with new EventFiringDecorator<>(epoch).decorate(driver), then DomEpoch.register(decorated, epoch).
+ */
+public class DomEpoch implements WebDriverListener {
+    private static final Set<String> NAVIGATING_CALLS = Set.of("get", "navigate", "switchTo", "close");
+    private static final Map<WebDriver, DomEpoch> epochs = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AtomicLong value = new AtomicLong();
+
+    public static void register(WebDriver driver, DomEpoch epoch) {
+        epochs.put(driver, epoch);
+    }
+
+    public static long current(WebDriver driver) {
+        DomEpoch epoch = epochs.get(driver);
+        return epoch == null ? 0 : epoch.value.get();
+    }
+
+    @Override
+    public void afterAnyWebDriverCall(WebDriver driver, Method method, Object[] args, Object result) {
+        if (NAVIGATING_CALLS.contains(method.getName())) {
+            value.incrementAndGet();
+        }
+    }
+}
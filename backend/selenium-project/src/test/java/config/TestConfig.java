@@ -19,6 +19,8 @@ public class TestConfig {
     public static final String AMAZON_SUITE = "testng.xml";
     public static final String REDBUS_SUITE = "testng-redbus.xml";
     public static final String ALL_TESTS_SUITE = "testng-all.xml";
+    public static final String PARALLEL_METHODS_SUITE = "testng-all-parallel-methods.xml";
+    public static final String PARALLEL_CLASSES_SUITE = "testng-all-parallel-classes.xml";
     
     // Test descriptions for frontend display
     public static String getTestDescription(String testName) {
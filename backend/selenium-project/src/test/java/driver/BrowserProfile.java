@@ -0,0 +1,177 @@
+package driver;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Named, performance-tuned Chrome presets
+ *
+ * Presets:
+ * - fast-headless: headless, EAGER page load, images/fonts/trackers blocked
+ * - recording: visible window for screen recording, NORMAL page load, trackers blocked
+ * - debug: visible window with DevTools open, NORMAL page load, nothing blocked
+ *
+ * Configuration (system properties):
+ * - browser.profile: preset name (default "recording", which the backend screen recorder needs)
+ * - browser.pageLoadStrategy: override the preset's strategy (normal, eager, none)
+ *
+ * Usage Examples:
+ * 1. Active preset: ChromeOptions options = BrowserProfile.active().toChromeOptions();
+ * 2. Named preset: BrowserProfile profile = BrowserProfile.fromName("fast-headless");
+ * 3. Apply blocking to a started session: profile.applyNetworkRules(driver);
+ */
+public enum BrowserProfile {
+
+    FAST_HEADLESS("fast-headless", PageLoadStrategy.EAGER, true, true, true, true),
+    RECORDING("recording", PageLoadStrategy.NORMAL, false, false, false, true),
+    DEBUG("debug", PageLoadStrategy.NORMAL, false, false, false, false);
+
+    private static final List<String> IMAGE_PATTERNS = Arrays.asList(
+            "*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.avif", "*.ico");
+
+    private static final List<String> FONT_PATTERNS = Arrays.asList(
+            "*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot");
+
+    private static final List<String> TRACKER_PATTERNS = Arrays.asList(
+            "*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+            "*googlesyndication.com*", "*facebook.net*", "*connect.facebook.com*",
+            "*amazon-adsystem.com*", "*scorecardresearch.com*", "*hotjar.com*",
+            "*clarity.ms*", "*newrelic.com*", "*nr-data.net*", "*branch.io*",
+            "*moengage.com*", "*webengage.com*", "*criteo.com*", "*taboola.com*");
+
+    private final String profileName;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final boolean headless;
+    private final boolean blockImages;
+    private final boolean blockFonts;
+    private final boolean blockTrackers;
+
+    BrowserProfile(String profileName, PageLoadStrategy pageLoadStrategy, boolean headless,
+                   boolean blockImages, boolean blockFonts, boolean blockTrackers) {
+        this.profileName = profileName;
+        this.pageLoadStrategy = pageLoadStrategy;
+        this.headless = headless;
+        this.blockImages = blockImages;
+        this.blockFonts = blockFonts;
+        this.blockTrackers = blockTrackers;
+    }
+
+    /**
+     * Get the preset selected by -Dbrowser.profile
+     * @return BrowserProfile
+     */
+    public static BrowserProfile active() {
+        return fromName(System.getProperty("browser.profile", RECORDING.profileName));
+    }
+
+    /**
+     * Look up a preset by name (e.g. "fast-headless")
+     * @param name Preset name
+     * @return BrowserProfile
+     */
+    public static BrowserProfile fromName(String name) {
+        for (BrowserProfile profile : values()) {
+            if (profile.profileName.equalsIgnoreCase(name.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown browser profile '" + name + "', expected one of "
+                + Arrays.toString(Arrays.stream(values()).map(BrowserProfile::getProfileName).toArray()));
+    }
+
+    /**
+     * Get the preset name
+     * @return Preset name
+     */
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * Get the page-load strategy, honouring -Dbrowser.pageLoadStrategy
+     * @return PageLoadStrategy
+     */
+    public PageLoadStrategy getPageLoadStrategy() {
+        String override = System.getProperty("browser.pageLoadStrategy");
+        if (override != null && !override.trim().isEmpty()) {
+            return PageLoadStrategy.valueOf(override.trim().toUpperCase(Locale.ROOT));
+        }
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Check whether the preset runs without a visible window
+     * @return true if headless
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Build the Chrome options for this preset
+     * @return ChromeOptions
+     */
+    public ChromeOptions toChromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(getPageLoadStrategy());
+
+        if (headless) {
+            options.addArguments("--headless=new");
+            options.addArguments("--disable-gpu");
+        }
+        if (this == DEBUG) {
+            options.addArguments("--auto-open-devtools-for-tabs");
+        }
+
+        // Same viewport in every preset (headless has no screen to maximize to); timings and screenshots stay comparable
+        options.addArguments("--window-size=1920,1080");
+        // /dev/shm is tiny in containers and on EC2; Chrome falls back to /tmp instead of crashing tabs
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        options.addArguments("--disable-extensions");
+        options.addArguments("--disable-plugins");
+        options.setExperimentalOption("useAutomationExtension", false);
+        options.setExperimentalOption("excludeSwitches", new String[] { "enable-automation" });
+        return options;
+    }
+
+    /**
+     * Get the URL patterns this preset blocks
+     * @return List of Network.setBlockedURLs patterns
+     */
+    public List<String> getBlockedUrlPatterns() {
+        List<String> patterns = new ArrayList<>();
+        if (blockImages) {
+            patterns.addAll(IMAGE_PATTERNS);
+        }
+        if (blockFonts) {
+            patterns.addAll(FONT_PATTERNS);
+        }
+        if (blockTrackers) {
+            patterns.addAll(TRACKER_PATTERNS);
+        }
+        return patterns;
+    }
+
+    /**
+     * Install the preset's URL blocking on a started Chromium session through CDP
+     * @param driver WebDriver instance
+     */
+    public void applyNetworkRules(WebDriver driver) {
+        List<String> patterns = getBlockedUrlPatterns();
+        if (patterns.isEmpty() || !(driver instanceof ChromiumDriver)) {
+            return;
+        }
+        ChromiumDriver chromium = (ChromiumDriver) driver;
+        chromium.executeCdpCommand("Network.enable", Collections.emptyMap());
+        chromium.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+    }
+}
@@ -0,0 +1,124 @@
+package driver;
+
+import logging.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Version-independent Chrome DevTools Protocol session shared by all features of one driver
+ *
+ * Features:
+ * - Raw CDP commands by method name (no dependency on a selenium-devtools-vNNN module)
+ * - Raw CDP events delivered as JSON maps
+ * - Events dispatched in arrival order on a dedicated thread, never on the websocket reader
+ *
+ * Usage Examples:
+ * 1. Command: CdpSession.of(driver).send("Network.enable", Map.of());
+ * 2. Event: CdpSession.of(driver).addListener("Network.loadingFinished", event -> ...);
+ * 3. Support check: if (CdpSession.isSupported(driver)) { ... }
+ * 4. Per-session state: CdpSession.of(driver).attachment(MyTracker.class, MyTracker::new);  (dropped on close)
+ */
+public class CdpSession {
+
+    private static final Logger LOG = Logger.get(CdpSession.class);
+    private static final Map<WebDriver, CdpSession> SESSIONS = new ConcurrentHashMap<>();
+
+    private final DevTools devTools;
+    private final ExecutorService dispatcher;
+    private final Map<Class<?>, Object> attachments = new ConcurrentHashMap<>();
+
+    private CdpSession(WebDriver driver) {
+        this.devTools = ((HasDevTools) driver).getDevTools();
+        this.devTools.createSessionIfThereIsNotOne();
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cdp-events-" + Integer.toHexString(System.identityHashCode(driver)));
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Check whether a driver can open a CDP session
+     * @param driver WebDriver instance
+     * @return true for Chromium-based drivers
+     */
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasDevTools;
+    }
+
+    /**
+     * Get (or open) the CDP session of a driver
+     * @param driver WebDriver instance
+     * @return CdpSession
+     */
+    public static CdpSession of(WebDriver driver) {
+        if (!isSupported(driver)) {
+            throw new UnsupportedOperationException("Chrome DevTools Protocol is not available for " + driver);
+        }
+        return SESSIONS.computeIfAbsent(driver, CdpSession::new);
+    }
+
+    /**
+     * Close the CDP session of a driver (call before quitting it)
+     * @param driver WebDriver instance
+     */
+    public static void close(WebDriver driver) {
+        CdpSession session = SESSIONS.remove(driver);
+        if (session != null) {
+            session.dispatcher.shutdownNow();
+            try {
+                session.devTools.clearListeners();
+                session.devTools.close();
+            } catch (Exception e) {
+                // The browser may already be gone
+            }
+        }
+    }
+
+    /**
+     * Send a CDP command and wait for its result
+     * @param method CDP method, e.g. "Fetch.enable"
+     * @param params Command parameters
+     * @return Result object as a map (empty for commands without a result)
+     */
+    public Map<String, Object> send(String method, Map<String, Object> params) {
+        Map<String, Object> result = devTools.send(new Command<Map<String, Object>>(method, params, Json.MAP_TYPE));
+        return result == null ? Map.of() : result;
+    }
+
+    /**
+     * Get (or create) per-session state of a feature; it lives as long as the session
+     * @param type Attachment type, used as key
+     * @param factory Creates the attachment on first use (called once per session)
+     * @return Attachment
+     */
+    public <T> T attachment(Class<T> type, Function<CdpSession, T> factory) {
+        return type.cast(attachments.computeIfAbsent(type, key -> factory.apply(this)));
+    }
+
+    /**
+     * Subscribe to a CDP event
+     * @param eventName CDP event, e.g. "Network.requestWillBeSent"
+     * @param handler Receives the event params; must not block for long
+     */
+    public void addListener(String eventName, Consumer<Map<String, Object>> handler) {
+        devTools.addListener(new Event<Map<String, Object>>(eventName, input -> input.read(Json.MAP_TYPE)),
+                params -> dispatcher.execute(() -> {
+                    try {
+                        handler.accept(params);
+                    } catch (Exception e) {
+                        LOG.warn("⚠️  CDP listener for " + eventName + " failed: " + e.getMessage());
+                    }
+                }));
+    }
+}
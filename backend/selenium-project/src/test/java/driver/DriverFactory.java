@@ -0,0 +1,65 @@
+package driver;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import network.NetworkActivity;
+import network.NetworkTraffic;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import perf.NavigationRecorder;
+import utils.SettleDetector;
+
+/**
+ * Creates new Chrome sessions for the {@link DriverPool}
+ *
+ * Features:
+ * - One-time WebDriverManager setup per JVM
+ * - Chrome options and URL blocking from a BrowserProfile preset
+ * - Network record/replay interception (-Dnetwork.mode)
+ * - Optional eager network-idle tracking (-Dnetwork.activity.eager)
+ * - Page-load metrics for every navigation (perf.NavigationRecorder, -Dperf.navigation.enabled)
+ * - Settle hooks injected at document start (utils.SettleDetector, -Dsettle.enabled)
+ *
+ * Usage Examples:
+ * 1. Raw session: WebDriver driver = DriverFactory.createChromeDriver();
+ * 2. Specific preset: WebDriver driver = DriverFactory.createChromeDriver(BrowserProfile.FAST_HEADLESS);
+ * 3. Pooled session (preferred): WebDriver driver = DriverPool.getInstance().lease();
+ */
+public class DriverFactory {
+
+    private static volatile boolean driverBinaryReady = false;
+
+    /**
+     * Resolve the chromedriver binary once per JVM instead of once per test class
+     */
+    private static synchronized void setupDriverBinary() {
+        if (!driverBinaryReady) {
+            WebDriverManager.chromedriver().setup();
+            driverBinaryReady = true;
+        }
+    }
+
+    /**
+     * Start a new Chrome session with the preset selected by -Dbrowser.profile
+     * @return WebDriver instance
+     */
+    public static WebDriver createChromeDriver() {
+        return createChromeDriver(BrowserProfile.active());
+    }
+
+    /**
+     * Start a new Chrome session with the given preset
+     * @param profile Browser preset
+     * @return WebDriver instance
+     */
+    public static WebDriver createChromeDriver(BrowserProfile profile) {
+        setupDriverBinary();
+        ChromeDriver chrome = new ChromeDriver(profile.toChromeOptions());
+        profile.applyNetworkRules(chrome);
+        // Everything below is keyed by the decorated driver the tests will hold
+        WebDriver driver = NavigationRecorder.instrument(chrome);
+        NetworkTraffic.install(driver);
+        NetworkActivity.installIfEager(driver);
+        SettleDetector.install(driver);
+        return driver;
+    }
+}
@@ -0,0 +1,435 @@
+package driver;
+
+import logging.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.DriverContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool of warm, reusable WebDriver sessions
+ *
+ * Features:
+ * - Keeps browser sessions alive between test classes/methods
+ * - Leases sessions with a bounded wait
+ * - Resets state between leases (cookies, extra tabs, and on Chromium the local/session storage,
+ *   IndexedDB and caches of every origin the session visited; the HTTP cache stays warm)
+ * - Recycles a session after a configurable number of uses
+ * - Lease-wait and reuse metrics
+ *
+ * Configuration (system properties):
+ * - pool.maxSize: maximum concurrent sessions (default 2)
+ * - pool.maxUses: leases before a session is recycled (default 20)
+ * - pool.warmup: sessions started in the background on first use (default 0)
+ * - pool.leaseTimeoutSeconds: maximum time to wait for a free session (default 300)
+ *
+ * Usage Examples:
+ * 1. Lease: WebDriver driver = DriverPool.getInstance().lease();
+ * 2. Return: DriverPool.getInstance().release(driver);
+ * 3. Drop a broken session: DriverPool.getInstance().invalidate(driver);
+ * 4. Metrics: DriverPool.getInstance().logMetrics();
+ */
+public class DriverPool {
+
+    private static final Logger LOG = Logger.get(DriverPool.class);
+    // Storage.clearDataForOrigin types; cookies are cleared for all domains at once, the HTTP cache is kept
+    private static final String ORIGIN_STORAGE_TYPES =
+            "local_storage,indexeddb,websql,cache_storage,service_workers,file_systems";
+    private static volatile DriverPool instance;
+
+    private final Supplier<WebDriver> factory;
+    private final int maxSize;
+    private final int maxUses;
+    private final long leaseTimeoutMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+    private volatile boolean shutdown = false;
+
+    // Metrics
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong reusedLeases = new AtomicLong();
+    private final AtomicLong sessionsCreated = new AtomicLong();
+    private final AtomicLong sessionsRecycled = new AtomicLong();
+    private final AtomicLong sessionsDiscarded = new AtomicLong();
+    private final AtomicLong totalLeaseWaitMillis = new AtomicLong();
+    private final AtomicLong maxLeaseWaitMillis = new AtomicLong();
+    private final AtomicLong totalCreateMillis = new AtomicLong();
+    private final AtomicBoolean metricsLogged = new AtomicBoolean();
+
+    /**
+     * Constructor
+     * @param factory Creates a new browser session
+     * @param maxSize Maximum concurrent sessions
+     * @param maxUses Leases before a session is recycled
+     * @param leaseTimeoutMillis Maximum time to wait for a free session
+     */
+    public DriverPool(Supplier<WebDriver> factory, int maxSize, int maxUses, long leaseTimeoutMillis) {
+        if (maxSize < 1 || maxUses < 1) {
+            throw new IllegalArgumentException("pool.maxSize and pool.maxUses must be at least 1");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxUses = maxUses;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Get the shared pool, configured from system properties
+     * @return DriverPool instance
+     */
+    public static DriverPool getInstance() {
+        if (instance == null) {
+            synchronized (DriverPool.class) {
+                if (instance == null) {
+                    DriverPool pool = new DriverPool(
+                            DriverFactory::createChromeDriver,
+                            Integer.getInteger("pool.maxSize", 2),
+                            Integer.getInteger("pool.maxUses", 20),
+                            TimeUnit.SECONDS.toMillis(Long.getLong("pool.leaseTimeoutSeconds", 300L)));
+                    pool.warmUp(Integer.getInteger("pool.warmup", 0));
+                    Runtime.getRuntime().addShutdownHook(new Thread(pool::shutdown, "driver-pool-shutdown"));
+                    instance = pool;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check whether the shared pool was ever created
+     * @return true if getInstance() has been called
+     */
+    public static boolean isInitialized() {
+        return instance != null;
+    }
+
+    /**
+     * Start sessions in the background so the first lease finds a warm browser
+     * @param count Number of sessions to start
+     */
+    public void warmUp(int count) {
+        int target = Math.min(count, maxSize);
+        for (int i = 0; i < target; i++) {
+            Thread warmer = new Thread(() -> {
+                if (!permits.tryAcquire()) {
+                    return;
+                }
+                try {
+                    idle.offerLast(createSession());
+                } catch (Exception e) {
+                    LOG.warn("⚠️  Driver warm-up failed: " + e.getMessage());
+                } finally {
+                    permits.release();
+                }
+            }, "driver-pool-warmup-" + i);
+            warmer.setDaemon(true);
+            warmer.start();
+        }
+    }
+
+    /**
+     * Lease a session, waiting for one to become free if the pool is exhausted
+     * @return WebDriver instance owned by the caller until release()
+     */
+    public WebDriver lease() {
+        if (shutdown) {
+            throw new IllegalStateException("Driver pool is shut down");
+        }
+
+        long waitStart = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(leaseTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("No WebDriver session became free within " + leaseTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a WebDriver session", e);
+        }
+        recordLeaseWait(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStart));
+
+        try {
+            PooledSession session = idle.pollFirst();
+            if (session != null) {
+                reusedLeases.incrementAndGet();
+            } else {
+                session = createSession();
+            }
+            session.uses++;
+            leases.incrementAndGet();
+            leased.put(session.driver, session);
+            return session.driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a leased session to the pool
+     * @param driver WebDriver obtained from lease()
+     */
+    public void release(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+        if (session == null) {
+            return;
+        }
+        DriverContext.remove(driver);
+        try {
+            if (shutdown) {
+                quietQuit(session);
+            } else if (session.uses >= maxUses) {
+                sessionsRecycled.incrementAndGet();
+                quietQuit(session);
+            } else if (idle.size() >= maxSize) {
+                // A warm-up session raced a lease; keep the pool at its configured size
+                quietQuit(session);
+            } else if (resetState(session.driver)) {
+                // LIFO keeps the most recently used (warmest) browser in rotation
+                idle.offerFirst(session);
+            } else {
+                sessionsDiscarded.incrementAndGet();
+                quietQuit(session);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Discard a leased session that is known to be broken
+     * @param driver WebDriver obtained from lease()
+     */
+    public void invalidate(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+        if (session == null) {
+            return;
+        }
+        DriverContext.remove(driver);
+        sessionsDiscarded.incrementAndGet();
+        quietQuit(session);
+        permits.release();
+    }
+
+    /**
+     * Quit every session and reject further leases
+     */
+    public void shutdown() {
+        if (shutdown) {
+            return;
+        }
+        shutdown = true;
+        List<PooledSession> all = new ArrayList<>(idle);
+        idle.clear();
+        all.addAll(leased.values());
+        leased.clear();
+        for (PooledSession session : all) {
+            quietQuit(session);
+        }
+        logMetrics();
+    }
+
+    /**
+     * Log the metrics summary once (suite end, or the shutdown hook if the suite did not)
+     */
+    public void logMetrics() {
+        if (leases.get() > 0 && metricsLogged.compareAndSet(false, true)) {
+            LOG.info("🏊 " + getMetricsSummary());
+        }
+    }
+
+    /**
+     * Clear cookies, storage and extra tabs so the next lessee starts clean
+     * @param driver WebDriver instance
+     * @return true if the session is healthy and can be reused
+     */
+    private boolean resetState(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            String keep = handles.get(0);
+            for (String handle : handles) {
+                if (!handle.equals(keep)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(keep);
+
+            // Storage is per origin, so clear it before leaving the current page
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            if (CdpSession.isSupported(driver)) {
+                // Every other origin the session navigated to, including iframes and click-through pages
+                CdpSession cdp = CdpSession.of(driver);
+                for (String origin : cdp.attachment(VisitedOrigins.class, VisitedOrigins::new).drain()) {
+                    cdp.send("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", ORIGIN_STORAGE_TYPES));
+                    clearSessionStorage(cdp, origin);
+                }
+            }
+
+            if (driver instanceof HasCdp) {
+                // Clears cookies for every domain, not just the current one; the HTTP cache stays warm
+                ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            LOG.warn("⚠️  Discarding pooled driver after failed reset: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Clear the session storage an origin left in the kept tab; the tab is reused, so the other
+     * origins' areas would otherwise survive. Failure leaves only this tab-scoped data behind
+     */
+    private static void clearSessionStorage(CdpSession cdp, String origin) {
+        try {
+            cdp.send("DOMStorage.clear", Map.of("storageId", Map.of("securityOrigin", origin, "isLocalStorage", false)));
+        } catch (Exception e) {
+            LOG.warn("⚠️  Could not clear session storage of " + origin + ": " + e.getMessage());
+        }
+    }
+
+    private PooledSession createSession() {
+        long start = System.nanoTime();
+        WebDriver driver = factory.get();
+        if (CdpSession.isSupported(driver)) {
+            CdpSession.of(driver).attachment(VisitedOrigins.class, VisitedOrigins::new);
+        }
+        totalCreateMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        sessionsCreated.incrementAndGet();
+        return new PooledSession(driver);
+    }
+
+    private void quietQuit(PooledSession session) {
+        try {
+            CdpSession.close(session.driver);
+            session.driver.quit();
+        } catch (Exception e) {
+            LOG.warn("⚠️  Failed to quit pooled driver: " + e.getMessage());
+        }
+    }
+
+    private void recordLeaseWait(long waitMillis) {
+        totalLeaseWaitMillis.addAndGet(waitMillis);
+        maxLeaseWaitMillis.accumulateAndGet(waitMillis, Math::max);
+    }
+
+    /**
+     * Get total number of leases
+     * @return Lease count
+     */
+    public long getLeaseCount() {
+        return leases.get();
+    }
+
+    /**
+     * Get number of leases served by an already running session
+     * @return Reused lease count
+     */
+    public long getReusedLeaseCount() {
+        return reusedLeases.get();
+    }
+
+    /**
+     * Get number of browser sessions started
+     * @return Created session count
+     */
+    public long getSessionsCreated() {
+        return sessionsCreated.get();
+    }
+
+    /**
+     * Get number of sessions currently leased out
+     * @return Active session count
+     */
+    public int getActiveCount() {
+        return leased.size();
+    }
+
+    /**
+     * Get average time callers waited for a free session
+     * @return Average lease wait in milliseconds
+     */
+    public double getAverageLeaseWaitMillis() {
+        long count = leases.get();
+        return count == 0 ? 0 : (double) totalLeaseWaitMillis.get() / count;
+    }
+
+    /**
+     * Get longest time a caller waited for a free session
+     * @return Max lease wait in milliseconds
+     */
+    public long getMaxLeaseWaitMillis() {
+        return maxLeaseWaitMillis.get();
+    }
+
+    /**
+     * Get a one-line summary of pool metrics
+     * @return Metrics summary
+     */
+    public String getMetricsSummary() {
+        long count = leases.get();
+        long created = sessionsCreated.get();
+        double reuseRate = count == 0 ? 0 : 100.0 * reusedLeases.get() / count;
+        return String.format("Driver pool: leases=%d reused=%d (%.0f%%) created=%d recycled=%d discarded=%d "
+                        + "leaseWait avg=%.0fms max=%dms sessionStart avg=%.0fms",
+                count, reusedLeases.get(), reuseRate, created, sessionsRecycled.get(), sessionsDiscarded.get(),
+                getAverageLeaseWaitMillis(), maxLeaseWaitMillis.get(),
+                created == 0 ? 0.0 : (double) totalCreateMillis.get() / created);
+    }
+
+    /**
+     * Web origins a session has navigated to since its last reset, from Page.frameNavigated
+     */
+    private static final class VisitedOrigins {
+        private final Set<String> origins = ConcurrentHashMap.newKeySet();
+
+        private VisitedOrigins(CdpSession cdp) {
+            cdp.addListener("Page.frameNavigated", event -> {
+                Object frame = event.get("frame");
+                Object origin = frame instanceof Map ? ((Map<?, ?>) frame).get("securityOrigin") : null;
+                if (origin instanceof String && ((String) origin).startsWith("http")) {
+                    origins.add((String) origin);
+                }
+            });
+            cdp.send("Page.enable", Map.of());
+            cdp.send("DOMStorage.enable", Map.of());
+        }
+
+        private List<String> drain() {
+            List<String> drained = new ArrayList<>(origins);
+            origins.removeAll(drained);
+            return drained;
+        }
+    }
+
+    /**
+     * Browser session plus its lease bookkeeping
+     */
+    private static class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package events;
+
+import logging.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ordered, batched, lossless delivery of test events to the backend
+ *
+ * Features:
+ * - Bounded queue: publishers block while it is full (backpressure) instead of dropping events
+ * - One sender thread posts batches in sequence order over a single keep-alive HTTP connection
+ * - Backend down (connection error, 5xx, 408, 429): batches go to a JSON-lines spool on disk and
+ *   are replayed, in order, once it is back
+ * - Batch rejected (any other 4xx, e.g. 413 or 400): retrying cannot help, so it is moved to
+ *   rejected.jsonl beside the spool with a warning and later events keep flowing
+ * - flush() at suite end and on JVM shutdown; events still undelivered at exit stay in the spool
+ * - Every event carries runId + seq, so the backend can drop duplicates of a retried batch
+ *
+ * Configuration (system properties):
+ * - events.enabled: set to false to drop events (default true)
+ * - events.url: batch endpoint (default http://localhost:5000/test-events)
+ * - events.queueSize: queue capacity (default 10000)
+ * - events.batchSize: events per POST (default 100)
+ * - events.lingerMillis: how long a partial batch waits for more events (default 200)
+ * - events.spoolDir: spool and rejected-batch directory (default test-output/event-spool)
+ * - events.retryMillis: delay between spool replays while the backend is down (default 5000)
+ *
+ * Usage Examples:
+ * 1. Publish: EventPipeline.getInstance().publish("test.start", Map.of("method", "testBusSearch"));
+ *    From framework code: EventPipeline.publishIfEnabled("screenshot.capture", data);
+ * 2. Suite end: EventPipeline.getInstance().flush(Duration.ofSeconds(5));
+ */
+public class EventPipeline {
+
+    private static final Logger LOG = Logger.get(EventPipeline.class);
+    private static final Json JSON = new Json();
+    private static final long OFFER_TIMEOUT_MILLIS = 1000;
+    private static final long SPOOL_MAX_BYTES = 50L * 1024 * 1024;
+
+    private static volatile EventPipeline instance;
+
+    private final URI endpoint;
+    private final Path spoolFile;
+    private final Path rejectedFile;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final long retryMillis = Long.getLong("events.retryMillis", 5000L);
+    private final BlockingQueue<Object> queue;
+    private final HttpClient client;
+    private final String runId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final Thread sender;
+    private volatile boolean running = true;
+    private long nextRetry;
+
+    /**
+     * Constructor
+     * @param endpoint Batch endpoint
+     * @param spoolDir Directory of the undelivered-events spool
+     * @param queueSize Queue capacity
+     * @param batchSize Maximum events per POST
+     * @param lingerMillis Time a partial batch waits for more events
+     */
+    public EventPipeline(URI endpoint, Path spoolDir, int queueSize, int batchSize, long lingerMillis) {
+        this.endpoint = endpoint;
+        this.spoolFile = spoolDir.resolve("events.jsonl");
+        this.rejectedFile = spoolDir.resolve("rejected.jsonl");
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        this.sender = new Thread(this::run, "event-pipeline-sender");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * Get the shared pipeline (created on first use, flushed on JVM shutdown)
+     * @return EventPipeline instance
+     */
+    public static EventPipeline getInstance() {
+        if (instance == null) {
+            synchronized (EventPipeline.class) {
+                if (instance == null) {
+                    EventPipeline pipeline = new EventPipeline(
+                            URI.create(System.getProperty("events.url", "http://localhost:5000/test-events")),
+                            Paths.get(System.getProperty("events.spoolDir", "test-output/event-spool")),
+                            Integer.getInteger("events.queueSize", 10000),
+                            Integer.getInteger("events.batchSize", 100),
+                            Long.getLong("events.lingerMillis", 200L));
+                    Runtime.getRuntime().addShutdownHook(new Thread(
+                            () -> pipeline.close(Duration.ofSeconds(5)), "event-pipeline-shutdown"));
+                    instance = pipeline;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check whether events are published (-Devents.enabled)
+     * @return true unless disabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("events.enabled", "true"));
+    }
+
+    /**
+     * Publish an event on the shared pipeline unless events are disabled
+     * @param type Event type, e.g. "screenshot.capture"
+     * @param data Event payload (JSON-serializable values)
+     */
+    public static void publishIfEnabled(String type, Map<String, ?> data) {
+        if (isEnabled()) {
+            getInstance().publish(type, data);
+        }
+    }
+
+    /**
+     * Publish an event; blocks while the queue is full
+     * @param type Event type, e.g. "test.failure"
+     * @param data Event payload (JSON-serializable values)
+     */
+    public void publish(String type, Map<String, ?> data) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("runId", runId);
+        event.put("timestamp", System.currentTimeMillis());
+        event.put("type", type);
+        event.put("thread", Thread.currentThread().getName());
+        event.put("data", data);
+        try {
+            // seq is assigned under the same lock as the enqueue, so seq order == delivery order
+            synchronized (queue) {
+                event.put("seq", sequence.incrementAndGet());
+                if (!queue.offer(event, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // Sender is behind (slow backend): keep blocking rather than drop or reorder
+                    LOG.warn("⚠️  Event queue full, publisher waiting for the sender");
+                    queue.put(event);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            List<Map<String, Object>> interrupted = new ArrayList<>();
+            interrupted.add(event);
+            spool(interrupted);
+        }
+    }
+
+    /**
+     * Wait until every event published so far has been delivered or spooled
+     * @param timeout Maximum wait
+     * @return true if the pipeline drained in time
+     */
+    public boolean flush(Duration timeout) {
+        CountDownLatch marker = new CountDownLatch(1);
+        try {
+            synchronized (queue) {
+                if (!queue.offer(marker, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    return false;
+                }
+            }
+            return marker.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Flush, stop the sender and spool whatever is left
+     * @param timeout Maximum flush wait
+     */
+    public void close(Duration timeout) {
+        flush(timeout);
+        running = false;
+        sender.interrupt();
+        try {
+            sender.join(timeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Map<String, Object>> leftover = new ArrayList<>();
+        drainEvents(leftover, Integer.MAX_VALUE);
+        spool(leftover);
+    }
+
+    public long getDelivered() {
+        return delivered.get();
+    }
+
+    public long getSpooled() {
+        return spooled.get();
+    }
+
+    /**
+     * Get number of events in batches the backend rejected (moved to rejected.jsonl)
+     * @return Rejected event count
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Get the pipeline counters as a one-line summary
+     * @return Summary string
+     */
+    public String getSummary() {
+        return "Event pipeline: published=" + sequence.get() + " delivered=" + delivered.get()
+                + " batches=" + batches.get() + " spooled=" + spooled.get() + " rejected=" + rejected.get();
+    }
+
+    private void run() {
+        List<Map<String, Object>> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(lingerMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpoolIfDue();
+                    continue;
+                }
+                CountDownLatch marker = accept(first, batch);
+                long lingerEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (marker == null && batch.size() < batchSize) {
+                    long left = lingerEnd - System.nanoTime();
+                    Object next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    marker = accept(next, batch);
+                }
+                deliver(batch);
+                batch.clear();
+                if (marker != null) {
+                    replaySpoolIfDue();
+                    marker.countDown();
+                }
+            } catch (InterruptedException e) {
+                if (!running) {
+                    spool(batch);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("⚠️  Event pipeline error: " + e.getMessage());
+                spool(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CountDownLatch accept(Object item, List<Map<String, Object>> batch) {
+        if (item instanceof CountDownLatch) {
+            return (CountDownLatch) item;
+        }
+        batch.add((Map<String, Object>) item);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainEvents(List<Map<String, Object>> target, int max) {
+        List<Object> items = new ArrayList<>();
+        queue.drainTo(items, max);
+        for (Object item : items) {
+            if (item instanceof CountDownLatch) {
+                ((CountDownLatch) item).countDown();
+            } else {
+                target.add((Map<String, Object>) item);
+            }
+        }
+    }
+
+    /**
+     * Send a batch; while older events are spooled, new ones queue up behind them in the spool
+     */
+    private void deliver(List<Map<String, Object>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (Files.exists(spoolFile)) {
+            replaySpoolIfDue();
+        }
+        if (Files.exists(spoolFile)) {
+            spool(batch);
+            return;
+        }
+        switch (post(batch)) {
+            case DELIVERED:
+                delivered.addAndGet(batch.size());
+                break;
+            case REJECTED:
+                reject(batch);
+                break;
+            default:
+                spool(batch);
+        }
+    }
+
+    private Outcome post(List<Map<String, Object>> batch) {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(Map.of("events", batch))))
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = response.statusCode();
+            if (status / 100 == 2) {
+                batches.incrementAndGet();
+                return Outcome.DELIVERED;
+            }
+            if (status / 100 == 4 && status != 408 && status != 429) {
+                LOG.warn("⚠️  Backend rejected a batch of " + batch.size() + " events (HTTP " + status + "): "
+                        + abbreviate(response.body()));
+                return Outcome.REJECTED;
+            }
+        } catch (IOException e) {
+            // Backend unreachable; the caller spools the batch
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        nextRetry = System.currentTimeMillis() + retryMillis;
+        return Outcome.RETRY;
+    }
+
+    /**
+     * Re-send spooled events in order; the spool is removed only when all of it was accepted
+     */
+    private synchronized void replaySpoolIfDue() {
+        if (!Files.exists(spoolFile) || System.currentTimeMillis() < nextRetry) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(spoolFile, StandardCharsets.UTF_8);
+            List<Map<String, Object>> chunk = new ArrayList<>(batchSize);
+            int sent = 0;
+            for (String line : lines) {
+                if (line.isBlank()) {
+                    sent++;
+                    continue;
+                }
+                chunk.add(JSON.toType(line, Json.MAP_TYPE));
+                if (chunk.size() == batchSize) {
+                    if (!replay(chunk)) {
+                        break;
+                    }
+                    sent += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (sent + chunk.size() == lines.size() && (chunk.isEmpty() || replay(chunk))) {
+                Files.delete(spoolFile);
+            } else if (sent > 0) {
+                // Keep only the part that was not accepted yet
+                Files.write(spoolFile, lines.subList(sent, lines.size()), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to replay event spool: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Post one spooled chunk
+     * @return true if the chunk is done with (delivered, or rejected and moved aside)
+     */
+    private boolean replay(List<Map<String, Object>> chunk) {
+        switch (post(chunk)) {
+            case DELIVERED:
+                delivered.addAndGet(chunk.size());
+                return true;
+            case REJECTED:
+                reject(chunk);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Move a batch the backend will never accept out of the delivery path
+     */
+    private synchronized void reject(List<Map<String, Object>> events) {
+        rejected.addAndGet(events.size());
+        try {
+            Files.createDirectories(rejectedFile.getParent());
+            appendLines(rejectedFile, events);
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to keep " + events.size() + " rejected events: " + e.getMessage());
+        }
+    }
+
+    private synchronized void spool(List<Map<String, Object>> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(spoolFile.getParent());
+            if (Files.exists(spoolFile) && Files.size(spoolFile) > SPOOL_MAX_BYTES) {
+                LOG.warn("⚠️  Event spool full, dropping " + events.size() + " events");
+                return;
+            }
+            appendLines(spoolFile, events);
+            spooled.addAndGet(events.size());
+            if (nextRetry == 0) {
+                nextRetry = System.currentTimeMillis() + retryMillis;
+            }
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to spool " + events.size() + " events: " + e.getMessage());
+        }
+    }
+
+    private static void appendLines(Path file, List<Map<String, Object>> events) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map<String, Object> event : events) {
+                // JsonOutput closes its target, so each line is rendered separately
+                writer.write(toJson(event));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static String abbreviate(String body) {
+        String text = body == null ? "" : body.replaceAll("\\s+", " ").trim();
+        return text.length() > 200 ? text.substring(0, 200) + "..." : text;
+    }
+
+    private static String toJson(Object value) {
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(json)) {
+            output.setPrettyPrint(false).write(value);
+        }
+        return json.toString();
+    }
+
+    private enum Outcome { DELIVERED, RETRY, REJECTED }
+}
@@ -0,0 +1,48 @@
+package listeners;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Performance budget of a test method (or of every test method in a class)
+ *
+ * Enforced by PerfBudgetListener. A limit of -1 means "not set here": it falls back to the class
+ * annotation, then to the suite XML parameter (perf.budget.NAME), and is otherwise unchecked.
+ *
+ * Usage Examples:
+ * 1. @PerfBudget(wallTimeMillis = 30000, commands = 60)
+ * 2. @PerfBudget(pageLoadMillis = 8000, lcpMillis = 4000, mode = PerfBudget.Mode.WARN)
+ * 3. Suite XML: <parameter name="perf.budget.transferBytes" value="5000000"/>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface PerfBudget {
+
+    /** Test method wall time in milliseconds */
+    long wallTimeMillis() default -1;
+
+    /** Slowest navigation load event (loadEventEnd) in milliseconds */
+    long pageLoadMillis() default -1;
+
+    /** Slowest navigation Largest Contentful Paint in milliseconds */
+    long lcpMillis() default -1;
+
+    /** Worst navigation Cumulative Layout Shift */
+    double cls() default -1;
+
+    /** WebDriver calls made by the test */
+    long commands() default -1;
+
+    /** Bytes transferred by all navigations of the test */
+    long transferBytes() default -1;
+
+    /** Fail the test or only warn; INHERIT falls back to the class annotation, then to perf.budget.mode */
+    Mode mode() default Mode.INHERIT;
+
+    /**
+     * What a violation does to the test
+     */
+    enum Mode { INHERIT, FAIL, WARN }
+}
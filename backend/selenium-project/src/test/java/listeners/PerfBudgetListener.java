@@ -0,0 +1,179 @@
+package listeners;
+
+import logging.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import perf.CommandCounter;
+import perf.NavigationMetrics;
+import perf.NavigationRecorder;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enforces @PerfBudget limits and suite XML budgets on every test method
+ *
+ * Features:
+ * - Wall time, slowest page load / LCP, worst CLS, WebDriver call count and transferred bytes
+ * - Budgets from the method annotation, the class annotation and suite XML parameters (in that order)
+ * - A passing test that breaks a budget is turned into a failure, or only warned about in warn mode
+ *   (@PerfBudget(mode = ...) overrides the suite mode; the default INHERIT keeps it)
+ * - The last navigation of a test is recorded even if it was still loading when the test ended
+ * - Violations are kept on the result (attribute "perf.budget.violations") and written to the TestNG report
+ *
+ * Configuration (suite XML parameters, suite or test level):
+ * - perf.budget.wallTimeMillis, perf.budget.pageLoadMillis, perf.budget.lcpMillis, perf.budget.cls,
+ *   perf.budget.commands, perf.budget.transferBytes
+ * - perf.budget.mode: "fail" (default) or "warn"
+ *
+ * Usage Examples:
+ * 1. Register: <listener class-name="listeners.PerfBudgetListener"/>
+ * 2. Annotate: @PerfBudget(wallTimeMillis = 30000, commands = 60)
+ */
+public class PerfBudgetListener implements IInvokedMethodListener {
+
+    /**
+     * ITestResult attribute holding the List of violation messages of a test
+     */
+    public static final String VIOLATIONS_ATTRIBUTE = "perf.budget.violations";
+
+    private static final Logger LOG = Logger.get(PerfBudgetListener.class);
+    private static final String START_ATTRIBUTE = "perf.budget.startNanos";
+    private static final String PARAMETER_PREFIX = "perf.budget.";
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod()) {
+            result.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod() || !(result.getAttribute(START_ATTRIBUTE) instanceof Long)) {
+            return;
+        }
+        long wallMillis = (System.nanoTime() - (Long) result.getAttribute(START_ATTRIBUTE)) / 1_000_000;
+        // Record a navigation the test left loading, outside its wall time
+        NavigationRecorder.completeTest(result);
+        Map<String, Double> limits = resolveLimits(result);
+        if (limits.isEmpty()) {
+            return;
+        }
+
+        Map<String, Double> actual = measure(result, wallMillis);
+        List<String> violations = new ArrayList<>();
+        limits.forEach((name, limit) -> {
+            Double value = actual.get(name);
+            if (value != null && value > limit) {
+                violations.add(name + " " + format(value) + " > budget " + format(limit));
+            }
+        });
+        if (violations.isEmpty()) {
+            return;
+        }
+
+        result.setAttribute(VIOLATIONS_ATTRIBUTE, violations);
+        String summary = "Performance budget exceeded in " + result.getMethod().getMethodName() + ": "
+                + String.join("; ", violations);
+        Reporter.log(summary);
+        if (isWarnOnly(result)) {
+            LOG.warn("⚠️  " + summary);
+        } else if (result.getStatus() == ITestResult.SUCCESS) {
+            LOG.error("💸 " + summary);
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError(summary));
+        }
+    }
+
+    /**
+     * Suite XML parameters first, then class annotation, then method annotation (most specific wins)
+     */
+    private Map<String, Double> resolveLimits(ITestResult result) {
+        Map<String, Double> limits = new LinkedHashMap<>();
+        Map<String, String> parameters = result.getTestContext().getCurrentXmlTest().getAllParameters();
+        for (String name : new String[] {"wallTimeMillis", "pageLoadMillis", "lcpMillis", "cls", "commands", "transferBytes"}) {
+            String value = parameters.get(PARAMETER_PREFIX + name);
+            if (value != null && !value.isBlank()) {
+                limits.put(name, Double.parseDouble(value.trim()));
+            }
+        }
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        apply(limits, method.getDeclaringClass().getAnnotation(PerfBudget.class));
+        apply(limits, method.getAnnotation(PerfBudget.class));
+        return limits;
+    }
+
+    private static void apply(Map<String, Double> limits, PerfBudget budget) {
+        if (budget == null) {
+            return;
+        }
+        put(limits, "wallTimeMillis", budget.wallTimeMillis());
+        put(limits, "pageLoadMillis", budget.pageLoadMillis());
+        put(limits, "lcpMillis", budget.lcpMillis());
+        put(limits, "cls", budget.cls());
+        put(limits, "commands", budget.commands());
+        put(limits, "transferBytes", budget.transferBytes());
+    }
+
+    private static void put(Map<String, Double> limits, String name, double value) {
+        if (value >= 0) {
+            limits.put(name, value);
+        }
+    }
+
+    /**
+     * Method mode, then class mode, then the suite's perf.budget.mode; INHERIT defers to the next level
+     */
+    private boolean isWarnOnly(ITestResult result) {
+        Method method = result.getMethod().getConstructorOrMethod().getMethod();
+        for (PerfBudget budget : new PerfBudget[] {
+                method.getAnnotation(PerfBudget.class), method.getDeclaringClass().getAnnotation(PerfBudget.class) }) {
+            if (budget != null && budget.mode() != PerfBudget.Mode.INHERIT) {
+                return budget.mode() == PerfBudget.Mode.WARN;
+            }
+        }
+        String mode = result.getTestContext().getCurrentXmlTest().getAllParameters().get(PARAMETER_PREFIX + "mode");
+        return "warn".equalsIgnoreCase(mode);
+    }
+
+    private static Map<String, Double> measure(ITestResult result, long wallMillis) {
+        Map<String, Double> actual = new LinkedHashMap<>();
+        actual.put("wallTimeMillis", (double) wallMillis);
+        actual.put("commands", (double) CommandCounter.getCount(result));
+
+        List<NavigationMetrics> navigations = NavigationRecorder.getNavigations(result);
+        if (!navigations.isEmpty()) {
+            double load = -1;
+            double lcp = -1;
+            double cls = -1;
+            double bytes = 0;
+            for (NavigationMetrics navigation : navigations) {
+                load = Math.max(load, navigation.getLoad());
+                lcp = Math.max(lcp, navigation.getLargestContentfulPaint());
+                cls = Math.max(cls, navigation.getCumulativeLayoutShift());
+                bytes += Math.max(0, navigation.getTransferBytes());
+            }
+            // -1 means the browser did not report the metric; such budgets are not checked
+            if (load >= 0) {
+                actual.put("pageLoadMillis", load);
+            }
+            if (lcp >= 0) {
+                actual.put("lcpMillis", lcp);
+            }
+            if (cls >= 0) {
+                actual.put("cls", cls);
+            }
+            actual.put("transferBytes", bytes);
+        }
+        return actual;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.4f", value);
+    }
+}
@@ -4,80 +4,199 @@ import org.testng.ITestListener;
 import org.testng.ITestResult;
 import org.testng.ISuite;
 import org.testng.ISuiteListener;
+import driver.DriverPool;
+import events.EventPipeline;
+import logging.AsyncLogWriter;
+import logging.Logger;
+import metrics.MetricsRegistry;
+import metrics.TestMetrics;
+import network.NetworkTraffic;
+import org.openqa.selenium.json.Json;
+import utils.ArtifactRetentionManager;
+import utils.ExcelResultWriter;
+import utils.FlightRecorder;
+import utils.ScreenshotPipeline;
+import utils.ScreenshotStore;
+import utils.WorkbookCache;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class TestListener implements ITestListener, ISuiteListener {
+    private static final Logger LOG = Logger.get(TestListener.class);
     private static final String BACKEND_URL = "http://localhost:5000";
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private static final Json JSON = new Json();
+    // The backend answers /stop-recording once the video file is written
+    private static final Duration NOTIFICATION_TIMEOUT = Duration.ofSeconds(15);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
 
     @Override
     public void onStart(ISuite suite) {
-        System.out.println("🎬 Test Suite Started: " + suite.getName());
-        System.out.println("⏰ Start Time: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        LOG.info("🎬 Test Suite Started: " + suite.getName());
+        LOG.info("⏰ Start Time: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
         
         // Notify backend that test suite is starting
         sendNotification("/start-recording", "Test suite started");
+        publish("suite.start", suiteData(suite));
+        TestMetrics.startServerIfConfigured();
+        if (ArtifactRetentionManager.isEnabled()) {
+            ArtifactRetentionManager.getDefault().start();
+        }
     }
 
     @Override
     public void onFinish(ISuite suite) {
-        System.out.println("🏁 Test Suite Finished: " + suite.getName());
-        System.out.println("⏰ End Time: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        LOG.info("🏁 Test Suite Finished: " + suite.getName());
+        LOG.info("⏰ End Time: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        if (DriverPool.isInitialized()) {
+            DriverPool.getInstance().logMetrics();
+        }
+        NetworkTraffic.flush();
+        if (!ScreenshotPipeline.getInstance().flush(Duration.ofSeconds(30))) {
+            LOG.warn("⚠️  Some screenshots were not written before the suite finished");
+        }
+        if (ScreenshotStore.isEnabled()) {
+            LOG.info("🗃️ " + ScreenshotStore.getDefault().getSummary());
+        }
+        WorkbookCache.Stats workbookStats = WorkbookCache.getInstance().getStats();
+        if (workbookStats.getMisses() > 0) {
+            LOG.info("📗 " + workbookStats);
+        }
+        ExcelResultWriter.closeAll();
+        try {
+            Path metricsFile = TestMetrics.dumpAndStop();
+            LOG.info("📈 Metrics written: " + metricsFile);
+            Map<String, Object> metrics = suiteData(suite);
+            metrics.put("file", metricsFile.toString());
+            metrics.put("openmetrics", MetricsRegistry.getInstance().scrape());
+            publish("metrics.snapshot", metrics);
+        } catch (RuntimeException e) {
+            LOG.warn("⚠️  " + e.getMessage());
+        }
+        publish("suite.finish", suiteData(suite));
+        if (EventPipeline.isEnabled()) {
+            EventPipeline events = EventPipeline.getInstance();
+            if (!events.flush(Duration.ofSeconds(10))) {
+                LOG.warn("⚠️  Event pipeline did not drain in time; remaining events stay spooled");
+            }
+            LOG.info("📨 " + events.getSummary());
+        }
         
-        // Notify backend that test suite is finished
+        // Notify backend that test suite is finished; sent synchronously so it is not lost at JVM exit
         sendNotification("/stop-recording", "Test suite finished");
+        if (ArtifactRetentionManager.isEnabled()) {
+            ArtifactRetentionManager.getDefault().stop(Duration.ofSeconds(30));
+        }
+        AsyncLogWriter.getInstance().flush(Duration.ofSeconds(5));
     }
 
     @Override
     public void onTestStart(ITestResult result) {
-        System.out.println("▶️  Test Started: " + result.getMethod().getMethodName());
-        System.out.println("📝 Description: " + result.getMethod().getDescription());
+        LOG.info(() -> "▶️  Test Started: " + result.getMethod().getMethodName());
+        LOG.info(() -> "📝 Description: " + result.getMethod().getDescription());
+        publish("test.start", testData(result));
+        if (FlightRecorder.isEnabled()) {
+            FlightRecorder.onTestStart();
+        }
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        System.out.println("✅ Test Passed: " + result.getMethod().getMethodName());
-        System.out.println("⏱️  Duration: " + (result.getEndMillis() - result.getStartMillis()) + "ms");
+        LOG.info(() -> "✅ Test Passed: " + result.getMethod().getMethodName());
+        LOG.info(() -> "⏱️  Duration: " + (result.getEndMillis() - result.getStartMillis()) + "ms");
+        publish("test.success", testData(result));
+        recordDuration(result, "passed");
+        if (FlightRecorder.isEnabled()) {
+            FlightRecorder.discardPassed();
+        }
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        System.out.println("❌ Test Failed: " + result.getMethod().getMethodName());
-        System.out.println("💥 Error: " + result.getThrowable().getMessage());
+        LOG.error("❌ Test Failed: " + result.getMethod().getMethodName());
+        LOG.error("💥 Error: " + result.getThrowable().getMessage());
+        publish("test.failure", testData(result));
+        recordDuration(result, "failed");
+        if (FlightRecorder.isEnabled()) {
+            FlightRecorder.dumpOnFailure(result);
+        }
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        System.out.println("⏭️  Test Skipped: " + result.getMethod().getMethodName());
-        System.out.println("🔍 Reason: " + result.getThrowable().getMessage());
+        LOG.info(() -> "⏭️  Test Skipped: " + result.getMethod().getMethodName());
+        LOG.info(() -> "🔍 Reason: " + result.getThrowable().getMessage());
+        publish("test.skip", testData(result));
+        if (result.wasRetried()) {
+            TestMetrics.RETRIES.labels("test").inc();
+            recordDuration(result, "retried");
+        } else {
+            recordDuration(result, "skipped");
+        }
+        if (FlightRecorder.isEnabled()) {
+            FlightRecorder.discardPassed();
+        }
+    }
+
+    private void recordDuration(ITestResult result, String status) {
+        if (result.getEndMillis() >= result.getStartMillis() && result.getStartMillis() > 0) {
+            TestMetrics.TEST_DURATION.labels(result.getTestClass().getName(), result.getMethod().getMethodName(), status)
+                    .observe((result.getEndMillis() - result.getStartMillis()) / 1000.0);
+        }
+    }
+
+    private void publish(String type, Map<String, Object> data) {
+        EventPipeline.publishIfEnabled(type, data);
+    }
+
+    private Map<String, Object> suiteData(ISuite suite) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("suite", suite.getName());
+        return data;
+    }
+
+    private Map<String, Object> testData(ITestResult result) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("class", result.getTestClass().getName());
+        data.put("method", result.getMethod().getMethodName());
+        data.put("description", result.getMethod().getDescription());
+        if (result.getEndMillis() > 0 && result.getStatus() != ITestResult.STARTED) {
+            data.put("durationMillis", result.getEndMillis() - result.getStartMillis());
+        }
+        if (result.getThrowable() != null) {
+            data.put("error", String.valueOf(result.getThrowable().getMessage()));
+        }
+        return data;
     }
 
     private void sendNotification(String endpoint, String message) {
         try {
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(BACKEND_URL + endpoint))
+                    .timeout(NOTIFICATION_TIMEOUT)
                     .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString("{\"message\":\"" + message + "\"}"))
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.toJson(Map.of("message", message))))
                     .build();
 
-            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenAccept(response -> {
-                        if (response.statusCode() == 200) {
-                            System.out.println("📡 Notification sent: " + message);
-                        }
-                    })
-                    .exceptionally(throwable -> {
-                        System.err.println("⚠️  Failed to send notification: " + throwable.getMessage());
-                        return null;
-                    });
-        } catch (Exception e) {
-            System.err.println("⚠️  Error sending notification: " + e.getMessage());
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                LOG.info("📡 Notification sent: " + message);
+            } else {
+                LOG.warn("⚠️  Notification " + endpoint + " answered HTTP " + response.statusCode());
+            }
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to send notification: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("⚠️  Interrupted while sending notification " + endpoint);
         }
     }
 }
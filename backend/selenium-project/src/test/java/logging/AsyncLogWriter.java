@@ -0,0 +1,299 @@
+package logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer behind Logger: a lock-free ring buffer drained by one daemon thread
+ *
+ * Features:
+ * - Producers claim a slot with one CAS and return; formatting and I/O happen on the writer thread
+ * - One writer means console lines from parallel tests never interleave mid-line
+ * - JSON-lines file (one object per record) plus human-readable console output
+ * - Full buffer: producers wait for the writer (default) or drop records and count them (log.overflow=drop)
+ *
+ * Configuration (system properties):
+ * - log.bufferSize: ring capacity, rounded up to a power of two (default 8192)
+ * - log.dir: directory of the JSON-lines file (default test-output/logs); empty disables the file
+ * - log.console: print records to stdout/stderr (default true)
+ * - log.overflow: block or drop when the ring is full (default block)
+ *
+ * Usage Examples:
+ * 1. Suite end: AsyncLogWriter.getInstance().flush(Duration.ofSeconds(5));
+ */
+public class AsyncLogWriter {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final AsyncLogWriter INSTANCE = new AsyncLogWriter(
+            Integer.getInteger("log.bufferSize", 8192),
+            runFile(System.getProperty("log.dir", "test-output/logs")),
+            Boolean.parseBoolean(System.getProperty("log.console", "true")),
+            "drop".equalsIgnoreCase(System.getProperty("log.overflow", "block")));
+
+    private final AtomicReferenceArray<LogRecord> slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final boolean dropOnOverflow;
+    private final boolean console;
+    private final PrintStream out = System.out;
+    private final PrintStream err = System.err;
+    private final Path file;
+    private final Thread writer;
+    private final Thread shutdownHook;
+    private final StringBuilder line = new StringBuilder(256);
+    private volatile long consumed;
+    private volatile boolean running = true;
+    private BufferedWriter fileWriter;
+    private boolean fileFailed;
+
+    /**
+     * Create a standalone writer (tests); the framework uses getInstance()
+     * @param bufferSize Ring capacity, rounded up to a power of two
+     * @param file JSON-lines file, or null for console only
+     * @param console Print records to stdout/stderr
+     * @param dropOnOverflow Drop records instead of waiting when the ring is full
+     */
+    public AsyncLogWriter(int bufferSize, Path file, boolean console, boolean dropOnOverflow) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.console = console;
+        this.dropOnOverflow = dropOnOverflow;
+        this.file = file;
+        this.writer = new Thread(this::run, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.shutdownHook = new Thread(() -> flush(Duration.ofSeconds(2)), "async-log-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private static Path runFile(String directory) {
+        return directory == null || directory.isBlank() ? null
+                : Paths.get(directory, "test-run_" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jsonl");
+    }
+
+    /**
+     * Get the JVM-wide writer
+     * @return AsyncLogWriter instance
+     */
+    public static AsyncLogWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Hand a record to the writer thread
+     * @param record Log record
+     */
+    void append(LogRecord record) {
+        long sequence;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length()) {
+                if (dropOnOverflow) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.unpark(writer);
+                Thread.onSpinWait();
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        // A non-null slot is the "published" signal the writer waits for
+        slots.set((int) (sequence & mask), record);
+    }
+
+    /**
+     * Wait until every record appended so far is written and flushed
+     * @param timeout Maximum wait
+     * @return true if everything was written in time
+     */
+    public boolean flush(Duration timeout) {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (written.get() < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of records dropped because the ring was full (log.overflow=drop)
+     * @return Dropped record count
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Get the JSON-lines file of this run
+     * @return File path, or null when the file output is disabled
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Write what is buffered, stop the writer thread and close the file (standalone writers)
+     * @param timeout Maximum flush wait
+     */
+    public void close(Duration timeout) {
+        try {
+            // Closed writers must not pin a hook (and the writer behind it) until JVM exit
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down: the hook is running or about to
+        }
+        flush(timeout);
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(timeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (fileWriter != null) {
+            try {
+                fileWriter.close();
+            } catch (IOException e) {
+                err.println("⚠️  Failed to close log file " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long next = consumed;
+            int drained = 0;
+            LogRecord record;
+            while ((record = slots.get((int) (next & mask))) != null) {
+                slots.set((int) (next & mask), null);
+                consumed = ++next;
+                try {
+                    write(record);
+                } catch (RuntimeException e) {
+                    // A bad record must not stop the writer (producers would wait on a full ring)
+                    err.println("⚠️  Failed to write log record: " + e);
+                }
+                drained++;
+            }
+            if (drained > 0) {
+                flushOutputs();
+                written.set(next);
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void write(LogRecord record) {
+        if (console) {
+            (record.level.compareTo(Level.WARN) >= 0 ? err : out).println(record.message);
+        }
+        if (file != null && !fileFailed) {
+            try {
+                if (fileWriter == null) {
+                    Files.createDirectories(file.getParent());
+                    fileWriter = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                }
+                line.setLength(0);
+                toJson(record, line);
+                fileWriter.append(line).append('\n');
+            } catch (IOException e) {
+                fileFailed = true;
+                err.println("⚠️  Log file disabled, cannot write " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void flushOutputs() {
+        if (console) {
+            out.flush();
+            err.flush();
+        }
+        if (fileWriter != null && !fileFailed) {
+            try {
+                fileWriter.flush();
+            } catch (IOException e) {
+                fileFailed = true;
+                err.println("⚠️  Log file disabled, cannot flush " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    static void toJson(LogRecord record, StringBuilder out) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(record.timestamp)).append('"');
+        field(out, "level", record.level.name());
+        field(out, "logger", record.logger);
+        field(out, "thread", record.thread);
+        field(out, "test", record.test);
+        field(out, "session", record.session);
+        field(out, "msg", record.message);
+        if (record.error != null) {
+            StringWriter trace = new StringWriter();
+            record.error.printStackTrace(new PrintWriter(trace));
+            field(out, "error", trace.toString());
+        }
+        out.append('}');
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,25 @@
+package logging;
+
+/**
+ * Log levels in increasing severity; OFF disables logging
+ */
+public enum Level {
+    DEBUG, INFO, WARN, ERROR, OFF;
+
+    /**
+     * Parse a level name, falling back to a default for unknown values
+     * @param name Level name (case-insensitive)
+     * @param fallback Level used when the name is null or unknown
+     * @return Level
+     */
+    public static Level parse(String name, Level fallback) {
+        if (name == null) {
+            return fallback;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+}
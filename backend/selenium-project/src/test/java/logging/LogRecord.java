@@ -0,0 +1,27 @@
+package logging;
+
+/**
+ * One log event as captured on the calling thread
+ */
+final class LogRecord {
+    final long timestamp;
+    final Level level;
+    final String logger;
+    final String thread;
+    final String test;
+    final String session;
+    final String message;
+    final Throwable error;
+
+    LogRecord(long timestamp, Level level, String logger, String thread, String test, String session,
+              String message, Throwable error) {
+        this.timestamp = timestamp;
+        this.level = level;
+        this.logger = logger;
+        this.thread = thread;
+        this.test = test;
+        this.session = session;
+        this.message = message;
+        this.error = error;
+    }
+}
@@ -0,0 +1,159 @@
+package logging;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import utils.DriverContext;
+import java.util.function.Supplier;
+
+/**
+ * Structured, asynchronous logger for the framework and the tests
+ *
+ * Features:
+ * - The calling thread only checks the level, captures context and enqueues (see AsyncLogWriter)
+ * - Each record carries thread, running TestNG method and WebDriver session of the thread's
+ *   DriverContext binding
+ * - Disabled levels cost one volatile read; Supplier overloads skip building the message too
+ *
+ * Configuration (system properties):
+ * - log.level: DEBUG, INFO, WARN, ERROR or OFF (default INFO)
+ *
+ * Usage Examples:
+ * 1. Declare: private static final Logger LOG = Logger.get(RedBusTest.class);
+ * 2. Log: LOG.info("🚌 Launching RedBus.in...");
+ * 3. Failure with stack trace (JSON file only): LOG.error("❌ Test failed: " + e.getMessage(), e);
+ * 4. Expensive or per-command message: LOG.debug(() -> "Listing: " + describe(rows));  (any level)
+ */
+public final class Logger {
+
+    private static volatile Level threshold = Level.parse(System.getProperty("log.level"), Level.INFO);
+
+    private final String name;
+    private final AsyncLogWriter writer;
+
+    private Logger(String name, AsyncLogWriter writer) {
+        this.name = name;
+        this.writer = writer;
+    }
+
+    /**
+     * Get a logger named after a class
+     * @param type Class
+     * @return Logger
+     */
+    public static Logger get(Class<?> type) {
+        return new Logger(type.getName(), AsyncLogWriter.getInstance());
+    }
+
+    /**
+     * Get a logger that writes to a specific writer (tests)
+     * @param type Class
+     * @param writer Writer
+     * @return Logger
+     */
+    public static Logger get(Class<?> type, AsyncLogWriter writer) {
+        return new Logger(type.getName(), writer);
+    }
+
+    /**
+     * Change the level at runtime
+     * @param level New minimum level
+     */
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level != Level.OFF && level.compareTo(threshold) >= 0;
+    }
+
+    public void debug(String message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public void debug(Supplier<String> message) {
+        log(Level.DEBUG, message, null);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void info(Supplier<String> message) {
+        log(Level.INFO, message, null);
+    }
+
+    public void warn(String message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void warn(Supplier<String> message) {
+        log(Level.WARN, message, null);
+    }
+
+    public void warn(String message, Throwable error) {
+        log(Level.WARN, message, error);
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    public void error(Supplier<String> message) {
+        log(Level.ERROR, message, null);
+    }
+
+    /**
+     * Log a message built only if the level is enabled
+     * @param level Level
+     * @param message Message supplier
+     * @param error Optional throwable (stack trace goes to the JSON file)
+     */
+    public void log(Level level, Supplier<String> message, Throwable error) {
+        if (isEnabled(level)) {
+            log(level, message.get(), error);
+        }
+    }
+
+    /**
+     * Log a message at a level
+     * @param level Level
+     * @param message Message
+     * @param error Optional throwable (stack trace goes to the JSON file)
+     */
+    public void log(Level level, String message, Throwable error) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        writer.append(new LogRecord(System.currentTimeMillis(), level, name,
+                Thread.currentThread().getName(), currentTest(), currentSession(), message, error));
+    }
+
+    private static String currentTest() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        return result == null ? null : result.getMethod().getQualifiedName();
+    }
+
+    private static String currentSession() {
+        WebDriver driver = DriverContext.currentDriver();
+        while (driver instanceof WrapsDriver && !(driver instanceof RemoteWebDriver)) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        if (driver instanceof RemoteWebDriver) {
+            SessionId session = ((RemoteWebDriver) driver).getSessionId();
+            return session == null ? null : session.toString();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package metrics;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import perf.TimedCommandListener;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feeds TestMetrics from a decorated driver: command latency, screenshots, stale elements, open sessions
+ *
+ * One instance per session: it counts as an active driver from creation until quit().
+ * Call timing comes from TimedCommandListener.
+ * Added to the decorator by NavigationRecorder.instrument (DriverFactory sessions).
+ */
+public class CommandMetrics extends TimedCommandListener {
+
+    private final AtomicBoolean open = new AtomicBoolean(true);
+
+    public CommandMetrics() {
+        TestMetrics.ACTIVE_DRIVERS.labels().inc();
+    }
+
+    @Override
+    protected void afterCommand(Object target, Method method, Object[] args, long durationNanos, Throwable error) {
+        if (durationNanos >= 0) {
+            TestMetrics.COMMAND_DURATION.labels(method.getName()).observe(durationNanos / 1e9);
+        }
+        if (error != null) {
+            if (error instanceof StaleElementReferenceException) {
+                TestMetrics.STALE_ELEMENTS.labels().inc();
+            }
+            return;
+        }
+        if ("getScreenshotAs".equals(method.getName())) {
+            TestMetrics.SCREENSHOTS.labels(target instanceof WebElement ? "element" : "page").inc();
+        }
+        if ("quit".equals(method.getName()) && target instanceof WebDriver && open.compareAndSet(true, false)) {
+            TestMetrics.ACTIVE_DRIVERS.labels().dec();
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-process metrics registry rendered in the OpenMetrics text format
+ *
+ * Features:
+ * - Counters, gauges and histograms with label sets; lock-free updates (LongAdder/DoubleAdder)
+ * - OpenMetrics text exposition for a scrape endpoint (startServer) or a file (dump)
+ * - Families are created once and looked up by name, so repeated registration is cheap and idempotent
+ *
+ * Usage Examples:
+ * 1. Counter: registry.counter("selenium_screenshots", "Screenshots taken").labels().inc();
+ * 2. Histogram: registry.histogram("selenium_wait_seconds", "Wait latency", "method").labels("waitForPageLoad").observe(0.42);
+ * 3. Timer: try (MetricsRegistry.Timer timer = histogram.labels("x").startTimer()) { ... }
+ * 4. Scrape: MetricsRegistry.getInstance().startServer(9464);  then GET http://localhost:9464/metrics
+ */
+public class MetricsRegistry {
+
+    /**
+     * Content type of the OpenMetrics text format
+     */
+    public static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /**
+     * Default histogram buckets in seconds (5 ms .. 2 min; UI test latencies)
+     */
+    public static final double[] DEFAULT_BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120};
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Family<?>> families = new ConcurrentSkipListMap<>();
+    private HttpServer server;
+
+    /**
+     * Create a standalone registry (tests); the framework metrics live in getInstance()
+     */
+    public MetricsRegistry() {
+    }
+
+    /**
+     * Get the JVM-wide registry
+     * @return MetricsRegistry instance
+     */
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get or create a counter family
+     * @param name Metric name without the _total suffix
+     * @param help Description
+     * @param labelNames Label names
+     * @return Counter family
+     */
+    public Family<Counter> counter(String name, String help, String... labelNames) {
+        return register(name, "counter", help, labelNames, Counter::new);
+    }
+
+    /**
+     * Get or create a gauge family
+     * @param name Metric name
+     * @param help Description
+     * @param labelNames Label names
+     * @return Gauge family
+     */
+    public Family<Gauge> gauge(String name, String help, String... labelNames) {
+        return register(name, "gauge", help, labelNames, Gauge::new);
+    }
+
+    /**
+     * Get or create a histogram family with DEFAULT_BUCKETS
+     * @param name Metric name (use a _seconds suffix for latencies)
+     * @param help Description
+     * @param labelNames Label names
+     * @return Histogram family
+     */
+    public Family<Histogram> histogram(String name, String help, String... labelNames) {
+        return register(name, "histogram", help, labelNames, () -> new Histogram(DEFAULT_BUCKETS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <M extends Metric> Family<M> register(String name, String type, String help, String[] labelNames,
+                                                  Supplier<M> factory) {
+        Family<?> family = families.computeIfAbsent(name, key -> new Family<>(key, type, help, labelNames, factory));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return (Family<M>) family;
+    }
+
+    /**
+     * Render every metric in the OpenMetrics text format
+     * @return Exposition text, terminated by "# EOF"
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (Family<?> family : families.values()) {
+            family.render(out);
+        }
+        return out.append("# EOF\n").toString();
+    }
+
+    /**
+     * Write the current metrics to a file (temp file + rename, so readers never see half a file)
+     * @param file Target file, e.g. test-output/metrics.prom
+     * @return Target file
+     */
+    public Path dump(Path file) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            Files.writeString(temp, scrape(), StandardCharsets.UTF_8);
+            return Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write metrics to " + file, e);
+        }
+    }
+
+    /**
+     * Serve GET /metrics on localhost (no-op if already started)
+     * @param port Port, 0 for an ephemeral one
+     * @return Bound port
+     */
+    public synchronized int startServer(int port) {
+        if (server == null) {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start metrics endpoint on port " + port, e);
+            }
+            server.createContext("/metrics", exchange -> {
+                byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            });
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-endpoint");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop the scrape endpoint (its dispatcher thread would otherwise keep the JVM alive)
+     */
+    public synchronized void stopServer() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    /**
+     * Metric name, help, label names and one child metric per label-value combination
+     */
+    public static final class Family<M extends Metric> {
+        private final String name;
+        private final String type;
+        private final String help;
+        private final String[] labelNames;
+        private final Supplier<M> factory;
+        private final Map<List<String>, M> children = new ConcurrentHashMap<>();
+
+        private Family(String name, String type, String help, String[] labelNames, Supplier<M> factory) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+            this.labelNames = labelNames.clone();
+            this.factory = factory;
+        }
+
+        /**
+         * Get the child metric for label values (in the order of the label names)
+         * @param values Label values
+         * @return Metric
+         */
+        public M labels(String... values) {
+            if (values.length != labelNames.length) {
+                throw new IllegalArgumentException(name + " expects labels " + Arrays.toString(labelNames));
+            }
+            List<String> key = Arrays.asList(values.clone());
+            M child = children.get(key);
+            return child != null ? child : children.computeIfAbsent(key, k -> factory.get());
+        }
+
+        private void render(StringBuilder out) {
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            out.append("# HELP ").append(name).append(' ').append(escape(help)).append('\n');
+            List<Map.Entry<List<String>, M>> sorted = new ArrayList<>(children.entrySet());
+            sorted.sort((a, b) -> String.join("\u0000", a.getKey()).compareTo(String.join("\u0000", b.getKey())));
+            for (Map.Entry<List<String>, M> child : sorted) {
+                child.getValue().render(name, labels(child.getKey()), out);
+            }
+        }
+
+        private String labels(List<String> values) {
+            StringBuilder labels = new StringBuilder();
+            for (int i = 0; i < labelNames.length; i++) {
+                labels.append(i == 0 ? "" : ",").append(labelNames[i]).append("=\"")
+                        .append(escape(String.valueOf(values.get(i)))).append('"');
+            }
+            return labels.toString();
+        }
+    }
+
+    /**
+     * One time series (or, for histograms, one group of series)
+     */
+    public abstract static class Metric {
+        abstract void render(String name, String labels, StringBuilder out);
+
+        static void sample(StringBuilder out, String name, String labels, String extraLabel, double value) {
+            out.append(name);
+            if (!labels.isEmpty() || extraLabel != null) {
+                out.append('{').append(labels);
+                if (extraLabel != null) {
+                    out.append(labels.isEmpty() ? "" : ",").append(extraLabel);
+                }
+                out.append('}');
+            }
+            out.append(' ').append(format(value)).append('\n');
+        }
+    }
+
+    /**
+     * Monotonic counter, rendered as name_total
+     */
+    public static final class Counter extends Metric {
+        private final DoubleAdder value = new DoubleAdder();
+
+        public void inc() {
+            value.add(1);
+        }
+
+        public void inc(double amount) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("Counters only go up: " + amount);
+            }
+            value.add(amount);
+        }
+
+        public double get() {
+            return value.sum();
+        }
+
+        @Override
+        void render(String name, String labels, StringBuilder out) {
+            sample(out, name + "_total", labels, null, value.sum());
+        }
+    }
+
+    /**
+     * Value that can go up and down
+     */
+    public static final class Gauge extends Metric {
+        private final AtomicLong bits = new AtomicLong(Double.doubleToLongBits(0));
+
+        public void inc() {
+            add(1);
+        }
+
+        public void dec() {
+            add(-1);
+        }
+
+        public void set(double value) {
+            bits.set(Double.doubleToLongBits(value));
+        }
+
+        public void add(double delta) {
+            bits.accumulateAndGet(0, (current, ignored) -> Double.doubleToLongBits(Double.longBitsToDouble(current) + delta));
+        }
+
+        public double get() {
+            return Double.longBitsToDouble(bits.get());
+        }
+
+        @Override
+        void render(String name, String labels, StringBuilder out) {
+            sample(out, name, labels, null, get());
+        }
+    }
+
+    /**
+     * Cumulative histogram with fixed upper bounds, plus _count and _sum
+     */
+    public static final class Histogram extends Metric {
+        private final double[] bounds;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final DoubleAdder sum = new DoubleAdder();
+
+        private Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.buckets = new LongAdder[bounds.length];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Record one observation
+         * @param value Observed value (seconds for latency histograms)
+         */
+        public void observe(double value) {
+            int index = Arrays.binarySearch(bounds, value);
+            // Buckets are "less than or equal", so an exact bound belongs to its own bucket
+            index = index >= 0 ? index : -index - 1;
+            if (index < buckets.length) {
+                buckets[index].increment();
+            }
+            count.increment();
+            sum.add(value);
+        }
+
+        /**
+         * Start timing; the elapsed seconds are observed when the timer is closed
+         * @return Timer
+         */
+        public Timer startTimer() {
+            return new Timer(this);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getSum() {
+            return sum.sum();
+        }
+
+        @Override
+        void render(String name, String labels, StringBuilder out) {
+            long cumulative = 0;
+            for (int i = 0; i < bounds.length; i++) {
+                cumulative += buckets[i].sum();
+                sample(out, name + "_bucket", labels, "le=\"" + format(bounds[i]) + "\"", cumulative);
+            }
+            // Read after the buckets; an observation in progress must not make +Inf smaller than a bucket
+            long total = Math.max(count.sum(), cumulative);
+            sample(out, name + "_bucket", labels, "le=\"+Inf\"", total);
+            sample(out, name + "_count", labels, null, total);
+            sample(out, name + "_sum", labels, null, sum.sum());
+        }
+    }
+
+    /**
+     * Observes elapsed seconds into a histogram on close
+     */
+    public static final class Timer implements AutoCloseable {
+        private final Histogram histogram;
+        private final long start = System.nanoTime();
+
+        private Timer(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void close() {
+            histogram.observe((System.nanoTime() - start) / 1e9);
+        }
+    }
+}
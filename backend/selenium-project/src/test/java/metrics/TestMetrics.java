@@ -0,0 +1,82 @@
+package metrics;
+
+import logging.Logger;
+import metrics.MetricsRegistry.Counter;
+import metrics.MetricsRegistry.Family;
+import metrics.MetricsRegistry.Gauge;
+import metrics.MetricsRegistry.Histogram;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The framework's execution metrics, registered in MetricsRegistry.getInstance()
+ *
+ * Metrics:
+ * - selenium_test_duration_seconds{class,method,status}: test method wall time (TestListener)
+ * - selenium_command_duration_seconds{command}: WebDriver call latency (CommandMetrics)
+ * - selenium_wait_duration_seconds{method}: WaitUtils wait latency
+ * - selenium_retries_total{reason}: retried tests and retried gestures
+ * - selenium_screenshots_total{kind}: page and element screenshots
+ * - selenium_stale_elements_total: StaleElementReferenceException seen by WebDriver calls
+ * - selenium_active_drivers: open browser sessions
+ *
+ * Configuration (system properties):
+ * - metrics.enabled: set to false to skip command instrumentation (default true)
+ * - metrics.port: serve GET /metrics on this localhost port while the suite runs (default: off)
+ * - metrics.file: OpenMetrics file written at suite end (default test-output/metrics.prom)
+ *
+ * Usage Examples:
+ * 1. Scrape during a run: mvn test -Dmetrics.port=9464  then curl localhost:9464/metrics
+ * 2. Custom timing: TestMetrics.WAIT_DURATION.labels("myWait").observe(elapsedSeconds);
+ */
+public final class TestMetrics {
+
+    private static final Logger LOG = Logger.get(TestMetrics.class);
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getInstance();
+
+    public static final Family<Histogram> TEST_DURATION = REGISTRY.histogram("selenium_test_duration_seconds",
+            "Test method wall time", "class", "method", "status");
+    public static final Family<Histogram> COMMAND_DURATION = REGISTRY.histogram("selenium_command_duration_seconds",
+            "WebDriver call latency by command", "command");
+    public static final Family<Histogram> WAIT_DURATION = REGISTRY.histogram("selenium_wait_duration_seconds",
+            "WaitUtils wait latency by method", "method");
+    public static final Family<Counter> RETRIES = REGISTRY.counter("selenium_retries",
+            "Retried tests and gestures", "reason");
+    public static final Family<Counter> SCREENSHOTS = REGISTRY.counter("selenium_screenshots",
+            "Screenshots taken", "kind");
+    public static final Family<Counter> STALE_ELEMENTS = REGISTRY.counter("selenium_stale_elements",
+            "StaleElementReferenceException raised by WebDriver calls");
+    public static final Family<Gauge> ACTIVE_DRIVERS = REGISTRY.gauge("selenium_active_drivers",
+            "Open browser sessions");
+
+    private TestMetrics() {
+    }
+
+    /**
+     * Check whether WebDriver commands are instrumented (-Dmetrics.enabled)
+     * @return true unless disabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("metrics.enabled", "true"));
+    }
+
+    /**
+     * Start the scrape endpoint if -Dmetrics.port is set
+     */
+    public static void startServerIfConfigured() {
+        Integer port = Integer.getInteger("metrics.port");
+        if (port != null) {
+            int bound = REGISTRY.startServer(port);
+            LOG.info("📈 Metrics endpoint: http://localhost:" + bound + "/metrics");
+        }
+    }
+
+    /**
+     * Write the OpenMetrics file and stop the scrape endpoint
+     * @return Written file
+     */
+    public static Path dumpAndStop() {
+        REGISTRY.stopServer();
+        return REGISTRY.dump(Paths.get(System.getProperty("metrics.file", "test-output/metrics.prom")));
+    }
+}
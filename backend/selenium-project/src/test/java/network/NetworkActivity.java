@@ -0,0 +1,295 @@
+package network;
+
+import driver.CdpSession;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * In-flight request tracker fed by CDP Network events - the basis of network-idle waits
+ *
+ * Features:
+ * - Counts requests from Network.requestWillBeSent until loadingFinished/loadingFailed
+ * - Waiters block on a Condition that every event signals; nothing polls the browser
+ * - URL filters so analytics beacons and long-polling do not keep a page "busy"
+ * - A tracker created by the first wait (the default) cannot see requests started before it,
+ *   so its creation counts as activity: the first wait always sits out the full quiet window
+ *
+ * Configuration (system properties):
+ * - network.idle.exclude: comma-separated URL substrings ignored by the default filter
+ *   (default: common analytics/ads/beacon hosts)
+ * - network.activity.eager: start tracking when the session is created instead of on
+ *   the first wait (default false); eager tracking also sees requests started earlier
+ *
+ * Usage Examples:
+ * 1. Default filter: NetworkActivity.of(driver).awaitIdle(0, 500, UrlFilter.defaults(), Duration.ofSeconds(30));
+ * 2. Only API calls: UrlFilter.include("/api/").exclude("/api/heartbeat")
+ */
+public class NetworkActivity {
+
+    private static final int RECENT_LIMIT = 512;
+    private static final List<String> DEFAULT_EXCLUDES = splitList(System.getProperty("network.idle.exclude",
+            "google-analytics.com,googletagmanager.com,doubleclick.net,facebook.com/tr,hotjar,"
+                    + "clarity.ms,newrelic,nr-data.net,sentry.io,/beacon,/collect?"));
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Map<String, Request> inflight = new HashMap<>();
+    private final Deque<Request> recent = new ArrayDeque<>();
+    private final long createdNanos = System.nanoTime();
+
+    /**
+     * Create a tracker fed through requestStarted/requestFinished (tests); the framework uses of()
+     */
+    public NetworkActivity() {
+    }
+
+    private NetworkActivity(CdpSession cdp) {
+        cdp.addListener("Network.requestWillBeSent", event -> requestStarted(
+                (String) event.get("requestId"), requestUrl(event)));
+        cdp.addListener("Network.loadingFinished", event -> requestFinished((String) event.get("requestId")));
+        cdp.addListener("Network.loadingFailed", event -> requestFinished((String) event.get("requestId")));
+        cdp.send("Network.enable", Map.of());
+    }
+
+    /**
+     * Get (or start) the tracker of a driver
+     * @param driver Chromium-based WebDriver
+     * @return NetworkActivity
+     */
+    public static NetworkActivity of(WebDriver driver) {
+        return CdpSession.of(driver).attachment(NetworkActivity.class, NetworkActivity::new);
+    }
+
+    /**
+     * Start tracking at session creation when -Dnetwork.activity.eager=true
+     * @param driver WebDriver instance
+     */
+    public static void installIfEager(WebDriver driver) {
+        if (Boolean.getBoolean("network.activity.eager") && CdpSession.isSupported(driver)) {
+            of(driver);
+        }
+    }
+
+    /**
+     * Get number of in-flight requests accepted by a filter
+     * @param filter URL filter
+     * @return In-flight request count
+     */
+    public int inflight(Predicate<String> filter) {
+        lock.lock();
+        try {
+            return (int) inflight.values().stream().filter(r -> filter.test(r.url)).count();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until at most maxInflight matching requests are in flight and no matching
+     * request started or finished for quietMillis
+     * @param maxInflight Tolerated in-flight requests (0 = fully idle, 2 = "almost idle")
+     * @param quietMillis Required quiet window in milliseconds
+     * @param filter URL filter; requests it rejects are ignored
+     * @param timeout Timeout
+     * @throws TimeoutException with the pending URLs if the network does not go idle in time
+     */
+    public void awaitIdle(int maxInflight, long quietMillis, Predicate<String> filter, Duration timeout) {
+        long now = System.nanoTime();
+        long deadline = now + timeout.toNanos();
+        long quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        lock.lock();
+        try {
+            while (true) {
+                now = System.nanoTime();
+                int pending = 0;
+                long lastActivity = createdNanos;
+                for (Request request : inflight.values()) {
+                    if (filter.test(request.url)) {
+                        pending++;
+                        lastActivity = Math.max(lastActivity, request.startNanos);
+                    }
+                }
+                for (Request request : recent) {
+                    if (filter.test(request.url)) {
+                        lastActivity = Math.max(lastActivity, request.endNanos);
+                    }
+                }
+
+                long quietLeft = quietNanos - (now - lastActivity);
+                if (pending <= maxInflight && quietLeft <= 0) {
+                    return;
+                }
+                long timeLeft = deadline - now;
+                if (timeLeft <= 0) {
+                    throw new TimeoutException("Network not idle after " + timeout.toMillis() + " ms: "
+                            + pending + " request(s) in flight " + pendingUrls(filter));
+                }
+                // Busy: sleep until the next event. Idle but not quiet yet: sleep out the rest
+                // of the window, or less if an event arrives first
+                long sleep = pending > maxInflight ? timeLeft : Math.min(timeLeft, quietLeft);
+                changed.awaitNanos(sleep);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Network idle wait interrupted", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a request start (Network.requestWillBeSent)
+     * @param requestId CDP request id; a redirect hop reuses it
+     * @param url Request URL
+     */
+    public void requestStarted(String requestId, String url) {
+        lock.lock();
+        try {
+            // Redirects reuse the requestId; the hop replaces the previous entry
+            inflight.put(requestId, new Request(url, System.nanoTime()));
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record a request end (Network.loadingFinished / loadingFailed)
+     * @param requestId CDP request id
+     */
+    public void requestFinished(String requestId) {
+        lock.lock();
+        try {
+            Request request = inflight.remove(requestId);
+            if (request != null) {
+                request.endNanos = System.nanoTime();
+                recent.addLast(request);
+                if (recent.size() > RECENT_LIMIT) {
+                    recent.removeFirst();
+                }
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<String> pendingUrls(Predicate<String> filter) {
+        return inflight.values().stream().map(r -> r.url).filter(filter).limit(5).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String requestUrl(Map<String, Object> event) {
+        Object request = event.get("request");
+        return request instanceof Map ? String.valueOf(((Map<String, Object>) request).get("url")) : "";
+    }
+
+    private static List<String> splitList(String value) {
+        if (value == null || value.isBlank()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
+    }
+
+    private static final class Request {
+        private final String url;
+        private final long startNanos;
+        private long endNanos;
+
+        private Request(String url, long startNanos) {
+            this.url = url;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * URL include/exclude filter (substring matches); an empty include list accepts every URL
+     */
+    public static final class UrlFilter implements Predicate<String> {
+        private final List<String> includes = new ArrayList<>();
+        private final List<String> excludes = new ArrayList<>();
+
+        private UrlFilter() {
+        }
+
+        /**
+         * Accept every URL
+         * @return UrlFilter
+         */
+        public static UrlFilter all() {
+            return new UrlFilter();
+        }
+
+        /**
+         * Accept every URL except the -Dnetwork.idle.exclude list (analytics, ads, beacons)
+         * @return UrlFilter
+         */
+        public static UrlFilter defaults() {
+            return new UrlFilter().exclude(DEFAULT_EXCLUDES.toArray(new String[0]));
+        }
+
+        /**
+         * Accept only URLs containing one of the fragments
+         * @param fragments URL substrings
+         * @return UrlFilter
+         */
+        public static UrlFilter include(String... fragments) {
+            return new UrlFilter().andInclude(fragments);
+        }
+
+        public UrlFilter andInclude(String... fragments) {
+            includes.addAll(Arrays.asList(fragments));
+            return this;
+        }
+
+        /**
+         * Reject URLs containing one of the fragments
+         * @param fragments URL substrings
+         * @return UrlFilter
+         */
+        public UrlFilter exclude(String... fragments) {
+            excludes.addAll(Arrays.asList(fragments));
+            return this;
+        }
+
+        @Override
+        public boolean test(String url) {
+            if (url == null || url.startsWith("data:")) {
+                return false;
+            }
+            for (String fragment : excludes) {
+                if (url.contains(fragment)) {
+                    return false;
+                }
+            }
+            if (includes.isEmpty()) {
+                return true;
+            }
+            for (String fragment : includes) {
+                if (url.contains(fragment)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "UrlFilter{include=" + includes + ", exclude=" + excludes + "}";
+        }
+    }
+}
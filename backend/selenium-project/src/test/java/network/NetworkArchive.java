@@ -0,0 +1,259 @@
+package network;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk archive of captured HTTP responses
+ *
+ * Layout:
+ * - index.json: one entry per response (method, url, status, headers, body file)
+ * - bodies/: response bodies, named by SHA-1 so identical payloads are stored once
+ *
+ * Lookup uses "METHOD url". Query parameters listed in -Dnetwork.replay.ignoreParams
+ * (cache busters such as _, t, ts, cb) are dropped from the key; if that still misses,
+ * the URL without any query string is tried.
+ *
+ * Usage Examples:
+ * 1. Record: archive.add("GET", url, 200, headers, body); archive.save();
+ * 2. Replay: NetworkArchive.Entry entry = NetworkArchive.load(dir).find("GET", url);
+ */
+public class NetworkArchive {
+
+    private static final Json JSON = new Json();
+    private static final Type INDEX_TYPE = new TypeToken<List<Map<String, Object>>>() {}.getType();
+    private static final Set<String> IGNORED_PARAMS = new HashSet<>(Arrays.asList(
+            System.getProperty("network.replay.ignoreParams", "_,t,ts,cb,rnd,timestamp,cachebuster").split(",")));
+
+    private final Path directory;
+    private final Map<String, List<Entry>> entries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> replayCursor = new ConcurrentHashMap<>();
+    private final List<Entry> recordOrder = new ArrayList<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructor
+     * @param directory Archive directory
+     */
+    public NetworkArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Load an archive written by save()
+     * @param directory Archive directory
+     * @return NetworkArchive
+     */
+    public static NetworkArchive load(Path directory) {
+        NetworkArchive archive = new NetworkArchive(directory);
+        Path index = directory.resolve("index.json");
+        if (!Files.exists(index)) {
+            throw new RuntimeException("No network archive at " + directory.toAbsolutePath()
+                    + " - run once with -Dnetwork.mode=record");
+        }
+        try {
+            List<Map<String, Object>> raw = JSON.toType(Files.readString(index, StandardCharsets.UTF_8), INDEX_TYPE);
+            for (Map<String, Object> item : raw) {
+                byte[] body = Files.readAllBytes(directory.resolve("bodies").resolve((String) item.get("body")));
+                @SuppressWarnings("unchecked")
+                Map<String, String> headers = (Map<String, String>) item.get("headers");
+                archive.index(new Entry((String) item.get("method"), (String) item.get("url"),
+                        ((Number) item.get("status")).intValue(), headers, body));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load network archive: " + directory, e);
+        }
+        return archive;
+    }
+
+    /**
+     * Add a captured response
+     * @param method HTTP method
+     * @param url Request URL
+     * @param status Response status code
+     * @param headers Response headers
+     * @param body Decoded response body
+     */
+    public void add(String method, String url, int status, Map<String, String> headers, byte[] body) {
+        Entry entry = new Entry(method, url, status, headers, body);
+        index(entry);
+        synchronized (recordOrder) {
+            recordOrder.add(entry);
+        }
+    }
+
+    private void index(Entry entry) {
+        String exact = key(entry.method, entry.url, true);
+        String withoutQuery = key(entry.method, entry.url, false);
+        entries.computeIfAbsent(exact, k -> new CopyOnWriteArrayList<>()).add(entry);
+        if (!withoutQuery.equals(exact)) {
+            entries.computeIfAbsent(withoutQuery, k -> new CopyOnWriteArrayList<>()).add(entry);
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * Find the response for a request. Repeated requests get the recorded responses in order;
+     * once exhausted, the last one is served again.
+     * @param method HTTP method
+     * @param url Request URL
+     * @return Entry or null on a miss
+     */
+    public Entry find(String method, String url) {
+        String exact = key(method, url, true);
+        List<Entry> candidates = entries.get(exact);
+        if (candidates == null) {
+            exact = key(method, url, false);
+            candidates = entries.get(exact);
+        }
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        int position = replayCursor.computeIfAbsent(exact, k -> new AtomicInteger()).getAndIncrement();
+        return candidates.get(Math.min(position, candidates.size() - 1));
+    }
+
+    /**
+     * Get number of stored responses
+     * @return Response count
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Write the archive to disk, replacing index.json atomically
+     */
+    public void save() {
+        List<Entry> snapshot;
+        synchronized (recordOrder) {
+            snapshot = new ArrayList<>(recordOrder);
+        }
+        try {
+            Path bodies = Files.createDirectories(directory.resolve("bodies"));
+            List<Map<String, Object>> index = new ArrayList<>();
+            for (Entry entry : snapshot) {
+                String bodyName = sha1(entry.body) + ".bin";
+                Path bodyFile = bodies.resolve(bodyName);
+                if (!Files.exists(bodyFile)) {
+                    Files.write(bodyFile, entry.body);
+                }
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("method", entry.method);
+                item.put("url", entry.url);
+                item.put("status", entry.status);
+                item.put("headers", entry.headers);
+                item.put("body", bodyName);
+                index.add(item);
+            }
+            Path temp = directory.resolve("index.json.tmp");
+            Files.writeString(temp, JSON.toJson(index), StandardCharsets.UTF_8);
+            Files.move(temp, directory.resolve("index.json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to save network archive: " + directory, e);
+        }
+    }
+
+    /**
+     * Get the archive directory
+     * @return Directory path
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static String key(String method, String url, boolean keepQuery) {
+        String normalized = url;
+        int fragment = normalized.indexOf('#');
+        if (fragment >= 0) {
+            normalized = normalized.substring(0, fragment);
+        }
+        int queryStart = normalized.indexOf('?');
+        if (queryStart >= 0) {
+            String base = normalized.substring(0, queryStart);
+            if (!keepQuery) {
+                normalized = base;
+            } else {
+                StringBuilder query = new StringBuilder();
+                for (String pair : normalized.substring(queryStart + 1).split("&")) {
+                    String name = pair.contains("=") ? pair.substring(0, pair.indexOf('=')) : pair;
+                    if (!IGNORED_PARAMS.contains(name)) {
+                        query.append(query.length() == 0 ? "?" : "&").append(pair);
+                    }
+                }
+                normalized = base + query;
+            }
+        }
+        return method.toUpperCase() + " " + normalized;
+    }
+
+    private static String sha1(byte[] data) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-1").digest(data)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * One captured response
+     */
+    public static class Entry {
+        private final String method;
+        private final String url;
+        private final int status;
+        private final Map<String, String> headers;
+        private final byte[] body;
+
+        Entry(String method, String url, int status, Map<String, String> headers, byte[] body) {
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package network;
+
+import logging.Logger;
+import driver.CdpSession;
+import org.openqa.selenium.WebDriver;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Record/replay of browser network traffic through the CDP Fetch domain
+ *
+ * Modes (-Dnetwork.mode):
+ * - live (default): no interception
+ * - record: every response the browser receives is captured into the archive
+ * - replay: requests are answered from the archive; nothing reaches the network
+ *
+ * Configuration (system properties):
+ * - network.archive: archive directory (default network-archives/default)
+ * - network.replay.latencyMillis: delay added to every replayed response (default 0)
+ * - network.replay.jitterMillis: random extra delay up to this value (default 0)
+ * - network.replay.onMiss: "fail" to fail unknown requests like an offline machine (default), "live" to fetch them
+ *
+ * Usage Examples:
+ * 1. Record: mvn test -Dtestng.suite=testng-all.xml -Dnetwork.mode=record
+ * 2. Replay: mvn test -Dtestng.suite=testng-all.xml -Dnetwork.mode=replay -Dnetwork.replay.latencyMillis=20
+ * 3. Per driver: NetworkTraffic.install(driver);  (DriverFactory does this for every new session)
+ * 4. Persist: NetworkTraffic.flush();  (called by TestListener at suite end)
+ */
+public class NetworkTraffic {
+
+    private static final Logger LOG = Logger.get(NetworkTraffic.class);
+    /**
+     * Interception mode
+     */
+    public enum Mode {
+        LIVE, RECORD, REPLAY;
+
+        public static Mode active() {
+            return valueOf(System.getProperty("network.mode", "live").trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final Mode MODE = Mode.active();
+    private static final Path ARCHIVE_DIR = Paths.get(System.getProperty("network.archive", "network-archives/default"));
+    private static final long LATENCY_MILLIS = Long.getLong("network.replay.latencyMillis", 0L);
+    private static final long JITTER_MILLIS = Long.getLong("network.replay.jitterMillis", 0L);
+    private static final boolean LIVE_ON_MISS = "live".equalsIgnoreCase(System.getProperty("network.replay.onMiss", "fail"));
+
+    private static volatile NetworkArchive archive;
+
+    private static final AtomicLong replayHits = new AtomicLong();
+    private static final AtomicLong replayMisses = new AtomicLong();
+
+    // Fetch commands block until the browser answers, so they never run on the CDP event thread
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(daemon("network-traffic"));
+    private static final ScheduledExecutorService DELAYS = Executors.newSingleThreadScheduledExecutor(daemon("network-latency"));
+
+    static {
+        if (MODE == Mode.RECORD) {
+            Runtime.getRuntime().addShutdownHook(new Thread(NetworkTraffic::flush, "network-archive-save"));
+        }
+    }
+
+    /**
+     * Get the active mode
+     * @return Mode
+     */
+    public static Mode getMode() {
+        return MODE;
+    }
+
+    /**
+     * Install record or replay interception on a new session (no-op in live mode)
+     * @param driver WebDriver instance
+     */
+    public static void install(WebDriver driver) {
+        if (MODE == Mode.LIVE) {
+            return;
+        }
+        if (!CdpSession.isSupported(driver)) {
+            throw new UnsupportedOperationException("network.mode=" + MODE + " needs a Chromium-based browser");
+        }
+        NetworkArchive target = archive();
+        CdpSession cdp = CdpSession.of(driver);
+        String stage = MODE == Mode.RECORD ? "Response" : "Request";
+        cdp.addListener("Fetch.requestPaused", event -> WORKERS.execute(() -> {
+            if (MODE == Mode.RECORD) {
+                record(cdp, event);
+            } else {
+                replay(cdp, event);
+            }
+        }));
+        Map<String, Object> pattern = new LinkedHashMap<>();
+        pattern.put("urlPattern", "*");
+        pattern.put("requestStage", stage);
+        cdp.send("Fetch.enable", Map.of("patterns", List.of(pattern)));
+        LOG.info("🌐 Network " + MODE.name().toLowerCase(Locale.ROOT) + " mode: "
+                + target.getDirectory().toAbsolutePath() + " (" + target.size() + " responses)");
+    }
+
+    /**
+     * Save the recorded archive (record mode only)
+     */
+    public static synchronized void flush() {
+        if (MODE == Mode.RECORD && archive != null) {
+            archive.save();
+            LOG.info("💾 Network archive saved: " + archive.size() + " responses -> " + ARCHIVE_DIR.toAbsolutePath());
+        } else if (MODE == Mode.REPLAY && archive != null) {
+            LOG.info("📼 Network replay: hits=" + replayHits.get() + " misses=" + replayMisses.get());
+        }
+    }
+
+    private static NetworkArchive archive() {
+        if (archive == null) {
+            synchronized (NetworkTraffic.class) {
+                if (archive == null) {
+                    archive = MODE == Mode.REPLAY ? NetworkArchive.load(ARCHIVE_DIR) : new NetworkArchive(ARCHIVE_DIR);
+                }
+            }
+        }
+        return archive;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void record(CdpSession cdp, Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        try {
+            Map<String, Object> request = (Map<String, Object>) event.get("request");
+            Number status = (Number) event.get("responseStatusCode");
+            if (status == null || event.get("responseErrorReason") != null) {
+                return;
+            }
+            byte[] body = new byte[0];
+            // Redirects have no body, and asking for one fails
+            if (status.intValue() < 300 || status.intValue() >= 400) {
+                Map<String, Object> result = cdp.send("Fetch.getResponseBody", Map.of("requestId", requestId));
+                String encoded = (String) result.getOrDefault("body", "");
+                body = Boolean.TRUE.equals(result.get("base64Encoded"))
+                        ? Base64.getDecoder().decode(encoded)
+                        : encoded.getBytes(StandardCharsets.UTF_8);
+            }
+            archive().add((String) request.get("method"), (String) request.get("url"), status.intValue(),
+                    headersToMap((List<Map<String, Object>>) event.get("responseHeaders")), body);
+        } catch (Exception e) {
+            LOG.warn("⚠️  Failed to record response: " + e.getMessage());
+        } finally {
+            continueRequest(cdp, requestId);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void replay(CdpSession cdp, Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        Map<String, Object> request = (Map<String, Object>) event.get("request");
+        NetworkArchive.Entry entry = archive().find((String) request.get("method"), (String) request.get("url"));
+
+        if (entry == null) {
+            replayMisses.incrementAndGet();
+            if (LIVE_ON_MISS) {
+                continueRequest(cdp, requestId);
+            } else {
+                send(cdp, "Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "InternetDisconnected"));
+            }
+            return;
+        }
+
+        replayHits.incrementAndGet();
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("requestId", requestId);
+        params.put("responseCode", entry.getStatus());
+        params.put("responseHeaders", headersToList(entry.getHeaders()));
+        params.put("body", Base64.getEncoder().encodeToString(entry.getBody()));
+
+        long delay = LATENCY_MILLIS + (JITTER_MILLIS > 0 ? ThreadLocalRandom.current().nextLong(JITTER_MILLIS + 1) : 0);
+        if (delay > 0) {
+            DELAYS.schedule(() -> WORKERS.execute(() -> send(cdp, "Fetch.fulfillRequest", params)),
+                    delay, TimeUnit.MILLISECONDS);
+        } else {
+            send(cdp, "Fetch.fulfillRequest", params);
+        }
+    }
+
+    private static void continueRequest(CdpSession cdp, String requestId) {
+        send(cdp, "Fetch.continueRequest", Map.of("requestId", requestId));
+    }
+
+    private static void send(CdpSession cdp, String method, Map<String, Object> params) {
+        try {
+            cdp.send(method, params);
+        } catch (Exception e) {
+            // The page may have navigated away and cancelled the request
+        }
+    }
+
+    /**
+     * Keep headers that still describe the decoded body we store
+     */
+    private static Map<String, String> headersToMap(List<Map<String, Object>> headers) {
+        Map<String, String> map = new LinkedHashMap<>();
+        if (headers != null) {
+            for (Map<String, Object> header : headers) {
+                String name = (String) header.get("name");
+                String lower = name.toLowerCase(Locale.ROOT);
+                if (!lower.equals("content-encoding") && !lower.equals("content-length")
+                        && !lower.equals("transfer-encoding")) {
+                    map.merge(name, (String) header.get("value"), (a, b) -> a + "\n" + b);
+                }
+            }
+        }
+        return map;
+    }
+
+    private static List<Map<String, Object>> headersToList(Map<String, String> headers) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        headers.forEach((name, value) -> {
+            for (String single : value.split("\n")) {
+                list.add(Map.of("name", name, "value", single));
+            }
+        });
+        return list;
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
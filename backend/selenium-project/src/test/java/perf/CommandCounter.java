@@ -0,0 +1,70 @@
+package perf;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts WebDriver calls made by each test (driver, element, navigation, alert and window calls)
+ *
+ * The count is kept on the running TestNG result (attribute "perf.commands"). Accessors that only
+ * return a local helper object (manage(), navigate(), switchTo(), ...) are not counted.
+ * Scripts run by the perf instrumentation itself use the undecorated driver and are not counted either.
+ *
+ * Usage Examples:
+ * 1. Read: long commands = CommandCounter.getCount(result);
+ */
+public class CommandCounter implements WebDriverListener {
+
+    /**
+     * ITestResult attribute holding the AtomicLong call count of a test
+     */
+    public static final String RESULT_ATTRIBUTE = "perf.commands";
+
+    private static final Set<String> LOCAL_CALLS = Set.of("manage", "navigate", "switchTo", "timeouts", "window",
+            "logs", "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals");
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isLocalCall(method.getName())) {
+            return;
+        }
+        ITestResult result = Reporter.getCurrentTestResult();
+        if (result != null) {
+            counter(result).incrementAndGet();
+        }
+    }
+
+    /**
+     * Check whether a decorated method only returns a local helper object (no browser round trip)
+     * @param methodName Method name, e.g. "manage"
+     * @return true for local accessors
+     */
+    public static boolean isLocalCall(String methodName) {
+        return LOCAL_CALLS.contains(methodName);
+    }
+
+    /**
+     * Get the number of WebDriver calls a test made
+     * @param result TestNG result
+     * @return Call count (0 if none were recorded)
+     */
+    public static long getCount(ITestResult result) {
+        Object value = result == null ? null : result.getAttribute(RESULT_ATTRIBUTE);
+        return value instanceof AtomicLong ? ((AtomicLong) value).get() : 0;
+    }
+
+    private static AtomicLong counter(ITestResult result) {
+        synchronized (result) {
+            Object value = result.getAttribute(RESULT_ATTRIBUTE);
+            if (!(value instanceof AtomicLong)) {
+                value = new AtomicLong();
+                result.setAttribute(RESULT_ATTRIBUTE, value);
+            }
+            return (AtomicLong) value;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package perf;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Performance numbers of one document navigation
+ *
+ * Timings are milliseconds relative to navigation start; -1 means the browser did not report the value
+ * (e.g. LCP/CLS without a Chromium DevTools session). Bytes cover the document plus all resources.
+ */
+public class NavigationMetrics {
+
+    /**
+     * CSV column order, shared by toCsvRow()
+     */
+    public static final String CSV_HEADER = "timestamp,test,trigger,url,navigationType,ttfb,domContentLoaded,load,"
+            + "firstPaint,firstContentfulPaint,largestContentfulPaint,cumulativeLayoutShift,resourceCount,"
+            + "transferBytes,decodedBytes";
+
+    private final long timestamp;
+    private final String test;
+    private final String trigger;
+    private final String url;
+    private final String navigationType;
+    private final double ttfb;
+    private final double domContentLoaded;
+    private final double load;
+    private final double firstPaint;
+    private final double firstContentfulPaint;
+    private final double largestContentfulPaint;
+    private final double cumulativeLayoutShift;
+    private final long resourceCount;
+    private final long transferBytes;
+    private final long decodedBytes;
+
+    NavigationMetrics(long timestamp, String test, String trigger, Map<?, ?> raw) {
+        this.timestamp = timestamp;
+        this.test = test;
+        this.trigger = trigger;
+        this.url = String.valueOf(raw.get("url"));
+        this.navigationType = String.valueOf(raw.get("type"));
+        this.ttfb = number(raw, "ttfb");
+        this.domContentLoaded = number(raw, "domContentLoaded");
+        this.load = number(raw, "load");
+        this.firstPaint = number(raw, "firstPaint");
+        this.firstContentfulPaint = number(raw, "firstContentfulPaint");
+        this.largestContentfulPaint = number(raw, "largestContentfulPaint");
+        this.cumulativeLayoutShift = number(raw, "cumulativeLayoutShift");
+        this.resourceCount = (long) number(raw, "resourceCount");
+        this.transferBytes = (long) number(raw, "transferBytes");
+        this.decodedBytes = (long) number(raw, "decodedBytes");
+    }
+
+    private static double number(Map<?, ?> raw, String key) {
+        Object value = raw.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getTest() {
+        return test;
+    }
+
+    public String getTrigger() {
+        return trigger;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getNavigationType() {
+        return navigationType;
+    }
+
+    public double getTtfb() {
+        return ttfb;
+    }
+
+    public double getDomContentLoaded() {
+        return domContentLoaded;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    public double getFirstPaint() {
+        return firstPaint;
+    }
+
+    public double getFirstContentfulPaint() {
+        return firstContentfulPaint;
+    }
+
+    public double getLargestContentfulPaint() {
+        return largestContentfulPaint;
+    }
+
+    public double getCumulativeLayoutShift() {
+        return cumulativeLayoutShift;
+    }
+
+    public long getResourceCount() {
+        return resourceCount;
+    }
+
+    public long getTransferBytes() {
+        return transferBytes;
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes;
+    }
+
+    /**
+     * Get the metrics as an ordered map (JSON export)
+     * @return Field name to value
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("timestamp", timestamp);
+        map.put("test", test);
+        map.put("trigger", trigger);
+        map.put("url", url);
+        map.put("navigationType", navigationType);
+        map.put("ttfb", round(ttfb));
+        map.put("domContentLoaded", round(domContentLoaded));
+        map.put("load", round(load));
+        map.put("firstPaint", round(firstPaint));
+        map.put("firstContentfulPaint", round(firstContentfulPaint));
+        map.put("largestContentfulPaint", round(largestContentfulPaint));
+        map.put("cumulativeLayoutShift", cumulativeLayoutShift < 0 ? -1 : Math.round(cumulativeLayoutShift * 10000) / 10000.0);
+        map.put("resourceCount", resourceCount);
+        map.put("transferBytes", transferBytes);
+        map.put("decodedBytes", decodedBytes);
+        return map;
+    }
+
+    /**
+     * Get the metrics as a CSV row in CSV_HEADER order
+     * @return CSV row without line break
+     */
+    public String toCsvRow() {
+        StringBuilder row = new StringBuilder();
+        for (Object value : toMap().values()) {
+            if (row.length() > 0) {
+                row.append(',');
+            }
+            String text = String.valueOf(value);
+            row.append(text.contains(",") || text.contains("\"") ? "\"" + text.replace("\"", "\"\"") + "\"" : text);
+        }
+        return row.toString();
+    }
+
+    @Override
+    public String toString() {
+        return url + " ttfb=" + round(ttfb) + "ms dcl=" + round(domContentLoaded) + "ms load=" + round(load)
+                + "ms fcp=" + round(firstContentfulPaint) + "ms lcp=" + round(largestContentfulPaint)
+                + "ms cls=" + toMap().get("cumulativeLayoutShift") + " resources=" + resourceCount
+                + " bytes=" + transferBytes;
+    }
+
+    private static long round(double millis) {
+        return millis < 0 ? -1 : Math.round(millis);
+    }
+}
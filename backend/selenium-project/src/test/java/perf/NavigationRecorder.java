@@ -0,0 +1,312 @@
+package perf;
+
+import logging.Logger;
+import metrics.CommandMetrics;
+import metrics.TestMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import utils.FlightRecorder;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Captures page-load performance for every navigation of a driver
+ *
+ * Features:
+ * - Navigation Timing (TTFB, DOMContentLoaded, load), first paint / first contentful paint
+ * - Largest Contentful Paint and Cumulative Layout Shift (observers injected via CDP on every new document)
+ * - Resource count and transferred/decoded bytes
+ * - Triggered by get/navigate/back/forward/refresh. Clicks and submits run no script; they only
+ *   mark that a new document may be loading, which is recorded before the next navigation or at
+ *   test end (a document replaced by a second click-triggered navigation is not recorded)
+ * - A document still loading when its hook fires (eager page-load strategy) is recorded before the
+ *   next navigation, or at test end after waiting for its load event (completeTest, called by
+ *   PerfBudgetListener) so the last navigation of a test is never dropped
+ * - Attached to the running TestNG result (attribute "perf.navigations") and appended to PerfReport
+ * - The decorated driver also counts WebDriver calls per test (CommandCounter) and feeds
+ *   TestMetrics (CommandMetrics, unless -Dmetrics.enabled=false)
+ * - With -Dflight.enabled=true the session also gets a FlightRecorder (frames and commands dumped on failure)
+ *
+ * Same-document (pushState) route changes are not navigations to the browser and are not captured.
+ *
+ * Configuration (system properties):
+ * - perf.navigation.enabled: set to false to skip navigation capture and call counting (default true)
+ * - perf.navigation.settleMillis: longest wait at test end for a loading document (default 10000)
+ *
+ * Usage Examples:
+ * 1. Instrument a new session: WebDriver driver = NavigationRecorder.instrument(new ChromeDriver());  (DriverFactory does this)
+ * 2. Read in a test: List<NavigationMetrics> navs = NavigationRecorder.getNavigations(Reporter.getCurrentTestResult());
+ * 3. Test end (listeners): NavigationRecorder.completeTest(result);
+ */
+public class NavigationRecorder implements WebDriverListener {
+
+    private static final Logger LOG = Logger.get(NavigationRecorder.class);
+    /**
+     * ITestResult attribute holding the List of NavigationMetrics of a test
+     */
+    public static final String RESULT_ATTRIBUTE = "perf.navigations";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("perf.navigation.enabled", "true"));
+    private static final long SETTLE_MILLIS = Long.getLong("perf.navigation.settleMillis", 10000L);
+    // Recorder whose hooks last ran on this thread (the driver of the running test)
+    private static final ThreadLocal<NavigationRecorder> CURRENT = new ThreadLocal<>();
+
+    private static final String VITALS_SCRIPT =
+            "(function () {"
+            + "  var v = window.__perfVitals = { lcp: null, cls: 0 };"
+            + "  try { performance.setResourceTimingBufferSize(2000); } catch (e) {}"
+            + "  try {"
+            + "    new PerformanceObserver(function (list) {"
+            + "      var entries = list.getEntries();"
+            + "      if (entries.length) { v.lcp = entries[entries.length - 1].startTime; }"
+            + "    }).observe({ type: 'largest-contentful-paint', buffered: true });"
+            + "    new PerformanceObserver(function (list) {"
+            + "      list.getEntries().forEach(function (e) { if (!e.hadRecentInput) { v.cls += e.value; } });"
+            + "    }).observe({ type: 'layout-shift', buffered: true });"
+            + "  } catch (e) {}"
+            + "})();";
+
+    private static final String COLLECT_SCRIPT =
+            "if (performance.timeOrigin === arguments[0]) { return { same: true }; }"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "if (!nav || !/^https?:/.test(location.href)) { return { skip: true }; }"
+            + "if (document.readyState !== 'complete' || !nav.loadEventEnd) { return { origin: performance.timeOrigin, pending: true }; }"
+            + "var paints = {};"
+            + "performance.getEntriesByType('paint').forEach(function (p) { paints[p.name] = p.startTime; });"
+            + "var resources = performance.getEntriesByType('resource');"
+            + "var transfer = nav.transferSize || 0, decoded = nav.decodedBodySize || 0;"
+            + "resources.forEach(function (r) { transfer += r.transferSize || 0; decoded += r.decodedBodySize || 0; });"
+            + "var v = window.__perfVitals;"
+            + "return { origin: performance.timeOrigin, url: location.href, type: nav.type,"
+            + "  ttfb: nav.responseStart, domContentLoaded: nav.domContentLoadedEventEnd, load: nav.loadEventEnd,"
+            + "  firstPaint: paints['first-paint'], firstContentfulPaint: paints['first-contentful-paint'],"
+            + "  largestContentfulPaint: v ? v.lcp : null, cumulativeLayoutShift: v ? v.cls : null,"
+            + "  resourceCount: resources.length, transferBytes: transfer, decodedBytes: decoded };";
+
+    // Resolves once the load event (and so loadEventEnd) is done, or after arguments[0] ms
+    private static final String LOADED_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "if (document.readyState === 'complete') { done(); return; }"
+            + "window.addEventListener('load', function () { setTimeout(done, 0); });"
+            + "setTimeout(done, arguments[0]);";
+
+    private final WebDriver driver;
+    private Object lastOrigin;
+    // Trigger of a document that may not be recorded yet (still loading, or loaded by a click); null if none
+    private String unrecorded;
+
+    private NavigationRecorder(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Wrap a new session so its navigations and WebDriver calls are measured
+     * @param driver Undecorated WebDriver (scripts run on it directly, without re-triggering listeners)
+     * @return Decorated driver, or the same driver when navigation capture and metrics are both disabled
+     */
+    public static WebDriver instrument(WebDriver driver) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (ENABLED) {
+            if (driver instanceof HasCdp) {
+                try {
+                    ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", VITALS_SCRIPT));
+                } catch (Exception e) {
+                    LOG.warn("⚠️  LCP/CLS observers unavailable: " + e.getMessage());
+                }
+            }
+            listeners.add(new NavigationRecorder(driver));
+            listeners.add(new CommandCounter());
+        }
+        if (TestMetrics.isEnabled()) {
+            listeners.add(new CommandMetrics());
+        }
+        FlightRecorder flightRecorder = FlightRecorder.isEnabled() ? new FlightRecorder(driver) : null;
+        if (flightRecorder != null) {
+            listeners.add(flightRecorder);
+        }
+        if (listeners.isEmpty()) {
+            return driver;
+        }
+        WebDriver decorated = new EventFiringDecorator<WebDriver>(listeners.toArray(new WebDriverListener[0])).decorate(driver);
+        if (flightRecorder != null) {
+            flightRecorder.register(decorated);
+        }
+        return decorated;
+    }
+
+    /**
+     * Get the navigations recorded while a test ran
+     * @param result TestNG result
+     * @return Navigation metrics in order (empty if none)
+     */
+    @SuppressWarnings("unchecked")
+    public static List<NavigationMetrics> getNavigations(ITestResult result) {
+        Object value = result == null ? null : result.getAttribute(RESULT_ATTRIBUTE);
+        return value instanceof List ? (List<NavigationMetrics>) value : new ArrayList<>();
+    }
+
+    /**
+     * Record the document a test left loading (eager page-load strategy, click-triggered
+     * navigation) before its budgets are checked; waits up to perf.navigation.settleMillis for the load event
+     * @param result TestNG result the navigation belongs to
+     */
+    public static void completeTest(ITestResult result) {
+        NavigationRecorder recorder = CURRENT.get();
+        CURRENT.remove();
+        if (recorder != null) {
+            recorder.complete(result);
+        }
+    }
+
+    @Override
+    public void beforeGet(WebDriver driver, String url) {
+        beforeNavigation();
+    }
+
+    @Override
+    public void beforeTo(WebDriver.Navigation navigation, String url) {
+        beforeNavigation();
+    }
+
+    @Override
+    public void beforeTo(WebDriver.Navigation navigation, URL url) {
+        beforeNavigation();
+    }
+
+    @Override
+    public void beforeBack(WebDriver.Navigation navigation) {
+        beforeNavigation();
+    }
+
+    @Override
+    public void beforeForward(WebDriver.Navigation navigation) {
+        beforeNavigation();
+    }
+
+    @Override
+    public void beforeRefresh(WebDriver.Navigation navigation) {
+        beforeNavigation();
+    }
+
+    @Override
+    public void afterGet(WebDriver driver, String url) {
+        capture("get");
+    }
+
+    @Override
+    public void afterTo(WebDriver.Navigation navigation, String url) {
+        capture("navigate");
+    }
+
+    @Override
+    public void afterTo(WebDriver.Navigation navigation, URL url) {
+        capture("navigate");
+    }
+
+    @Override
+    public void afterBack(WebDriver.Navigation navigation) {
+        capture("back");
+    }
+
+    @Override
+    public void afterForward(WebDriver.Navigation navigation) {
+        capture("forward");
+    }
+
+    @Override
+    public void afterRefresh(WebDriver.Navigation navigation) {
+        capture("refresh");
+    }
+
+    @Override
+    public void afterClick(WebElement element) {
+        mayHaveNavigated("click");
+    }
+
+    @Override
+    public void afterSubmit(WebElement element) {
+        mayHaveNavigated("submit");
+    }
+
+    private synchronized void mayHaveNavigated(String trigger) {
+        CURRENT.set(this);
+        if (unrecorded == null) {
+            unrecorded = trigger;
+        }
+    }
+
+    /**
+     * The current document is about to be replaced: record it if that has not happened yet
+     */
+    private synchronized void beforeNavigation() {
+        CURRENT.set(this);
+        if (unrecorded != null && !capture(unrecorded, Reporter.getCurrentTestResult())) {
+            LOG.debug(() -> "Navigation (" + unrecorded + ") left before it finished loading; not recorded");
+        }
+        unrecorded = null;
+    }
+
+    private synchronized void capture(String trigger) {
+        CURRENT.set(this);
+        unrecorded = capture(trigger, Reporter.getCurrentTestResult()) ? null : trigger;
+    }
+
+    private synchronized void complete(ITestResult result) {
+        if (unrecorded == null) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(LOADED_SCRIPT, SETTLE_MILLIS);
+        } catch (Exception e) {
+            // Closed window or mid-navigation: try the capture anyway
+        }
+        if (!capture(unrecorded, result)) {
+            LOG.warn("⚠️  Last navigation (" + unrecorded + ") of " + result.getMethod().getMethodName()
+                    + " did not finish loading within " + SETTLE_MILLIS + " ms; not recorded");
+        }
+        unrecorded = null;
+    }
+
+    /**
+     * Record the current document if it has loaded
+     * @return false if it is still loading (true when recorded, already recorded, or not measurable)
+     */
+    private boolean capture(String trigger, ITestResult testResult) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT, lastOrigin);
+            if (!(result instanceof Map)) {
+                return true;
+            }
+            Map<?, ?> raw = (Map<?, ?>) result;
+            if (raw.containsKey("pending")) {
+                return false;
+            }
+            if (raw.containsKey("same") || raw.containsKey("skip")) {
+                return true;
+            }
+            lastOrigin = raw.get("origin");
+
+            String test = testResult == null ? "(no test)"
+                    : testResult.getTestClass().getRealClass().getSimpleName() + "." + testResult.getMethod().getMethodName();
+            NavigationMetrics metrics = new NavigationMetrics(System.currentTimeMillis(), test, trigger, raw);
+            if (testResult != null) {
+                List<NavigationMetrics> navigations = getNavigations(testResult);
+                navigations.add(metrics);
+                testResult.setAttribute(RESULT_ATTRIBUTE, navigations);
+            }
+            PerfReport.getInstance().append(metrics);
+            LOG.info(() -> "📈 Navigation (" + trigger + "): " + metrics);
+        } catch (Exception e) {
+            // Measuring must never fail the test; the page may be mid-navigation or closed
+        }
+        return true;
+    }
+}
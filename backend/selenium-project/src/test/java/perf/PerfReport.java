@@ -0,0 +1,108 @@
+package perf;
+
+import logging.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Per-run navigation metrics export
+ *
+ * Every captured navigation is appended to two files under perf.dir (default test-output/perf):
+ * - navigations_{run}.csv: one row per navigation, for spreadsheets
+ * - navigations_{run}.jsonl: one JSON object per line, for scripts and dashboards
+ * Rows are flushed as they are written, so an aborted run still leaves usable data.
+ *
+ * Usage Examples:
+ * 1. Append: PerfReport.getInstance().append(metrics);  (NavigationRecorder does this)
+ * 2. Location: PerfReport.getInstance().getCsvFile();
+ */
+public class PerfReport {
+
+    private static final Logger LOG = Logger.get(PerfReport.class);
+    private static final Json JSON = new Json();
+    private static final PerfReport INSTANCE = new PerfReport(Paths.get(System.getProperty("perf.dir", "test-output/perf")));
+
+    private final Path csvFile;
+    private final Path jsonFile;
+    private BufferedWriter csv;
+    private BufferedWriter json;
+
+    private PerfReport(Path directory) {
+        String run = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+        this.csvFile = directory.resolve("navigations_" + run + ".csv");
+        this.jsonFile = directory.resolve("navigations_" + run + ".jsonl");
+    }
+
+    /**
+     * Get the report of this run
+     * @return PerfReport instance
+     */
+    public static PerfReport getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Append one navigation to the CSV and JSONL files
+     * @param metrics Navigation metrics
+     */
+    public synchronized void append(NavigationMetrics metrics) {
+        try {
+            if (csv == null) {
+                Files.createDirectories(csvFile.getParent());
+                csv = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                json = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                csv.write(NavigationMetrics.CSV_HEADER);
+                csv.newLine();
+                Runtime.getRuntime().addShutdownHook(new Thread(this::close, "perf-report-close"));
+            }
+            csv.write(metrics.toCsvRow());
+            csv.newLine();
+            csv.flush();
+            StringBuilder line = new StringBuilder();
+            try (JsonOutput output = JSON.newOutput(line)) {
+                output.setPrettyPrint(false).write(metrics.toMap());
+            }
+            json.write(line.toString());
+            json.newLine();
+            json.flush();
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to write navigation metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the CSV file of this run
+     * @return CSV path
+     */
+    public Path getCsvFile() {
+        return csvFile;
+    }
+
+    /**
+     * Get the JSON Lines file of this run
+     * @return JSONL path
+     */
+    public Path getJsonFile() {
+        return jsonFile;
+    }
+
+    private synchronized void close() {
+        try {
+            if (csv != null) {
+                csv.close();
+                json.close();
+            }
+        } catch (IOException e) {
+            // Best effort at JVM exit
+        }
+    }
+}
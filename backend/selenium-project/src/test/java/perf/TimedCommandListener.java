@@ -0,0 +1,59 @@
+package perf;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Command-timing hook shared by the listeners that need the duration of each WebDriver call
+ * (CommandMetrics, FlightRecorder)
+ *
+ * Local accessors (CommandCounter.isLocalCall) are not timed. Calls can nest (a listener or wrapped
+ * element calling back into the driver), so start times are kept on a per-thread stack.
+ *
+ * Usage Examples:
+ * 1. Subclass: class SlowCallLog extends TimedCommandListener { protected void afterCommand(...) { ... } }
+ * 2. Listeners that override beforeAnyCall must call super.beforeAnyCall(...)
+ */
+public abstract class TimedCommandListener implements WebDriverListener {
+
+    private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (!CommandCounter.isLocalCall(method.getName())) {
+            starts.get().push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (!CommandCounter.isLocalCall(method.getName())) {
+            afterCommand(target, method, args, elapsedNanos(), null);
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if (!CommandCounter.isLocalCall(method.getName())) {
+            afterCommand(target, method, args, elapsedNanos(), e.getCause() == null ? e : e.getCause());
+        }
+    }
+
+    /**
+     * Called once per timed call, after it returned or threw
+     * @param target Driver, element, navigation, ... the call was made on
+     * @param method Called method
+     * @param args Call arguments (may be null)
+     * @param durationNanos Call duration, or -1 when the start was not seen
+     * @param error Exception thrown by the call, or null if it returned
+     */
+    protected abstract void afterCommand(Object target, Method method, Object[] args, long durationNanos, Throwable error);
+
+    private long elapsedNanos() {
+        Long start = starts.get().poll();
+        return start == null ? -1 : System.nanoTime() - start;
+    }
+}
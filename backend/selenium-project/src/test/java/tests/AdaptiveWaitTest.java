@@ -0,0 +1,141 @@
+package tests;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.AdaptiveWait;
+import utils.LocatorStats;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Checks the adaptive wait maths without a browser: LocatorStats percentiles over the sample window,
+ * JSON persistence between runs, learned fail-fast timeouts (defaults: 20 samples, p99 x 3, at least
+ * 2000 ms) and the polling loop itself.
+ */
+public class AdaptiveWaitTest {
+
+    private static final String KEY = "visible By.id: search";
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteStats() throws IOException {
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "Percentiles are nearest-rank over the newest 64 samples")
+    public void testPercentilesOverWindow() throws IOException {
+        LocatorStats stats = new LocatorStats(tempDir().resolve("wait-stats.json"));
+        Assert.assertEquals(stats.percentile(KEY, 0.5), -1, "No samples yet");
+        for (long latency = 1; latency <= 100; latency++) {
+            stats.record(KEY, latency);
+        }
+        // Window holds 37..100
+        Assert.assertEquals(stats.sampleCount(KEY), 64);
+        Assert.assertEquals(stats.percentile(KEY, 0), 37);
+        Assert.assertEquals(stats.percentile(KEY, 0.5), 68);
+        Assert.assertEquals(stats.percentile(KEY, 0.99), 100);
+        Assert.assertEquals(stats.percentile(KEY, 1), 100);
+    }
+
+    @Test(description = "save() and load() keep the window and its order, so the next run starts warm")
+    public void testPersistence() throws IOException {
+        Path file = tempDir().resolve("wait-stats.json");
+        LocatorStats stats = new LocatorStats(file);
+        for (long latency = 1; latency <= 100; latency++) {
+            stats.record(KEY, latency);
+        }
+        stats.record("presence By.css: .result", 250);
+        stats.save();
+
+        LocatorStats nextRun = new LocatorStats(file);
+        nextRun.load();
+        Assert.assertEquals(nextRun.sampleCount(KEY), 64);
+        Assert.assertEquals(nextRun.percentile(KEY, 0.5), 68);
+        Assert.assertEquals(nextRun.percentile("presence By.css: .result", 0.99), 250);
+
+        // The oldest sample (37) is the next one pushed out of the window
+        nextRun.record(KEY, 1000);
+        Assert.assertEquals(nextRun.percentile(KEY, 0), 38);
+    }
+
+    @Test(description = "An unreadable statistics file is ignored; empty statistics write no file")
+    public void testUnreadableAndEmptyFiles() throws IOException {
+        Path dir = tempDir();
+        Path corrupt = dir.resolve("corrupt.json");
+        Files.writeString(corrupt, "{ not json", StandardCharsets.UTF_8);
+        LocatorStats stats = new LocatorStats(corrupt);
+        stats.load();
+        Assert.assertEquals(stats.sampleCount(KEY), 0);
+
+        Path empty = dir.resolve("empty.json");
+        new LocatorStats(empty).save();
+        Assert.assertFalse(Files.exists(empty));
+    }
+
+    @Test(description = "Timeouts are learned from p99 x 3 once 20 samples exist, within [2000 ms, requested]")
+    public void testLearnedTimeout() throws IOException {
+        LocatorStats stats = new LocatorStats(tempDir().resolve("wait-stats.json"));
+        Duration requested = Duration.ofSeconds(10);
+        for (int i = 0; i < 19; i++) {
+            stats.record(KEY, 1000);
+        }
+        Assert.assertEquals(AdaptiveWait.effectiveTimeout(stats, KEY, requested), requested, "Not enough history");
+        stats.record(KEY, 1000);
+        Assert.assertEquals(AdaptiveWait.effectiveTimeout(stats, KEY, requested), Duration.ofMillis(3000));
+        Assert.assertEquals(AdaptiveWait.effectiveTimeout(stats, null, requested), requested, "Unkeyed waits never learn");
+        Assert.assertEquals(AdaptiveWait.effectiveTimeout(stats, KEY, Duration.ofSeconds(2)), Duration.ofSeconds(2),
+                "Never longer than requested");
+
+        String fast = "clickable By.id: ok";
+        for (int i = 0; i < 20; i++) {
+            stats.record(fast, 50);
+        }
+        Assert.assertEquals(AdaptiveWait.effectiveTimeout(stats, fast, requested), Duration.ofMillis(2000),
+                "Floor of wait.adaptive.minTimeoutMillis");
+    }
+
+    @Test(description = "Polling retries missing elements until the condition holds, then times out with the key")
+    public void testPollingLoop() {
+        AtomicInteger calls = new AtomicInteger();
+        String value = AdaptiveWait.until(null, null, driver -> {
+            if (calls.incrementAndGet() < 4) {
+                throw new NoSuchElementException("not yet");
+            }
+            return "found";
+        }, Duration.ofSeconds(5));
+        Assert.assertEquals(value, "found");
+        Assert.assertEquals(calls.get(), 4);
+
+        try {
+            AdaptiveWait.until(null, null, driver -> Boolean.FALSE, Duration.ofMillis(50));
+            Assert.fail("Expected a timeout");
+        } catch (TimeoutException e) {
+            Assert.assertTrue(e.getMessage().contains("not met within 50 ms"), e.getMessage());
+        }
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("adaptive-wait");
+        dirs.add(dir);
+        return dir;
+    }
+}
@@ -1,19 +1,23 @@
 package tests;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import logging.Logger;
+import driver.DriverPool;
+import listeners.PerfBudget;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 import org.testng.annotations.*;
+import utils.DriverContext;
 import utils.WaitUtils;
 import utils.ScreenshotUtils;
+import utils.VisualDiff;
 import java.time.Duration;
 
 public class AmazonTest {
+
+    private static final Logger LOG = Logger.get(AmazonTest.class);
     private WebDriver driver;
     private WebDriverWait wait;
     private WaitUtils waitUtils;
@@ -21,51 +25,21 @@ public class AmazonTest {
 
     @BeforeClass
     public void setUp() {
-        // Setup ChromeDriver using WebDriverManager
-        WebDriverManager.chromedriver().setup();
-
-        // Configure Chrome options for both desktop and headless
-        ChromeOptions options = new ChromeOptions();
-
-        // Check if running in headless mode
-        String headlessMode = System.getProperty("headless", "false");
-        boolean isHeadless = "true".equals(headlessMode) ||
-                System.getenv("DISPLAY") == null ||
-                ":99".equals(System.getenv("DISPLAY"));
-
-        // if (isHeadless) {
-        // System.out.println("🖥️ Running in HEADLESS mode (AWS EC2)");
-        // options.addArguments("--headless=new");
-        // options.addArguments("--no-sandbox");
-        // options.addArguments("--disable-dev-shm-usage");
-        // options.addArguments("--disable-gpu");
-        options.addArguments("--remote-debugging-port=9222");
-        options.addArguments("--window-size=1920,1080");
-        // } else {
-        // System.out.println("🖥️ Running in DESKTOP mode");
-        // options.addArguments("--start-maximized");
-        // }
-
-        // Common options for both modes
-        options.addArguments("--disable-blink-features=AutomationControlled");
-        options.addArguments("--disable-extensions");
-        options.addArguments("--disable-plugins");
-        options.addArguments("--disable-images"); // Faster loading
-        options.setExperimentalOption("useAutomationExtension", false);
-        options.setExperimentalOption("excludeSwitches", new String[] { "enable-automation" });
-
-        driver = new ChromeDriver(options);
+        // Lease a warm browser session instead of starting Chrome for every class
+        driver = DriverPool.getInstance().lease();
         wait = new WebDriverWait(driver, Duration.ofSeconds(15)); // Increased timeout for EC2
-        waitUtils = new WaitUtils(driver);
-        screenshotUtils = new ScreenshotUtils(driver);
+        DriverContext context = DriverContext.bind(driver);
+        waitUtils = context.waits();
+        screenshotUtils = context.screenshots();
 
-        System.out.println("✅ Browser setup completed");
+        LOG.info("✅ Browser setup completed");
     }
 
     @Test(priority = 1, description = "Launch Amazon and verify title")
+    @PerfBudget(pageLoadMillis = 10000, lcpMillis = 4000, mode = PerfBudget.Mode.WARN)
     public void testAmazonLaunch() {
         try {
-            System.out.println("🚀 Launching Amazon.com...");
+            LOG.info("🚀 Launching Amazon.com...");
             driver.get("https://www.amazon.com");
 
             // Wait for page to load and verify title
@@ -77,11 +51,15 @@ public class AmazonTest {
 
             // // Take screenshot for documentation
             screenshotUtils.takeScreenshot("amazon_homepage");
+            // Live page content changes daily: report visual drift (opt-in), do not fail on it
+            if (VisualDiff.isEnabled()) {
+                screenshotUtils.compareWithBaseline("amazon_homepage");
+            }
 
-            System.out.println("✅ Amazon launch test passed");
+            LOG.info("✅ Amazon launch test passed");
         } catch (Exception e) {
             screenshotUtils.takeScreenshot("amazon_launch_failed");
-            System.err.println("❌ Test failed: " + e.getMessage());
+            LOG.error("❌ Test failed: " + e.getMessage(), e);
             throw new RuntimeException(e);
         }
     }
@@ -163,9 +141,9 @@ public class AmazonTest {
     @AfterClass
     public void tearDown() {
         if (driver != null) {
-            System.out.println("🔚 Closing browser...");
-            driver.quit();
-            System.out.println("✅ Test execution completed");
+            LOG.info("🔚 Returning browser to pool...");
+            DriverPool.getInstance().release(driver);
+            LOG.info("✅ Test execution completed");
         }
     }
 }
@@ -0,0 +1,153 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.ArtifactRetentionManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Checks the artifact retention policy on a temporary tree with back-dated files: age quotas per
+ * outcome, compaction into zip archives, size quota order and the untouchable paths.
+ */
+public class ArtifactRetentionTest {
+
+    private static final Duration DAY = Duration.ofDays(1);
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteArtifacts() throws IOException {
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "Success artifacts expire before failure artifacts; young and excluded files are kept")
+    public void testAgeQuotas() throws IOException {
+        Path root = tempDir();
+        Path oldSuccess = artifact(root, "screenshots/home_1.png", 100, 10);
+        Path oldFailure = artifact(root, "screenshots/FAILED_search_2.png", 100, 10);
+        Path ancientFailure = artifact(root, "screenshots/FAILED_login_3.png", 100, 40);
+        Path fresh = artifact(root, "screenshots/home_4.png", 100, 0);
+        Path pack = artifact(root, "screenshot-store/pack-00000.pack", 100, 60);
+
+        ArtifactRetentionManager.Report report = manager(root, Duration.ZERO, Long.MAX_VALUE).runOnce();
+
+        Assert.assertFalse(Files.exists(oldSuccess), "Success artifact past retention.days");
+        Assert.assertTrue(Files.exists(oldFailure), "Failure artifacts are kept longer");
+        Assert.assertFalse(Files.exists(ancientFailure), "Failure artifact past retention.failureDays");
+        Assert.assertTrue(Files.exists(fresh));
+        Assert.assertTrue(Files.exists(pack), "Excluded directory must not be touched");
+        Assert.assertEquals(report.getDeletedFiles(), 2);
+        Assert.assertEquals(report.getDeletedBytes(), 200);
+    }
+
+    @Test(description = "Day-old loose files move into per-outcome zip archives with their relative paths")
+    public void testCompaction() throws IOException {
+        Path root = tempDir();
+        artifact(root, "screenshots/home_1.png", 2000, 2);
+        artifact(root, "perf/navigation.json", 5000, 2);
+        artifact(root, "screenshots/FAILED_cart_2.png", 1000, 2);
+        Path today = artifact(root, "logs/test-run.jsonl", 100, 0);
+
+        ArtifactRetentionManager.Report report = manager(root, DAY, Long.MAX_VALUE).runOnce();
+
+        Assert.assertEquals(report.getArchivedFiles(), 3);
+        Assert.assertEquals(report.getArchivesCreated(), 2, "Success and failure artifacts are archived separately");
+        Assert.assertTrue(Files.exists(today));
+        List<Path> archives = list(root.resolve("archive"));
+        Assert.assertEquals(archives.size(), 2);
+        Path success = archives.stream().filter(p -> p.getFileName().toString().startsWith("success-")).findFirst().orElseThrow();
+        try (ZipFile zip = new ZipFile(success.toFile())) {
+            Assert.assertEquals(zip.size(), 2);
+            ZipEntry json = zip.getEntry("perf/navigation.json");
+            Assert.assertNotNull(json);
+            Assert.assertEquals(zip.getInputStream(json).readAllBytes().length, 5000);
+            Assert.assertEquals(zip.getEntry("screenshots/home_1.png").getMethod(), ZipEntry.STORED, "PNG is not deflated again");
+        }
+        Assert.assertFalse(Files.exists(root.resolve("screenshots/home_1.png")), "Archived files are removed");
+
+        // A second pass leaves the archives alone
+        Assert.assertEquals(manager(root, DAY, Long.MAX_VALUE).runOnce().getArchivedFiles(), 0);
+        Assert.assertEquals(list(root.resolve("archive")).size(), 2);
+    }
+
+    @Test(description = "Over quota: oldest success artifacts go first, failure artifacts only if still needed")
+    public void testSizeQuota() throws IOException {
+        Path root = tempDir();
+        Path failure = artifact(root, "FAILED_checkout_1.png", 1000, 5);
+        Path oldest = artifact(root, "a.png", 1000, 4);
+        Path middle = artifact(root, "b.png", 1000, 3);
+        Path newest = artifact(root, "c.png", 1000, 2);
+
+        ArtifactRetentionManager.Report report = manager(root, Duration.ZERO, 2500).runOnce();
+
+        Assert.assertTrue(Files.exists(failure), "Failure artifact kept while success artifacts can be removed");
+        Assert.assertFalse(Files.exists(oldest));
+        Assert.assertFalse(Files.exists(middle));
+        Assert.assertTrue(Files.exists(newest));
+        Assert.assertEquals(report.getBytesAfter(), 2000);
+
+        manager(root, Duration.ZERO, 500).runOnce();
+        Assert.assertFalse(Files.exists(failure), "Failure artifacts go once they alone exceed the quota");
+    }
+
+    @Test(description = "Background passes complete without the caller doing the work")
+    public void testAsyncPass() throws Exception {
+        Path root = tempDir();
+        Path old = artifact(root, "home_1.png", 100, 10);
+        ArtifactRetentionManager manager = manager(root, Duration.ZERO, Long.MAX_VALUE);
+        try {
+            manager.runAsync().get();
+        } finally {
+            manager.stop(Duration.ofSeconds(5));
+        }
+        Assert.assertFalse(Files.exists(old));
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("retention");
+        dirs.add(dir);
+        return dir;
+    }
+
+    private static ArtifactRetentionManager manager(Path root, Duration compactAfter, long maxBytes) {
+        return new ArtifactRetentionManager(List.of(root), new ArtifactRetentionManager.Policy(
+                Duration.ofDays(7), Duration.ofDays(30), compactAfter, maxBytes, Duration.ofMinutes(10),
+                Set.of("screenshot-store")));
+    }
+
+    private static Path artifact(Path root, String relative, int size, int daysOld) throws IOException {
+        Path file = root.resolve(relative);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        Instant modified = daysOld == 0 ? Instant.now() : Instant.now().minus(Duration.ofDays(daysOld));
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
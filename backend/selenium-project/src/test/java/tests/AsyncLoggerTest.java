@@ -0,0 +1,103 @@
+package tests;
+
+import logging.AsyncLogWriter;
+import logging.Level;
+import logging.Logger;
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the async logger keeps every record, per-thread order and valid JSON lines when many
+ * threads log through a ring much smaller than the record count. File output only (no console).
+ */
+public class AsyncLoggerTest {
+
+    private static final Json JSON = new Json();
+
+    private AsyncLogWriter writer;
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        if (writer != null) {
+            writer.close(Duration.ofSeconds(5));
+        }
+        Logger.setLevel(Level.INFO);
+    }
+
+    @Test(description = "16 threads through a 64-slot ring: nothing lost, per-thread order kept, one JSON object per line")
+    public void testParallelLoggingIsCompleteAndOrdered() throws Exception {
+        Path file = Files.createTempDirectory("async-log").resolve("run.jsonl");
+        writer = new AsyncLogWriter(64, file, false, false);
+        Logger log = Logger.get(AsyncLoggerTest.class, writer);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int t = 0; t < 16; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    log.info("step " + i + " \"quoted\"\n");
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        Assert.assertTrue(writer.flush(Duration.ofSeconds(10)), "Writer did not drain");
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), 16_000, "Records lost");
+        Map<String, Integer> lastByThread = new HashMap<>();
+        for (String line : lines) {
+            Map<String, Object> record = JSON.toType(line, Json.MAP_TYPE);
+            String thread = (String) record.get("thread");
+            String message = (String) record.get("msg");
+            Assert.assertTrue(message.endsWith(" \"quoted\"\n"), "Escaping broken: " + line);
+            int step = Integer.parseInt(message.split(" ")[1]);
+            Assert.assertEquals(step, lastByThread.getOrDefault(thread, -1) + 1, "Out of order for " + thread);
+            lastByThread.put(thread, step);
+            Assert.assertEquals(record.get("level"), "INFO");
+            Assert.assertEquals(record.get("logger"), AsyncLoggerTest.class.getName());
+        }
+        Assert.assertEquals(lastByThread.size(), 16);
+    }
+
+    @Test(description = "Disabled levels produce no records and skip message suppliers")
+    public void testLevelFiltering() throws IOException {
+        Path file = Files.createTempDirectory("async-log").resolve("run.jsonl");
+        writer = new AsyncLogWriter(64, file, false, false);
+        Logger log = Logger.get(AsyncLoggerTest.class, writer);
+
+        Logger.setLevel(Level.WARN);
+        log.info("hidden");
+        log.debug(() -> {
+            throw new AssertionError("Supplier evaluated for a disabled level");
+        });
+        log.info(() -> {
+            throw new AssertionError("Supplier evaluated for a disabled level");
+        });
+        log.error("shown", new IllegalStateException("boom"));
+        log.warn(() -> "supplied");
+        Logger.setLevel(Level.OFF);
+        log.error("hidden too");
+        Assert.assertTrue(writer.flush(Duration.ofSeconds(5)));
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), 2, String.join("\n", lines));
+        Map<String, Object> record = JSON.toType(lines.get(0), Json.MAP_TYPE);
+        Assert.assertEquals(record.get("msg"), "shown");
+        Assert.assertTrue(((String) record.get("error")).contains("IllegalStateException: boom"));
+        Map<String, Object> supplied = JSON.toType(lines.get(1), Json.MAP_TYPE);
+        Assert.assertEquals(supplied.get("msg"), "supplied");
+    }
+}
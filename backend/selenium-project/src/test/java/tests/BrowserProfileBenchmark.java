@@ -0,0 +1,124 @@
+package tests;
+
+import logging.Logger;
+import driver.BrowserProfile;
+import driver.DriverFactory;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compares page-load time of the BrowserProfile presets on the Amazon and RedBus landing pages.
+ * Times come from the page itself (Navigation Timing loadEventEnd and Largest Contentful Paint),
+ * so EAGER presets are not credited for returning from driver.get before the page has loaded.
+ * Run with: mvn test -Dtestng.suite=testng-benchmark.xml [-Dbenchmark.iterations=5]
+ */
+public class BrowserProfileBenchmark {
+
+    private static final Logger LOG = Logger.get(BrowserProfileBenchmark.class);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 3);
+    private static final String[] URLS = { "https://www.amazon.com", "https://www.redbus.in" };
+
+    // Waits for loadEventEnd, then reads the buffered LCP entries; -1 where the browser reports none
+    private static final String PAGE_TIMINGS_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "(function waitForLoad() {"
+            + "  var n = performance.getEntriesByType('navigation')[0];"
+            + "  if (!n || n.loadEventEnd <= 0) { return setTimeout(waitForLoad, 50); }"
+            + "  var result = { loadEventEnd: Math.round(n.loadEventEnd), lcp: -1 };"
+            + "  if (!window.PerformanceObserver"
+            + "      || (PerformanceObserver.supportedEntryTypes || []).indexOf('largest-contentful-paint') < 0) {"
+            + "    return done(result);"
+            + "  }"
+            + "  var observer = new PerformanceObserver(function (list) {"
+            + "    var entries = list.getEntries();"
+            + "    if (entries.length) { result.lcp = Math.round(entries[entries.length - 1].startTime); }"
+            + "  });"
+            + "  observer.observe({ type: 'largest-contentful-paint', buffered: true });"
+            + "  setTimeout(function () { observer.disconnect(); done(result); }, 100);"
+            + "})();";
+
+    private final Map<String, List<Long>> loadResults = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> lcpResults = new ConcurrentHashMap<>();
+
+    @DataProvider(name = "profiles")
+    public Object[][] profiles() {
+        BrowserProfile[] profiles = BrowserProfile.values();
+        Object[][] data = new Object[profiles.length][1];
+        for (int i = 0; i < profiles.length; i++) {
+            data[i][0] = profiles[i];
+        }
+        return data;
+    }
+
+    @Test(dataProvider = "profiles", description = "Measure loadEventEnd and LCP per browser profile")
+    public void benchmarkProfile(BrowserProfile profile) {
+        WebDriver driver = DriverFactory.createChromeDriver(profile);
+        try {
+            for (String url : URLS) {
+                // First load warms DNS/TLS and the HTTP cache; it is not counted
+                driver.get(url);
+                pageTimings(driver);
+                List<Long> loads = new ArrayList<>();
+                List<Long> lcps = new ArrayList<>();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    driver.get("about:blank");
+                    driver.get(url);
+                    Map<?, ?> timings = pageTimings(driver);
+                    loads.add(millis(timings.get("loadEventEnd")));
+                    lcps.add(millis(timings.get("lcp")));
+                }
+                String key = profile.getProfileName() + " " + url;
+                loadResults.put(key, loads);
+                lcpResults.put(key, lcps);
+                Reporter.log("⏱️  " + key + " -> loadEventEnd " + loads + " ms, LCP " + lcps + " ms");
+            }
+        } finally {
+            driver.quit();
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void printSummary() {
+        LOG.info("📊 Browser profile benchmark (median of " + ITERATIONS + " loads, from navigation start)");
+        LOG.info(String.format("   %-45s %12s %8s", "", "loadEventEnd", "LCP"));
+        loadResults.keySet().stream().sorted().forEach(key -> {
+            long lcp = median(lcpResults.get(key));
+            LOG.info(String.format("   %-45s %9d ms %8s", key, median(loadResults.get(key)),
+                    lcp < 0 ? "n/a" : lcp + " ms"));
+        });
+    }
+
+    private static Map<?, ?> pageTimings(WebDriver driver) {
+        Object value = ((JavascriptExecutor) driver).executeAsyncScript(PAGE_TIMINGS_SCRIPT);
+        return value instanceof Map ? (Map<?, ?>) value : Map.of();
+    }
+
+    private static long millis(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : -1;
+    }
+
+    /**
+     * Median of the samples the page reported (-1 = none reported)
+     */
+    private static long median(List<Long> samples) {
+        List<Long> reported = new ArrayList<>();
+        for (Long sample : samples) {
+            if (sample >= 0) {
+                reported.add(sample);
+            }
+        }
+        if (reported.isEmpty()) {
+            return -1;
+        }
+        reported.sort(null);
+        return reported.get(reported.size() / 2);
+    }
+}
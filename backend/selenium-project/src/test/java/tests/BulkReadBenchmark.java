@@ -0,0 +1,116 @@
+package tests;
+
+import logging.Logger;
+import driver.BrowserProfile;
+import driver.DriverFactory;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import utils.BulkElementReader;
+import utils.BulkElementReader.ElementRecord;
+import utils.BulkElementReader.Projection;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares reading a listing element by element with one BulkElementReader call.
+ * Uses a generated local fixture (no network). Run with: mvn test -Dtestng.suite=testng-benchmark.xml
+ */
+public class BulkReadBenchmark {
+
+    private static final Logger LOG = Logger.get(BulkReadBenchmark.class);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 3);
+    private static final Path FIXTURE_DIR = Paths.get("target", "fixtures");
+
+    private WebDriver driver;
+    private final List<String> summary = new ArrayList<>();
+
+    @BeforeClass
+    public void setUp() {
+        driver = DriverFactory.createChromeDriver(BrowserProfile.FAST_HEADLESS);
+    }
+
+    @DataProvider(name = "sizes")
+    public Object[][] sizes() {
+        return new Object[][] { { 10 }, { 100 }, { 1000 } };
+    }
+
+    @Test(dataProvider = "sizes", description = "Per-element WebDriver reads vs one bulk script")
+    public void benchmarkListing(int size) throws IOException {
+        driver.get(writeFixture(size).toUri().toString());
+        By rows = By.className("bus-item");
+
+        List<Long> perElement = new ArrayList<>();
+        List<Long> bulk = new ArrayList<>();
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            List<String> texts = new ArrayList<>();
+            for (WebElement row : driver.findElements(rows)) {
+                if (row.isDisplayed()) {
+                    texts.add(row.getText() + row.getAttribute("data-fare"));
+                }
+            }
+            perElement.add((System.nanoTime() - start) / 1_000_000);
+
+            start = System.nanoTime();
+            List<ElementRecord> records = BulkElementReader.read(driver, rows,
+                    Projection.text().attributes("data-fare").visibility());
+            List<String> bulkTexts = new ArrayList<>();
+            for (ElementRecord record : records) {
+                if (record.isVisible()) {
+                    bulkTexts.add(record.getText() + record.getAttribute("data-fare"));
+                }
+            }
+            bulk.add((System.nanoTime() - start) / 1_000_000);
+
+            Assert.assertEquals(bulkTexts, texts, "Bulk read must match per-element read");
+        }
+
+        String line = String.format("   %5d elements  per-element %7d ms   bulk %5d ms", size, median(perElement), median(bulk));
+        summary.add(line);
+        Reporter.log("⏱️ " + line.trim());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() {
+        LOG.info("📊 Bulk read benchmark (median of " + ITERATIONS + " reads: text + attribute + visibility)");
+        summary.forEach(LOG::info);
+        if (driver != null) {
+            driver.quit();
+        }
+    }
+
+    private static Path writeFixture(int size) throws IOException {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Listing ")
+                .append(size).append("</title></head><body><ul>");
+        for (int i = 0; i < size; i++) {
+            // Every tenth row is hidden, like collapsed "sold out" entries
+            html.append("<li class='bus-item' data-fare='").append(500 + i).append("'")
+                    .append(i % 10 == 9 ? " style='display:none'" : "")
+                    .append("><b>Operator ").append(i).append("</b> Pune - Mumbai</li>");
+        }
+        html.append("</ul></body></html>");
+        Files.createDirectories(FIXTURE_DIR);
+        Path file = FIXTURE_DIR.resolve("listing-" + size + ".html").toAbsolutePath();
+        Files.writeString(file, html, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static long median(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,162 @@
+package tests;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.CompiledTestData;
+import utils.TestDataCompiler;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks compiling xlsx and JSON test data to the binary format, reading it back through the
+ * memory mapping, and recompiling when the source changes.
+ */
+public class CompiledTestDataTest {
+
+    private static final int LARGE_ROWS = 50_000;
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteSources() throws IOException {
+        // Mapped .tdc files can be unlinked on Linux/macOS; the mapping stays valid until collected
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "Excel sheet compiles with typed values and column types")
+    public void testExcel() throws IOException {
+        Path source = tempDir().resolve("routes.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Routes");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+            String[] headers = { "From", "To", "Seats", "Express", "Date" };
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("Pune");
+            first.createCell(1).setCellValue("Mumbai");
+            first.createCell(2).setCellValue(2);
+            first.createCell(3).setCellValue(true);
+            first.createCell(4).setCellValue(LocalDateTime.of(2024, 5, 1, 0, 0));
+            first.getCell(4).setCellStyle(dateStyle);
+            Row second = sheet.createRow(2);
+            second.createCell(0).setCellValue("Pune");
+            second.createCell(2).setCellValue("two");
+            second.createCell(3).setCellValue(false);
+            try (OutputStream out = Files.newOutputStream(source)) {
+                workbook.write(out);
+            }
+        }
+
+        CompiledTestData data = CompiledTestData.load(source.toString(), "Routes");
+        Assert.assertTrue(data.getFile().getFileName().toString().matches("routes\\.xlsx\\.Routes\\.[0-9a-f]{16}\\.tdc"),
+                data.getFile().toString());
+        Assert.assertEquals(data.getHeaders(), new String[] { "From", "To", "Seats", "Express", "Date" });
+        Assert.assertEquals(data.getRowCount(), 2);
+        Assert.assertEquals(data.getRow(0), new Object[] { "Pune", "Mumbai", 2.0, true, LocalDateTime.of(2024, 5, 1, 0, 0) });
+        Assert.assertEquals(data.getRow(1), new Object[] { "Pune", null, "two", false, null });
+        Assert.assertEquals(data.get(1, 3), Boolean.FALSE);
+        Assert.assertEquals(data.getColumnType(0), CompiledTestData.ColumnType.STRING);
+        Assert.assertEquals(data.getColumnType(2), CompiledTestData.ColumnType.MIXED);
+        Assert.assertEquals(data.getColumnType(3), CompiledTestData.ColumnType.BOOLEAN);
+        Assert.assertEquals(data.getColumnType(4), CompiledTestData.ColumnType.DATE);
+        Assert.assertSame(CompiledTestData.load(source.toString(), "Routes"), data, "Mapped once per JVM");
+    }
+
+    @Test(description = "JSON array of objects compiles; a changed source gets a new compiled file")
+    public void testJsonAndRecompile() throws IOException {
+        Path dir = tempDir();
+        Path source = dir.resolve("testdata.json");
+        Files.write(source, ("[{\"username\":\"standard_user\",\"password\":\"secret\"},"
+                + "{\"username\":\"locked_out_user\",\"password\":\"secret\",\"attempts\":3}]").getBytes(StandardCharsets.UTF_8));
+
+        CompiledTestData data = CompiledTestData.load(source.toString(), null);
+        Assert.assertEquals(data.getHeaders(), new String[] { "username", "password", "attempts" });
+        Assert.assertEquals(data.toDataProvider(), new Object[][] {
+                { "standard_user", "secret", null },
+                { "locked_out_user", "secret", 3L } });
+        Assert.assertEquals(data.getColumnType(2), CompiledTestData.ColumnType.NUMBER);
+        Path first = data.getFile();
+
+        Files.write(source, "[{\"username\":\"problem_user\",\"password\":\"secret\"}]".getBytes(StandardCharsets.UTF_8));
+        CompiledTestData changed = CompiledTestData.load(source.toString(), null);
+        Assert.assertNotEquals(changed.getFile(), first);
+        Assert.assertEquals(changed.get(0, 0), "problem_user");
+        try (Stream<Path> files = Files.list(dir)) {
+            Assert.assertEquals(files.filter(p -> p.toString().endsWith(".tdc")).count(), 1, "Older version removed");
+        }
+        // The older mapping was dropped, so opening its deleted file fails instead of returning a stale instance
+        Assert.assertThrows(RuntimeException.class, () -> CompiledTestData.open(first));
+    }
+
+    @Test(description = "Large sheet: compiled once, later loads only hash and map the files")
+    public void testLargeSheet() throws IOException {
+        Path source = tempDir().resolve("large.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            Sheet sheet = workbook.createSheet("Bulk");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Id");
+            header.createCell(1).setCellValue("City");
+            header.createCell(2).setCellValue("Fare");
+            for (int i = 1; i <= LARGE_ROWS; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("City " + (i % 500));
+                row.createCell(2).setCellValue(i * 0.5);
+            }
+            try (OutputStream out = Files.newOutputStream(source)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+        }
+
+        long start = System.nanoTime();
+        Path compiled = TestDataCompiler.compile(source, "Bulk");
+        long compileMillis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertEquals(TestDataCompiler.compiledPath(source, "Bulk"), compiled);
+
+        start = System.nanoTime();
+        CompiledTestData data = CompiledTestData.load(source.toString(), "Bulk");
+        Iterator<Object[]> rows = data.iterator();
+        Object[] first = rows.next();
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertEquals(first, new Object[] { 1.0, "City 1", 0.5 });
+        Assert.assertEquals(data.getRowCount(), LARGE_ROWS);
+        Assert.assertEquals(data.get(LARGE_ROWS - 1, 1), "City " + (LARGE_ROWS % 500));
+        Assert.assertTrue(Files.size(compiled) < Files.size(source) * 2, "Compact format");
+        Reporter.log("⏱️ Compiled test data: compile " + compileMillis + " ms, load to first row " + loadMillis
+                + " ms, " + Files.size(compiled) / 1024 + " KB for " + LARGE_ROWS + " rows");
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("compiled-data");
+        dirs.add(dir);
+        return dir;
+    }
+}
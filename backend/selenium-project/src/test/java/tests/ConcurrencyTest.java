@@ -0,0 +1,157 @@
+package tests;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Interactive;
+import org.openqa.selenium.interactions.Sequence;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+import utils.ActionUtils;
+import utils.DriverContext;
+import utils.ScreenshotPipeline;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proves the utilities keep per-driver state under parallel execution.
+ * Uses in-memory fake drivers, so no browser or network is needed.
+ */
+public class ConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int INVOCATIONS = 128;
+    private static final String SCREENSHOT_DIR = "target/concurrency-screenshots";
+    // 1x1 transparent PNG
+    private static final String PIXEL_PNG =
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+
+    private final AtomicInteger driverIds = new AtomicInteger();
+    private final Map<Integer, List<String>> performedByDriver = new ConcurrentHashMap<>();
+    private final Set<String> screenshotPaths = ConcurrentHashMap.newKeySet();
+    private final Set<Object> contexts = ConcurrentHashMap.newKeySet();
+
+    @Test(threadPoolSize = THREADS, invocationCount = INVOCATIONS,
+          description = "Gestures, waits and screenshots never cross drivers under 16 threads")
+    public void testNoCrossTalkBetweenDrivers() {
+        int id = driverIds.incrementAndGet();
+        String token = "driver-" + id + "-";
+        WebDriver driver = fakeDriver(id);
+        WebElement element = fakeElement();
+
+        DriverContext context = DriverContext.bind(driver);
+        Assert.assertTrue(contexts.add(context), "Context shared between drivers");
+        try {
+            for (int i = 0; i < 5; i++) {
+                ActionUtils.sendKeys(driver, element, token + i);
+                ActionUtils.clearAndType(driver, element, token + "typed" + i);
+                Assert.assertSame(DriverContext.current().driver(), driver, "Thread binding leaked to another driver");
+            }
+            Assert.assertSame(context.waits(), DriverContext.of(driver).waits(), "WaitUtils not stable per driver");
+
+            String path = context.screenshots().takeScreenshot("concurrency", SCREENSHOT_DIR);
+            Assert.assertTrue(screenshotPaths.add(path), "Screenshot path reused: " + path);
+        } finally {
+            DriverContext.remove(driver);
+        }
+
+        List<String> performed = performedByDriver.get(id);
+        Assert.assertEquals(performed.size(), 10, "Unexpected number of gestures for " + token);
+        for (String encoded : performed) {
+            Assert.assertTrue(encoded.contains(token),
+                    "Driver " + id + " received a gesture it did not send: " + encoded);
+            Assert.assertFalse(encoded.replace(token, "").matches("(?s).*driver-\\d+-.*"),
+                    "Driver " + id + " received another driver's keys: " + encoded);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void verifyTotals() {
+        Assert.assertEquals(performedByDriver.size(), INVOCATIONS, "Every driver should have received gestures");
+        Assert.assertEquals(screenshotPaths.size(), INVOCATIONS, "Every screenshot should have a unique path");
+        Assert.assertTrue(ScreenshotPipeline.getInstance().flush(Duration.ofSeconds(30)), "Screenshot writes did not finish");
+        for (String path : screenshotPaths) {
+            Assert.assertTrue(Files.isRegularFile(Paths.get(path)), "Screenshot not written: " + path);
+        }
+    }
+
+    /**
+     * Build a driver that records the key sequences it is asked to perform
+     */
+    private WebDriver fakeDriver(int id) {
+        List<String> performed = new CopyOnWriteArrayList<>();
+        performedByDriver.put(id, performed);
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { WebDriver.class, Interactive.class, JavascriptExecutor.class, TakesScreenshot.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "perform":
+                            performed.add(keysTyped((Collection<?>) args[0]));
+                            return null;
+                        case "resetInputState":
+                        case "executeScript":
+                        case "executeAsyncScript":
+                            return null;
+                        case "getScreenshotAs":
+                            return ((OutputType<?>) args[0]).convertFromBase64Png(PIXEL_PNG);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeDriver-" + id;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static WebElement fakeElement() {
+        return (WebElement) Proxy.newProxyInstance(ConcurrencyTest.class.getClassLoader(),
+                new Class<?>[] { WebElement.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isDisplayed":
+                        case "isEnabled":
+                            return true;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeElement";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /**
+     * Reduce action sequences to the characters typed by their keyDown actions
+     */
+    private static String keysTyped(Collection<?> sequences) {
+        StringBuilder typed = new StringBuilder();
+        for (Object sequence : sequences) {
+            Object actions = ((Sequence) sequence).toJson().get("actions");
+            for (Object action : (List<?>) actions) {
+                Map<?, ?> encoded = (Map<?, ?>) action;
+                if ("keyDown".equals(encoded.get("type"))) {
+                    typed.append(encoded.get("value"));
+                }
+            }
+        }
+        return typed.toString();
+    }
+}
@@ -0,0 +1,207 @@
+package tests;
+
+import com.sun.net.httpserver.HttpServer;
+import events.EventPipeline;
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the event pipeline delivers every event, in order, in batches, including while the
+ * backend is slow or down. Uses an in-process HTTP server on localhost.
+ */
+public class EventPipelineTest {
+
+    private static final Json JSON = new Json();
+
+    private final List<EventPipeline> pipelines = new ArrayList<>();
+    private final List<HttpServer> servers = new ArrayList<>();
+    private String previousRetryMillis;
+
+    @BeforeClass
+    public void setUp() {
+        previousRetryMillis = System.setProperty("events.retryMillis", "100");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreProperties() {
+        if (previousRetryMillis == null) {
+            System.clearProperty("events.retryMillis");
+        } else {
+            System.setProperty("events.retryMillis", previousRetryMillis);
+        }
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() {
+        pipelines.forEach(pipeline -> pipeline.close(Duration.ofSeconds(2)));
+        servers.forEach(server -> server.stop(0));
+        pipelines.clear();
+        servers.clear();
+    }
+
+    @Test(description = "Events from several threads arrive complete, in seq order, batched on one connection")
+    public void testOrderedBatchedDelivery() throws Exception {
+        Backend backend = startBackend(freePort(), 0);
+        EventPipeline pipeline = pipeline(backend.port, 10000, 100);
+
+        publishFromThreads(pipeline, 4, 125);
+        Assert.assertTrue(pipeline.flush(Duration.ofSeconds(10)), "Pipeline did not drain");
+
+        assertInOrder(backend.events, 500);
+        Assert.assertTrue(backend.requests.get() < 500 / 10, "Events were not batched: " + backend.requests.get() + " requests");
+        Assert.assertEquals(backend.remotePorts.size(), 1, "Batches did not reuse one connection");
+        Assert.assertEquals(pipeline.getSpooled(), 0);
+    }
+
+    @Test(description = "Events published while the backend is down are spooled and replayed in order")
+    public void testSpoolAndReplayWhileBackendDown() throws Exception {
+        int port = freePort();
+        EventPipeline pipeline = pipeline(port, 10000, 20);
+
+        publishFromThreads(pipeline, 1, 50);
+        Assert.assertTrue(pipeline.flush(Duration.ofSeconds(20)), "Pipeline did not drain");
+        Assert.assertEquals(pipeline.getSpooled(), 50, "Undeliverable events must be spooled");
+
+        Backend backend = startBackend(port, 0);
+        publishFromThreads(pipeline, 1, 10);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (backend.events.size() < 60 && System.currentTimeMillis() < deadline) {
+            pipeline.flush(Duration.ofSeconds(1));
+            Thread.sleep(50);
+        }
+
+        assertInOrder(backend.events, 60);
+        Assert.assertEquals(pipeline.getDelivered(), 60);
+    }
+
+    @Test(description = "A batch the backend rejects with a 4xx is set aside; later events are still delivered")
+    public void testRejectedBatchDoesNotBlockDelivery() throws Exception {
+        Backend backend = startBackend(freePort(), 0);
+        EventPipeline pipeline = pipeline(backend.port, 10000, 20);
+
+        publishFromThreads(pipeline, 1, 5);
+        Assert.assertTrue(pipeline.flush(Duration.ofSeconds(10)), "Pipeline did not drain");
+        pipeline.publish("metrics.snapshot", Map.of("reject", true));
+        Assert.assertTrue(pipeline.flush(Duration.ofSeconds(10)), "Pipeline did not drain");
+        publishFromThreads(pipeline, 1, 5);
+        Assert.assertTrue(pipeline.flush(Duration.ofSeconds(10)), "Pipeline did not drain");
+
+        Assert.assertEquals(backend.events.size(), 10);
+        Assert.assertEquals(((Number) backend.events.get(5).get("seq")).longValue(), 7L, "Rejected event skipped");
+        Assert.assertEquals(pipeline.getRejected(), 1);
+        Assert.assertEquals(pipeline.getSpooled(), 0, "Rejected batch must not be retried from the spool");
+    }
+
+    @Test(description = "A tiny queue and a slow backend block publishers instead of losing events")
+    public void testBackpressureIsLossless() throws Exception {
+        Backend backend = startBackend(freePort(), 20);
+        EventPipeline pipeline = pipeline(backend.port, 8, 4);
+
+        publishFromThreads(pipeline, 4, 50);
+        Assert.assertTrue(pipeline.flush(Duration.ofSeconds(30)), "Pipeline did not drain");
+
+        assertInOrder(backend.events, 200);
+        Assert.assertEquals(pipeline.getSpooled(), 0);
+    }
+
+    private EventPipeline pipeline(int port, int queueSize, int batchSize) throws IOException {
+        Path spool = Files.createTempDirectory("event-spool");
+        EventPipeline pipeline = new EventPipeline(URI.create("http://localhost:" + port + "/test-events"),
+                spool, queueSize, batchSize, 50);
+        pipelines.add(pipeline);
+        return pipeline;
+    }
+
+    private static void publishFromThreads(EventPipeline pipeline, int threads, int perThread) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    pipeline.publish("test.step", Map.of("thread", thread, "index", i));
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "Publishers did not finish");
+    }
+
+    private static void assertInOrder(List<Map<String, Object>> events, int expected) {
+        Assert.assertEquals(events.size(), expected, "Events lost or duplicated");
+        for (int i = 0; i < events.size(); i++) {
+            Assert.assertEquals(((Number) events.get(i).get("seq")).longValue(), i + 1L, "Events out of order at " + i);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Backend startBackend(int port, long delayMillis) throws IOException {
+        Backend backend = new Backend(port);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/test-events", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                Map<String, Object> batch = JSON.toType(new String(body.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+                List<Map<String, Object>> events = (List<Map<String, Object>>) batch.get("events");
+                if (events.stream().anyMatch(event -> Boolean.TRUE.equals(((Map<String, Object>) event.get("data")).get("reject")))) {
+                    // Like express.json() refusing a body over its limit
+                    exchange.sendResponseHeaders(413, -1);
+                    return;
+                }
+                if (delayMillis > 0) {
+                    Thread.sleep(delayMillis);
+                }
+                backend.events.addAll(events);
+                backend.requests.incrementAndGet();
+                backend.remotePorts.add(exchange.getRemoteAddress().getPort());
+                exchange.sendResponseHeaders(200, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        servers.add(server);
+        return backend;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static final class Backend {
+        private final int port;
+        private final List<Map<String, Object>> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Set<Integer> remotePorts = ConcurrentHashMap.newKeySet();
+
+        private Backend(int port) {
+            this.port = port;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package tests;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.ExcelResultWriter;
+import utils.WorkbookCache;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Checks the batched Excel result writer: concurrent updates, merging into an existing workbook,
+ * background flushes through temp file and rename, last-write-wins semantics, and refusing
+ * workbooks a values-only rewrite would damage.
+ */
+public class ExcelResultWriterTest {
+
+    private static final int ROWS = 10_000;
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteWorkbooks() throws IOException {
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "10k results from 8 threads are written in one streaming pass")
+    public void testConcurrentResults() throws Exception {
+        Path file = tempDir().resolve("results.xlsx");
+        ExcelResultWriter writer = new ExcelResultWriter(file, Duration.ofHours(1));
+        writer.setRow("Results", 0, "Id", "Result");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int row = 1 + offset; row <= ROWS; row += threads) {
+                        writer.setRow("Results", row, row, row % 7 == 0 ? "FAIL" : "PASS");
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        writer.close();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        Reporter.log("⏱️ Excel results: " + ROWS + " rows written in " + millis + " ms");
+
+        Assert.assertEquals(writer.getFlushCount(), 1);
+        Assert.assertEquals(writer.getWrittenCells(), 2 + ROWS * 2L);
+        Assert.assertEquals(writer.getPendingCount(), 0);
+        WorkbookCache.SheetData data = new WorkbookCache(64L * 1024 * 1024).get(file.toString(), "Results");
+        Assert.assertEquals(data.getRowCount(), ROWS + 1);
+        Assert.assertEquals(data.get(7, 0), 7.0);
+        Assert.assertEquals(data.get(7, 1), "FAIL");
+        Assert.assertEquals(data.get(ROWS, 1), ROWS % 7 == 0 ? "FAIL" : "PASS");
+    }
+
+    @Test(description = "Existing cells and sheets are kept; results are merged in")
+    public void testMergesExistingWorkbook() throws IOException {
+        Path file = tempDir().resolve("data.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet tests = workbook.createSheet("Tests");
+            Row header = tests.createRow(0);
+            header.createCell(0).setCellValue("Name");
+            header.createCell(1).setCellValue("Result");
+            tests.createRow(1).createCell(0).setCellValue("Login");
+            tests.createRow(2).createCell(0).setCellValue("Search");
+            workbook.createSheet("Config").createRow(0).createCell(0).setCellValue("env=qa");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+
+        try (ExcelResultWriter writer = new ExcelResultWriter(file, Duration.ofHours(1))) {
+            writer.setCell("Tests", 1, 1, "PASS");
+            writer.setCell("Tests", 2, 1, "FAIL");
+            writer.flush();
+            writer.setCell("Tests", 2, 1, "PASS");
+            writer.setCell("Tests", 2, 2, 1234);
+        }
+
+        WorkbookCache cache = new WorkbookCache(1024 * 1024);
+        WorkbookCache.SheetData tests = cache.get(file.toString(), "Tests");
+        Assert.assertEquals(tests.get(1, 0), "Login");
+        Assert.assertEquals(tests.get(1, 1), "PASS");
+        Assert.assertEquals(tests.get(2, 1), "PASS", "Last update wins");
+        Assert.assertEquals(cache.get(file.toString(), "Config").get(0, 0), "env=qa");
+    }
+
+    @Test(description = "Background flush replaces the file through a temp file and leaves none behind")
+    public void testIntervalFlush() throws Exception {
+        Path dir = tempDir();
+        Path file = dir.resolve("live.xlsx");
+        ExcelResultWriter writer = new ExcelResultWriter(file, Duration.ofMillis(100));
+        try {
+            writer.setCell("Results", 0, 0, "PASS");
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (writer.getFlushCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals(writer.getFlushCount(), 1);
+            Assert.assertTrue(Files.exists(file));
+        } finally {
+            writer.close();
+        }
+        Assert.assertEquals(writer.getFlushCount(), 1, "Close without new updates does not rewrite");
+        try (Stream<Path> files = Files.list(dir)) {
+            Assert.assertEquals(files.filter(p -> p.toString().endsWith(".tmp")).count(), 0);
+        }
+    }
+
+    @Test(description = "Updates after close are rejected")
+    public void testClosedWriter() throws IOException {
+        ExcelResultWriter writer = new ExcelResultWriter(tempDir().resolve("closed.xlsx"),
+                Duration.ofHours(1));
+        writer.close();
+        Assert.assertThrows(IllegalStateException.class, () -> writer.setCell("Results", 0, 0, "PASS"));
+    }
+
+    @Test(description = "A workbook with formulas or styles is left untouched and further updates are rejected")
+    public void testRefusesFormattedWorkbook() throws IOException {
+        Path file = tempDir().resolve("styled.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Tests");
+            CellStyle bold = workbook.createCellStyle();
+            Font font = workbook.createFont();
+            font.setBold(true);
+            bold.setFont(font);
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("Name");
+            header.getCell(0).setCellStyle(bold);
+            sheet.createRow(1).createCell(1).setCellFormula("1+1");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+        byte[] before = Files.readAllBytes(file);
+
+        ExcelResultWriter writer = new ExcelResultWriter(file, Duration.ofHours(1));
+        writer.setCell("Tests", 1, 0, "PASS");
+        writer.flush();
+        Assert.assertTrue(Arrays.equals(Files.readAllBytes(file), before), "Workbook not rewritten");
+        Assert.assertEquals(writer.getFlushCount(), 0);
+        Assert.assertEquals(writer.getPendingCount(), 0);
+        Assert.assertThrows(IllegalStateException.class, () -> writer.setCell("Tests", 2, 0, "PASS"));
+        writer.close();
+        Assert.assertTrue(Arrays.equals(Files.readAllBytes(file), before), "Close does not rewrite either");
+    }
+
+    @Test(description = "Only .xlsx targets are accepted")
+    public void testRejectsOtherFormats() throws IOException {
+        Path dir = tempDir();
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> new ExcelResultWriter(dir.resolve("results.xls"), Duration.ofHours(1)));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> new ExcelResultWriter(dir.resolve("results.xlsm"), Duration.ofHours(1)));
+    }
+
+    @Test(description = "A workbook the writer created (date styles included) is taken over again")
+    public void testReopensOwnWorkbook() throws IOException {
+        Path file = tempDir().resolve("own.xlsx");
+        try (ExcelResultWriter writer = new ExcelResultWriter(file, Duration.ofHours(1))) {
+            writer.setRow("Results", 0, "Login", "PASS", LocalDate.of(2024, 5, 1));
+        }
+        try (ExcelResultWriter writer = new ExcelResultWriter(file, Duration.ofHours(1))) {
+            writer.setCell("Results", 1, 0, "Search");
+            writer.flush();
+            Assert.assertEquals(writer.getFlushCount(), 1);
+        }
+
+        WorkbookCache.SheetData results = new WorkbookCache(1024 * 1024).get(file.toString(), "Results");
+        Assert.assertEquals(results.get(0, 2), LocalDateTime.of(2024, 5, 1, 0, 0));
+        Assert.assertEquals(results.get(1, 0), "Search");
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("excel-results");
+        dirs.add(dir);
+        return dir;
+    }
+}
@@ -0,0 +1,161 @@
+package tests;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import utils.ExcelStreamReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks the streaming Excel reader against small hand-built sheets and a 200k-row sheet written
+ * with SXSSF, and its use as a TestNG DataProvider.
+ */
+public class ExcelStreamReaderTest {
+
+    private static final int LARGE_ROWS = 200_000;
+
+    private Path dir;
+    private Path small;
+    private Path large;
+    private final List<String> providedRoutes = new ArrayList<>();
+
+    @BeforeClass
+    public void createWorkbooks() throws IOException {
+        dir = Files.createTempDirectory("excel-stream");
+        small = dir.resolve("small.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet other = workbook.createSheet("Other");
+            other.createRow(0).createCell(0).setCellValue("not this sheet");
+            Sheet routes = workbook.createSheet("Routes");
+            row(routes, 0, "From", "To", "Seats", "Express");
+            row(routes, 1, "Pune", "Mumbai", 2, true);
+            Row gap = routes.createRow(2);
+            gap.createCell(0).setCellValue("Nashik");
+            gap.createCell(3).setCellValue(false);
+            // Row 3 is blank and row 4 only has styled empty cells: both are skipped
+            routes.createRow(4).createCell(1).setCellValue("");
+            Row formula = routes.createRow(5);
+            formula.createCell(0).setCellValue("Goa");
+            formula.createCell(1).setCellValue("Pune");
+            formula.createCell(2).setCellFormula("1+2");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            write(workbook, small);
+        }
+
+        large = dir.resolve("large.xlsx");
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            Sheet sheet = workbook.createSheet("Bulk");
+            row(sheet, 0, "Id", "City", "Fare");
+            for (int i = 1; i <= LARGE_ROWS; i++) {
+                row(sheet, i, i, "City " + (i % 500), i * 0.5);
+            }
+            write(workbook, large);
+            workbook.dispose();
+        }
+    }
+
+    @Test(description = "Values, padding to the header width, gaps, blank rows and cached formula results")
+    public void testValues() {
+        try (ExcelStreamReader rows = ExcelStreamReader.open(small.toString(), "Routes")) {
+            Assert.assertEquals(rows.getHeaders(), new String[] { "From", "To", "Seats", "Express" });
+            Assert.assertEquals(rows.next(), new Object[] { "Pune", "Mumbai", "2", "TRUE" });
+            Assert.assertEquals(rows.next(), new Object[] { "Nashik", "", "", "FALSE" });
+            Assert.assertEquals(rows.next(), new Object[] { "Goa", "Pune", "3", "" });
+            Assert.assertFalse(rows.hasNext());
+        }
+    }
+
+    @Test(description = "Unknown sheets fail with the sheet name in the message")
+    public void testMissingSheet() {
+        try {
+            ExcelStreamReader.open(small.toString(), "Missing");
+            Assert.fail("Expected an exception");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("Missing"), e.getMessage());
+        }
+    }
+
+    @Test(description = "200k rows stream in order; the first row arrives without parsing the rest")
+    public void testLargeSheet() {
+        long start = System.nanoTime();
+        Iterator<Object[]> rows = ExcelStreamReader.open(large.toString(), "Bulk");
+        Object[] first = rows.next();
+        long firstRowMillis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertEquals(first, new Object[] { "1", "City 1", "0.5" });
+
+        int count = 1;
+        Object[] last = first;
+        while (rows.hasNext()) {
+            last = rows.next();
+            count++;
+        }
+        long totalMillis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertEquals(count, LARGE_ROWS);
+        Assert.assertEquals(last[0], String.valueOf(LARGE_ROWS));
+        Assert.assertTrue(firstRowMillis < totalMillis, "First row should not wait for the whole sheet");
+        Reporter.log("Streaming Excel: first row " + firstRowMillis + " ms, " + LARGE_ROWS + " rows " + totalMillis + " ms");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteWorkbooks() throws IOException {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @DataProvider(name = "routes")
+    public Iterator<Object[]> routes() {
+        return ExcelStreamReader.open(small.toString(), "Routes");
+    }
+
+    @Test(dataProvider = "routes", description = "Iterator works as a TestNG DataProvider")
+    public void testDataProvider(String from, String to, String seats, String express) {
+        providedRoutes.add(from + "-" + to);
+    }
+
+    @Test(dependsOnMethods = "testDataProvider", description = "DataProvider delivered every data row")
+    public void testDataProviderRows() {
+        Assert.assertEquals(providedRoutes, List.of("Pune-Mumbai", "Nashik-", "Goa-Pune"));
+    }
+
+    private static void row(Sheet sheet, int index, Object... values) {
+        Row row = sheet.createRow(index);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value instanceof Number) {
+                row.createCell(i).setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                row.createCell(i).setCellValue((Boolean) value);
+            } else {
+                row.createCell(i).setCellValue(String.valueOf(value));
+            }
+        }
+    }
+
+    private static void write(Workbook workbook, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package tests;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.FlightRecorder;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks the flight recorder rings, byte budget, argument masking and failure dump with a stub
+ * driver (no browser). Default limits: 10 frames, 32 MB, 200 commands.
+ */
+public class FlightRecorderTest {
+
+    private static final Json JSON = new Json();
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDumps() throws IOException {
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "Frame ring keeps the newest frames within the count and byte limits")
+    public void testFrameLimits() {
+        FlightRecorder recorder = new FlightRecorder(stubDriver());
+        for (int i = 0; i < 15; i++) {
+            recorder.addFrame("frame" + i, new byte[1000]);
+        }
+        Assert.assertEquals(recorder.getFrameCount(), 10);
+        Assert.assertEquals(recorder.getFrameBytes(), 10_000);
+
+        byte[] large = new byte[12 * 1024 * 1024];
+        recorder.addFrame("large1", large);
+        recorder.addFrame("large2", large);
+        recorder.addFrame("large3", large);
+        Assert.assertTrue(recorder.getFrameBytes() <= 32L * 1024 * 1024, "Byte budget exceeded: " + recorder.getFrameBytes());
+        Assert.assertEquals(recorder.getFrameCount(), 2, "Oldest frames evicted first");
+    }
+
+    @Test(description = "Commands are bounded, typed text is masked, errors are kept")
+    public void testCommandRing() throws Exception {
+        FlightRecorder recorder = new FlightRecorder(stubDriver());
+        Method getTitle = WebDriver.class.getMethod("getTitle");
+        for (int i = 0; i < 250; i++) {
+            recorder.beforeAnyCall(stubDriver(), getTitle, null);
+            recorder.afterAnyCall(stubDriver(), getTitle, null, "Title");
+        }
+        Assert.assertEquals(recorder.getCommandCount(), 200);
+
+        Method sendKeys = WebElement.class.getMethod("sendKeys", CharSequence[].class);
+        Object[] args = { new CharSequence[] { "secret-password" } };
+        recorder.beforeAnyCall(null, sendKeys, args);
+        recorder.afterAnyCall(null, sendKeys, args, null);
+        Method click = WebElement.class.getMethod("click");
+        recorder.beforeAnyCall(null, click, null);
+        recorder.onError(null, click, null, new InvocationTargetException(new IllegalStateException("not clickable\nat point")));
+
+        Path dir = tempDir().resolve("dump");
+        recorder.dump(dir, "FlightRecorderTest.testCommandRing", null);
+        String timeline = Files.readString(dir.resolve("timeline.json"), StandardCharsets.UTF_8);
+        Assert.assertFalse(timeline.contains("secret-password"), "Typed text must not be recorded");
+        Assert.assertTrue(timeline.contains("[15 chars]"));
+        Assert.assertTrue(timeline.contains("IllegalStateException: not clickable"), timeline);
+        Assert.assertEquals(recorder.getCommandCount(), 0, "Dump clears the rings");
+    }
+
+    @Test(description = "Dump writes every frame and a time-ordered timeline")
+    @SuppressWarnings("unchecked")
+    public void testDump() throws IOException {
+        FlightRecorder recorder = new FlightRecorder(stubDriver());
+        recorder.frame("home");
+        recorder.addFrame("search results", new byte[] { 1, 2, 3 });
+
+        Path dir = tempDir().resolve("FAILED_test");
+        recorder.dump(dir, "SearchTest.testSearch", new AssertionError("results missing"));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            List<String> names = files.map(p -> p.getFileName().toString()).sorted().collect(Collectors.toList());
+            Assert.assertEquals(names, List.of("frame-01_home.png", "frame-02_search_results.png", "timeline.json"));
+        }
+        Assert.assertEquals(Files.readAllBytes(dir.resolve("frame-01_home.png")), new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+        Map<String, Object> document = JSON.toType(Files.readString(dir.resolve("timeline.json")), Json.MAP_TYPE);
+        Assert.assertEquals(document.get("test"), "SearchTest.testSearch");
+        Assert.assertTrue(((String) document.get("error")).contains("results missing"));
+        List<Map<String, Object>> timeline = (List<Map<String, Object>>) document.get("timeline");
+        Assert.assertEquals(timeline.size(), 2);
+        Assert.assertEquals(timeline.get(0).get("name"), "home");
+        Assert.assertEquals(recorder.getFrameCount(), 0);
+    }
+
+    @Test(description = "Quit releases the frames and unregisters the session")
+    public void testQuitReleases() throws Exception {
+        WebDriver driver = stubDriver();
+        FlightRecorder recorder = new FlightRecorder(driver);
+        recorder.register(driver);
+        recorder.addFrame("home", new byte[100]);
+        Assert.assertSame(FlightRecorder.of(driver), recorder);
+
+        Method quit = WebDriver.class.getMethod("quit");
+        recorder.beforeAnyCall(driver, quit, null);
+        recorder.afterAnyCall(driver, quit, null, null);
+        Assert.assertNull(FlightRecorder.of(driver));
+        Assert.assertEquals(recorder.getFrameBytes(), 0);
+    }
+
+    @Test(description = "A passing test drops what it recorded; after quit the thread no longer holds the recorder")
+    public void testTestBoundaries() throws Exception {
+        WebDriver driver = stubDriver();
+        FlightRecorder recorder = new FlightRecorder(driver);
+        recorder.register(driver);
+        Method getTitle = WebDriver.class.getMethod("getTitle");
+        recorder.beforeAnyCall(driver, getTitle, null);
+        recorder.afterAnyCall(driver, getTitle, null, "Title");
+        recorder.addFrame("home", new byte[100]);
+
+        FlightRecorder.discardPassed();
+        Assert.assertEquals(recorder.getFrameCount(), 0, "Frames of a passed test must not reach a later dump");
+        Assert.assertEquals(recorder.getCommandCount(), 0);
+
+        Method quit = WebDriver.class.getMethod("quit");
+        recorder.beforeAnyCall(driver, quit, null);
+        recorder.afterAnyCall(driver, quit, null, null);
+        recorder.addFrame("after quit", new byte[100]);
+        FlightRecorder.discardPassed();
+        Assert.assertEquals(recorder.getFrameCount(), 1, "Quit must reset the thread's last-used recorder");
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("flight");
+        dirs.add(dir);
+        return dir;
+    }
+
+    private static WebDriver stubDriver() {
+        return (WebDriver) Proxy.newProxyInstance(FlightRecorderTest.class.getClassLoader(),
+                new Class<?>[] { WebDriver.class, TakesScreenshot.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getScreenshotAs":
+                            return ((OutputType<?>) args[0]).convertFromPngBytes(new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "StubDriver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,126 @@
+package tests;
+
+import logging.Logger;
+import driver.BrowserProfile;
+import driver.DriverFactory;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import utils.FullPageCapture;
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the legacy resize-the-window full-page screenshot with the CDP capture on long local
+ * fixture pages (no network). Run with: mvn test -Dtestng.suite=testng-benchmark.xml
+ */
+public class FullPageScreenshotBenchmark {
+
+    private static final Logger LOG = Logger.get(FullPageScreenshotBenchmark.class);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 3);
+    private static final Path FIXTURE_DIR = Paths.get("target", "fixtures");
+
+    private WebDriver driver;
+    private final List<String> summary = new ArrayList<>();
+
+    @BeforeClass
+    public void setUp() {
+        driver = DriverFactory.createChromeDriver(BrowserProfile.FAST_HEADLESS);
+    }
+
+    @DataProvider(name = "heights")
+    public Object[][] heights() {
+        // The last page is taller than one tile, so the CDP path also stitches
+        return new Object[][] { { 3000 }, { 12000 }, { 30000 } };
+    }
+
+    @Test(dataProvider = "heights", description = "Window-resize full-page screenshot vs CDP captureBeyondViewport")
+    public void benchmarkFullPage(int height) throws IOException {
+        driver.get(writeFixture(height).toUri().toString());
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+
+        List<Long> resize = new ArrayList<>();
+        List<Long> cdp = new ArrayList<>();
+        BufferedImage cdpImage = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            captureByResize(js);
+            resize.add((System.nanoTime() - start) / 1_000_000);
+
+            start = System.nanoTime();
+            byte[] png = FullPageCapture.capture(driver);
+            cdp.add((System.nanoTime() - start) / 1_000_000);
+            cdpImage = ImageIO.read(new ByteArrayInputStream(png));
+        }
+
+        Assert.assertNotNull(cdpImage, "CDP capture is not a PNG");
+        Assert.assertTrue(cdpImage.getHeight() >= height, "CDP capture cut off at " + cdpImage.getHeight() + " px");
+        // The last band of the fixture is solid blue: stitching must reach the bottom of the page
+        int bottom = cdpImage.getRGB(cdpImage.getWidth() / 2, cdpImage.getHeight() - 5) & 0xFFFFFF;
+        Assert.assertEquals(bottom, 0x0000FF, "Bottom of the page missing from the CDP capture");
+
+        String line = String.format("   %6d px page  resize %6d ms   cdp %6d ms", height, median(resize), median(cdp));
+        summary.add(line);
+        Reporter.log("⏱️ " + line.trim());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() {
+        LOG.info("📊 Full-page screenshot benchmark (median of " + ITERATIONS + " captures)");
+        summary.forEach(LOG::info);
+        if (driver != null) {
+            driver.quit();
+        }
+    }
+
+    /**
+     * The legacy ScreenshotUtils.takeFullPageScreenshotByResize steps, without the file write
+     */
+    private void captureByResize(JavascriptExecutor js) {
+        Long originalHeight = (Long) js.executeScript("return window.innerHeight");
+        Long originalWidth = (Long) js.executeScript("return window.innerWidth");
+        Long pageHeight = (Long) js.executeScript("return Math.max(document.body.scrollHeight, document.body.offsetHeight, document.documentElement.clientHeight, document.documentElement.scrollHeight, document.documentElement.offsetHeight)");
+        Long pageWidth = (Long) js.executeScript("return Math.max(document.body.scrollWidth, document.body.offsetWidth, document.documentElement.clientWidth, document.documentElement.scrollWidth, document.documentElement.offsetWidth)");
+        driver.manage().window().setSize(new org.openqa.selenium.Dimension(pageWidth.intValue(), pageHeight.intValue()));
+        ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        driver.manage().window().setSize(new org.openqa.selenium.Dimension(originalWidth.intValue(), originalHeight.intValue()));
+    }
+
+    private static Path writeFixture(int height) throws IOException {
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Long page ")
+                .append(height).append("</title><style>body{margin:0;font:16px sans-serif}")
+                .append(".row{height:100px;border-bottom:1px solid #ccc;padding:8px}")
+                .append(".end{height:200px;background:#0000ff}</style></head><body>");
+        for (int i = 0; i < (height - 200) / 100; i++) {
+            html.append("<div class='row' style='box-sizing:border-box'>Result ").append(i)
+                    .append(" - Pune to Mumbai, departs ").append(6 + i % 12).append(":00</div>");
+        }
+        html.append("<div class='end'></div></body></html>");
+        Files.createDirectories(FIXTURE_DIR);
+        Path file = FIXTURE_DIR.resolve("long-page-" + height + ".html").toAbsolutePath();
+        Files.writeString(file, html, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static long median(List<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
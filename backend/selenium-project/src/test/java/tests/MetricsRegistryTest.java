@@ -0,0 +1,124 @@
+package tests;
+
+import metrics.CommandMetrics;
+import metrics.MetricsRegistry;
+import metrics.MetricsRegistry.Histogram;
+import metrics.TestMetrics;
+import org.openqa.selenium.By;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the metrics registry (concurrent updates, OpenMetrics output, scrape endpoint) and the
+ * WebDriver listener that feeds it. Uses fake drivers, so no browser is needed.
+ */
+public class MetricsRegistryTest {
+
+    @Test(description = "Concurrent observations are all counted and bucketed cumulatively")
+    public void testHistogramUnderConcurrency() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        Histogram histogram = registry.histogram("latency_seconds", "Latency", "op").labels("click");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.observe(i % 2 == 0 ? 0.004 : 0.3);
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Assert.assertEquals(histogram.getCount(), 80_000);
+        String text = registry.scrape();
+        Assert.assertTrue(text.contains("latency_seconds_bucket{op=\"click\",le=\"0.005\"} 40000\n"), text);
+        Assert.assertTrue(text.contains("latency_seconds_bucket{op=\"click\",le=\"0.25\"} 40000\n"), text);
+        Assert.assertTrue(text.contains("latency_seconds_bucket{op=\"click\",le=\"0.5\"} 80000\n"), text);
+        Assert.assertTrue(text.contains("latency_seconds_bucket{op=\"click\",le=\"+Inf\"} 80000\n"), text);
+        Assert.assertTrue(text.contains("latency_seconds_count{op=\"click\"} 80000\n"), text);
+    }
+
+    @Test(description = "Exposition follows the OpenMetrics text format")
+    public void testOpenMetricsFormat() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("retries", "Retries", "reason").labels("say \"hi\"").inc();
+        registry.gauge("drivers", "Open drivers").labels().set(3);
+
+        String text = registry.scrape();
+        Assert.assertTrue(text.contains("# TYPE retries counter\n# HELP retries Retries\nretries_total{reason=\"say \\\"hi\\\"\"} 1\n"), text);
+        Assert.assertTrue(text.contains("# TYPE drivers gauge\n# HELP drivers Open drivers\ndrivers 3\n"), text);
+        Assert.assertTrue(text.endsWith("# EOF\n"), text);
+        Assert.expectThrows(IllegalArgumentException.class, () -> registry.gauge("retries", "Retries"));
+    }
+
+    @Test(description = "The scrape endpoint serves the current metrics")
+    public void testScrapeEndpoint() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("screenshots", "Screenshots").labels().inc(2);
+        int port = registry.startServer(0);
+        try {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            Assert.assertEquals(response.statusCode(), 200);
+            Assert.assertEquals(response.headers().firstValue("Content-Type").orElse(""), MetricsRegistry.CONTENT_TYPE);
+            Assert.assertTrue(response.body().contains("screenshots_total 2\n"), response.body());
+        } finally {
+            registry.stopServer();
+        }
+    }
+
+    @Test(description = "CommandMetrics times calls and counts screenshots, stale elements and open sessions")
+    public void testCommandMetrics() {
+        double drivers = TestMetrics.ACTIVE_DRIVERS.labels().get();
+        double stale = TestMetrics.STALE_ELEMENTS.labels().get();
+        double screenshots = TestMetrics.SCREENSHOTS.labels("page").get();
+        long finds = TestMetrics.COMMAND_DURATION.labels("findElement").getCount();
+
+        WebDriver driver = new EventFiringDecorator<WebDriver>(new CommandMetrics()).decorate(fakeDriver());
+        Assert.assertEquals(TestMetrics.ACTIVE_DRIVERS.labels().get(), drivers + 1);
+
+        ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        Assert.expectThrows(StaleElementReferenceException.class, () -> driver.findElement(By.id("gone")));
+        driver.quit();
+        driver.quit();
+
+        Assert.assertEquals(TestMetrics.SCREENSHOTS.labels("page").get(), screenshots + 1);
+        Assert.assertEquals(TestMetrics.STALE_ELEMENTS.labels().get(), stale + 1);
+        Assert.assertEquals(TestMetrics.COMMAND_DURATION.labels("findElement").getCount(), finds + 1);
+        Assert.assertEquals(TestMetrics.ACTIVE_DRIVERS.labels().get(), drivers, "quit() must close the session once");
+    }
+
+    private static WebDriver fakeDriver() {
+        return (WebDriver) Proxy.newProxyInstance(MetricsRegistryTest.class.getClassLoader(),
+                new Class<?>[] {WebDriver.class, TakesScreenshot.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findElement":
+                            throw new StaleElementReferenceException("detached");
+                        case "getScreenshotAs":
+                            return new byte[] {1};
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeDriver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,84 @@
+package tests;
+
+import network.NetworkActivity;
+import network.NetworkActivity.UrlFilter;
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the network-idle state machine with requests fed by hand (no browser): the quiet window,
+ * in-flight limits, timeouts, a tracker created by the first wait, and UrlFilter matching.
+ */
+public class NetworkActivityTest {
+
+    private static final long QUIET_MILLIS = 300;
+
+    @Test(description = "A tracker created by the wait itself still waits the full quiet window")
+    public void testFreshTrackerWaitsQuietWindow() {
+        NetworkActivity activity = new NetworkActivity();
+        long start = System.nanoTime();
+        activity.awaitIdle(0, QUIET_MILLIS, UrlFilter.all(), Duration.ofSeconds(5));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.assertTrue(waitedMillis >= QUIET_MILLIS - 5, "Returned after " + waitedMillis + " ms");
+    }
+
+    @Test(description = "Busy until the request finishes, then quiet for the window")
+    public void testIdleAfterRequestFinishes() throws Exception {
+        NetworkActivity activity = new NetworkActivity();
+        activity.requestStarted("1", "https://example.com/api/search");
+        CompletableFuture<Long> idleAt = CompletableFuture.supplyAsync(() -> {
+            activity.awaitIdle(0, QUIET_MILLIS, UrlFilter.all(), Duration.ofSeconds(5));
+            return System.nanoTime();
+        });
+        Thread.sleep(200);
+        Assert.assertFalse(idleAt.isDone(), "Request still in flight");
+        long finishedAt = System.nanoTime();
+        activity.requestFinished("1");
+        long quietMillis = TimeUnit.NANOSECONDS.toMillis(idleAt.get(5, TimeUnit.SECONDS) - finishedAt);
+        Assert.assertTrue(quietMillis >= QUIET_MILLIS - 5, "Idle " + quietMillis + " ms after the last request");
+    }
+
+    @Test(description = "maxInflight tolerates long-running requests; filtered URLs are ignored")
+    public void testInflightLimitAndFilter() {
+        NetworkActivity activity = new NetworkActivity();
+        activity.requestStarted("poll", "https://example.com/api/poll");
+        activity.requestStarted("beacon", "https://www.google-analytics.com/collect?v=1");
+        Assert.assertEquals(activity.inflight(UrlFilter.all()), 2);
+        Assert.assertEquals(activity.inflight(UrlFilter.defaults()), 1);
+        activity.awaitIdle(1, 0, UrlFilter.defaults(), Duration.ofSeconds(5));
+        activity.awaitIdle(0, 0, UrlFilter.include("/api/").exclude("/api/poll"), Duration.ofSeconds(5));
+    }
+
+    @Test(description = "UrlFilter: excludes win over includes; data: URLs never count")
+    public void testUrlFilter() {
+        Assert.assertTrue(UrlFilter.all().test("https://example.com/app.js"));
+        Assert.assertFalse(UrlFilter.all().test("data:image/png;base64,AAAA"));
+        Assert.assertFalse(UrlFilter.all().test(null));
+
+        Assert.assertFalse(UrlFilter.defaults().test("https://www.googletagmanager.com/gtm.js?id=GTM-1"));
+        Assert.assertFalse(UrlFilter.defaults().test("https://example.com/collect?event=view"));
+        Assert.assertTrue(UrlFilter.defaults().test("https://example.com/api/collection"));
+
+        UrlFilter api = UrlFilter.include("/api/", "/graphql").exclude("/api/poll");
+        Assert.assertTrue(api.test("https://example.com/api/search?q=1"));
+        Assert.assertTrue(api.test("https://example.com/graphql"));
+        Assert.assertFalse(api.test("https://example.com/api/poll?since=5"), "Exclude wins over include");
+        Assert.assertFalse(api.test("https://example.com/static/app.css"));
+    }
+
+    @Test(description = "Timeout names the pending URLs")
+    public void testTimeoutNamesPendingRequests() {
+        NetworkActivity activity = new NetworkActivity();
+        activity.requestStarted("1", "https://example.com/slow");
+        try {
+            activity.awaitIdle(0, 0, UrlFilter.all(), Duration.ofMillis(200));
+            Assert.fail("Expected a timeout");
+        } catch (TimeoutException e) {
+            Assert.assertTrue(e.getMessage().contains("https://example.com/slow"), e.getMessage());
+        }
+    }
+}
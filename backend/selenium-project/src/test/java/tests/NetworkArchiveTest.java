@@ -0,0 +1,117 @@
+package tests;
+
+import network.NetworkArchive;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Checks the replay archive without a browser: request-key normalisation (cache busters, fragments,
+ * query fallback), replay order of repeated requests and the save/load round trip.
+ */
+public class NetworkArchiveTest {
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteArchives() throws IOException {
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "Cache-buster parameters, fragments and method case do not change the key")
+    public void testKeyNormalisation() throws IOException {
+        NetworkArchive archive = new NetworkArchive(tempDir());
+        archive.add("GET", "https://example.com/api/search?q=laptop&_=1700000000", 200, Map.of(), body("laptops"));
+
+        Assert.assertEquals(text(archive.find("get", "https://example.com/api/search?q=laptop&_=1800000000#top")), "laptops");
+        Assert.assertEquals(text(archive.find("GET", "https://example.com/api/search?cb=42&q=laptop")), "laptops");
+        Assert.assertNull(archive.find("POST", "https://example.com/api/search?q=laptop"), "Method is part of the key");
+        Assert.assertNull(archive.find("GET", "https://example.com/api/other"));
+    }
+
+    @Test(description = "A query that was never recorded falls back to the same URL without a query")
+    public void testQueryFallback() throws IOException {
+        NetworkArchive archive = new NetworkArchive(tempDir());
+        archive.add("GET", "https://example.com/config.json", 200, Map.of(), body("plain"));
+        archive.add("GET", "https://example.com/search?q=phone", 200, Map.of(), body("phones"));
+
+        Assert.assertEquals(text(archive.find("GET", "https://example.com/config.json?v=2")), "plain");
+        Assert.assertEquals(text(archive.find("GET", "https://example.com/search?q=phone")), "phones");
+        Assert.assertEquals(text(archive.find("GET", "https://example.com/search?q=tablet")), "phones",
+                "Unknown query served by the query-less key");
+    }
+
+    @Test(description = "Repeated requests replay in recording order; the last response is served once exhausted")
+    public void testReplayOrder() throws IOException {
+        NetworkArchive archive = new NetworkArchive(tempDir());
+        archive.add("GET", "https://example.com/api/cart", 200, Map.of(), body("empty"));
+        archive.add("GET", "https://example.com/api/cart", 200, Map.of(), body("one item"));
+
+        Assert.assertEquals(text(archive.find("GET", "https://example.com/api/cart")), "empty");
+        Assert.assertEquals(text(archive.find("GET", "https://example.com/api/cart")), "one item");
+        Assert.assertEquals(text(archive.find("GET", "https://example.com/api/cart")), "one item");
+    }
+
+    @Test(description = "save() and load() round-trip status, headers and bodies; identical bodies are stored once")
+    public void testSaveLoadRoundTrip() throws IOException {
+        Path dir = tempDir();
+        NetworkArchive archive = new NetworkArchive(dir);
+        archive.add("GET", "https://example.com/a.js", 200, Map.of("content-type", "text/javascript"), body("same"));
+        archive.add("GET", "https://example.com/b.js", 200, Map.of("content-type", "text/javascript"), body("same"));
+        archive.add("POST", "https://example.com/api/login", 401, Map.of("www-authenticate", "Bearer"), body("denied"));
+        archive.save();
+
+        try (Stream<Path> bodies = Files.list(dir.resolve("bodies"))) {
+            Assert.assertEquals(bodies.count(), 2, "Bodies are content-addressed");
+        }
+        NetworkArchive loaded = NetworkArchive.load(dir);
+        Assert.assertEquals(loaded.size(), 3);
+        NetworkArchive.Entry login = loaded.find("POST", "https://example.com/api/login");
+        Assert.assertEquals(login.getStatus(), 401);
+        Assert.assertEquals(login.getHeaders(), Map.of("www-authenticate", "Bearer"));
+        Assert.assertEquals(text(login), "denied");
+        Assert.assertEquals(text(loaded.find("GET", "https://example.com/b.js")), "same");
+    }
+
+    @Test(description = "Loading a directory without an index explains how to record one")
+    public void testLoadMissingArchive() throws IOException {
+        Path dir = tempDir();
+        try {
+            NetworkArchive.load(dir);
+            Assert.fail("Expected a missing-archive error");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("network.mode=record"), e.getMessage());
+        }
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("network-archive");
+        dirs.add(dir);
+        return dir;
+    }
+
+    private static byte[] body(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(NetworkArchive.Entry entry) {
+        Assert.assertNotNull(entry, "No archived response");
+        return new String(entry.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,157 @@
+package tests;
+
+import listeners.PerfBudget;
+import listeners.PerfBudgetListener;
+import org.testng.Assert;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks how PerfBudgetListener resolves limits and modes by running small nested TestNG suites:
+ * suite parameter vs class vs method annotation, and INHERIT/WARN/FAIL. Only the wall-time budget
+ * is used (each sample test sleeps past a 1 ms limit), so no browser is needed.
+ */
+public class PerfBudgetListenerTest {
+
+    private static final long PAUSE_MILLIS = 20;
+
+    @Test(description = "A suite parameter alone fails the test; the default mode is fail")
+    public void testSuiteParameterFails() {
+        Map<String, ITestResult> results = run(Map.of("perf.budget.wallTimeMillis", "1"), NoAnnotation.class);
+        assertFailed(results.get("slow"));
+    }
+
+    @Test(description = "Class annotation overrides the suite parameter; method annotation overrides the class")
+    public void testMostSpecificLimitWins() {
+        Map<String, ITestResult> results = run(Map.of("perf.budget.wallTimeMillis", "1"), GenerousClass.class);
+        assertPassed(results.get("classLimit"));
+        assertFailed(results.get("methodLimit"));
+    }
+
+    @Test(description = "Suite mode warn records the violation but keeps the test passing")
+    public void testSuiteWarnMode() {
+        Map<String, ITestResult> results = run(
+                Map.of("perf.budget.wallTimeMillis", "1", "perf.budget.mode", "warn"), NoAnnotation.class);
+        assertWarned(results.get("slow"));
+    }
+
+    @Test(description = "INHERIT defers to the class mode; an explicit method mode wins over class and suite")
+    public void testModeResolution() {
+        // Suite mode is the default (fail): the class WARN applies unless the method says FAIL
+        Map<String, ITestResult> results = run(Map.of(), WarnClass.class);
+        assertWarned(results.get("inheritsClassWarn"));
+        assertFailed(results.get("methodFail"));
+
+        results = run(Map.of("perf.budget.wallTimeMillis", "1", "perf.budget.mode", "warn"), FailMethod.class);
+        assertFailed(results.get("slow"));
+    }
+
+    @Test(description = "Without any limit nothing is measured or changed")
+    public void testNoBudget() {
+        Map<String, ITestResult> results = run(Map.of(), NoAnnotation.class);
+        assertPassed(results.get("slow"));
+    }
+
+    public static class NoAnnotation {
+        @Test
+        public void slow() throws InterruptedException {
+            Thread.sleep(PAUSE_MILLIS);
+        }
+    }
+
+    @PerfBudget(wallTimeMillis = 60_000)
+    public static class GenerousClass {
+        @Test
+        public void classLimit() throws InterruptedException {
+            Thread.sleep(PAUSE_MILLIS);
+        }
+
+        @Test
+        @PerfBudget(wallTimeMillis = 1)
+        public void methodLimit() throws InterruptedException {
+            Thread.sleep(PAUSE_MILLIS);
+        }
+    }
+
+    @PerfBudget(wallTimeMillis = 1, mode = PerfBudget.Mode.WARN)
+    public static class WarnClass {
+        @Test
+        public void inheritsClassWarn() throws InterruptedException {
+            Thread.sleep(PAUSE_MILLIS);
+        }
+
+        @Test
+        @PerfBudget(mode = PerfBudget.Mode.FAIL)
+        public void methodFail() throws InterruptedException {
+            Thread.sleep(PAUSE_MILLIS);
+        }
+    }
+
+    public static class FailMethod {
+        @Test
+        @PerfBudget(mode = PerfBudget.Mode.FAIL)
+        public void slow() throws InterruptedException {
+            Thread.sleep(PAUSE_MILLIS);
+        }
+    }
+
+    /**
+     * Run one class in its own TestNG instance with PerfBudgetListener and the given suite parameters
+     * @return Final results by method name
+     */
+    private static Map<String, ITestResult> run(Map<String, String> parameters, Class<?> testClass) {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("PerfBudget");
+        suite.setParameters(parameters);
+        XmlTest test = new XmlTest(suite);
+        test.setName(testClass.getSimpleName());
+        test.setXmlClasses(List.of(new XmlClass(testClass)));
+
+        Map<String, ITestResult> results = new ConcurrentHashMap<>();
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setXmlSuites(List.of(suite));
+        testng.addListener(new PerfBudgetListener());
+        testng.addListener(new ITestListener() {
+            @Override
+            public void onTestSuccess(ITestResult result) {
+                results.put(result.getMethod().getMethodName(), result);
+            }
+
+            @Override
+            public void onTestFailure(ITestResult result) {
+                results.put(result.getMethod().getMethodName(), result);
+            }
+        });
+        testng.run();
+        return results;
+    }
+
+    private static void assertPassed(ITestResult result) {
+        Assert.assertNotNull(result, "Test did not run");
+        Assert.assertEquals(result.getStatus(), ITestResult.SUCCESS);
+        Assert.assertNull(result.getAttribute(PerfBudgetListener.VIOLATIONS_ATTRIBUTE));
+    }
+
+    private static void assertWarned(ITestResult result) {
+        Assert.assertNotNull(result, "Test did not run");
+        Assert.assertEquals(result.getStatus(), ITestResult.SUCCESS, "Warn mode must not fail the test");
+        Assert.assertNotNull(result.getAttribute(PerfBudgetListener.VIOLATIONS_ATTRIBUTE), "Violation not recorded");
+    }
+
+    private static void assertFailed(ITestResult result) {
+        Assert.assertNotNull(result, "Test did not run");
+        Assert.assertEquals(result.getStatus(), ITestResult.FAILURE);
+        Assert.assertTrue(result.getThrowable() instanceof AssertionError, String.valueOf(result.getThrowable()));
+        Assert.assertTrue(result.getThrowable().getMessage().contains("wallTimeMillis"), result.getThrowable().getMessage());
+    }
+}
@@ -0,0 +1,158 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.ScreenshotPipeline;
+import utils.ScreenshotStore;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks the content-addressed screenshot store: deduplication, pack rollover, mapped reads,
+ * reopening from disk and parallel writers. Uses synthetic image bytes.
+ */
+public class ScreenshotStoreTest {
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteStores() throws IOException {
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "Identical captures are stored once and read back byte for byte")
+    public void testDeduplicationAndReads() throws IOException {
+        Path dir = tempDir();
+        ScreenshotStore store = new ScreenshotStore(dir, 1024 * 1024);
+        byte[] home = image(1, 5000);
+        byte[] results = image(2, 7000);
+
+        String first = store.put("home", home);
+        String again = store.put("home_again", home.clone());
+        String other = store.put("results", results);
+
+        Assert.assertEquals(again, first, "Same content must give the same reference");
+        Assert.assertNotEquals(other, first);
+        Assert.assertTrue(ScreenshotStore.isReference(first));
+        Assert.assertEquals(store.getUniqueCount(), 2);
+        Assert.assertEquals(store.getDeduplicatedCount(), 1);
+        Assert.assertEquals(toArray(store.read(first)), home);
+        try (InputStream in = store.open(other)) {
+            Assert.assertEquals(in.readAllBytes(), results);
+        }
+        Assert.assertEquals(Files.readAllBytes(store.export(first, dir.resolve("home.png"))), home);
+        Assert.assertEquals(Files.readAllLines(dir.resolve("names.log")).size(), 3, "Every capture name is recorded");
+    }
+
+    @Test(description = "Packs roll over at the size limit and a reopened store finds every image")
+    public void testRolloverAndReopen() throws IOException {
+        Path dir = tempDir();
+        ScreenshotStore store = new ScreenshotStore(dir, 20_000);
+        String[] refs = new String[10];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = store.put("shot" + i, image(i, 6000));
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> packs = files.filter(p -> p.toString().endsWith(".pack")).collect(Collectors.toList());
+            Assert.assertTrue(packs.size() >= 3, "Expected several packs, got " + packs);
+        }
+
+        ScreenshotStore reopened = new ScreenshotStore(dir, 20_000);
+        Assert.assertEquals(reopened.getUniqueCount(), 10);
+        for (int i = 0; i < refs.length; i++) {
+            Assert.assertEquals(toArray(reopened.read(refs[i])), image(i, 6000), "Image " + i + " corrupted");
+        }
+        Assert.assertEquals(reopened.put("shot0_again", image(0, 6000)), refs[0]);
+        Assert.assertEquals(reopened.getStoredCount(), 0, "Known image must not be appended again");
+    }
+
+    @Test(description = "Parallel writers with overlapping content store each image exactly once")
+    public void testParallelPuts() throws Exception {
+        Path dir = tempDir();
+        ScreenshotStore store = new ScreenshotStore(dir, 64 * 1024);
+        Set<String> refs = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 50; i++) {
+                    refs.add(store.put("shot" + i, image(i % 20, 3000)));
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        Assert.assertEquals(refs.size(), 20);
+        Assert.assertEquals(store.getUniqueCount(), 20);
+        Assert.assertEquals(store.getStoredCount(), 20);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(refs.contains(new ScreenshotStore(dir, 64 * 1024).put("check", image(i, 3000))));
+        }
+    }
+
+    @Test(description = "Captures handed to the pipeline resolve by name once stored; one store per directory")
+    public void testCaptureReferenceThroughPipeline() throws Exception {
+        Path dir = tempDir();
+        ScreenshotStore store = ScreenshotStore.forDirectory(dir);
+        Assert.assertSame(ScreenshotStore.forDirectory(dir.resolve(".")), store);
+        byte[] home = image(5, 4000);
+        String captureRef = ScreenshotStore.CAPTURE_PREFIX + "home_1";
+
+        String ref = ScreenshotPipeline.getInstance()
+                .store(Base64.getEncoder().encodeToString(home), store, "home_1")
+                .get(30, TimeUnit.SECONDS);
+        Assert.assertTrue(ScreenshotPipeline.getInstance().flush(Duration.ofSeconds(30)));
+
+        Assert.assertTrue(ScreenshotStore.isReference(captureRef));
+        Assert.assertTrue(store.contains(captureRef));
+        Assert.assertEquals(toArray(store.read(captureRef)), home);
+        Assert.assertEquals(toArray(new ScreenshotStore(dir, 1024 * 1024).read(captureRef)), home, "Resolved from names.log");
+        Assert.assertEquals(toArray(store.read(ref)), home);
+        Assert.assertFalse(store.contains(ScreenshotStore.CAPTURE_PREFIX + "never_taken"));
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("screenshot-store");
+        dirs.add(dir);
+        return dir;
+    }
+
+    private static byte[] image(int seed, int size) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) seed);
+        for (int i = 0; i < size; i += 97) {
+            bytes[i] = (byte) (i * 31 + seed);
+        }
+        return bytes;
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,204 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.VisualDiff;
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks the visual diff engine on synthetic images: tolerance, ignore regions, size changes,
+ * raster fast paths and the baseline record/compare cycle. No browser needed.
+ */
+public class VisualDiffTest {
+
+    private static final double BUDGET_MILLIS = 50;
+
+    private final List<Path> dirs = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteBaselines() throws IOException {
+        for (Path dir : dirs) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        dirs.clear();
+    }
+
+    @Test(description = "Identical images and sub-threshold noise give no mismatch")
+    public void testToleranceHidesNoise() {
+        BufferedImage expected = page(BufferedImage.TYPE_INT_RGB, 400, 300);
+        Assert.assertEquals(VisualDiff.compare(expected, copy(expected, BufferedImage.TYPE_INT_RGB), 0.1, List.of())
+                .getMismatchedPixels(), 0);
+
+        BufferedImage noisy = copy(expected, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < noisy.getWidth(); x += 3) {
+            int rgb = noisy.getRGB(x, 10);
+            noisy.setRGB(x, 10, rgb ^ 0x010101);
+        }
+        Assert.assertEquals(VisualDiff.compare(expected, noisy, 0.1, List.of()).getMismatchedPixels(), 0,
+                "One-step colour noise must stay under the default threshold");
+        Assert.assertTrue(VisualDiff.compare(expected, noisy, 0, List.of()).getMismatchedPixels() > 0,
+                "Threshold 0 is an exact comparison");
+    }
+
+    @Test(description = "A changed block is counted exactly, painted red and excluded by an ignore region")
+    public void testMismatchScoreAndIgnoreRegions() {
+        BufferedImage expected = page(BufferedImage.TYPE_INT_RGB, 400, 300);
+        BufferedImage actual = copy(expected, BufferedImage.TYPE_INT_RGB);
+        fill(actual, new Rectangle(50, 100, 20, 10), Color.BLACK);
+        fill(expected, new Rectangle(50, 100, 20, 10), Color.WHITE);
+
+        VisualDiff.Result result = VisualDiff.compare(expected, actual, 0.1, List.of());
+        Assert.assertEquals(result.getMismatchedPixels(), 200);
+        Assert.assertEquals(result.getScore(), 200.0 / (400 * 300), 1e-12);
+        Assert.assertEquals(result.getDiffImage().getRGB(55, 105), 0xFFFF0000, "Mismatch not marked in the diff image");
+        Assert.assertNotEquals(result.getDiffImage().getRGB(5, 5), 0xFFFF0000);
+
+        VisualDiff.Result ignored = VisualDiff.compare(expected, actual, 0.1, List.of(new Rectangle(40, 95, 40, 20)));
+        Assert.assertEquals(ignored.getMismatchedPixels(), 0);
+        Assert.assertEquals(ignored.getIgnoredPixels(), 800);
+        Assert.assertEquals(ignored.getComparedPixels(), 400 * 300 - 800);
+    }
+
+    @Test(description = "A taller capture reports the extra rows as mismatching")
+    public void testSizeMismatch() {
+        BufferedImage expected = page(BufferedImage.TYPE_INT_RGB, 200, 100);
+        BufferedImage actual = new BufferedImage(200, 130, BufferedImage.TYPE_INT_RGB);
+        actual.createGraphics().drawImage(expected, 0, 0, null);
+
+        VisualDiff.Result result = VisualDiff.compare(expected, actual, 0.1, List.of());
+        Assert.assertTrue(result.isSizeMismatch());
+        Assert.assertEquals(result.getMismatchedPixels(), 200 * 30);
+        Assert.assertEquals(result.getDiffImage().getHeight(), 130);
+    }
+
+    @Test(description = "Byte and int rasters of the same picture compare equal (raster fast paths)")
+    public void testImageTypes() {
+        BufferedImage reference = page(BufferedImage.TYPE_INT_ARGB, 321, 257);
+        int[] types = { BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+                BufferedImage.TYPE_INT_BGR };
+        for (int type : types) {
+            Assert.assertEquals(VisualDiff.compare(reference, copy(reference, type), 0, List.of()).getMismatchedPixels(), 0,
+                    "Image type " + type);
+        }
+    }
+
+    @Test(description = "First check records the baseline, later checks compare and write a diff image")
+    public void testBaselineCycle() throws IOException {
+        Path dir = tempDir();
+        VisualDiff visual = new VisualDiff(dir.resolve("baselines"), dir.resolve("diffs"), 0.1, 0.001, false);
+        BufferedImage home = page(BufferedImage.TYPE_3BYTE_BGR, 300, 200);
+
+        VisualDiff.Result first = visual.check("home page", png(home));
+        Assert.assertTrue(first.isBaselineCreated());
+        Assert.assertTrue(Files.exists(dir.resolve("baselines/home_page.png")));
+
+        VisualDiff.Result same = visual.check("home page", png(home));
+        Assert.assertTrue(same.isMatch(), same.toString());
+        Assert.assertNull(same.getDiffFile());
+
+        fill(home, new Rectangle(0, 0, 300, 40), Color.RED);
+        VisualDiff.Result changed = visual.check("home page", png(home));
+        Assert.assertFalse(changed.isMatch(), changed.toString());
+        Assert.assertTrue(Files.exists(changed.getDiffFile()), "Diff image not written");
+        Assert.assertNotNull(ImageIO.read(changed.getDiffFile().toFile()));
+
+        // A baseline replaced on disk is decoded again, not served from the cache
+        Files.write(dir.resolve("baselines/home_page.png"), png(home));
+        VisualDiff.Result replaced = visual.check("home page", png(home));
+        Assert.assertTrue(replaced.isMatch(), replaced.toString());
+    }
+
+    @Test(description = "1080p frame with scattered changes: exact count; check() timing reported against the budget")
+    public void testFullHdFrame() throws IOException {
+        BufferedImage expected = page(BufferedImage.TYPE_3BYTE_BGR, 1920, 1080);
+        BufferedImage actual = copy(expected, BufferedImage.TYPE_3BYTE_BGR);
+        for (int i = 0; i < 50; i++) {
+            fill(expected, new Rectangle(i * 37, i * 21, 10, 10), Color.WHITE);
+            fill(actual, new Rectangle(i * 37, i * 21, 10, 10), Color.BLACK);
+        }
+        Assert.assertEquals(VisualDiff.compare(expected, actual, 0.1, List.of()).getMismatchedPixels(), 50 * 100);
+
+        // The budget covers what check() does per capture: decode the capture and compare it with the
+        // (cached) baseline. Changes stay under the mismatch ratio so no diff image is rendered.
+        // Timing depends on the machine, so it is reported rather than asserted.
+        Path dir = tempDir();
+        VisualDiff visual = new VisualDiff(dir.resolve("baselines"), dir.resolve("diffs"), 0.1, 0.01, false);
+        Assert.assertTrue(visual.check("full_hd", png(expected)).isBaselineCreated());
+        byte[] capture = png(actual);
+        long[] samples = new long[7];
+        for (int i = -5; i < samples.length; i++) {
+            // The first rounds warm up the pool, ImageIO and the JIT
+            long start = System.nanoTime();
+            VisualDiff.Result result = visual.check("full_hd", capture);
+            long elapsed = System.nanoTime() - start;
+            Assert.assertEquals(result.getMismatchedPixels(), 50 * 100);
+            if (i >= 0) {
+                samples[i] = elapsed;
+            }
+        }
+        Arrays.sort(samples);
+        double medianMillis = samples[samples.length / 2] / 1e6;
+        Reporter.log("1080p visual check (decode + compare): median " + medianMillis + " ms, budget "
+                + BUDGET_MILLIS + " ms" + (medianMillis <= BUDGET_MILLIS ? "" : " - MISSED"));
+    }
+
+    private Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("visual");
+        dirs.add(dir);
+        return dir;
+    }
+
+    private static BufferedImage page(int type, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(245, 245, 250));
+        graphics.fillRect(0, 0, width, height);
+        for (int y = 0; y < height; y += 24) {
+            graphics.setColor(new Color((y * 7) % 200, 80, 160));
+            graphics.fillRect(8, y + 4, width / 2, 12);
+            graphics.drawString("Result row " + y, width / 2 + 16, y + 16);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage source, int type) {
+        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), type);
+        Graphics2D graphics = copy.createGraphics();
+        graphics.drawImage(source, 0, 0, null);
+        graphics.dispose();
+        return copy;
+    }
+
+    private static void fill(BufferedImage image, Rectangle area, Color color) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fill(area);
+        graphics.dispose();
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
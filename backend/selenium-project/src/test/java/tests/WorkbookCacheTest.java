@@ -0,0 +1,240 @@
+package tests;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.ExcelUtils;
+import utils.WorkbookCache;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Checks the workbook cache: typed values, hits, invalidation on file change, LRU eviction under
+ * the memory cap and a single load for concurrent readers.
+ */
+public class WorkbookCacheTest {
+
+    private Path dir;
+    private Path routes;
+
+    @BeforeClass
+    public void createWorkbook() throws IOException {
+        dir = Files.createTempDirectory("workbook-cache");
+        routes = dir.resolve("routes.xlsx");
+        writeRoutes(routes, "Mumbai");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteWorkbooks() throws IOException {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test(description = "Cells keep their types; formulas give their cached result")
+    public void testTypedValues() {
+        WorkbookCache.SheetData data = new WorkbookCache(1024 * 1024).get(routes.toString(), "Routes");
+        Assert.assertEquals(data.getHeaders(), new String[] { "From", "To", "Seats", "Express", "Date" });
+        Assert.assertEquals(data.getRowCount(), 4);
+        Assert.assertEquals(data.get(1, 0), "Pune");
+        Assert.assertEquals(data.get(1, 2), 2.0);
+        Assert.assertEquals(data.get(1, 3), Boolean.TRUE);
+        Assert.assertEquals(data.get(1, 4), LocalDateTime.of(2024, 5, 1, 10, 30));
+        Assert.assertNull(data.get(2, 1), "Empty cell");
+        Assert.assertEquals(data.get(3, 2), 3.0, "Formula result");
+
+        Object[][] rows = data.toDataProvider();
+        Assert.assertEquals(rows.length, 3);
+        rows[0][0] = "changed";
+        Assert.assertEquals(data.get(1, 0), "Pune", "DataProvider rows are copies");
+        List<Map<String, Object>> maps = data.toMaps();
+        Assert.assertEquals(maps.get(2).get("From"), "Goa");
+    }
+
+    @Test(description = "Repeated reads hit; a changed file is read again")
+    public void testInvalidation() throws IOException {
+        Path file = dir.resolve("changing.xlsx");
+        writeRoutes(file, "Mumbai");
+        WorkbookCache cache = new WorkbookCache(1024 * 1024);
+        WorkbookCache.SheetData first = cache.get(file.toString(), "Routes");
+        Assert.assertSame(cache.get(file.toString(), "Routes"), first);
+        Assert.assertEquals(cache.getStats().getHits(), 1);
+        Assert.assertEquals(cache.getStats().getMisses(), 1);
+
+        writeRoutes(file, "Delhi");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        WorkbookCache.SheetData second = cache.get(file.toString(), "Routes");
+        Assert.assertEquals(second.get(1, 1), "Delhi");
+        Assert.assertEquals(cache.getStats().getInvalidations(), 1);
+        Assert.assertEquals(cache.getStats().getLoads(), 2);
+    }
+
+    @Test(description = "Least recently used sheets are evicted to stay under the memory cap")
+    public void testLruEviction() throws IOException {
+        WorkbookCache probe = new WorkbookCache(1024 * 1024);
+        probe.get(routes.toString(), "Routes");
+        long sheetBytes = probe.getStats().getBytes();
+
+        Path a = dir.resolve("a.xlsx");
+        Path b = dir.resolve("b.xlsx");
+        Path c = dir.resolve("c.xlsx");
+        for (Path file : new Path[] { a, b, c }) {
+            writeRoutes(file, "Mumbai");
+        }
+        // Room for two sheets
+        WorkbookCache cache = new WorkbookCache(sheetBytes * 2 + sheetBytes / 2);
+        cache.get(a.toString(), "Routes");
+        cache.get(b.toString(), "Routes");
+        cache.get(a.toString(), "Routes");
+        cache.get(c.toString(), "Routes");
+        Assert.assertEquals(cache.getStats().getEvictions(), 1);
+        Assert.assertEquals(cache.getStats().getEntries(), 2);
+        Assert.assertTrue(cache.getStats().getBytes() <= sheetBytes * 2 + sheetBytes / 2);
+
+        cache.get(a.toString(), "Routes");
+        Assert.assertEquals(cache.getStats().getHits(), 2, "Recently used sheet survived");
+        cache.get(b.toString(), "Routes");
+        Assert.assertEquals(cache.getStats().getLoads(), 4, "Least recently used sheet was evicted");
+    }
+
+    @Test(description = "Concurrent readers of the same sheet share one load")
+    public void testConcurrentReaders() throws Exception {
+        WorkbookCache cache = new WorkbookCache(1024 * 1024);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<WorkbookCache.SheetData>> readers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                readers.add(() -> cache.get(routes.toString(), "Routes"));
+            }
+            List<Future<WorkbookCache.SheetData>> results = executor.invokeAll(readers);
+            WorkbookCache.SheetData first = results.get(0).get();
+            for (Future<WorkbookCache.SheetData> result : results) {
+                Assert.assertSame(result.get(), first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(cache.getStats().getLoads(), 1);
+    }
+
+    @Test(description = "ExcelUtils reads test data through the compiled copy with its string conversion")
+    public void testExcelUtils() throws IOException {
+        Object[][] data = ExcelUtils.getTestData(routes.toString(), "Routes");
+        Assert.assertEquals(data[0][0], "Pune");
+        Assert.assertEquals(data[0][2], "2");
+        Assert.assertEquals(data[0][3], "true");
+        Assert.assertEquals(data[1][1], "");
+        Assert.assertEquals(data[2][2], "3");
+        Assert.assertEquals(ExcelUtils.getTestDataAsMap(routes.toString(), "Routes").get(2).get("To"), "Pune");
+        Iterator<Object[]> rows = ExcelUtils.getTestDataIterator(routes.toString(), "Routes");
+        Assert.assertEquals(rows.next(), data[0]);
+        Assert.assertEquals(rows.next(), data[1]);
+        Assert.assertEquals(rows.next(), data[2]);
+        Assert.assertFalse(rows.hasNext());
+        try (Stream<Path> files = Files.list(dir)) {
+            Assert.assertTrue(files.anyMatch(p -> p.getFileName().toString().startsWith("routes.xlsx.Routes.")),
+                    "Compiled beside the source");
+        }
+        Assert.assertEquals(ExcelUtils.getRowCount(routes.toString(), "Routes"), 4);
+        Assert.assertEquals(ExcelUtils.getColCount(routes.toString(), "Routes"), 5);
+    }
+
+    @Test(description = "setExcelFile selects per thread; setCellData and createExcelFile keep no shared state")
+    public void testExcelUtilsCellAccessPerThread() throws Exception {
+        Path other = dir.resolve("other.xlsx");
+        writeRoutes(other, "Delhi");
+        Path created = dir.resolve("created.xlsx");
+        ExcelUtils.createExcelFile(created.toString(), "Results", new String[] { "Test", "Status" });
+        ExcelUtils.setCellData(created.toString(), "Results", 1, 1, "PASS");
+
+        ExcelUtils.setExcelFile(routes.toString(), "Routes");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            String otherThread = executor.submit(() -> {
+                ExcelUtils.setExcelFile(other.toString(), "Routes");
+                try {
+                    return ExcelUtils.getCellData(1, 1);
+                } finally {
+                    ExcelUtils.closeExcelFile();
+                }
+            }).get();
+            Assert.assertEquals(otherThread, "Delhi");
+            Assert.assertEquals(ExcelUtils.getCellData(1, 1), "Mumbai", "Selection of another thread leaked");
+            Assert.assertEquals(ExcelUtils.getCellData(3, 2), "1+2", "getCellData keeps returning formula text");
+            Assert.assertTrue(ExcelUtils.isCellEmpty(2, 1));
+
+            ExcelUtils.setExcelFile(created.toString(), "Results");
+            Assert.assertEquals(ExcelUtils.getCellData(0, 1), "Status");
+            Assert.assertEquals(ExcelUtils.getCellData(1, 1), "PASS");
+        } finally {
+            ExcelUtils.closeExcelFile();
+            executor.shutdownNow();
+        }
+        Assert.assertThrows(IllegalStateException.class, () -> ExcelUtils.getCellData(0, 0));
+    }
+
+    @Test(description = "Unknown sheets fail with the sheet name in the message")
+    public void testMissingSheet() {
+        try {
+            new WorkbookCache(1024 * 1024).get(routes.toString(), "Missing");
+            Assert.fail("Expected an exception");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("Missing"), e.getMessage());
+        }
+    }
+
+    private static void writeRoutes(Path file, String destination) throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Routes");
+            Row header = sheet.createRow(0);
+            String[] headers = { "From", "To", "Seats", "Express", "Date" };
+            for (int i = 0; i < headers.length; i++) {
+                header.createCell(i).setCellValue(headers[i]);
+            }
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("Pune");
+            first.createCell(1).setCellValue(destination);
+            first.createCell(2).setCellValue(2);
+            first.createCell(3).setCellValue(true);
+            first.createCell(4).setCellValue(LocalDateTime.of(2024, 5, 1, 10, 30));
+            first.getCell(4).setCellStyle(dateStyle);
+            Row gap = sheet.createRow(2);
+            gap.createCell(0).setCellValue("Nashik");
+            Row formula = sheet.createRow(3);
+            formula.createCell(0).setCellValue("Goa");
+            formula.createCell(1).setCellValue("Pune");
+            formula.createCell(2).setCellFormula("1+2");
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            try (OutputStream out = Files.newOutputStream(file)) {
+                workbook.write(out);
+            }
+        }
+    }
+}
@@ -7,7 +7,6 @@ import org.openqa.selenium.Keys;
 import org.openqa.selenium.By;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import java.time.Duration;
 
 /**
  * Selenium Actions Utility Class
@@ -19,27 +18,35 @@ import java.time.Duration;
  * - Right-click context menu operations
  * - Double-click actions
  * - Element interactions with Actions class
+ * - Gestures return as soon as the page settles (SettleDetector) instead of after a fixed sleep
  * 
  * Usage Examples:
  * 1. Hover: ActionUtils.hoverOverElement(driver, element);
  * 2. Drag & Drop: ActionUtils.dragAndDrop(driver, source, target);
  * 3. Right Click: ActionUtils.rightClick(driver, element);
  * 4. Key Combo: ActionUtils.pressKeysCombination(driver, Keys.CONTROL, "a");
+ *
+ * Thread safety: every call builds its own Actions chain for the driver it was given,
+ * so parallel tests (TestNG parallel="methods") never send gestures to another browser.
  */
 public class ActionUtils {
     
-    private static Actions actions;
-    private static WebDriverWait wait;
+    /**
+     * Get a fresh Actions builder bound to the given driver
+     * @param driver WebDriver instance
+     * @return Actions for this gesture only
+     */
+    private static Actions actionsFor(WebDriver driver) {
+        return DriverContext.of(driver).newActions();
+    }
     
     /**
-     * Initialize Actions class
+     * Get the wait bound to the given driver
      * @param driver WebDriver instance
+     * @return WebDriverWait
      */
-    private static void initializeActions(WebDriver driver) {
-        if (actions == null) {
-            actions = new Actions(driver);
-            wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        }
+    private static WebDriverWait waitFor(WebDriver driver) {
+        return DriverContext.of(driver).getWait();
     }
     
     /**
@@ -48,11 +55,12 @@ public class ActionUtils {
      * @param element WebElement to hover over
      */
     public static void hoverOverElement(WebDriver driver, WebElement element) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(element));
             actions.moveToElement(element).perform();
-            Thread.sleep(500); // Small pause to ensure hover effect
+            SettleDetector.waitForSettle(driver); // Let hover menus finish rendering
         } catch (Exception e) {
             throw new RuntimeException("Failed to hover over element", e);
         }
@@ -64,7 +72,7 @@ public class ActionUtils {
      * @param locator By locator
      */
     public static void hoverOverElement(WebDriver driver, By locator) {
-        WebElement element = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        WebElement element = waitFor(driver).until(ExpectedConditions.visibilityOfElementLocated(locator));
         hoverOverElement(driver, element);
     }
     
@@ -75,13 +83,14 @@ public class ActionUtils {
      * @param targetElement Target element
      */
     public static void dragAndDrop(WebDriver driver, WebElement sourceElement, WebElement targetElement) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(sourceElement));
             wait.until(ExpectedConditions.visibilityOf(targetElement));
             
             actions.dragAndDrop(sourceElement, targetElement).perform();
-            Thread.sleep(1000); // Wait for drag and drop to complete
+            SettleDetector.waitForSettle(driver); // Wait for drag and drop to complete
         } catch (Exception e) {
             throw new RuntimeException("Failed to perform drag and drop", e);
         }
@@ -95,11 +104,12 @@ public class ActionUtils {
      * @param yOffset Y offset
      */
     public static void dragAndDropByOffset(WebDriver driver, WebElement element, int xOffset, int yOffset) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(element));
             actions.dragAndDropBy(element, xOffset, yOffset).perform();
-            Thread.sleep(1000);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to perform drag and drop by offset", e);
         }
@@ -111,11 +121,12 @@ public class ActionUtils {
      * @param element WebElement to right-click
      */
     public static void rightClick(WebDriver driver, WebElement element) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(element));
             actions.contextClick(element).perform();
-            Thread.sleep(500);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to right-click on element", e);
         }
@@ -127,11 +138,12 @@ public class ActionUtils {
      * @param element WebElement to double-click
      */
     public static void doubleClick(WebDriver driver, WebElement element) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(element));
             actions.doubleClick(element).perform();
-            Thread.sleep(500);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to double-click on element", e);
         }
@@ -143,7 +155,8 @@ public class ActionUtils {
      * @param element WebElement to click and hold
      */
     public static void clickAndHold(WebDriver driver, WebElement element) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(element));
             actions.clickAndHold(element).perform();
@@ -157,7 +170,7 @@ public class ActionUtils {
      * @param driver WebDriver instance
      */
     public static void release(WebDriver driver) {
-        initializeActions(driver);
+        Actions actions = actionsFor(driver);
         try {
             actions.release().perform();
         } catch (Exception e) {
@@ -171,14 +184,14 @@ public class ActionUtils {
      * @param keys Keys to press
      */
     public static void pressKeysCombination(WebDriver driver, Keys... keys) {
-        initializeActions(driver);
+        Actions actions = actionsFor(driver);
         try {
             actions.keyDown(keys[0]);
             for (int i = 1; i < keys.length; i++) {
                 actions.sendKeys(keys[i].toString());
             }
             actions.keyUp(keys[0]).perform();
-            Thread.sleep(500);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to press key combination", e);
         }
@@ -191,13 +204,13 @@ public class ActionUtils {
      * @param key Key to press with modifier
      */
     public static void pressKeysCombination(WebDriver driver, Keys modifierKey, String key) {
-        initializeActions(driver);
+        Actions actions = actionsFor(driver);
         try {
             actions.keyDown(modifierKey)
                    .sendKeys(key)
                    .keyUp(modifierKey)
                    .perform();
-            Thread.sleep(500);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to press key combination", e);
         }
@@ -210,7 +223,8 @@ public class ActionUtils {
      * @param text Text to send
      */
     public static void sendKeys(WebDriver driver, WebElement element, String text) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(element));
             actions.click(element).sendKeys(text).perform();
@@ -226,7 +240,8 @@ public class ActionUtils {
      * @param text New text to enter
      */
     public static void clearAndType(WebDriver driver, WebElement element, String text) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.visibilityOf(element));
             actions.click(element)
@@ -246,10 +261,10 @@ public class ActionUtils {
      * @param element WebElement to scroll to
      */
     public static void scrollToElement(WebDriver driver, WebElement element) {
-        initializeActions(driver);
+        Actions actions = actionsFor(driver);
         try {
             actions.moveToElement(element).perform();
-            Thread.sleep(500);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to scroll to element", e);
         }
@@ -261,11 +276,12 @@ public class ActionUtils {
      * @param element WebElement to move to and click
      */
     public static void moveToElementAndClick(WebDriver driver, WebElement element) {
-        initializeActions(driver);
+        WebDriverWait wait = waitFor(driver);
+        Actions actions = actionsFor(driver);
         try {
             wait.until(ExpectedConditions.elementToBeClickable(element));
             actions.moveToElement(element).click().perform();
-            Thread.sleep(500);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to move to element and click", e);
         }
@@ -279,7 +295,7 @@ public class ActionUtils {
     public static void performActionChain(WebDriver driver, Actions actionChain) {
         try {
             actionChain.perform();
-            Thread.sleep(500);
+            SettleDetector.waitForSettle(driver);
         } catch (Exception e) {
             throw new RuntimeException("Failed to perform action chain", e);
         }
@@ -0,0 +1,116 @@
+package utils;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Adaptive polling wait with learned, fail-fast timeouts
+ *
+ * Features:
+ * - Starts polling after 2 ms and backs off exponentially up to 250 ms,
+ *   so fast elements are found almost immediately
+ * - Records per-locator latency in LocatorStats (p50/p99, persisted across runs)
+ * - Once a locator has enough history, times out after timeoutFactor x p99
+ *   instead of the full requested timeout, so broken locators fail fast
+ *
+ * Configuration (system properties):
+ * - wait.mode: "adaptive" makes WaitUtils use this class (default "fixed")
+ * - wait.adaptive.minSamples: history needed before timeouts are learned (default 20)
+ * - wait.adaptive.timeoutFactor: learned timeout = p99 x factor (default 3)
+ * - wait.adaptive.minTimeoutMillis: learned timeouts never go below this (default 2000)
+ *
+ * Usage Examples:
+ * 1. Keyed: AdaptiveWait.until(driver, "visible By.id: src", ExpectedConditions.visibilityOfElementLocated(By.id("src")), Duration.ofSeconds(10));
+ * 2. Unkeyed (no learning): AdaptiveWait.until(driver, null, condition, Duration.ofSeconds(10));
+ */
+public class AdaptiveWait {
+
+    private static final long INITIAL_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int MIN_SAMPLES = Integer.getInteger("wait.adaptive.minSamples", 20);
+    private static final double TIMEOUT_FACTOR = Double.parseDouble(System.getProperty("wait.adaptive.timeoutFactor", "3"));
+    private static final long MIN_TIMEOUT_MILLIS = Long.getLong("wait.adaptive.minTimeoutMillis", 2000L);
+
+    /**
+     * Check whether -Dwait.mode=adaptive is set
+     * @return true if WaitUtils should wait adaptively by default
+     */
+    public static boolean isEnabledByDefault() {
+        return "adaptive".equalsIgnoreCase(System.getProperty("wait.mode", "fixed"));
+    }
+
+    /**
+     * Get the timeout a locator will actually get
+     * @param key Locator key, or null
+     * @param requested Requested timeout
+     * @return Learned timeout if history allows, never longer than requested
+     */
+    public static Duration effectiveTimeout(String key, Duration requested) {
+        return effectiveTimeout(LocatorStats.getInstance(), key, requested);
+    }
+
+    /**
+     * Get the timeout a locator would get from the given statistics
+     * @param stats Latency statistics
+     * @param key Locator key, or null
+     * @param requested Requested timeout
+     * @return Learned timeout if history allows, never longer than requested
+     */
+    public static Duration effectiveTimeout(LocatorStats stats, String key, Duration requested) {
+        if (key == null || stats.sampleCount(key) < MIN_SAMPLES) {
+            return requested;
+        }
+        long learned = Math.max(MIN_TIMEOUT_MILLIS, (long) (stats.percentile(key, 0.99) * TIMEOUT_FACTOR));
+        return learned < requested.toMillis() ? Duration.ofMillis(learned) : requested;
+    }
+
+    /**
+     * Poll a condition with exponential back-off until it returns a non-null, non-false value
+     * @param driver WebDriver instance
+     * @param key Locator key used for statistics, or null to skip learning
+     * @param condition Condition to evaluate
+     * @param timeout Requested timeout
+     * @return Condition result
+     * @throws TimeoutException if the condition does not hold in time
+     */
+    public static <T> T until(WebDriver driver, String key, Function<? super WebDriver, T> condition, Duration timeout) {
+        Duration effective = effectiveTimeout(key, timeout);
+        long start = System.nanoTime();
+        long deadline = start + effective.toNanos();
+        long pollNanos = INITIAL_POLL_NANOS;
+        RuntimeException lastError = null;
+
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    if (key != null) {
+                        LocatorStats.getInstance().record(key, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    }
+                    return value;
+                }
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                String learned = effective.equals(timeout) ? "" : " (learned fail-fast timeout; requested " + timeout.toMillis() + " ms)";
+                throw new TimeoutException("Condition " + (key != null ? key : condition)
+                        + " not met within " + effective.toMillis() + " ms" + learned, lastError);
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(pollNanos, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Adaptive wait interrupted", e);
+            }
+            pollNanos = Math.min(pollNanos * 2, MAX_POLL_NANOS);
+        }
+    }
+}
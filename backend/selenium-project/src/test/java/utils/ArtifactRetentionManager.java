@@ -0,0 +1,511 @@
+package utils;
+
+import logging.Logger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Keeps test artifacts (screenshots, reports, logs, recordings) within age and size quotas
+ *
+ * Features:
+ * - NIO walk of every artifact root (Files.walkFileTree, attributes read once per file)
+ * - Age quota: success artifacts expire sooner than failure artifacts (FAILED_*, *_failed*, failure-*)
+ * - Compaction: loose artifacts older than a day are moved into per-day zip archives
+ *   (text deflated, PNG/video stored as is); archives are written to a temp file and renamed
+ * - Size quota: oldest success artifacts are removed first, failure artifacts only when still over quota
+ * - Runs on one low-priority daemon thread on a fixed delay; test threads never wait for it
+ * - Never touches recently modified files (the running suite's artifacts) or stateful directories
+ *   (screenshot-store packs, event spool)
+ *
+ * Configuration (system properties):
+ * - retention.enabled: run the background manager during suites (default true)
+ * - retention.roots: comma-separated artifact roots (default test-output). ../segments (screen
+ *   recordings) is opt-in: the Node server serves /segments/recording.mp4 from there, so only add it
+ *   where nothing streams that file
+ * - retention.days: age of success artifacts before deletion (default 7)
+ * - retention.failureDays: age of failure artifacts before deletion (default 30)
+ * - retention.compactAfterHours: age before loose files are archived, 0 disables (default 24)
+ * - retention.maxSizeMb: total size quota across all roots (default 2048)
+ * - retention.minAgeMinutes: files younger than this are never touched (default 10)
+ * - retention.exclude: top-level directories left alone (default screenshot-store,event-spool)
+ * - retention.intervalMinutes: delay between passes (default 10)
+ *
+ * Usage Examples:
+ * 1. Suite start: ArtifactRetentionManager.getDefault().start();
+ * 2. One pass now: ArtifactRetentionManager.getDefault().runAsync().thenAccept(report -> ...);
+ * 3. Suite end: ArtifactRetentionManager.getDefault().stop(Duration.ofSeconds(30));
+ */
+public class ArtifactRetentionManager {
+
+    private static final Logger LOG = Logger.get(ArtifactRetentionManager.class);
+    private static final String ARCHIVE_DIR = "archive";
+    private static final DateTimeFormatter PASS_TIMESTAMP = DateTimeFormatter.ofPattern("HHmmss");
+    // Already compressed formats gain nothing from deflate; they are stored to keep compaction cheap
+    private static final Set<String> STORED_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "webp", "mp4", "webm",
+            "mkv", "zip", "gz", "pack");
+
+    private static volatile ArtifactRetentionManager defaultInstance;
+
+    private final List<Path> roots;
+    private final Policy policy;
+    // Scheduled and on-demand passes must not walk and delete the same files at once
+    private final Object passLock = new Object();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create a manager for explicit roots (tests, one-off cleanups); suites use getDefault()
+     * @param roots Artifact directories
+     * @param policy Quotas
+     */
+    public ArtifactRetentionManager(List<Path> roots, Policy policy) {
+        this.roots = List.copyOf(roots);
+        this.policy = policy;
+    }
+
+    /**
+     * Get the manager configured from system properties
+     * @return Shared ArtifactRetentionManager instance
+     */
+    public static ArtifactRetentionManager getDefault() {
+        if (defaultInstance == null) {
+            synchronized (ArtifactRetentionManager.class) {
+                if (defaultInstance == null) {
+                    List<Path> roots = Arrays.stream(System.getProperty("retention.roots", "test-output").split(","))
+                            .map(String::trim)
+                            .filter(root -> !root.isEmpty())
+                            .map(Paths::get)
+                            .collect(Collectors.toList());
+                    defaultInstance = new ArtifactRetentionManager(roots, Policy.fromSystemProperties());
+                }
+            }
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Check whether suites should run the background manager (-Dretention.enabled, default true)
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("retention.enabled", "true"));
+    }
+
+    /**
+     * Start periodic passes on the background thread (no-op when already started)
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "artifact-retention");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        long interval = Math.max(1, Long.getLong("retention.intervalMinutes", 10));
+        scheduler.scheduleWithFixedDelay(this::runLogged, 0, interval, TimeUnit.MINUTES);
+        LOG.info("🧹 Artifact retention started for " + roots + " (every " + interval + " min)");
+    }
+
+    /**
+     * Run one pass on the background thread
+     * @return Future completed with the pass report
+     */
+    public synchronized CompletableFuture<Report> runAsync() {
+        if (scheduler == null) {
+            start();
+        }
+        return CompletableFuture.supplyAsync(this::runOnce, scheduler);
+    }
+
+    /**
+     * Stop periodic passes; a pass in progress is allowed to finish
+     * @param timeout Maximum wait for a running pass
+     */
+    public synchronized void stop(Duration timeout) {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOG.warn("⚠️  Artifact retention pass still running after " + timeout.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+    }
+
+    /**
+     * Run one pass on the calling thread: expire, compact, then enforce the size quota
+     * @return Pass report
+     */
+    public Report runOnce() {
+        synchronized (passLock) {
+            return runPass();
+        }
+    }
+
+    private Report runPass() {
+        long start = System.nanoTime();
+        Report report = new Report();
+        Instant now = Instant.now();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            List<Artifact> artifacts = scan(root, now);
+            report.bytesBefore += artifacts.stream().mapToLong(artifact -> artifact.size).sum();
+            artifacts = expire(artifacts, now, report);
+            if (!policy.compactAfter.isZero()) {
+                artifacts = compact(root, artifacts, now, report);
+            }
+            report.remaining.addAll(artifacts);
+        }
+        enforceSizeQuota(report);
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return report;
+    }
+
+    private void runLogged() {
+        try {
+            Report report = runOnce();
+            if (report.deletedFiles > 0 || report.archivedFiles > 0) {
+                LOG.info("🧹 " + report);
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule; log it and try again next interval
+            LOG.warn("⚠️  Artifact retention pass failed: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Artifact> scan(Path root, Instant now) {
+        List<Artifact> artifacts = new ArrayList<>();
+        Instant youngest = now.minus(policy.minAge);
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    Path relative = root.relativize(dir);
+                    if (relative.getNameCount() == 1 && policy.excluded.contains(relative.toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    Instant modified = attrs.lastModifiedTime().toInstant();
+                    if (attrs.isRegularFile() && modified.isBefore(youngest) && !file.toString().endsWith(".tmp")) {
+                        artifacts.add(new Artifact(file, root, attrs.size(), modified));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // Files removed by a test while we walk are not an error
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to scan artifacts in " + root + ": " + e.getMessage());
+        }
+        return artifacts;
+    }
+
+    private List<Artifact> expire(List<Artifact> artifacts, Instant now, Report report) {
+        List<Artifact> kept = new ArrayList<>(artifacts.size());
+        for (Artifact artifact : artifacts) {
+            Duration maxAge = artifact.failure ? policy.failureMaxAge : policy.successMaxAge;
+            if (artifact.modified.isBefore(now.minus(maxAge)) && delete(artifact, report)) {
+                continue;
+            }
+            kept.add(artifact);
+        }
+        return kept;
+    }
+
+    private List<Artifact> compact(Path root, List<Artifact> artifacts, Instant now, Report report) {
+        Instant cutoff = now.minus(policy.compactAfter);
+        Map<String, List<Artifact>> groups = new LinkedHashMap<>();
+        List<Artifact> kept = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            if (artifact.archived || !artifact.modified.isBefore(cutoff)) {
+                kept.add(artifact);
+                continue;
+            }
+            LocalDate day = LocalDate.ofInstant(artifact.modified, ZoneId.systemDefault());
+            groups.computeIfAbsent((artifact.failure ? "failure-" : "success-") + day, key -> new ArrayList<>()).add(artifact);
+        }
+
+        String pass = LocalDateTime.now().format(PASS_TIMESTAMP);
+        for (Map.Entry<String, List<Artifact>> group : groups.entrySet()) {
+            Path archive = root.resolve(ARCHIVE_DIR).resolve(group.getKey() + "_" + pass + ".zip");
+            try {
+                writeArchive(root, archive, group.getValue());
+                report.archivesCreated++;
+                for (Artifact artifact : group.getValue()) {
+                    try {
+                        Files.deleteIfExists(artifact.path);
+                        report.archivedFiles++;
+                    } catch (IOException e) {
+                        // Still in the archive; the loose copy is retried on the next pass
+                        kept.add(artifact);
+                    }
+                }
+                kept.add(new Artifact(archive, root, Files.size(archive), group.getValue().stream()
+                        .map(artifact -> artifact.modified).max(Comparator.naturalOrder()).orElse(now)));
+            } catch (IOException e) {
+                LOG.warn("⚠️  Failed to archive " + group.getValue().size() + " artifact(s) into " + archive + ": " + e.getMessage());
+                kept.addAll(group.getValue());
+            }
+        }
+        return kept;
+    }
+
+    private static void writeArchive(Path root, Path archive, List<Artifact> artifacts) throws IOException {
+        Files.createDirectories(archive.getParent());
+        Path temp = archive.resolveSibling(archive.getFileName() + ".tmp");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(temp))) {
+            for (Artifact artifact : artifacts) {
+                ZipEntry entry = new ZipEntry(root.relativize(artifact.path).toString().replace('\\', '/'));
+                entry.setTime(artifact.modified.toEpochMilli());
+                if (STORED_EXTENSIONS.contains(extension(artifact.path))) {
+                    storedEntry(entry, artifact.path);
+                }
+                // Streamed, so a large trace or video never has to fit in memory
+                zip.putNextEntry(entry);
+                Files.copy(artifact.path, zip);
+                zip.closeEntry();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // Archives age from their newest entry, not from the time of compaction
+        Files.setLastModifiedTime(archive, FileTime.from(artifacts.stream()
+                .map(artifact -> artifact.modified).max(Comparator.naturalOrder()).orElse(Instant.now())));
+    }
+
+    /**
+     * STORED entries need size and CRC before their data: read the file once to compute them
+     */
+    private static void storedEntry(ZipEntry entry, Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read; (read = in.read(buffer)) != -1; size += read) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+    }
+
+    private void enforceSizeQuota(Report report) {
+        long total = report.remaining.stream().mapToLong(artifact -> artifact.size).sum();
+        if (total <= policy.maxBytes) {
+            report.bytesAfter = total;
+            return;
+        }
+        // Success artifacts go first, then failure artifacts; oldest first within each group
+        List<Artifact> candidates = new ArrayList<>(report.remaining);
+        candidates.sort(Comparator.comparing((Artifact artifact) -> artifact.failure)
+                .thenComparing(artifact -> artifact.modified));
+        for (Artifact artifact : candidates) {
+            if (total <= policy.maxBytes) {
+                break;
+            }
+            if (delete(artifact, report)) {
+                total -= artifact.size;
+                report.remaining.remove(artifact);
+            }
+        }
+        report.bytesAfter = total;
+    }
+
+    private static boolean delete(Artifact artifact, Report report) {
+        try {
+            if (Files.deleteIfExists(artifact.path)) {
+                report.deletedFiles++;
+                report.deletedBytes += artifact.size;
+            }
+            return true;
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to delete artifact " + artifact.path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Check whether an artifact belongs to a failed test (kept for retention.failureDays)
+     * @param relative Artifact path relative to its root
+     * @return true for failure screenshots, failure archives, *_failed* artifacts and
+     *         everything inside a FAILED_* directory (flight recorder dumps)
+     */
+    static boolean isFailureArtifact(Path relative) {
+        for (Path part : relative) {
+            String name = part.toString().toLowerCase(Locale.ROOT);
+            if (name.startsWith("failed_") || name.startsWith("failure-") || name.contains("_failed")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retention quotas
+     */
+    public static final class Policy {
+        final Duration successMaxAge;
+        final Duration failureMaxAge;
+        final Duration compactAfter;
+        final long maxBytes;
+        final Duration minAge;
+        final Set<String> excluded;
+
+        /**
+         * @param successMaxAge Age at which success artifacts are deleted
+         * @param failureMaxAge Age at which failure artifacts are deleted
+         * @param compactAfter Age at which loose files are archived (Duration.ZERO disables compaction)
+         * @param maxBytes Total size quota
+         * @param minAge Files younger than this are never touched
+         * @param excluded Top-level directory names left alone
+         */
+        public Policy(Duration successMaxAge, Duration failureMaxAge, Duration compactAfter, long maxBytes,
+                      Duration minAge, Set<String> excluded) {
+            this.successMaxAge = successMaxAge;
+            this.failureMaxAge = failureMaxAge;
+            this.compactAfter = compactAfter;
+            this.maxBytes = maxBytes;
+            this.minAge = minAge;
+            this.excluded = Set.copyOf(excluded);
+        }
+
+        static Policy fromSystemProperties() {
+            Set<String> excluded = Arrays.stream(System.getProperty("retention.exclude", "screenshot-store,event-spool").split(","))
+                    .map(String::trim)
+                    .filter(name -> !name.isEmpty())
+                    .collect(Collectors.toSet());
+            return new Policy(
+                    Duration.ofDays(Long.getLong("retention.days", 7)),
+                    Duration.ofDays(Long.getLong("retention.failureDays", 30)),
+                    Duration.ofHours(Long.getLong("retention.compactAfterHours", 24)),
+                    Long.getLong("retention.maxSizeMb", 2048) * 1024 * 1024,
+                    Duration.ofMinutes(Long.getLong("retention.minAgeMinutes", 10)),
+                    excluded);
+        }
+    }
+
+    /**
+     * One file seen by a pass
+     */
+    static final class Artifact {
+        final Path path;
+        final long size;
+        final Instant modified;
+        final boolean failure;
+        final boolean archived;
+
+        Artifact(Path path, Path root, long size, Instant modified) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            Path relative = root.relativize(path);
+            this.failure = isFailureArtifact(relative);
+            this.archived = relative.startsWith(ARCHIVE_DIR);
+        }
+    }
+
+    /**
+     * Outcome of one pass
+     */
+    public static final class Report {
+        private final List<Artifact> remaining = new ArrayList<>();
+        private long bytesBefore;
+        private long bytesAfter;
+        private int deletedFiles;
+        private long deletedBytes;
+        private int archivedFiles;
+        private int archivesCreated;
+        private long elapsedMillis;
+
+        public int getDeletedFiles() {
+            return deletedFiles;
+        }
+
+        public long getDeletedBytes() {
+            return deletedBytes;
+        }
+
+        public int getArchivedFiles() {
+            return archivedFiles;
+        }
+
+        public int getArchivesCreated() {
+            return archivesCreated;
+        }
+
+        public long getBytesBefore() {
+            return bytesBefore;
+        }
+
+        /**
+         * Get the size of what the pass left behind (files younger than retention.minAgeMinutes not counted)
+         * @return Remaining artifact bytes
+         */
+        public long getBytesAfter() {
+            return bytesAfter;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Artifact retention: %d deleted (%.1f MB), %d archived into %d zip(s), %.1f MB -> %.1f MB in %d ms",
+                    deletedFiles, deletedBytes / 1048576.0, archivedFiles, archivesCreated,
+                    bytesBefore / 1048576.0, bytesAfter / 1048576.0, elapsedMillis);
+        }
+    }
+}
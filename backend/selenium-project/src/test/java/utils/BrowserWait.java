@@ -0,0 +1,347 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-browser wait engine - one executeAsyncScript per wait instead of one command per poll
+ *
+ * Features:
+ * - The condition is evaluated inside the page and re-checked on every DOM mutation
+ *   (MutationObserver), so the wait resolves in the same frame the condition holds
+ * - Composable anyOf/allOf conditions, evaluated atomically against one DOM snapshot
+ * - Locators are passed as script arguments (using/value), never spliced into the script text
+ * - Survives navigations: if the document unloads mid-wait, the script is re-installed
+ *
+ * Configuration (system properties):
+ * - wait.engine: "browser" makes WaitUtils use this engine (default "driver")
+ * - wait.browser.fallbackPollMillis: re-check interval for changes no mutation reports,
+ *   e.g. CSS transitions (default 100)
+ * - wait.browser.chunkMillis: longest single script call, kept under the driver script timeout (default 20000)
+ *
+ * Usage Examples:
+ * 1. Element: WebElement el = new BrowserWait(driver).untilElement(BrowserWait.visible(By.id("src")), Duration.ofSeconds(10));
+ * 2. Either outcome: new BrowserWait(driver).until(BrowserWait.anyOf(
+ *        BrowserWait.visible(By.cssSelector(".results")), BrowserWait.visible(By.cssSelector(".no-results"))), Duration.ofSeconds(15));
+ * 3. Both at once: BrowserWait.allOf(BrowserWait.urlContains("bus-tickets"), BrowserWait.invisible(By.cssSelector(".loader")))
+ */
+public class BrowserWait {
+
+    private static final long FALLBACK_POLL_MILLIS = Long.getLong("wait.browser.fallbackPollMillis", 100L);
+    private static final long CHUNK_MILLIS = Long.getLong("wait.browser.chunkMillis", 20000L);
+    private static final String TIMEOUT_MARKER = "__browserWaitTimeout";
+
+    /**
+     * In-page find(locator) and visible(element), shared with BulkElementReader
+     */
+    static final String LOCATOR_FUNCTIONS =
+            "function find(l) {"
+            + "  switch (l.using) {"
+            + "    case 'css selector': return Array.prototype.slice.call(document.querySelectorAll(l.value));"
+            + "    case 'tag name': return Array.prototype.slice.call(document.getElementsByTagName(l.value));"
+            + "    case 'xpath':"
+            + "      var snap = document.evaluate(l.value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), out = [];"
+            + "      for (var i = 0; i < snap.snapshotLength; i++) {"
+            + "        if (snap.snapshotItem(i).nodeType === 1) { out.push(snap.snapshotItem(i)); }"
+            + "      }"
+            + "      return out;"
+            + "    case 'link text':"
+            + "    case 'partial link text':"
+            + "      return Array.prototype.slice.call(document.getElementsByTagName('a')).filter(function (a) {"
+            + "        var t = (a.innerText || a.textContent || '').trim();"
+            + "        return l.using === 'link text' ? t === l.value : t.indexOf(l.value) >= 0;"
+            + "      });"
+            + "  }"
+            + "  throw new Error('Unsupported locator strategy: ' + l.using);"
+            + "}"
+            + "function visible(e) {"
+            + "  if (!e || !e.isConnected || e.getClientRects().length === 0) { return false; }"
+            + "  var s = window.getComputedStyle(e);"
+            + "  return s.visibility !== 'hidden' && s.visibility !== 'collapse' && s.opacity !== '0';"
+            + "}";
+
+    private static final String WAIT_SCRIPT = LOCATOR_FUNCTIONS
+            + "var cond = arguments[0], budget = arguments[1], fallback = arguments[2];"
+            + "var done = arguments[arguments.length - 1];"
+            + "function text(e) { return e.innerText !== undefined ? e.innerText : (e.textContent || ''); }"
+            + "function attr(e, n) {"
+            + "  var v = e.getAttribute(n);"
+            + "  if (v === null && e[n] !== undefined && e[n] !== null) { v = String(e[n]); }"
+            + "  return v === null ? '' : v;"
+            + "}"
+            + "function evaluate(c) {"
+            + "  var first;"
+            + "  switch (c.type) {"
+            + "    case 'present': first = find(c.locator)[0]; return first || null;"
+            + "    case 'visible': first = find(c.locator)[0]; return visible(first) ? first : null;"
+            + "    case 'clickable': first = find(c.locator)[0]; return visible(first) && !first.disabled ? first : null;"
+            + "    case 'invisible': first = find(c.locator)[0]; return !visible(first);"
+            + "    case 'text': first = find(c.locator)[0]; return !!first && text(first).indexOf(c.value) >= 0;"
+            + "    case 'attribute': first = find(c.locator)[0]; return !!first && attr(first, c.name).indexOf(c.value) >= 0;"
+            + "    case 'url': return location.href.indexOf(c.value) >= 0;"
+            + "    case 'title': return document.title.indexOf(c.value) >= 0;"
+            + "    case 'anyOf':"
+            + "      for (var i = 0; i < c.conditions.length; i++) {"
+            + "        var r = evaluate(c.conditions[i]);"
+            + "        if (r) { return r; }"
+            + "      }"
+            + "      return null;"
+            + "    case 'allOf':"
+            + "      var last = true;"
+            + "      for (var j = 0; j < c.conditions.length; j++) {"
+            + "        last = evaluate(c.conditions[j]);"
+            + "        if (!last) { return null; }"
+            + "      }"
+            + "      return last;"
+            + "  }"
+            + "  throw new Error('Unsupported condition: ' + c.type);"
+            + "}"
+            + "var finished = false, observer, poller, timer;"
+            + "function finish(value) {"
+            + "  if (finished) { return; }"
+            + "  finished = true;"
+            + "  if (observer) { observer.disconnect(); }"
+            + "  clearInterval(poller); clearTimeout(timer);"
+            + "  done(value);"
+            + "}"
+            + "function check() {"
+            + "  if (finished) { return; }"
+            + "  try {"
+            + "    var r = evaluate(cond);"
+            + "    if (r) { finish(r); }"
+            + "  } catch (err) { finish({ __browserWaitError: String(err && err.message || err) }); }"
+            + "}"
+            + "check();"
+            + "if (!finished) {"
+            + "  observer = new MutationObserver(check);"
+            + "  observer.observe(document, { subtree: true, childList: true, attributes: true, characterData: true });"
+            + "  poller = setInterval(check, fallback);"
+            + "  timer = setTimeout(function () { finish({ __browserWaitTimeout: true }); }, budget);"
+            + "}";
+
+    private final WebDriver driver;
+
+    /**
+     * Constructor
+     * @param driver WebDriver instance (must implement JavascriptExecutor)
+     */
+    public BrowserWait(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Check whether -Dwait.engine=browser is set
+     * @return true if WaitUtils should use the in-browser engine by default
+     */
+    public static boolean isEnabledByDefault() {
+        return "browser".equalsIgnoreCase(System.getProperty("wait.engine", "driver"));
+    }
+
+    /**
+     * Check whether a locator can be evaluated in the page
+     * @param locator By locator
+     * @return true for the standard id/name/className/css/xpath/tagName/linkText locators
+     */
+    public static boolean supports(By locator) {
+        return locator instanceof By.Remotable;
+    }
+
+    /**
+     * Wait until the condition holds
+     * @param condition Condition built with the static factories
+     * @param timeout Timeout
+     * @return WebElement for element conditions, Boolean true otherwise
+     * @throws TimeoutException if the condition does not hold in time
+     */
+    public Object until(Condition condition, Duration timeout) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        while (true) {
+            long remainingMillis = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+            long budget = Math.min(remainingMillis, CHUNK_MILLIS);
+            try {
+                Object result = js.executeAsyncScript(WAIT_SCRIPT, condition.spec, budget, FALLBACK_POLL_MILLIS);
+                if (result instanceof Map) {
+                    Map<?, ?> map = (Map<?, ?>) result;
+                    if (map.containsKey("__browserWaitError")) {
+                        throw new IllegalArgumentException("Cannot evaluate " + condition + ": " + map.get("__browserWaitError"));
+                    }
+                    if (!map.containsKey(TIMEOUT_MARKER)) {
+                        return result;
+                    }
+                } else if (result != null) {
+                    return result;
+                }
+            } catch (ScriptTimeoutException e) {
+                // Driver script timeout is shorter than the chunk; continue with the next chunk
+            } catch (JavascriptException e) {
+                // The document unloaded mid-wait (navigation); install the script on the new page
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new TimeoutException("Browser wait for " + condition + " timed out after " + timeout.toMillis() + " ms");
+            }
+        }
+    }
+
+    /**
+     * Wait until an element condition holds
+     * @param condition present/visible/clickable condition (or anyOf/allOf ending in one)
+     * @param timeout Timeout
+     * @return Matching WebElement
+     */
+    public WebElement untilElement(Condition condition, Duration timeout) {
+        Object result = until(condition, timeout);
+        if (!(result instanceof WebElement)) {
+            throw new IllegalArgumentException("Condition " + condition + " does not yield an element: " + result);
+        }
+        return (WebElement) result;
+    }
+
+    /**
+     * Element present in the DOM; yields the element
+     */
+    public static Condition present(By locator) {
+        return locatorCondition("present", locator, "presence of " + locator);
+    }
+
+    /**
+     * Element present and displayed; yields the element
+     */
+    public static Condition visible(By locator) {
+        return locatorCondition("visible", locator, "visibility of " + locator);
+    }
+
+    /**
+     * Element displayed and not disabled; yields the element
+     */
+    public static Condition clickable(By locator) {
+        return locatorCondition("clickable", locator, "clickability of " + locator);
+    }
+
+    /**
+     * Element absent or not displayed
+     */
+    public static Condition invisible(By locator) {
+        return locatorCondition("invisible", locator, "invisibility of " + locator);
+    }
+
+    /**
+     * Element text contains the value
+     */
+    public static Condition textPresent(By locator, String text) {
+        Condition condition = locatorCondition("text", locator, "text '" + text + "' in " + locator);
+        condition.spec.put("value", text);
+        return condition;
+    }
+
+    /**
+     * Element attribute (or property) contains the value
+     */
+    public static Condition attributeContains(By locator, String attribute, String value) {
+        Condition condition = locatorCondition("attribute", locator,
+                "attribute '" + attribute + "' containing '" + value + "' on " + locator);
+        condition.spec.put("name", attribute);
+        condition.spec.put("value", value);
+        return condition;
+    }
+
+    /**
+     * Current URL contains the fragment
+     */
+    public static Condition urlContains(String fraction) {
+        Condition condition = new Condition("url", "URL containing '" + fraction + "'");
+        condition.spec.put("value", fraction);
+        return condition;
+    }
+
+    /**
+     * Document title contains the text
+     */
+    public static Condition titleContains(String title) {
+        Condition condition = new Condition("title", "title containing '" + title + "'");
+        condition.spec.put("value", title);
+        return condition;
+    }
+
+    /**
+     * First condition that holds wins; yields its value
+     */
+    public static Condition anyOf(Condition... conditions) {
+        return composite("anyOf", " OR ", conditions);
+    }
+
+    /**
+     * All conditions hold in the same DOM state; yields the value of the last one
+     */
+    public static Condition allOf(Condition... conditions) {
+        return composite("allOf", " AND ", conditions);
+    }
+
+    private static Condition locatorCondition(String type, By locator, String description) {
+        if (!supports(locator)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the browser: " + locator);
+        }
+        Condition condition = new Condition(type, description);
+        condition.spec.put("locator", locatorArgument(locator));
+        return condition;
+    }
+
+    /**
+     * Convert a locator into the script argument understood by find()
+     * @param locator Standard By locator
+     * @return Map with "using" and "value"
+     */
+    static Map<String, Object> locatorArgument(By locator) {
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        Map<String, Object> using = new LinkedHashMap<>();
+        using.put("using", parameters.using());
+        using.put("value", parameters.value());
+        return using;
+    }
+
+    private static Condition composite(String type, String separator, Condition... conditions) {
+        if (conditions.length == 0) {
+            throw new IllegalArgumentException(type + " needs at least one condition");
+        }
+        List<Map<String, Object>> specs = new ArrayList<>();
+        for (Condition c : conditions) {
+            specs.add(c.spec);
+        }
+        String description = "(" + Arrays.stream(conditions).map(Condition::toString)
+                .collect(Collectors.joining(separator)) + ")";
+        Condition condition = new Condition(type, description);
+        condition.spec.put("conditions", specs);
+        return condition;
+    }
+
+    /**
+     * Serializable condition tree, evaluated by the in-page interpreter
+     */
+    public static final class Condition {
+        private final Map<String, Object> spec = new LinkedHashMap<>();
+        private final String description;
+
+        private Condition(String type, String description) {
+            this.spec.put("type", type);
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk element reader - text, attributes, visibility and bounds of many elements in one command
+ *
+ * Features:
+ * - One executeScript per read instead of getText/getAttribute/isDisplayed per element
+ * - Projection selects only the fields needed, so large lists stay cheap to serialize
+ * - Plain ElementRecord values: safe to keep after the page changes (no stale references)
+ *   unless element() is requested
+ *
+ * Usage Examples:
+ * 1. Texts: List<ElementRecord> rows = BulkElementReader.read(driver, By.className("bus-item"), Projection.text());
+ * 2. Mixed: BulkElementReader.read(driver, By.cssSelector("[data-component-type='s-search-result']"),
+ *        Projection.text().attributes("data-asin", "href").visibility().rect());
+ * 3. Visible only: rows.stream().filter(ElementRecord::isVisible).count();
+ */
+public class BulkElementReader {
+
+    private static final String READ_SCRIPT = BrowserWait.LOCATOR_FUNCTIONS
+            + "var l = arguments[0], p = arguments[1], out = [];"
+            + "var found = find(l);"
+            + "for (var i = 0; i < found.length; i++) {"
+            + "  var e = found[i], r = {};"
+            + "  if (p.text) { r.text = visible(e) ? (e.innerText || '').trim() : ''; }"
+            + "  if (p.attributes.length) {"
+            + "    r.attributes = {};"
+            + "    for (var j = 0; j < p.attributes.length; j++) {"
+            + "      var n = p.attributes[j], v = e.getAttribute(n);"
+            + "      if (v === null && e[n] !== undefined && e[n] !== null && typeof e[n] !== 'object') { v = String(e[n]); }"
+            + "      r.attributes[n] = v;"
+            + "    }"
+            + "  }"
+            + "  if (p.visibility) { r.visible = visible(e); }"
+            + "  if (p.rect) {"
+            + "    var b = e.getBoundingClientRect();"
+            + "    r.rect = [Math.round(b.left + window.scrollX), Math.round(b.top + window.scrollY),"
+            + "              Math.round(b.width), Math.round(b.height)];"
+            + "  }"
+            + "  if (p.element) { r.element = e; }"
+            + "  out.push(r);"
+            + "}"
+            + "return out;";
+
+    /**
+     * Read all elements matching a locator in one script execution
+     * @param driver WebDriver instance (must implement JavascriptExecutor)
+     * @param locator Standard By locator (id, name, className, css, xpath, tagName, linkText)
+     * @param projection Fields to read
+     * @return One record per element, in document order
+     */
+    @SuppressWarnings("unchecked")
+    public static List<ElementRecord> read(WebDriver driver, By locator, Projection projection) {
+        if (!BrowserWait.supports(locator)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the browser: " + locator);
+        }
+        Object result = ((JavascriptExecutor) driver).executeScript(READ_SCRIPT,
+                BrowserWait.locatorArgument(locator), projection.toArgument());
+        if (!(result instanceof List)) {
+            return Collections.emptyList();
+        }
+        List<Object> raw = (List<Object>) result;
+        List<ElementRecord> records = new ArrayList<>(raw.size());
+        for (int i = 0; i < raw.size(); i++) {
+            records.add(ElementRecord.from(i, (Map<String, Object>) raw.get(i)));
+        }
+        return records;
+    }
+
+    /**
+     * Fields to read for each element
+     */
+    public static final class Projection {
+        private boolean text;
+        private boolean visibility;
+        private boolean rect;
+        private boolean element;
+        private final Set<String> attributes = new LinkedHashSet<>();
+
+        private Projection() {
+        }
+
+        /**
+         * Start an empty projection
+         * @return Projection
+         */
+        public static Projection of() {
+            return new Projection();
+        }
+
+        /**
+         * Start a projection that reads rendered text (empty for hidden elements, like WebElement.getText)
+         * @return Projection
+         */
+        public static Projection text() {
+            return new Projection().withText();
+        }
+
+        /**
+         * Add rendered text to the projection
+         * @return Projection
+         */
+        public Projection withText() {
+            this.text = true;
+            return this;
+        }
+
+        /**
+         * Read attributes, falling back to the DOM property like WebElement.getAttribute
+         * @param names Attribute names
+         * @return Projection
+         */
+        public Projection attributes(String... names) {
+            attributes.addAll(Arrays.asList(names));
+            return this;
+        }
+
+        /**
+         * Read whether the element is displayed
+         * @return Projection
+         */
+        public Projection visibility() {
+            this.visibility = true;
+            return this;
+        }
+
+        /**
+         * Read the bounding box in page coordinates
+         * @return Projection
+         */
+        public Projection rect() {
+            this.rect = true;
+            return this;
+        }
+
+        /**
+         * Also return the WebElement reference (costs one element id per row)
+         * @return Projection
+         */
+        public Projection element() {
+            this.element = true;
+            return this;
+        }
+
+        private Map<String, Object> toArgument() {
+            Map<String, Object> argument = new LinkedHashMap<>();
+            argument.put("text", text);
+            argument.put("attributes", new ArrayList<>(attributes));
+            argument.put("visibility", visibility);
+            argument.put("rect", rect);
+            argument.put("element", element);
+            return argument;
+        }
+    }
+
+    /**
+     * Snapshot of one element; fields outside the projection are null
+     */
+    public static final class ElementRecord {
+        private final int index;
+        private final String text;
+        private final Map<String, String> attributes;
+        private final Boolean visible;
+        private final Rectangle rect;
+        private final WebElement element;
+
+        private ElementRecord(int index, String text, Map<String, String> attributes, Boolean visible,
+                              Rectangle rect, WebElement element) {
+            this.index = index;
+            this.text = text;
+            this.attributes = attributes;
+            this.visible = visible;
+            this.rect = rect;
+            this.element = element;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static ElementRecord from(int index, Map<String, Object> raw) {
+            Map<String, String> attributes = Collections.emptyMap();
+            if (raw.get("attributes") instanceof Map) {
+                attributes = new LinkedHashMap<>();
+                for (Map.Entry<String, Object> entry : ((Map<String, Object>) raw.get("attributes")).entrySet()) {
+                    attributes.put(entry.getKey(), entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+                }
+            }
+            Rectangle rect = null;
+            if (raw.get("rect") instanceof List) {
+                List<Number> box = (List<Number>) raw.get("rect");
+                rect = new Rectangle(box.get(0).intValue(), box.get(1).intValue(), box.get(3).intValue(), box.get(2).intValue());
+            }
+            return new ElementRecord(index, (String) raw.get("text"), attributes, (Boolean) raw.get("visible"),
+                    rect, (WebElement) raw.get("element"));
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        public boolean isVisible() {
+            return Boolean.TRUE.equals(visible);
+        }
+
+        public Rectangle getRect() {
+            return rect;
+        }
+
+        public WebElement getElement() {
+            return element;
+        }
+
+        @Override
+        public String toString() {
+            return "ElementRecord{index=" + index + ", text=" + text + ", attributes=" + attributes
+                    + ", visible=" + visible + ", rect=" + rect + "}";
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memory-mapped reader for test data compiled by TestDataCompiler
+ *
+ * Features:
+ * - Opening maps the compiled file read-only; no parsing beyond the fixed header and column names
+ * - Cells are decoded straight from the mapping on access (row table gives the row, the cell
+ *   tags give the column); strings are decoded once and then reused
+ * - Values have the same types as WorkbookCache: String, Double, Boolean, LocalDateTime, null;
+ *   JSON integers stay Long (as Selenium's Json reads them)
+ * - Thread-safe: only absolute reads of a read-only buffer; one instance per compiled file per JVM
+ * - load() compiles the source first when its current version has not been compiled yet, and
+ *   forgets the mappings of older versions (and of deleted files) so they can be collected
+ *
+ * Usage Examples:
+ * 1. DataProvider: return CompiledTestData.load("testdata.xlsx", "Login").toDataProvider();
+ * 2. Lazy rows: return CompiledTestData.load("testdata.json", null).iterator();
+ * 3. Cell: Object fare = CompiledTestData.load("routes.xlsx", "Routes").get(0, 2);
+ */
+public final class CompiledTestData implements Iterable<Object[]> {
+
+    private static final Map<Path, CompiledTestData> OPEN = new ConcurrentHashMap<>();
+
+    /**
+     * Column type recorded at compile time: a single cell type, or MIXED
+     */
+    public enum ColumnType { EMPTY, STRING, NUMBER, BOOLEAN, DATE, MIXED }
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final int columnCount;
+    private final int stringTableOffset;
+    private final int stringDataOffset;
+    private final int rowTableOffset;
+    private final String[] strings;
+    private final String[] headers;
+    private final ColumnType[] columnTypes;
+
+    private CompiledTestData(Path file) {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open compiled test data: " + file, e);
+        }
+        if (buffer.capacity() < TestDataCompiler.HEADER_BYTES || buffer.getInt(0) != TestDataCompiler.MAGIC) {
+            throw new IllegalStateException("Not a compiled test data file: " + file);
+        }
+        this.rowCount = buffer.getInt(4);
+        this.columnCount = buffer.getInt(8);
+        this.strings = new String[buffer.getInt(12)];
+        this.stringTableOffset = buffer.getInt(16);
+        this.stringDataOffset = stringTableOffset + (strings.length + 1) * 4;
+        this.rowTableOffset = buffer.getInt(20);
+        this.headers = new String[columnCount];
+        this.columnTypes = new ColumnType[columnCount];
+        for (int j = 0; j < columnCount; j++) {
+            headers[j] = string(buffer.getInt(TestDataCompiler.HEADER_BYTES + j * 4));
+            columnTypes[j] = ColumnType.values()[buffer.get(TestDataCompiler.HEADER_BYTES + columnCount * 4 + j)];
+        }
+    }
+
+    /**
+     * Get the compiled data of a source, compiling it first if needed
+     * @param sourcePath Source file (.xlsx, .xls or .json)
+     * @param sheetName Sheet name; for JSON the property holding the array, or null for a root array
+     * @return Mapped test data
+     */
+    public static CompiledTestData load(String sourcePath, String sheetName) {
+        Path source = Paths.get(sourcePath);
+        Path compiled = TestDataCompiler.compile(source, sheetName);
+        OPEN.keySet().removeIf(file -> !file.equals(compiled)
+                && (TestDataCompiler.isVersionOf(file, source, sheetName) || !Files.exists(file)));
+        try {
+            return open(compiled);
+        } catch (IllegalStateException e) {
+            // Written by another format version: compile again
+            try {
+                Files.deleteIfExists(compiled);
+            } catch (IOException ignored) {
+                // Replaced by the atomic move below anyway
+            }
+            return open(TestDataCompiler.compile(source, sheetName));
+        }
+    }
+
+    /**
+     * Map a compiled file (shared per JVM)
+     * @param compiled Compiled .tdc file
+     * @return Mapped test data
+     */
+    public static CompiledTestData open(Path compiled) {
+        return OPEN.computeIfAbsent(compiled.toAbsolutePath().normalize(), CompiledTestData::new);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    /**
+     * Get the number of data rows (header excluded)
+     * @return Row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public ColumnType getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    /**
+     * Get a cell value
+     * @param row Data row (0-based, header excluded)
+     * @param column Column (0-based)
+     * @return String, Double, Long (JSON integers), Boolean, LocalDateTime, or null for an empty cell
+     */
+    public Object get(int row, int column) {
+        if (column < 0 || column >= columnCount) {
+            throw new IndexOutOfBoundsException("Column " + column + " of " + columnCount);
+        }
+        int position = rowStart(row);
+        for (int j = 0; j < column; j++) {
+            position = skip(position);
+        }
+        return decode(position);
+    }
+
+    /**
+     * Get a whole data row
+     * @param row Data row (0-based, header excluded)
+     * @return New array with the row's values
+     */
+    public Object[] getRow(int row) {
+        Object[] values = new Object[columnCount];
+        int position = rowStart(row);
+        for (int j = 0; j < columnCount; j++) {
+            values[j] = decode(position);
+            position = skip(position);
+        }
+        return values;
+    }
+
+    /**
+     * Get all data rows for a TestNG DataProvider
+     * @return One array per data row
+     */
+    public Object[][] toDataProvider() {
+        Object[][] data = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            data[i] = getRow(i);
+        }
+        return data;
+    }
+
+    /**
+     * Iterate the data rows lazily (Iterator<Object[]> DataProvider)
+     * @return Row iterator
+     */
+    @Override
+    public Iterator<Object[]> iterator() {
+        return new Iterator<Object[]>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < rowCount;
+            }
+
+            @Override
+            public Object[] next() {
+                if (next >= rowCount) {
+                    throw new NoSuchElementException("No more rows in " + file);
+                }
+                return getRow(next++);
+            }
+        };
+    }
+
+    private int rowStart(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rowCount);
+        }
+        return buffer.getInt(rowTableOffset + row * 4);
+    }
+
+    private int skip(int position) {
+        switch (buffer.get(position)) {
+            case TestDataCompiler.TAG_STRING:
+                return position + 5;
+            case TestDataCompiler.TAG_NUMBER:
+            case TestDataCompiler.TAG_LONG:
+            case TestDataCompiler.TAG_DATE:
+                return position + 9;
+            default:
+                return position + 1;
+        }
+    }
+
+    private Object decode(int position) {
+        switch (buffer.get(position)) {
+            case TestDataCompiler.TAG_STRING:
+                return string(buffer.getInt(position + 1));
+            case TestDataCompiler.TAG_NUMBER:
+                return buffer.getDouble(position + 1);
+            case TestDataCompiler.TAG_LONG:
+                return buffer.getLong(position + 1);
+            case TestDataCompiler.TAG_TRUE:
+                return Boolean.TRUE;
+            case TestDataCompiler.TAG_FALSE:
+                return Boolean.FALSE;
+            case TestDataCompiler.TAG_DATE:
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(buffer.getLong(position + 1)), ZoneOffset.UTC);
+            default:
+                return null;
+        }
+    }
+
+    private String string(int id) {
+        String value = strings[id];
+        if (value == null) {
+            // Racing threads decode the same immutable String; either copy may be kept
+            int start = buffer.getInt(stringTableOffset + id * 4);
+            int end = buffer.getInt(stringTableOffset + id * 4 + 4);
+            byte[] bytes = new byte[end - start];
+            buffer.duplicate().position(stringDataOffset + start).get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[id] = value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,154 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-driver execution context for the utility classes
+ *
+ * Features:
+ * - One WebDriverWait, WaitUtils and ScreenshotUtils per driver
+ * - Fresh Actions builder per gesture, bound to the calling driver
+ * - Thread binding so parallel TestNG methods never share a browser by accident
+ *
+ * Usage Examples:
+ * 1. Context for a driver: DriverContext ctx = DriverContext.of(driver);
+ * 2. Bind to thread: DriverContext.bind(driver); ... DriverContext.current().waits();
+ * 3. Forget a driver: DriverContext.remove(driver);
+ */
+public class DriverContext {
+
+    private static final Map<WebDriver, DriverContext> CONTEXTS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<WebDriver> CURRENT_DRIVER = new ThreadLocal<>();
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private volatile WaitUtils waitUtils;
+    private volatile ScreenshotUtils screenshotUtils;
+
+    private DriverContext(WebDriver driver) {
+        this.driver = driver;
+        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Get (or create) the context for a driver
+     * @param driver WebDriver instance
+     * @return DriverContext bound to that driver
+     */
+    public static DriverContext of(WebDriver driver) {
+        if (driver == null) {
+            throw new IllegalArgumentException("WebDriver must not be null");
+        }
+        return CONTEXTS.computeIfAbsent(driver, DriverContext::new);
+    }
+
+    /**
+     * Bind a driver to the calling thread
+     * @param driver WebDriver instance
+     * @return DriverContext bound to that driver
+     */
+    public static DriverContext bind(WebDriver driver) {
+        CURRENT_DRIVER.set(driver);
+        return of(driver);
+    }
+
+    /**
+     * Get the context of the driver bound to the calling thread
+     * @return DriverContext
+     */
+    public static DriverContext current() {
+        WebDriver driver = CURRENT_DRIVER.get();
+        if (driver == null) {
+            throw new IllegalStateException("No WebDriver bound to thread " + Thread.currentThread().getName());
+        }
+        return of(driver);
+    }
+
+    /**
+     * Get the driver bound to the calling thread, if any
+     * @return WebDriver or null
+     */
+    public static WebDriver currentDriver() {
+        return CURRENT_DRIVER.get();
+    }
+
+    /**
+     * Clear the calling thread's driver binding
+     */
+    public static void unbind() {
+        CURRENT_DRIVER.remove();
+    }
+
+    /**
+     * Drop the context of a driver (call before quitting or returning it to a pool)
+     * @param driver WebDriver instance
+     */
+    public static void remove(WebDriver driver) {
+        if (driver != null) {
+            CONTEXTS.remove(driver);
+        }
+        if (CURRENT_DRIVER.get() == driver) {
+            CURRENT_DRIVER.remove();
+        }
+    }
+
+    /**
+     * Get the driver of this context
+     * @return WebDriver instance
+     */
+    public WebDriver driver() {
+        return driver;
+    }
+
+    /**
+     * Get the default (10 s) wait for this driver
+     * @return WebDriverWait
+     */
+    public WebDriverWait getWait() {
+        return wait;
+    }
+
+    /**
+     * Create a new Actions builder for this driver.
+     * Actions accumulate state until perform(), so they are never shared between gestures or threads.
+     * @return Actions
+     */
+    public Actions newActions() {
+        return new Actions(driver);
+    }
+
+    /**
+     * Get the WaitUtils of this driver
+     * @return WaitUtils
+     */
+    public WaitUtils waits() {
+        if (waitUtils == null) {
+            synchronized (this) {
+                if (waitUtils == null) {
+                    waitUtils = new WaitUtils(driver);
+                }
+            }
+        }
+        return waitUtils;
+    }
+
+    /**
+     * Get the ScreenshotUtils of this driver
+     * @return ScreenshotUtils
+     */
+    public ScreenshotUtils screenshots() {
+        if (screenshotUtils == null) {
+            synchronized (this) {
+                if (screenshotUtils == null) {
+                    screenshotUtils = new ScreenshotUtils(driver);
+                }
+            }
+        }
+        return screenshotUtils;
+    }
+}
@@ -0,0 +1,410 @@
+package utils;
+
+import logging.Logger;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched Excel result writer - many cell updates, one streaming write per flush
+ *
+ * ExcelUtils.setCellData parses and rewrites the whole workbook for every cell; writing a
+ * PASS/FAIL column for N rows that way costs O(N^2) I/O. This writer queues updates from any
+ * thread and writes them in batches.
+ *
+ * Features:
+ * - setCell / setRow only enqueue (lock-free); the last update of a cell wins
+ * - The existing file is read once, on the first flush; afterwards the writer keeps the values
+ *   in memory and owns the file until it is closed
+ * - Each flush streams the whole workbook with SXSSF (a small window of rows in memory) to a
+ *   temp file beside the target, then renames it over the target atomically: a crash or kill
+ *   mid-write leaves the previous complete file in place
+ * - Flushes every excel.results.flushSeconds in the background and at suite end (closeAll)
+ *
+ * Values only: a flush rebuilds the workbook from cell values, so formulas, styles, merged regions
+ * and column widths would be lost. The writer therefore only takes over workbooks it created
+ * (marked with a custom document property) or plain value-only .xlsx files; for any other existing
+ * workbook it logs a warning, drops the queued updates and rejects further ones instead of
+ * overwriting it. .xls/.xlsm targets are rejected up front.
+ *
+ * Configuration (system properties):
+ * - excel.results.flushSeconds: background flush interval (default 5)
+ *
+ * Usage Examples:
+ * 1. Record: ExcelResultWriter.get("results.xlsx").setCell("TestResults", row, 3, "PASS");
+ * 2. Row: ExcelResultWriter.get("results.xlsx").setRow("TestResults", row, "Login", "PASS", 1234);
+ * 3. Suite end: ExcelResultWriter.closeAll();  // done by TestListener.onFinish
+ */
+public class ExcelResultWriter implements AutoCloseable {
+
+    private static final Logger LOG = Logger.get(ExcelResultWriter.class);
+    private static final Map<Path, ExcelResultWriter> WRITERS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "excel-results");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int ROW_WINDOW = 100;
+    // Custom document property marking workbooks this writer created (safe to rewrite from values)
+    private static final String MARKER = "ExcelResultWriter";
+
+    private final Path file;
+    private final Queue<Update> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledFuture<?> flushTask;
+    private final Object flushLock = new Object();
+    // Guarded by flushLock; null until the existing file has been read
+    private Map<String, TreeMap<Integer, Object[]>> sheets;
+    private boolean dirty;
+    private long flushes;
+    private long writtenCells;
+    private volatile boolean closed;
+    // Why the existing workbook must not be rewritten, once a flush found out; null otherwise
+    private volatile String refused;
+
+    /**
+     * Create a writer with its own flush interval (tests); the framework uses get()
+     * @param file Target workbook (.xlsx only); created on the first flush if missing
+     * @param flushInterval Background flush interval
+     */
+    public ExcelResultWriter(Path file, Duration flushInterval) {
+        if (!file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".xlsx")) {
+            throw new IllegalArgumentException("ExcelResultWriter writes .xlsx workbooks only: " + file);
+        }
+        this.file = file.toAbsolutePath().normalize();
+        long millis = Math.max(1, flushInterval.toMillis());
+        this.flushTask = FLUSHER.scheduleWithFixedDelay(this::flushLogged, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the shared writer of a workbook
+     * @param filePath Path to Excel file (.xlsx)
+     * @return Writer, created on first use
+     */
+    public static ExcelResultWriter get(String filePath) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        return WRITERS.computeIfAbsent(path, p -> new ExcelResultWriter(p,
+                Duration.ofSeconds(Math.max(1, Long.getLong("excel.results.flushSeconds", 5)))));
+    }
+
+    /**
+     * Flush and close every shared writer (suite end)
+     */
+    public static void closeAll() {
+        for (ExcelResultWriter writer : WRITERS.values()) {
+            try {
+                writer.close();
+                LOG.info("📝 " + writer.getSummary());
+            } catch (RuntimeException e) {
+                LOG.warn("⚠️  " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Queue a cell update
+     * @param sheetName Sheet name (created if missing)
+     * @param rowNum Row number (0-based)
+     * @param colNum Column number (0-based)
+     * @param value String, Number, Boolean, LocalDateTime, LocalDate, Date; null clears the cell;
+     *              anything else is written as String.valueOf(value)
+     */
+    public void setCell(String sheetName, int rowNum, int colNum, Object value) {
+        if (rowNum < 0 || colNum < 0) {
+            throw new IllegalArgumentException("Invalid cell: row " + rowNum + ", col " + colNum);
+        }
+        if (closed) {
+            throw new IllegalStateException(refused != null
+                    ? "Result writer for " + file + " refused the workbook: " + refused
+                    : "Result writer for " + file + " is closed");
+        }
+        pending.add(new Update(sheetName, rowNum, colNum, value));
+    }
+
+    /**
+     * Queue updates for consecutive cells of a row, starting at column 0
+     * @param sheetName Sheet name (created if missing)
+     * @param rowNum Row number (0-based)
+     * @param values Cell values (see setCell)
+     */
+    public void setRow(String sheetName, int rowNum, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            setCell(sheetName, rowNum, i, values[i]);
+        }
+    }
+
+    /**
+     * Apply the queued updates and write the workbook (no-op when nothing changed)
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (refused != null || (pending.isEmpty() && !dirty)) {
+                pending.clear();
+                return;
+            }
+            if (sheets == null) {
+                sheets = readExisting();
+                if (sheets == null) {
+                    refuse();
+                    return;
+                }
+            }
+            Update update;
+            long applied = 0;
+            while ((update = pending.poll()) != null) {
+                apply(update);
+                applied++;
+            }
+            writtenCells += applied;
+            // A failed write keeps the changes in memory and is retried by the next flush
+            dirty = true;
+            try {
+                write();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to write Excel results: " + file, e);
+            }
+            dirty = false;
+            flushes++;
+        }
+    }
+
+    /**
+     * Stop the background flush and write the remaining updates
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flushTask.cancel(false);
+        WRITERS.remove(file, this);
+        flush();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Get the number of queued updates not yet written
+     * @return Pending update count
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getFlushCount() {
+        synchronized (flushLock) {
+            return flushes;
+        }
+    }
+
+    public long getWrittenCells() {
+        synchronized (flushLock) {
+            return writtenCells;
+        }
+    }
+
+    public String getSummary() {
+        return "Excel results: " + file.getFileName() + " - " + getWrittenCells() + " cell update(s) in "
+                + getFlushCount() + " write(s)";
+    }
+
+    private void flushLogged() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.warn("⚠️  " + e.getMessage());
+        }
+    }
+
+    private void refuse() {
+        LOG.warn("⚠️  Not overwriting " + file.getFileName() + " (" + refused + "): " + pending.size()
+                + " queued update(s) dropped. ExcelResultWriter rewrites values only; record results into a"
+                + " workbook it creates, or use ExcelUtils.setCellData");
+        pending.clear();
+        closed = true;
+        flushTask.cancel(false);
+        WRITERS.remove(file, this);
+    }
+
+    private void apply(Update update) {
+        TreeMap<Integer, Object[]> rows = sheets.computeIfAbsent(update.sheetName, name -> new TreeMap<>());
+        Object[] row = rows.get(update.rowNum);
+        if (row == null || row.length <= update.colNum) {
+            row = row == null ? new Object[update.colNum + 1] : Arrays.copyOf(row, update.colNum + 1);
+            rows.put(update.rowNum, row);
+        }
+        row[update.colNum] = update.value;
+    }
+
+    /**
+     * Read the values of the existing workbook
+     * @return Values by sheet, or null (with refused set) when rewriting would lose more than values
+     */
+    private Map<String, TreeMap<Integer, Object[]>> readExisting() {
+        Map<String, TreeMap<Integer, Object[]>> existing = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return existing;
+        }
+        try (Workbook workbook = WorkbookFactory.create(file.toFile(), null, true)) {
+            if (!createdHere(workbook)) {
+                refused = layoutOf(workbook);
+                if (refused != null) {
+                    return null;
+                }
+            }
+            for (Sheet sheet : workbook) {
+                TreeMap<Integer, Object[]> rows = new TreeMap<>();
+                for (Row row : sheet) {
+                    Object[] values = new Object[Math.max(0, row.getLastCellNum())];
+                    for (Cell cell : row) {
+                        values[cell.getColumnIndex()] = WorkbookCache.cellValue(cell);
+                    }
+                    rows.put(row.getRowNum(), values);
+                }
+                existing.put(sheet.getSheetName(), rows);
+            }
+            return existing;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open Excel file: " + file, e);
+        }
+    }
+
+    private static boolean createdHere(Workbook workbook) {
+        return workbook instanceof XSSFWorkbook
+                && ((XSSFWorkbook) workbook).getProperties().getCustomProperties().contains(MARKER);
+    }
+
+    /**
+     * Find content a values-only rewrite would lose
+     * @param workbook Existing workbook
+     * @return Description of the first such content, or null for a plain value-only workbook
+     */
+    private static String layoutOf(Workbook workbook) {
+        for (Sheet sheet : workbook) {
+            String where = " in sheet '" + sheet.getSheetName() + "'";
+            if (sheet.getNumMergedRegions() > 0) {
+                return "merged regions" + where;
+            }
+            int lastColumn = 0;
+            for (Row row : sheet) {
+                if (row.isFormatted()) {
+                    return "row styles" + where;
+                }
+                for (Cell cell : row) {
+                    if (cell.getCellType() == CellType.FORMULA) {
+                        return "formulas" + where;
+                    }
+                    if (cell.getCellStyle().getIndex() != 0) {
+                        return "cell styles" + where;
+                    }
+                }
+                lastColumn = Math.max(lastColumn, row.getLastCellNum());
+            }
+            int defaultWidth = sheet.getDefaultColumnWidth() * 256;
+            for (int column = 0; column < lastColumn; column++) {
+                if (sheet.getColumnWidth(column) != defaultWidth) {
+                    return "column widths" + where;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void write() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path temp = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try {
+            workbook.getXSSFWorkbook().getProperties().getCustomProperties().addProperty(MARKER, true);
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+            for (Map.Entry<String, TreeMap<Integer, Object[]>> sheetEntry : sheets.entrySet()) {
+                Sheet sheet = workbook.createSheet(sheetEntry.getKey());
+                // SXSSF needs ascending row numbers: the TreeMap iterates in order
+                for (Map.Entry<Integer, Object[]> rowEntry : sheetEntry.getValue().entrySet()) {
+                    Row row = sheet.createRow(rowEntry.getKey());
+                    Object[] values = rowEntry.getValue();
+                    for (int i = 0; i < values.length; i++) {
+                        if (values[i] != null) {
+                            setValue(row.createCell(i), values[i], dateStyle);
+                        }
+                    }
+                }
+            }
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                workbook.write(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            // Removes SXSSF's own temp files of the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void setValue(Cell cell, Object value, CellStyle dateStyle) {
+        if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            cell.setCellValue((Boolean) value);
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue((LocalDateTime) value);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue((LocalDate) value);
+            cell.setCellStyle(dateStyle);
+        } else if (value instanceof Date) {
+            cell.setCellValue((Date) value);
+            cell.setCellStyle(dateStyle);
+        } else {
+            cell.setCellValue(String.valueOf(value));
+        }
+    }
+
+    private static final class Update {
+        final String sheetName;
+        final int rowNum;
+        final int colNum;
+        final Object value;
+
+        Update(String sheetName, int rowNum, int colNum, Object value) {
+            this.sheetName = sheetName;
+            this.rowNum = rowNum;
+            this.colNum = colNum;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package utils;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming Excel reader for large data-driven tests - one row in memory at a time
+ *
+ * Features:
+ * - Reads the sheet XML with a pull parser and feeds it to POI's event-model XSSFSheetXMLHandler,
+ *   so cell values match what Excel shows (shared strings, numbers, dates, cached formula results)
+ * - Lazy Iterator<Object[]>: nothing is parsed until TestNG asks for the next row; the first
+ *   row is available right after the header, whatever the sheet size
+ * - The workbook is opened once, read-only; resources are released when the iterator is
+ *   exhausted or closed
+ * - Rows are padded to the header width ("" for missing cells); rows without any value are skipped
+ *
+ * Only the shared string table of the workbook is held in memory (it is shared by all sheets).
+ *
+ * Usage Examples:
+ * 1. DataProvider:
+ *    @DataProvider(name = "routes")
+ *    public Iterator<Object[]> routes() { return ExcelStreamReader.open("testdata.xlsx", "Routes"); }
+ * 2. Manual: try (ExcelStreamReader rows = ExcelStreamReader.open("data.xlsx", "Sheet1")) { rows.forEachRemaining(...); }
+ */
+public class ExcelStreamReader implements Iterator<Object[]>, AutoCloseable {
+
+    private final String source;
+    private final OPCPackage workbook;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xml;
+    private final XSSFSheetXMLHandler handler;
+    private final AttributesImpl attributes = new AttributesImpl();
+    private final RowCollector collector = new RowCollector();
+    private final String[] headers;
+    private Object[] next;
+    private boolean closed;
+
+    private ExcelStreamReader(File file, String sheetName) {
+        this.source = file + " [" + sheetName + "]";
+        OPCPackage opened = null;
+        InputStream stream = null;
+        try {
+            opened = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(opened);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                InputStream candidate = sheets.next();
+                if (sheetName.equals(sheets.getSheetName())) {
+                    stream = candidate;
+                    break;
+                }
+                candidate.close();
+            }
+            if (stream == null) {
+                throw new RuntimeException("Sheet '" + sheetName + "' not found in " + file);
+            }
+            this.handler = new XSSFSheetXMLHandler(reader.getStylesTable(), new ReadOnlySharedStringsTable(opened, false),
+                    collector, new FastGeneralFormatter(), false);
+            this.xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(stream);
+            this.workbook = opened;
+            this.sheetStream = stream;
+        } catch (IOException | OpenXML4JException | SAXException | XMLStreamException e) {
+            closeQuietly(stream, opened);
+            throw new RuntimeException("Failed to open Excel file: " + file, e);
+        } catch (RuntimeException e) {
+            closeQuietly(stream, opened);
+            throw e;
+        }
+
+        Object[] headerRow = readRow();
+        this.headers = headerRow == null ? new String[0] : trimTrailingEmpty(headerRow);
+    }
+
+    /**
+     * Open a sheet whose first row holds the column headers
+     * @param filePath Path to Excel file (.xlsx)
+     * @param sheetName Sheet name
+     * @return Iterator over the data rows (header excluded)
+     */
+    public static ExcelStreamReader open(String filePath, String sheetName) {
+        return new ExcelStreamReader(new File(filePath), sheetName);
+    }
+
+    /**
+     * Get the column headers (first row)
+     * @return Header names
+     */
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            next = readRow();
+            if (next == null) {
+                close();
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in " + source);
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                // Nothing left to read; the streams below are closed regardless
+            }
+            closeQuietly(sheetStream, workbook);
+        }
+    }
+
+    /**
+     * Pull XML events until the handler has completed a row with at least one value
+     * @return Row padded to the header width, or null at the end of the sheet
+     */
+    private Object[] readRow() {
+        try {
+            while (xml.hasNext()) {
+                switch (xml.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        handler.startElement(xml.getNamespaceURI(), xml.getLocalName(), xml.getLocalName(), attributes());
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        handler.endElement(xml.getNamespaceURI(), xml.getLocalName(), xml.getLocalName());
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        handler.characters(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+                        break;
+                    default:
+                        break;
+                }
+                List<String> row = collector.take();
+                if (row != null) {
+                    return toRow(row);
+                }
+            }
+            return null;
+        } catch (XMLStreamException | SAXException e) {
+            close();
+            throw new RuntimeException("Failed to read Excel rows from " + source, e);
+        }
+    }
+
+    private AttributesImpl attributes() {
+        attributes.clear();
+        for (int i = 0; i < xml.getAttributeCount(); i++) {
+            String name = xml.getAttributeLocalName(i);
+            attributes.addAttribute(xml.getAttributeNamespace(i), name, name, "CDATA", xml.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    private Object[] toRow(List<String> values) {
+        // Before the header is known (reading the header itself) the row keeps its own width
+        int width = headers == null ? values.size() : headers.length;
+        Object[] row = new Object[width];
+        for (int i = 0; i < width; i++) {
+            row[i] = i < values.size() && values.get(i) != null ? values.get(i) : "";
+        }
+        return row;
+    }
+
+    private static String[] trimTrailingEmpty(Object[] row) {
+        int width = row.length;
+        while (width > 0 && "".equals(row[width - 1])) {
+            width--;
+        }
+        return Arrays.copyOf(row, width, String[].class);
+    }
+
+    private static void closeQuietly(InputStream stream, OPCPackage workbook) {
+        try {
+            if (stream != null) {
+                stream.close();
+            }
+        } catch (IOException e) {
+            // Read-only stream; nothing to recover
+        }
+        if (workbook != null) {
+            // Opened read-only: revert closes without trying to save
+            workbook.revert();
+        }
+    }
+
+    /**
+     * Receives cells from XSSFSheetXMLHandler and hands over completed, non-blank rows
+     */
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final List<String> cells = new ArrayList<>();
+        private boolean hasValue;
+        private int nextColumn;
+        private List<String> completed;
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            hasValue = false;
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (hasValue) {
+                completed = new ArrayList<>(cells);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : columnIndex(cellReference);
+            while (cells.size() <= column) {
+                cells.add(null);
+            }
+            cells.set(column, formattedValue);
+            nextColumn = column + 1;
+            if (formattedValue != null && !formattedValue.isEmpty()) {
+                hasValue = true;
+            }
+        }
+
+        List<String> take() {
+            List<String> row = completed;
+            completed = null;
+            return row;
+        }
+
+        /**
+         * Column of an A1-style reference ("AB12" -> 27) without CellReference's regex parsing
+         */
+        private static int columnIndex(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c >= 'A' && c <= 'Z') {
+                    column = column * 26 + (c - 'A' + 1);
+                } else if (c != '$') {
+                    break;
+                }
+            }
+            return column - 1;
+        }
+    }
+
+    /**
+     * DataFormatter with a shortcut for whole numbers in the General format (ids, counts, years),
+     * the most common numeric cells in test data; everything else is formatted by POI as usual
+     */
+    private static final class FastGeneralFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString) {
+            if (formatIndex == 0 && value == Math.rint(value) && Math.abs(value) < 1e15) {
+                return Long.toString((long) value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString);
+        }
+    }
+}
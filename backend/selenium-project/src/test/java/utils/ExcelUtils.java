@@ -5,8 +5,12 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -15,7 +19,16 @@ import java.util.Map;
  * 
  * Features:
  * - Read/Write Excel files (.xlsx format)
+ * - Batched result writing from many threads (ExcelResultWriter)
  * - Get test data as Object arrays for TestNG DataProvider
+ * - Test data (getTestData, getTestDataAsMap, getTestDataIterator) is read from the compiled,
+ *   memory-mapped copy of the sheet (CompiledTestData): the workbook is parsed once per version,
+ *   later runs only hash and map it
+ * - Thread-safe reads through the shared WorkbookCache (getRowCount, getColCount): parallel
+ *   data providers parse each sheet once per run and see edits made to the file
+ * - For a single pass over a huge sheet without a compiled copy, use ExcelStreamReader
+ * - setExcelFile/getCellData work on a sheet selected per thread; setCellData and createExcelFile
+ *   keep no state between calls
  * - Cell formatting and validation
  * - Multiple sheet support
  * - Dynamic data retrieval
@@ -23,31 +36,51 @@ import java.util.Map;
  * Usage Examples:
  * 1. Read test data: Object[][] data = ExcelUtils.getTestData("testdata.xlsx", "LoginTests");
  * 2. Write results: ExcelUtils.setCellData("results.xlsx", "TestResults", 1, 3, "PASS");
+ *    Results workbook of its own: ExcelUtils.recordResult("results.xlsx", "TestResults", 1, 3, "PASS");  // batched, values only
  * 3. Get row count: int rows = ExcelUtils.getRowCount("data.xlsx", "Sheet1");
+ * 4. Lazy rows: Iterator<Object[]> rows = ExcelUtils.getTestDataIterator("testdata.xlsx", "LoginTests");
+ * 5. Cell by cell: ExcelUtils.setExcelFile("data.xlsx", "Sheet1"); ExcelUtils.getCellData(1, 0); ExcelUtils.closeExcelFile();
  */
 public class ExcelUtils {
     
-    private static Workbook workbook;
-    private static Sheet sheet;
+    // Sheet selected by setExcelFile, per thread: parallel tests reading different files do not interfere
+    private static final ThreadLocal<Sheet> SELECTED = new ThreadLocal<>();
     
     /**
-     * Open Excel file and select worksheet
+     * Open Excel file and select worksheet for getCellData/isCellEmpty on the calling thread
      * @param filePath Path to Excel file
      * @param sheetName Name of the worksheet
      */
     public static void setExcelFile(String filePath, String sheetName) {
-        try {
-            FileInputStream fis = new FileInputStream(filePath);
-            workbook = new XSSFWorkbook(fis);
-            sheet = workbook.getSheet(sheetName);
+        closeExcelFile();
+        try (FileInputStream fis = new FileInputStream(filePath)) {
+            Workbook workbook = new XSSFWorkbook(fis);
+            Sheet sheet = workbook.getSheet(sheetName);
             if (sheet == null) {
+                workbook.close();
                 throw new RuntimeException("Sheet '" + sheetName + "' not found in " + filePath);
             }
+            SELECTED.set(sheet);
         } catch (IOException e) {
             throw new RuntimeException("Failed to open Excel file: " + filePath, e);
         }
     }
     
+    /**
+     * Release the workbook selected by setExcelFile on the calling thread
+     */
+    public static void closeExcelFile() {
+        Sheet sheet = SELECTED.get();
+        SELECTED.remove();
+        if (sheet != null) {
+            try {
+                sheet.getWorkbook().close();
+            } catch (IOException e) {
+                // Read workbook; nothing to flush
+            }
+        }
+    }
+    
     /**
      * Get cell data as string
      * @param rowNum Row number (0-based)
@@ -55,6 +88,10 @@ public class ExcelUtils {
      * @return Cell value as string
      */
     public static String getCellData(int rowNum, int colNum) {
+        Sheet sheet = SELECTED.get();
+        if (sheet == null) {
+            throw new IllegalStateException("No sheet selected on this thread; call setExcelFile first");
+        }
         try {
             Row row = sheet.getRow(rowNum);
             if (row == null) return "";
@@ -84,7 +121,7 @@ public class ExcelUtils {
     }
     
     /**
-     * Set cell data
+     * Set cell data (parses and rewrites the whole file, keeping formulas and formatting)
      * @param filePath Path to Excel file
      * @param sheetName Sheet name
      * @param rowNum Row number (0-based)
@@ -92,8 +129,17 @@ public class ExcelUtils {
      * @param data Data to write
      */
     public static void setCellData(String filePath, String sheetName, int rowNum, int colNum, String data) {
-        try {
-            setExcelFile(filePath, sheetName);
+        Workbook workbook;
+        try (FileInputStream fis = new FileInputStream(filePath)) {
+            workbook = new XSSFWorkbook(fis);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open Excel file: " + filePath, e);
+        }
+        try (Workbook opened = workbook) {
+            Sheet sheet = opened.getSheet(sheetName);
+            if (sheet == null) {
+                throw new RuntimeException("Sheet '" + sheetName + "' not found in " + filePath);
+            }
             Row row = sheet.getRow(rowNum);
             if (row == null) {
                 row = sheet.createRow(rowNum);
@@ -106,15 +152,28 @@ public class ExcelUtils {
             
             cell.setCellValue(data);
             
-            FileOutputStream fos = new FileOutputStream(filePath);
-            workbook.write(fos);
-            fos.close();
-            workbook.close();
+            try (FileOutputStream fos = new FileOutputStream(filePath)) {
+                opened.write(fos);
+            }
         } catch (IOException e) {
             throw new RuntimeException("Failed to write cell data", e);
         }
     }
     
+    /**
+     * Record a cell value through the batched ExcelResultWriter (written in the background and at suite end).
+     * Not a drop-in for setCellData: the workbook is rewritten from values, so use it for a results
+     * .xlsx it creates (or a plain values-only one); formatted or formula workbooks are refused
+     * @param filePath Path to Excel file
+     * @param sheetName Sheet name
+     * @param rowNum Row number (0-based)
+     * @param colNum Column number (0-based)
+     * @param data Data to write
+     */
+    public static void recordResult(String filePath, String sheetName, int rowNum, int colNum, Object data) {
+        ExcelResultWriter.get(filePath).setCell(sheetName, rowNum, colNum, data);
+    }
+    
     /**
      * Get row count
      * @param filePath Path to Excel file
@@ -122,8 +181,7 @@ public class ExcelUtils {
      * @return Number of rows
      */
     public static int getRowCount(String filePath, String sheetName) {
-        setExcelFile(filePath, sheetName);
-        return sheet.getLastRowNum() + 1;
+        return WorkbookCache.getInstance().get(filePath, sheetName).getRowCount();
     }
     
     /**
@@ -133,40 +191,50 @@ public class ExcelUtils {
      * @return Number of columns
      */
     public static int getColCount(String filePath, String sheetName) {
-        setExcelFile(filePath, sheetName);
-        return sheet.getRow(0).getLastCellNum();
+        return WorkbookCache.getInstance().get(filePath, sheetName).getColumnCount();
     }
     
     /**
-     * Get test data for TestNG DataProvider
+     * Get test data for TestNG DataProvider (from the compiled copy of the sheet)
      * @param filePath Path to Excel file
      * @param sheetName Sheet name
      * @return 2D Object array for DataProvider
      */
     public static Object[][] getTestData(String filePath, String sheetName) {
-        setExcelFile(filePath, sheetName);
-        
-        int rowCount = getRowCount(filePath, sheetName);
-        int colCount = getColCount(filePath, sheetName);
+        CompiledTestData compiled = CompiledTestData.load(filePath, sheetName);
         
-        // Skip header row
-        Object[][] data = new Object[rowCount - 1][colCount];
+        // Header row is not part of the compiled rows
+        Object[][] data = new Object[compiled.getRowCount()][];
         
-        for (int i = 1; i < rowCount; i++) {
-            for (int j = 0; j < colCount; j++) {
-                data[i - 1][j] = getCellData(i, j);
-            }
-        }
-        
-        try {
-            workbook.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = toCellStrings(compiled.getRow(i));
         }
         
         return data;
     }
     
+    /**
+     * Get test data for TestNG DataProvider as a lazy row iterator (rows decoded from the
+     * memory-mapped compiled sheet on demand)
+     * @param filePath Path to Excel file
+     * @param sheetName Sheet name
+     * @return Iterator over the data rows (header excluded), one Object[] per row
+     */
+    public static Iterator<Object[]> getTestDataIterator(String filePath, String sheetName) {
+        Iterator<Object[]> rows = CompiledTestData.load(filePath, sheetName).iterator();
+        return new Iterator<Object[]>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+            
+            @Override
+            public Object[] next() {
+                return toCellStrings(rows.next());
+            }
+        };
+    }
+    
     /**
      * Get test data as List of Maps (column name as key)
      * @param filePath Path to Excel file
@@ -174,33 +242,20 @@ public class ExcelUtils {
      * @return List of Maps containing test data
      */
     public static List<Map<String, String>> getTestDataAsMap(String filePath, String sheetName) {
-        setExcelFile(filePath, sheetName);
+        CompiledTestData compiled = CompiledTestData.load(filePath, sheetName);
         
         List<Map<String, String>> testData = new ArrayList<>();
-        int rowCount = getRowCount(filePath, sheetName);
-        int colCount = getColCount(filePath, sheetName);
-        
-        // Get headers from first row
-        String[] headers = new String[colCount];
-        for (int j = 0; j < colCount; j++) {
-            headers[j] = getCellData(0, j);
-        }
+        String[] headers = compiled.getHeaders();
         
         // Get data rows
-        for (int i = 1; i < rowCount; i++) {
+        for (Object[] row : compiled) {
             Map<String, String> rowData = new HashMap<>();
-            for (int j = 0; j < colCount; j++) {
-                rowData.put(headers[j], getCellData(i, j));
+            for (int j = 0; j < headers.length; j++) {
+                rowData.put(headers[j], toCellString(row[j]));
             }
             testData.add(rowData);
         }
         
-        try {
-            workbook.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        
         return testData;
     }
     
@@ -211,9 +266,8 @@ public class ExcelUtils {
      * @param headers Column headers
      */
     public static void createExcelFile(String filePath, String sheetName, String[] headers) {
-        try {
-            workbook = new XSSFWorkbook();
-            sheet = workbook.createSheet(sheetName);
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet(sheetName);
             
             Row headerRow = sheet.createRow(0);
             for (int i = 0; i < headers.length; i++) {
@@ -228,15 +282,41 @@ public class ExcelUtils {
                 cell.setCellStyle(headerStyle);
             }
             
-            FileOutputStream fos = new FileOutputStream(filePath);
-            workbook.write(fos);
-            fos.close();
-            workbook.close();
+            try (FileOutputStream fos = new FileOutputStream(filePath)) {
+                workbook.write(fos);
+            }
         } catch (IOException e) {
             throw new RuntimeException("Failed to create Excel file: " + filePath, e);
         }
     }
     
+    /**
+     * Convert a cached cell value to the string getCellData returns for the same cell
+     * (formula cells give their cached result instead of the formula text)
+     * @param value Typed value from WorkbookCache or CompiledTestData
+     * @return Cell value as string
+     */
+    private static String toCellString(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Double) {
+            return String.valueOf(((Double) value).longValue());
+        }
+        if (value instanceof LocalDateTime) {
+            return Date.from(((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant()).toString();
+        }
+        return String.valueOf(value);
+    }
+    
+    private static Object[] toCellStrings(Object[] row) {
+        Object[] strings = new Object[row.length];
+        for (int j = 0; j < row.length; j++) {
+            strings[j] = toCellString(row[j]);
+        }
+        return strings;
+    }
+    
     /**
      * Check if cell is empty
      * @param rowNum Row number
@@ -0,0 +1,452 @@
+package utils;
+
+import logging.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import perf.TimedCommandListener;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Flight recorder for one browser session - recent screenshots and WebDriver commands kept in memory
+ * and written to disk only when a test fails
+ *
+ * Features:
+ * - Ring of the last N frames (PNG) bounded by a byte budget; oldest frames are evicted first
+ * - Ring of the last N commands: method, arguments (typed text masked), duration, error
+ * - Frames after navigations (configurable) and for every ScreenshotUtils.takeScreenshot call
+ *   while flight mode is on (those captures then never touch the disk)
+ * - dumpOnFailure (TestListener.onTestFailure) adds a frame of the failing state and writes
+ *   test-output/flight/FAILED_<test>_<time>/ with frame PNGs and timeline.json
+ * - Added to the decorator by NavigationRecorder.instrument (DriverFactory sessions)
+ *
+ * Configuration (system properties):
+ * - flight.enabled: flight-recorder mode (default false)
+ * - flight.frames: frames kept per session (default 10)
+ * - flight.maxMb: frame memory budget per session in MB (default 32)
+ * - flight.commands: commands kept per session (default 200)
+ * - flight.captureOn: hooks that add a frame (default get,navigate,back,forward,refresh;
+ *   also available: click, submit)
+ * - flight.dir: dump directory (default test-output/flight)
+ *
+ * Usage Examples:
+ * 1. Enable: mvn test -Dflight.enabled=true
+ * 2. Add a frame by hand: FlightRecorder.of(driver).frame("cart_before_checkout");
+ * 3. Dump: FlightRecorder.dumpOnFailure(result);  (TestListener does this)
+ * 4. Test boundaries: FlightRecorder.onTestStart(); FlightRecorder.discardPassed();  (TestListener does this)
+ */
+public class FlightRecorder extends TimedCommandListener {
+
+    private static final Logger LOG = Logger.get(FlightRecorder.class);
+    private static final Json JSON = new Json();
+    private static final DateTimeFormatter DIR_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final int MAX_ARGUMENT_LENGTH = 160;
+
+    private static final boolean ENABLED = Boolean.getBoolean("flight.enabled");
+    private static final int MAX_FRAMES = Math.max(1, Integer.getInteger("flight.frames", 10));
+    private static final long MAX_FRAME_BYTES = Math.max(1, Long.getLong("flight.maxMb", 32)) * 1024 * 1024;
+    private static final int MAX_COMMANDS = Math.max(1, Integer.getInteger("flight.commands", 200));
+    private static final Set<String> CAPTURE_ON = Arrays.stream(
+            System.getProperty("flight.captureOn", "get,navigate,back,forward,refresh").split(","))
+            .map(String::trim)
+            .collect(Collectors.toSet());
+
+    private static final Map<WebDriver, FlightRecorder> RECORDERS = new ConcurrentHashMap<>();
+    // The recorder whose session this thread used last: the one to dump when this thread's test fails.
+    // Reset at test start and on quit() so a closed session is not kept reachable
+    private static final ThreadLocal<FlightRecorder> LAST_USED = new ThreadLocal<>();
+
+    private final WebDriver rawDriver;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final Deque<Command> commands = new ArrayDeque<>();
+    private long frameBytes;
+    private WebDriver decorated;
+
+    /**
+     * @param rawDriver Undecorated driver; frames are captured on it so they are not recorded as commands
+     */
+    public FlightRecorder(WebDriver rawDriver) {
+        this.rawDriver = rawDriver;
+    }
+
+    /**
+     * Check whether flight-recorder mode is on (-Dflight.enabled)
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Make the recorder findable through the driver the tests hold
+     * @param decorated Decorated driver returned by NavigationRecorder.instrument
+     */
+    public void register(WebDriver decorated) {
+        this.decorated = decorated;
+        RECORDERS.put(decorated, this);
+    }
+
+    /**
+     * Get the recorder of a session
+     * @param driver Driver held by the test
+     * @return FlightRecorder, or null when the session is not recorded
+     */
+    public static FlightRecorder of(WebDriver driver) {
+        return driver == null ? null : RECORDERS.get(driver);
+    }
+
+    /**
+     * Capture the current page into the frame ring (no disk I/O)
+     * @param name Frame name
+     */
+    public void frame(String name) {
+        byte[] png = ((TakesScreenshot) rawDriver).getScreenshotAs(OutputType.BYTES);
+        addFrame(name, png);
+    }
+
+    /**
+     * Put an already captured screenshot into the frame ring
+     * @param name Frame name
+     * @param png PNG bytes
+     */
+    public synchronized void addFrame(String name, byte[] png) {
+        frames.addLast(new Frame(System.currentTimeMillis(), currentTest(), name, png));
+        frameBytes += png.length;
+        // Keep at least the newest frame even if it alone exceeds the budget
+        while (frames.size() > MAX_FRAMES || (frameBytes > MAX_FRAME_BYTES && frames.size() > 1)) {
+            frameBytes -= frames.removeFirst().png.length;
+        }
+    }
+
+    /**
+     * Get the memory currently held by frames
+     * @return Frame bytes
+     */
+    public synchronized long getFrameBytes() {
+        return frameBytes;
+    }
+
+    public synchronized int getFrameCount() {
+        return frames.size();
+    }
+
+    public synchronized int getCommandCount() {
+        return commands.size();
+    }
+
+    /**
+     * Write the recorder of the failing test's session to disk and clear it
+     * @param result Failed TestNG result
+     * @return Dump directory, or null when nothing was recorded
+     */
+    public static Path dumpOnFailure(ITestResult result) {
+        FlightRecorder recorder = LAST_USED.get();
+        if (recorder == null) {
+            recorder = of(DriverContext.currentDriver());
+        }
+        if (recorder == null) {
+            return null;
+        }
+        try {
+            recorder.frame("failure");
+        } catch (RuntimeException e) {
+            // The session may be gone; the buffered frames are still worth writing
+        }
+        String test = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        Path dir = Paths.get(System.getProperty("flight.dir", "test-output/flight"),
+                "FAILED_" + test + "_" + LocalDateTime.now().format(DIR_TIMESTAMP));
+        try {
+            recorder.dump(dir, test, result.getThrowable());
+            LOG.error("🛩️ Flight recorder dumped: " + dir.toAbsolutePath());
+            return dir;
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to write flight recorder dump " + dir + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Write frames and timeline to a directory and clear the rings
+     * @param dir Target directory
+     * @param test Failed test name
+     * @param error Failure cause, or null
+     * @throws IOException if writing fails
+     */
+    public void dump(Path dir, String test, Throwable error) throws IOException {
+        List<Frame> frameCopy;
+        List<Command> commandCopy;
+        synchronized (this) {
+            frameCopy = new ArrayList<>(frames);
+            commandCopy = new ArrayList<>(commands);
+            frames.clear();
+            commands.clear();
+            frameBytes = 0;
+        }
+        Files.createDirectories(dir);
+
+        List<Map<String, Object>> timeline = new ArrayList<>();
+        for (Command command : commandCopy) {
+            Map<String, Object> entry = entry("command", command.time, command.test);
+            entry.put("target", command.target);
+            entry.put("method", command.method);
+            entry.put("args", command.args);
+            entry.put("durationMillis", command.durationMicros / 1000.0);
+            if (command.error != null) {
+                entry.put("error", command.error);
+            }
+            timeline.add(entry);
+        }
+        for (int i = 0; i < frameCopy.size(); i++) {
+            Frame frame = frameCopy.get(i);
+            String file = String.format("frame-%02d_%s.png", i + 1, frame.name.replaceAll("[^A-Za-z0-9._-]", "_"));
+            Files.write(dir.resolve(file), frame.png);
+            Map<String, Object> entry = entry("frame", frame.time, frame.test);
+            entry.put("name", frame.name);
+            entry.put("file", file);
+            timeline.add(entry);
+        }
+        // Stable sort: a frame taken right after a command stays behind it
+        timeline.sort(Comparator.comparing(entry -> (Long) entry.get("epochMillis")));
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("test", test);
+        if (error != null) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            document.put("error", trace.toString());
+        }
+        document.put("timeline", timeline);
+        Files.writeString(dir.resolve("timeline.json"), JSON.toJson(document), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Forget the session this thread used in earlier tests (TestListener.onTestStart)
+     */
+    public static void onTestStart() {
+        LAST_USED.remove();
+    }
+
+    /**
+     * Drop the frames and commands of a test that did not fail, so they cannot end up in a later
+     * test's dump (TestListener.onTestSuccess/onTestSkipped)
+     */
+    public static void discardPassed() {
+        FlightRecorder recorder = LAST_USED.get();
+        if (recorder == null) {
+            recorder = of(DriverContext.currentDriver());
+        }
+        if (recorder != null) {
+            recorder.clear();
+        }
+        LAST_USED.remove();
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        LAST_USED.set(this);
+        super.beforeAnyCall(target, method, args);
+    }
+
+    @Override
+    protected void afterCommand(Object target, Method method, Object[] args, long durationNanos, Throwable error) {
+        if (error != null) {
+            String message = error.getMessage() == null ? "" : error.getMessage().split("\n", 2)[0];
+            record(target, method, args, Math.max(0, durationNanos) / 1000, error.getClass().getSimpleName() + ": " + message);
+            return;
+        }
+        record(target, method, args, Math.max(0, durationNanos) / 1000, null);
+        if ("quit".equals(method.getName()) && target instanceof WebDriver) {
+            close();
+        }
+    }
+
+    @Override
+    public void afterGet(WebDriver driver, String url) {
+        autoFrame("get", "get " + url);
+    }
+
+    @Override
+    public void afterTo(WebDriver.Navigation navigation, String url) {
+        autoFrame("navigate", "navigate " + url);
+    }
+
+    @Override
+    public void afterTo(WebDriver.Navigation navigation, URL url) {
+        autoFrame("navigate", "navigate " + url);
+    }
+
+    @Override
+    public void afterBack(WebDriver.Navigation navigation) {
+        autoFrame("back", "back");
+    }
+
+    @Override
+    public void afterForward(WebDriver.Navigation navigation) {
+        autoFrame("forward", "forward");
+    }
+
+    @Override
+    public void afterRefresh(WebDriver.Navigation navigation) {
+        autoFrame("refresh", "refresh");
+    }
+
+    @Override
+    public void afterClick(WebElement element) {
+        autoFrame("click", "click");
+    }
+
+    @Override
+    public void afterSubmit(WebElement element) {
+        autoFrame("submit", "submit");
+    }
+
+    private void autoFrame(String hook, String name) {
+        if (!CAPTURE_ON.contains(hook)) {
+            return;
+        }
+        try {
+            frame(name);
+        } catch (RuntimeException e) {
+            // Recording must never fail the test; the page may be mid-navigation or closed
+        }
+    }
+
+    private synchronized void record(Object target, Method method, Object[] args, long durationMicros, String error) {
+        commands.addLast(new Command(System.currentTimeMillis(), currentTest(), targetName(target), method.getName(),
+                describe(method.getName(), args), durationMicros, error));
+        if (commands.size() > MAX_COMMANDS) {
+            commands.removeFirst();
+        }
+    }
+
+    private synchronized void clear() {
+        frames.clear();
+        commands.clear();
+        frameBytes = 0;
+    }
+
+    private void close() {
+        clear();
+        if (decorated != null) {
+            RECORDERS.remove(decorated);
+        }
+        if (LAST_USED.get() == this) {
+            LAST_USED.remove();
+        }
+    }
+
+    private static String targetName(Object target) {
+        if (target instanceof WebElement) {
+            return "element";
+        }
+        if (target instanceof WebDriver) {
+            return "driver";
+        }
+        if (target instanceof WebDriver.Navigation) {
+            return "navigation";
+        }
+        if (target instanceof WebDriver.TargetLocator) {
+            return "switchTo";
+        }
+        if (target instanceof WebDriver.Window) {
+            return "window";
+        }
+        return "other";
+    }
+
+    private static String describe(String method, Object[] args) {
+        if (args == null || args.length == 0) {
+            return "";
+        }
+        if ("sendKeys".equals(method)) {
+            // Typed text can be a password; keep only its length
+            int length = Arrays.stream(args)
+                    .flatMap(arg -> arg instanceof CharSequence[] ? Arrays.stream((CharSequence[]) arg) : Stream.of(arg))
+                    .mapToInt(arg -> String.valueOf(arg).length())
+                    .sum();
+            return "[" + length + " chars]";
+        }
+        String text = Arrays.stream(args)
+                .map(arg -> arg instanceof Object[] ? Arrays.toString((Object[]) arg) : String.valueOf(arg))
+                .collect(Collectors.joining(", "));
+        return text.length() > MAX_ARGUMENT_LENGTH ? text.substring(0, MAX_ARGUMENT_LENGTH) + "..." : text;
+    }
+
+    private static String currentTest() {
+        ITestResult result = Reporter.getCurrentTestResult();
+        return result == null ? null
+                : result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+    }
+
+    private static Map<String, Object> entry(String type, long time, String test) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("time", Instant.ofEpochMilli(time).toString());
+        entry.put("epochMillis", time);
+        entry.put("type", type);
+        if (test != null) {
+            entry.put("test", test);
+        }
+        return entry;
+    }
+
+    private static final class Frame {
+        final long time;
+        final String test;
+        final String name;
+        final byte[] png;
+
+        Frame(long time, String test, String name, byte[] png) {
+            this.time = time;
+            this.test = test;
+            this.name = name;
+            this.png = png;
+        }
+    }
+
+    private static final class Command {
+        final long time;
+        final String test;
+        final String target;
+        final String method;
+        final String args;
+        final long durationMicros;
+        final String error;
+
+        Command(long time, String test, String target, String method, String args, long durationMicros, String error) {
+            this.time = time;
+            this.test = test;
+            this.target = target;
+            this.method = method;
+            this.args = args;
+            this.durationMicros = durationMicros;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Full-page screenshots through the Chrome DevTools Protocol - no window resize, no reflow
+ *
+ * Features:
+ * - One Page.getLayoutMetrics + one Page.captureScreenshot (captureBeyondViewport) for normal pages
+ * - Pages taller than the GPU texture limit are captured in horizontal tiles and stitched in the JVM;
+ *   the tile height is sized in device pixels, so high-DPI screens get proportionally shorter clips
+ * - The viewport, scroll position and responsive layout of the page are left untouched
+ *
+ * Configuration (system properties):
+ * - screenshot.fullpage.tileHeight: maximum tile height in device pixels (default 8000; Chrome's
+ *   compositor fails or returns blank areas above ~16384 device pixels). Clips are in CSS pixels,
+ *   so on a high-DPI screen (devicePixelRatio 2, 3) a tile covers tileHeight / ratio CSS pixels
+ *
+ * Usage Examples:
+ * 1. Supported? if (FullPageCapture.supports(driver)) { byte[] png = FullPageCapture.capture(driver); }
+ * 2. Base64 payload for ScreenshotPipeline: FullPageCapture.captureBase64(driver)
+ */
+public class FullPageCapture {
+
+    private static final int TILE_HEIGHT = Integer.getInteger("screenshot.fullpage.tileHeight", 8000);
+
+    /**
+     * Check whether a driver can capture through CDP
+     * @param driver WebDriver instance
+     * @return true for Chromium-based drivers
+     */
+    public static boolean supports(WebDriver driver) {
+        return driver instanceof HasCdp;
+    }
+
+    /**
+     * Capture the whole document as PNG bytes
+     * @param driver Chromium-based WebDriver
+     * @return PNG bytes
+     */
+    public static byte[] capture(WebDriver driver) {
+        return Base64.getMimeDecoder().decode(captureBase64(driver));
+    }
+
+    /**
+     * Capture the whole document as a Base64 PNG (same payload format as OutputType.BASE64)
+     * @param driver Chromium-based WebDriver
+     * @return Base64 PNG
+     */
+    public static String captureBase64(WebDriver driver) {
+        HasCdp cdp = (HasCdp) driver;
+        double[] size = contentSize(cdp);
+        double width = size[0];
+        double height = size[1];
+        // At least one CSS pixel per tile, however large the device scale factor
+        double tileHeight = Math.max(1, Math.floor(TILE_HEIGHT / size[2]));
+        if (height <= tileHeight) {
+            return captureClip(cdp, 0, width, height);
+        }
+
+        BufferedImage page = null;
+        Graphics2D graphics = null;
+        int drawnY = 0;
+        try {
+            for (double top = 0; top < height; top += tileHeight) {
+                BufferedImage tile = decode(captureClip(cdp, top, width, Math.min(tileHeight, height - top)));
+                if (page == null) {
+                    // Tiles come back in device pixels; scale the page height by the same ratio
+                    double ratio = tile.getWidth() / width;
+                    page = new BufferedImage(tile.getWidth(), (int) Math.ceil(height * ratio), BufferedImage.TYPE_INT_RGB);
+                    graphics = page.createGraphics();
+                }
+                graphics.drawImage(tile, 0, drawnY, null);
+                drawnY += tile.getHeight();
+            }
+        } finally {
+            if (graphics != null) {
+                graphics.dispose();
+            }
+        }
+        return Base64.getEncoder().encodeToString(encode(page));
+    }
+
+    /**
+     * Document size in CSS pixels and the device pixels per CSS pixel
+     * @return { width, height, device scale factor }
+     */
+    @SuppressWarnings("unchecked")
+    private static double[] contentSize(HasCdp cdp) {
+        Map<String, Object> metrics = cdp.executeCdpCommand("Page.getLayoutMetrics", Map.of());
+        // cssContentSize is Chrome 92+; contentSize is in device pixels on high-DPI screens for older versions
+        Object content = metrics.containsKey("cssContentSize") ? metrics.get("cssContentSize") : metrics.get("contentSize");
+        Map<String, Object> box = (Map<String, Object>) content;
+        return new double[] {
+                Math.ceil(((Number) box.get("width")).doubleValue()),
+                Math.ceil(((Number) box.get("height")).doubleValue()),
+                devicePixelRatio(cdp)
+        };
+    }
+
+    /**
+     * Device pixels per CSS pixel (screen density times browser zoom); a scale-1 capture comes back at this ratio
+     */
+    private static double devicePixelRatio(HasCdp cdp) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("expression", "window.devicePixelRatio");
+        params.put("returnByValue", true);
+        Object result = cdp.executeCdpCommand("Runtime.evaluate", params).get("result");
+        Object value = result instanceof Map ? ((Map<?, ?>) result).get("value") : null;
+        return value instanceof Number && ((Number) value).doubleValue() > 0 ? ((Number) value).doubleValue() : 1;
+    }
+
+    private static String captureClip(HasCdp cdp, double top, double width, double height) {
+        Map<String, Object> clip = new LinkedHashMap<>();
+        clip.put("x", 0);
+        clip.put("y", top);
+        clip.put("width", width);
+        clip.put("height", height);
+        clip.put("scale", 1);
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("format", "png");
+        params.put("captureBeyondViewport", true);
+        params.put("fromSurface", true);
+        params.put("clip", clip);
+        return (String) cdp.executeCdpCommand("Page.captureScreenshot", params).get("data");
+    }
+
+    private static BufferedImage decode(String base64Png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(Base64.getMimeDecoder().decode(base64Png)));
+            if (image == null) {
+                throw new IllegalStateException("CDP returned an unreadable screenshot tile");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to decode screenshot tile", e);
+        }
+    }
+
+    private static byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", png);
+            return png.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode stitched screenshot", e);
+        }
+    }
+}
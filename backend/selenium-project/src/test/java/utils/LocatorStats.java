@@ -0,0 +1,173 @@
+package utils;
+
+import logging.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-locator wait latency statistics, persisted between runs
+ *
+ * Features:
+ * - Keeps the most recent successful wait latencies per locator
+ * - p50/p99 percentiles for reporting and fail-fast timeouts
+ * - Loaded at startup and saved at JVM exit so the next run starts warm
+ *
+ * Configuration (system properties):
+ * - wait.stats.file: statistics file (default wait-stats.json in the working directory)
+ *
+ * Usage Examples:
+ * 1. Record: LocatorStats.getInstance().record("visible By.id: src", 42);
+ * 2. Query: long p99 = LocatorStats.getInstance().percentile("visible By.id: src", 0.99);
+ */
+public class LocatorStats {
+
+    private static final Logger LOG = Logger.get(LocatorStats.class);
+    private static final int MAX_SAMPLES = 64;
+    private static final Json JSON = new Json();
+    private static final Type FILE_TYPE = new TypeToken<Map<String, List<Long>>>() {}.getType();
+    private static final LocatorStats INSTANCE = new LocatorStats(
+            Paths.get(System.getProperty("wait.stats.file", "wait-stats.json")));
+
+    private final Path file;
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    static {
+        INSTANCE.load();
+        Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::save, "locator-stats-save"));
+    }
+
+    /**
+     * Create statistics backed by their own file (tests); the framework uses getInstance()
+     * @param file Statistics file read by load() and written by save()
+     */
+    public LocatorStats(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Get the shared statistics
+     * @return LocatorStats instance
+     */
+    public static LocatorStats getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record a successful wait
+     * @param key Locator key (condition + locator)
+     * @param latencyMillis Time until the condition held
+     */
+    public void record(String key, long latencyMillis) {
+        samples.computeIfAbsent(key, k -> new Samples()).add(latencyMillis);
+    }
+
+    /**
+     * Get number of recorded samples for a locator
+     * @param key Locator key
+     * @return Sample count (capped at the window size)
+     */
+    public int sampleCount(String key) {
+        Samples s = samples.get(key);
+        return s == null ? 0 : s.size();
+    }
+
+    /**
+     * Get a latency percentile for a locator
+     * @param key Locator key
+     * @param percentile Percentile between 0 and 1 (0.5 = p50, 0.99 = p99)
+     * @return Latency in milliseconds, or -1 if there are no samples
+     */
+    public long percentile(String key, double percentile) {
+        Samples s = samples.get(key);
+        if (s == null) {
+            return -1;
+        }
+        long[] sorted = s.snapshot();
+        if (sorted.length == 0) {
+            return -1;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Load statistics from the previous run
+     */
+    public void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Map<String, List<Long>> stored = JSON.toType(Files.readString(file, StandardCharsets.UTF_8), FILE_TYPE);
+            stored.forEach((key, values) -> {
+                Samples s = samples.computeIfAbsent(key, k -> new Samples());
+                values.forEach(s::add);
+            });
+        } catch (Exception e) {
+            LOG.warn("⚠️  Ignoring unreadable wait statistics " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Save statistics for the next run
+     */
+    public void save() {
+        if (samples.isEmpty()) {
+            return;
+        }
+        // Boxed lists: the JSON writer does not serialize primitive arrays
+        Map<String, List<Long>> snapshot = new TreeMap<>();
+        samples.forEach((key, s) -> snapshot.put(key, Arrays.stream(s.snapshot()).boxed().collect(Collectors.toList())));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "wait-stats", ".tmp");
+            Files.writeString(temp, JSON.toJson(snapshot), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("⚠️  Failed to save wait statistics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fixed-size ring of recent latencies
+     */
+    private static class Samples {
+        private final long[] ring = new long[MAX_SAMPLES];
+        private int count;
+        private int next;
+
+        synchronized void add(long value) {
+            ring[next] = value;
+            next = (next + 1) % MAX_SAMPLES;
+            count = Math.min(count + 1, MAX_SAMPLES);
+        }
+
+        synchronized int size() {
+            return count;
+        }
+
+        synchronized long[] snapshot() {
+            long[] copy = new long[count];
+            for (int i = 0; i < count; i++) {
+                // Oldest first so a saved file replays in the original order
+                copy[i] = ring[(next - count + i + MAX_SAMPLES) % MAX_SAMPLES];
+            }
+            return copy;
+        }
+    }
+}
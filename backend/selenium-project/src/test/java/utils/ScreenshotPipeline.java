@@ -0,0 +1,184 @@
+package utils;
+
+import logging.Logger;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background screenshot writer - the test thread only captures, decoding and disk I/O happen here
+ *
+ * Features:
+ * - Takes the Base64 payload exactly as WebDriver returns it; decoding runs on a writer thread
+ * - One NIO write per screenshot straight to its final path (no temp file + copy)
+ * - Pack mode: hashing and the locked pack append (ScreenshotStore.put) run here as well
+ * - Bounded queue: when writers fall behind, the capturing thread writes the screenshot itself
+ *   (backpressure instead of unbounded memory)
+ * - flush() at suite end (TestListener) and on JVM shutdown
+ *
+ * Configuration (system properties):
+ * - screenshot.async: set to false to write on the calling thread (default true)
+ * - screenshot.writerThreads: writer threads (default 2)
+ * - screenshot.queueSize: pending screenshots before backpressure (default 32)
+ *
+ * Usage Examples:
+ * 1. Write: ScreenshotPipeline.getInstance().write(base64Png, Paths.get("test-output/screenshots/home.png"));
+ * 2. Store: ScreenshotPipeline.getInstance().store(base64Png, ScreenshotStore.getDefault(), "home_1");
+ * 3. Suite end: ScreenshotPipeline.getInstance().flush(Duration.ofSeconds(30));
+ */
+public class ScreenshotPipeline {
+
+    private static final Logger LOG = Logger.get(ScreenshotPipeline.class);
+    private static final ScreenshotPipeline INSTANCE = new ScreenshotPipeline(
+            Boolean.parseBoolean(System.getProperty("screenshot.async", "true")),
+            Integer.getInteger("screenshot.writerThreads", 2),
+            Integer.getInteger("screenshot.queueSize", 32));
+
+    private final boolean async;
+    private final ThreadPoolExecutor executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private int pending;
+
+    private ScreenshotPipeline(boolean async, int threads, int queueSize) {
+        this.async = async;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "screenshot-writer-" + threadIds.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(Duration.ofSeconds(10)), "screenshot-flush"));
+    }
+
+    /**
+     * Get the JVM-wide pipeline
+     * @return ScreenshotPipeline instance
+     */
+    public static ScreenshotPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Decode and write a screenshot in the background
+     * @param base64Png Screenshot as returned by getScreenshotAs(OutputType.BASE64)
+     * @param target Final file path (parent directories are created)
+     * @return Future completed with the path once the file is on disk
+     */
+    public CompletableFuture<Path> write(String base64Png, Path target) {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        submit(() -> complete(future, base64Png, target));
+        return future;
+    }
+
+    /**
+     * Decode and add a screenshot to a content-addressed store in the background
+     * @param base64Png Screenshot as returned by getScreenshotAs(OutputType.BASE64)
+     * @param store Target store
+     * @param name Unique capture name (resolvable as ScreenshotStore.CAPTURE_PREFIX + name once stored)
+     * @return Future completed with the "sha256:..." reference once the image is stored
+     */
+    public CompletableFuture<String> store(String base64Png, ScreenshotStore store, String name) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        submit(() -> {
+            try {
+                String ref = store.put(name, Base64.getMimeDecoder().decode(base64Png));
+                written.incrementAndGet();
+                future.complete(ref);
+            } catch (RuntimeException e) {
+                failed.incrementAndGet();
+                LOG.error("❌ Failed to store screenshot " + name + ": " + e.getMessage(), e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private void submit(Runnable task) {
+        if (!async) {
+            task.run();
+            return;
+        }
+        lock.lock();
+        try {
+            pending++;
+        } finally {
+            lock.unlock();
+        }
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                lock.lock();
+                try {
+                    if (--pending == 0) {
+                        drained.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait until every screenshot handed over so far is on disk
+     * @param timeout Maximum wait
+     * @return true if the pipeline drained in time
+     */
+    public boolean flush(Duration timeout) {
+        long remaining = timeout.toNanos();
+        lock.lock();
+        try {
+            while (pending > 0) {
+                if (remaining <= 0) {
+                    LOG.warn("⚠️  " + pending + " screenshot(s) still being written after " + timeout.toMillis() + " ms");
+                    return false;
+                }
+                remaining = drained.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    private void complete(CompletableFuture<Path> future, String base64Png, Path target) {
+        try {
+            byte[] png = Base64.getMimeDecoder().decode(base64Png);
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Files.write(target, png);
+            written.incrementAndGet();
+            future.complete(target);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            LOG.error("❌ Failed to write screenshot " + target + ": " + e.getMessage(), e);
+            future.completeExceptionally(e);
+        }
+    }
+}
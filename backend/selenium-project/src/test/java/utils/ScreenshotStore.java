@@ -0,0 +1,414 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed screenshot store: identical images are kept once, packed into a few large files
+ *
+ * Features:
+ * - Images are keyed by SHA-256; storing the same bytes again only returns the existing reference
+ * - Unique images are appended to pack files (pack-00000.pack, ...) instead of one file per capture
+ * - Reads are served from memory-mapped packs (no read syscalls or heap copies per lookup)
+ * - Append-only index and name log; entries pointing past the end of a pack (crash mid-write) are ignored
+ * - A lock file serializes appends from parallel JVMs sharing the directory
+ * - Captures can also be addressed by their unique name ("capture:<name>"), which is known before
+ *   the image is hashed - ScreenshotUtils hands the bytes to ScreenshotPipeline and returns that
+ *
+ * Layout of the store directory:
+ * - pack-NNNNN.pack: concatenated PNG bytes
+ * - index.log: one line per unique image "sha256 pack offset length"
+ * - names.log: one line per capture "sha256 name" (which test/step produced which image)
+ *
+ * Configuration (system properties):
+ * - screenshot.store: set to "pack" to make ScreenshotUtils store captures here (default: PNG files)
+ * - screenshot.store.dir: store directory (default test-output/screenshot-store)
+ * - screenshot.store.packBytes: size at which a new pack file is started (default 256 MB)
+ *
+ * Usage Examples:
+ * 1. Store: String ref = ScreenshotStore.getDefault().put("redbus_homepage", pngBytes);  // "sha256:9f2c..."
+ * 2. Read: ByteBuffer png = ScreenshotStore.getDefault().read(ref);
+ * 3. Export for a report: ScreenshotStore.getDefault().export(ref, Paths.get("report/home.png"));
+ * 4. Store in another directory: ScreenshotStore.forDirectory(Paths.get("test-output/visual-store")).put(name, pngBytes);
+ */
+public class ScreenshotStore {
+
+    /**
+     * Prefix of the references returned by put()
+     */
+    public static final String REF_PREFIX = "sha256:";
+
+    /**
+     * Prefix of capture-name references ("capture:redbus_homepage_2024-05-01_10-00-00_7")
+     */
+    public static final String CAPTURE_PREFIX = "capture:";
+
+    private static final Map<Path, ScreenshotStore> STORES = new ConcurrentHashMap<>();
+
+    private final Path directory;
+    private final long packBytes;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+    private final Map<Integer, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong savedBytes = new AtomicLong();
+    private int currentPack;
+    private long indexPosition;
+
+    /**
+     * Open (or create) a store
+     * @param directory Store directory
+     * @param packBytes Pack size after which a new pack file is started
+     */
+    public ScreenshotStore(Path directory, long packBytes) {
+        if (packBytes <= 0 || packBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Pack size must be between 1 byte and 2 GB: " + packBytes);
+        }
+        this.directory = directory;
+        this.packBytes = packBytes;
+        try {
+            Files.createDirectories(directory);
+            loadIndex();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open screenshot store " + directory, e);
+        }
+    }
+
+    /**
+     * Get the store configured by -Dscreenshot.store.dir
+     * @return ScreenshotStore instance
+     */
+    public static ScreenshotStore getDefault() {
+        return forDirectory(Paths.get(System.getProperty("screenshot.store.dir", "test-output/screenshot-store")));
+    }
+
+    /**
+     * Get the store in a directory (one instance per directory per JVM)
+     * @param directory Store directory
+     * @return ScreenshotStore instance
+     */
+    public static ScreenshotStore forDirectory(Path directory) {
+        return STORES.computeIfAbsent(directory.toAbsolutePath().normalize(),
+                dir -> new ScreenshotStore(dir, Long.getLong("screenshot.store.packBytes", 256L * 1024 * 1024)));
+    }
+
+    /**
+     * Check whether ScreenshotUtils should store captures here (-Dscreenshot.store=pack)
+     * @return true in pack mode
+     */
+    public static boolean isEnabled() {
+        return "pack".equalsIgnoreCase(System.getProperty("screenshot.store", "files"));
+    }
+
+    /**
+     * Check whether a string is a store reference (as opposed to a file path)
+     * @param value Reference or path
+     * @return true for "sha256:..." and "capture:..." references
+     */
+    public static boolean isReference(String value) {
+        return value != null && (value.startsWith(REF_PREFIX) || value.startsWith(CAPTURE_PREFIX));
+    }
+
+    /**
+     * Store an image (once per distinct content) and record the capture name
+     * @param name Capture name, e.g. "redbus_homepage"
+     * @param png Image bytes
+     * @return Stable reference "sha256:<hex>"
+     */
+    public String put(String name, byte[] png) {
+        String hash = sha256(png);
+        try {
+            if (index.containsKey(hash)) {
+                deduplicated.incrementAndGet();
+                savedBytes.addAndGet(png.length);
+            } else {
+                append(hash, png);
+            }
+            appendLine(directory.resolve("names.log"), hash + " " + name.replace('\n', ' ') + "\n");
+            names.put(name.replace('\n', ' '), hash);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store screenshot " + name, e);
+        }
+        return REF_PREFIX + hash;
+    }
+
+    /**
+     * Check whether an image is in the store
+     * @param ref Reference returned by put(), or a capture reference
+     * @return true if stored
+     */
+    public boolean contains(String ref) {
+        String hash = hashOf(ref);
+        return hash != null && index.containsKey(hash);
+    }
+
+    /**
+     * Read an image as a read-only view of the mapped pack
+     * @param ref Reference returned by put(), or a capture reference (after ScreenshotPipeline flushed it)
+     * @return Read-only buffer positioned at the image (no copy)
+     */
+    public ByteBuffer read(String ref) {
+        String hash = hashOf(ref);
+        Location location = hash == null ? null : index.get(hash);
+        if (location == null && hash != null) {
+            // May have been stored by another JVM sharing the directory
+            try {
+                loadIndex();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read screenshot store index", e);
+            }
+            location = index.get(hash);
+        }
+        if (location == null) {
+            throw new IllegalArgumentException("Screenshot not in store: " + ref);
+        }
+        ByteBuffer pack = map(location).duplicate();
+        pack.position((int) location.offset).limit((int) (location.offset + location.length));
+        return pack.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Stream an image from the mapped pack
+     * @param ref Reference returned by put()
+     * @return InputStream over the image bytes
+     */
+    public InputStream open(String ref) {
+        ByteBuffer buffer = read(ref);
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, buffer.remaining());
+                buffer.get(target, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        };
+    }
+
+    /**
+     * Write an image out as a regular PNG file (reports, attachments)
+     * @param ref Reference returned by put()
+     * @param target Target file
+     * @return Target file
+     */
+    public Path export(String ref, Path target) {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = read(ref);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export " + ref + " to " + target, e);
+        }
+    }
+
+    public int getUniqueCount() {
+        return index.size();
+    }
+
+    public long getStoredCount() {
+        return stored.get();
+    }
+
+    public long getDeduplicatedCount() {
+        return deduplicated.get();
+    }
+
+    /**
+     * Get store statistics as a one-line summary
+     * @return Summary string
+     */
+    public String getSummary() {
+        return String.format("Screenshot store: %d unique, %d stored (%d KB), %d duplicates skipped (%d KB saved), %d pack(s)",
+                index.size(), stored.get(), storedBytes.get() / 1024, deduplicated.get(), savedBytes.get() / 1024,
+                currentPack + 1);
+    }
+
+    private synchronized void append(String hash, byte[] png) throws IOException {
+        try (FileChannel lockChannel = FileChannel.open(directory.resolve("store.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Released when the channel closes
+            lockChannel.lock();
+            // Another JVM may have appended since we loaded the index
+            loadIndex();
+            if (index.containsKey(hash)) {
+                deduplicated.incrementAndGet();
+                savedBytes.addAndGet(png.length);
+                return;
+            }
+            Path pack = packFile(currentPack);
+            if (Files.exists(pack) && Files.size(pack) + png.length > packBytes && Files.size(pack) > 0) {
+                pack = packFile(++currentPack);
+            }
+            long offset;
+            try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                offset = channel.size();
+                ByteBuffer data = ByteBuffer.wrap(png);
+                while (data.hasRemaining()) {
+                    channel.write(data, offset + data.position());
+                }
+            }
+            // Data first, index second: a crash in between leaves unreferenced bytes, never a dangling entry
+            appendLine(directory.resolve("index.log"), hash + " " + currentPack + " " + offset + " " + png.length + "\n");
+            index.put(hash, new Location(currentPack, offset, png.length));
+            stored.incrementAndGet();
+            storedBytes.addAndGet(png.length);
+        }
+    }
+
+    /**
+     * Read index lines added since the last call (by this or another JVM)
+     */
+    private synchronized void loadIndex() throws IOException {
+        Path indexFile = directory.resolve("index.log");
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= indexPosition) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - indexPosition));
+            while (buffer.hasRemaining() && channel.read(buffer, indexPosition + buffer.position()) > 0) {
+                // keep reading
+            }
+            String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+            int complete = text.lastIndexOf('\n') + 1;
+            // A line still being written by another JVM is picked up next time
+            indexPosition += text.substring(0, complete).getBytes(StandardCharsets.UTF_8).length;
+            for (String line : text.substring(0, complete).split("\n")) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length != 4) {
+                    continue;
+                }
+                int pack = Integer.parseInt(parts[1]);
+                long offset = Long.parseLong(parts[2]);
+                long length = Long.parseLong(parts[3]);
+                Path packFile = packFile(pack);
+                if (Files.exists(packFile) && Files.size(packFile) >= offset + length) {
+                    index.putIfAbsent(parts[0], new Location(pack, offset, length));
+                    currentPack = Math.max(currentPack, pack);
+                }
+            }
+        }
+    }
+
+    private ByteBuffer map(Location location) {
+        MappedByteBuffer buffer = mapped.get(location.pack);
+        if (buffer == null || buffer.capacity() < location.offset + location.length) {
+            synchronized (mapped) {
+                buffer = mapped.get(location.pack);
+                if (buffer == null || buffer.capacity() < location.offset + location.length) {
+                    // Packs only grow; remap to the current size once a read goes past the old mapping
+                    try (FileChannel channel = FileChannel.open(packFile(location.pack), StandardOpenOption.READ)) {
+                        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to map " + packFile(location.pack), e);
+                    }
+                    mapped.put(location.pack, buffer);
+                }
+            }
+        }
+        return buffer;
+    }
+
+    private Path packFile(int pack) {
+        return directory.resolve(String.format("pack-%05d.pack", pack));
+    }
+
+    private static void appendLine(Path file, String line) throws IOException {
+        Files.write(file, line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Resolve a reference to its content hash
+     * @param ref "sha256:..." or "capture:..." reference, or a bare hash
+     * @return Hash, or null for a capture name that is not stored (yet)
+     */
+    private String hashOf(String ref) {
+        if (ref.startsWith(CAPTURE_PREFIX)) {
+            String name = ref.substring(CAPTURE_PREFIX.length());
+            String hash = names.get(name);
+            if (hash == null) {
+                // Stored by another JVM sharing the directory, or still queued in ScreenshotPipeline
+                loadNames();
+                hash = names.get(name);
+            }
+            return hash;
+        }
+        return ref.startsWith(REF_PREFIX) ? ref.substring(REF_PREFIX.length()) : ref;
+    }
+
+    private synchronized void loadNames() {
+        Path namesFile = directory.resolve("names.log");
+        if (!Files.exists(namesFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(namesFile, StandardCharsets.UTF_8)) {
+                int space = line.indexOf(' ');
+                if (space > 0) {
+                    names.putIfAbsent(line.substring(space + 1), line.substring(0, space));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read screenshot store names", e);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Location {
+        private final int pack;
+        private final long offset;
+        private final long length;
+
+        private Location(int pack, long offset, long length) {
+            this.pack = pack;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
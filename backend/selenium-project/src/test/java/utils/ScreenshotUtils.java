@@ -1,21 +1,33 @@
 package utils;
 
+import events.EventPipeline;
+import logging.Logger;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.JavascriptExecutor;
-import org.apache.commons.io.FileUtils;
+import org.openqa.selenium.WebDriverException;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import java.awt.Rectangle;
 import java.io.File;
-import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Screenshot Utilities for Test Documentation and Failure Analysis
  * 
  * Features:
- * - Full page screenshots
+ * - Full page screenshots (CDP capture without window resize on Chromium; -Dscreenshot.fullpage=resize for the legacy method)
  * - Element-specific screenshots
  * - Failure screenshots with timestamps
  * - Screenshot attachment for reports
@@ -26,12 +38,31 @@ import java.time.format.DateTimeFormatter;
  * 1. Full page: ScreenshotUtils.takeScreenshot(driver, "homepage");
  * 2. Element: ScreenshotUtils.takeElementScreenshot(driver, element, "login_button");
  * 3. Failure: ScreenshotUtils.takeFailureScreenshot(driver, "test_failed");
+ * 4. Visual check: screenshotUtils.compareWithBaseline("homepage", screenshotUtils.ignoreRegion(banner)).isMatch()
+ *
+ * Thread safety: one instance per driver (see DriverContext.of(driver).screenshots());
+ * file names carry a sequence number so parallel captures never overwrite each other.
+ *
+ * Screenshots are captured on the calling thread and written by ScreenshotPipeline in the
+ * background: the returned path is final, the file appears once the pipeline has written it
+ * (ScreenshotPipeline.getInstance().flush(...) waits for that; TestListener flushes at suite end).
+ * With -Dscreenshot.store=pack, captures go to ScreenshotStore (hashed and appended by the pipeline)
+ * instead and the methods return a capture reference ("capture:<unique name>") rather than a file path;
+ * takeScreenshot(name, customPath) then uses a store in customPath.
+ * With -Dflight.enabled=true, takeScreenshot(name) only adds a frame to the session's FlightRecorder
+ * (written to disk if the test fails); failure screenshots are always written.
+ * Every capture is published as a "screenshot.capture" event (EventPipeline).
  */
 public class ScreenshotUtils {
+
+    private static final Logger LOG = Logger.get(ScreenshotUtils.class);
     
-    private WebDriver driver;
+    private final WebDriver driver;
     private static final String SCREENSHOT_DIR = "test-output/screenshots/";
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final String FLIGHT_PREFIX = "flight:";
+    // Parallel tests can capture the same name within one second; the sequence keeps file names unique
+    private static final AtomicLong SEQUENCE = new AtomicLong();
     
     /**
      * Constructor
@@ -52,59 +83,113 @@ public class ScreenshotUtils {
         }
     }
     
+    /**
+     * Build a unique, timestamped PNG file name
+     * @param fileName Base file name (without extension)
+     * @return File name with timestamp, sequence and extension
+     */
+    private static String uniqueFileName(String fileName) {
+        return uniqueName(fileName) + ".png";
+    }
+    
+    /**
+     * Build a unique, timestamped capture name
+     * @param name Base name
+     * @return Name with timestamp and sequence
+     */
+    private static String uniqueName(String name) {
+        return name + "_" + LocalDateTime.now().format(TIMESTAMP_FORMAT) + "_" + SEQUENCE.incrementAndGet();
+    }
+    
     /**
      * Take full page screenshot
      * @param fileName Screenshot file name (without extension)
-     * @return Screenshot file path
+     * @return Screenshot file path (store reference in pack mode, "flight:name" in flight-recorder mode)
      */
     public String takeScreenshot(String fileName) {
-        try {
-            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-            
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-            String fullFileName = fileName + "_" + timestamp + ".png";
-            File destFile = new File(SCREENSHOT_DIR + fullFileName);
-            
-            FileUtils.copyFile(sourceFile, destFile);
-            
-            System.out.println("📸 Screenshot saved: " + destFile.getAbsolutePath());
-            return destFile.getAbsolutePath();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to take screenshot: " + fileName, e);
+        FlightRecorder recorder = FlightRecorder.isEnabled() ? FlightRecorder.of(driver) : null;
+        if (recorder != null) {
+            // Flight mode: kept in memory, written only if the test fails
+            try {
+                recorder.addFrame(fileName, ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES));
+                publishCapture("flight", fileName, FLIGHT_PREFIX + fileName);
+                return FLIGHT_PREFIX + fileName;
+            } catch (WebDriverException e) {
+                throw new RuntimeException("Failed to take screenshot: " + fileName, e);
+            }
         }
+        return capture(fileName, null);
     }
     
     /**
      * Take screenshot with custom path
      * @param fileName Screenshot file name
-     * @param customPath Custom directory path
-     * @return Screenshot file path
+     * @param customPath Custom directory path (store directory in pack mode)
+     * @return Screenshot file path (capture reference in pack mode)
      */
     public String takeScreenshot(String fileName, String customPath) {
+        return capture(fileName, customPath);
+    }
+    
+    /**
+     * Capture the viewport to a file, or to a store in pack mode
+     * @param fileName Screenshot file name
+     * @param customPath Directory, or null for the default one (default store in pack mode)
+     * @return Screenshot file path or capture reference
+     */
+    private String capture(String fileName, String customPath) {
         try {
-            // Create custom directory if it doesn't exist
-            File directory = new File(customPath);
-            if (!directory.exists()) {
-                directory.mkdirs();
+            String base64Png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+            if (ScreenshotStore.isEnabled()) {
+                ScreenshotStore store = customPath == null
+                        ? ScreenshotStore.getDefault() : ScreenshotStore.forDirectory(Paths.get(customPath));
+                return publishCapture("page", fileName, storeInPack(store, fileName, base64Png));
             }
+            Path destFile = Paths.get(customPath == null ? SCREENSHOT_DIR : customPath, uniqueFileName(fileName))
+                    .toAbsolutePath();
+            ScreenshotPipeline.getInstance().write(base64Png, destFile);
             
-            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-            
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-            String fullFileName = fileName + "_" + timestamp + ".png";
-            File destFile = new File(customPath + "/" + fullFileName);
-            
-            FileUtils.copyFile(sourceFile, destFile);
-            
-            System.out.println("📸 Screenshot saved: " + destFile.getAbsolutePath());
-            return destFile.getAbsolutePath();
-        } catch (IOException e) {
+            LOG.info(() -> "📸 Screenshot saved: " + destFile);
+            return publishCapture("page", fileName, destFile.toString());
+        } catch (WebDriverException e) {
             throw new RuntimeException("Failed to take screenshot: " + fileName, e);
         }
     }
     
+    /**
+     * Hand a capture to ScreenshotPipeline for the content-addressed pack store (-Dscreenshot.store=pack)
+     * @param store Target store
+     * @param name Capture name
+     * @param base64Png Screenshot payload
+     * @return Capture reference ("capture:..."), readable from the store once the pipeline stored it
+     */
+    private static String storeInPack(ScreenshotStore store, String name, String base64Png) {
+        String captureName = uniqueName(name);
+        ScreenshotPipeline.getInstance().store(base64Png, store, captureName);
+        LOG.info(() -> "📸 Screenshot queued for store: " + captureName);
+        return ScreenshotStore.CAPTURE_PREFIX + captureName;
+    }
+    
+    /**
+     * Publish a "screenshot.capture" event for the backend
+     * @param kind page, element, fullpage or flight
+     * @param name Capture name
+     * @param location File path, store reference or flight frame
+     * @return location, for chaining
+     */
+    private static String publishCapture(String kind, String name, String location) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("kind", kind);
+        data.put("name", name);
+        data.put("location", location);
+        ITestResult test = Reporter.getCurrentTestResult();
+        if (test != null) {
+            data.put("test", test.getMethod().getQualifiedName());
+        }
+        EventPipeline.publishIfEnabled("screenshot.capture", data);
+        return location;
+    }
+    
     /**
      * Take element screenshot
      * @param element WebElement to capture
@@ -113,17 +198,16 @@ public class ScreenshotUtils {
      */
     public String takeElementScreenshot(WebElement element, String fileName) {
         try {
-            File sourceFile = element.getScreenshotAs(OutputType.FILE);
-            
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-            String fullFileName = "element_" + fileName + "_" + timestamp + ".png";
-            File destFile = new File(SCREENSHOT_DIR + fullFileName);
-            
-            FileUtils.copyFile(sourceFile, destFile);
+            String base64Png = element.getScreenshotAs(OutputType.BASE64);
+            if (ScreenshotStore.isEnabled()) {
+                return publishCapture("element", fileName, storeInPack(ScreenshotStore.getDefault(), "element_" + fileName, base64Png));
+            }
+            Path destFile = Paths.get(SCREENSHOT_DIR, uniqueFileName("element_" + fileName)).toAbsolutePath();
+            ScreenshotPipeline.getInstance().write(base64Png, destFile);
             
-            System.out.println("📸 Element screenshot saved: " + destFile.getAbsolutePath());
-            return destFile.getAbsolutePath();
-        } catch (IOException e) {
+            LOG.info(() -> "📸 Element screenshot saved: " + destFile);
+            return publishCapture("element", fileName, destFile.toString());
+        } catch (WebDriverException e) {
             throw new RuntimeException("Failed to take element screenshot: " + fileName, e);
         }
     }
@@ -137,16 +221,16 @@ public class ScreenshotUtils {
     public String takeFailureScreenshot(String testName, String errorMessage) {
         try {
             String fileName = "FAILED_" + testName;
-            String screenshotPath = takeScreenshot(fileName);
+            String screenshotPath = capture(fileName, null);
             
             // Log failure details
-            System.err.println("❌ Test Failed: " + testName);
-            System.err.println("💥 Error: " + errorMessage);
-            System.err.println("📸 Failure Screenshot: " + screenshotPath);
+            LOG.error("❌ Test Failed: " + testName);
+            LOG.error("💥 Error: " + errorMessage);
+            LOG.error("📸 Failure Screenshot: " + screenshotPath);
             
             return screenshotPath;
         } catch (Exception e) {
-            System.err.println("Failed to take failure screenshot for: " + testName);
+            LOG.error("Failed to take failure screenshot for: " + testName, e);
             return null;
         }
     }
@@ -161,11 +245,35 @@ public class ScreenshotUtils {
     }
     
     /**
-     * Take full page screenshot with scroll
+     * Take full page screenshot - via CDP (FullPageCapture) on Chromium, by window resize elsewhere
      * @param fileName Screenshot file name
      * @return Screenshot file path
      */
     public String takeFullPageScreenshot(String fileName) {
+        if (!"resize".equalsIgnoreCase(System.getProperty("screenshot.fullpage", "cdp")) && FullPageCapture.supports(driver)) {
+            try {
+                String base64Png = FullPageCapture.captureBase64(driver);
+                if (ScreenshotStore.isEnabled()) {
+                    return publishCapture("fullpage", fileName, storeInPack(ScreenshotStore.getDefault(), "fullpage_" + fileName, base64Png));
+                }
+                Path destFile = Paths.get(SCREENSHOT_DIR, uniqueFileName("fullpage_" + fileName)).toAbsolutePath();
+                ScreenshotPipeline.getInstance().write(base64Png, destFile);
+                LOG.info(() -> "📸 Full page screenshot saved: " + destFile);
+                return publishCapture("fullpage", fileName, destFile.toString());
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Failed to take full page screenshot: " + fileName, e);
+            }
+        }
+        return takeFullPageScreenshotByResize(fileName);
+    }
+    
+    /**
+     * Take full page screenshot by resizing the window to the page size (legacy method;
+     * reflows the page, used for non-Chromium drivers or with -Dscreenshot.fullpage=resize)
+     * @param fileName Screenshot file name
+     * @return Screenshot file path
+     */
+    public String takeFullPageScreenshotByResize(String fileName) {
         try {
             // Get original window size
             JavascriptExecutor js = (JavascriptExecutor) driver;
@@ -232,10 +340,10 @@ public class ScreenshotUtils {
             String pageTitle = driver.getTitle();
             
             // Log information
-            System.out.println("📊 Test Info: " + testInfo);
-            System.out.println("🌐 URL: " + currentUrl);
-            System.out.println("📄 Title: " + pageTitle);
-            System.out.println("🔍 Browser: " + browserInfo);
+            LOG.info("📊 Test Info: " + testInfo);
+            LOG.info("🌐 URL: " + currentUrl);
+            LOG.info("📄 Title: " + pageTitle);
+            LOG.info("🔍 Browser: " + browserInfo);
             
             return takeScreenshot(fileName + "_with_info");
         } catch (Exception e) {
@@ -244,28 +352,49 @@ public class ScreenshotUtils {
     }
     
     /**
-     * Clean up old screenshots (older than specified days)
+     * Capture the viewport and compare it with its stored baseline (see VisualDiff)
+     * @param name Baseline name
+     * @param ignoreRegions Regions excluded from the comparison, in screenshot pixels (see ignoreRegion)
+     * @return Comparison result; the baseline is recorded when it does not exist yet
+     */
+    public VisualDiff.Result compareWithBaseline(String name, Rectangle... ignoreRegions) {
+        try {
+            byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            return VisualDiff.getDefault().check(name, png, ignoreRegions);
+        } catch (WebDriverException e) {
+            throw new RuntimeException("Failed to take screenshot for visual check: " + name, e);
+        }
+    }
+    
+    /**
+     * Get the screenshot area of an element, to ignore it in compareWithBaseline
+     * @param element Element to ignore (ads, carousels, dates)
+     * @return Element bounds in screenshot (device) pixels
+     */
+    public Rectangle ignoreRegion(WebElement element) {
+        Number ratio = (Number) ((JavascriptExecutor) driver).executeScript("return window.devicePixelRatio || 1");
+        double scale = ratio.doubleValue();
+        org.openqa.selenium.Rectangle rect = element.getRect();
+        return new Rectangle((int) Math.floor(rect.getX() * scale), (int) Math.floor(rect.getY() * scale),
+                (int) Math.ceil(rect.getWidth() * scale), (int) Math.ceil(rect.getHeight() * scale));
+    }
+    
+    /**
+     * Clean up old screenshots (older than specified days) - one synchronous pass over the screenshot
+     * directory; suites keep all artifacts bounded with ArtifactRetentionManager in the background
      * @param daysOld Number of days
      */
     public static void cleanupOldScreenshots(int daysOld) {
         try {
-            File screenshotDir = new File(SCREENSHOT_DIR);
-            if (screenshotDir.exists()) {
-                File[] files = screenshotDir.listFiles();
-                if (files != null) {
-                    long cutoffTime = System.currentTimeMillis() - (daysOld * 24 * 60 * 60 * 1000L);
-                    
-                    for (File file : files) {
-                        if (file.lastModified() < cutoffTime) {
-                            if (file.delete()) {
-                                System.out.println("🗑️ Deleted old screenshot: " + file.getName());
-                            }
-                        }
-                    }
-                }
+            Duration maxAge = Duration.ofDays(daysOld);
+            ArtifactRetentionManager.Report report = new ArtifactRetentionManager(List.of(Paths.get(SCREENSHOT_DIR)),
+                    new ArtifactRetentionManager.Policy(maxAge, maxAge, Duration.ZERO, Long.MAX_VALUE, Duration.ZERO, Set.of()))
+                    .runOnce();
+            if (report.getDeletedFiles() > 0) {
+                LOG.info("🗑️ Deleted " + report.getDeletedFiles() + " old screenshot(s)");
             }
         } catch (Exception e) {
-            System.err.println("Failed to cleanup old screenshots: " + e.getMessage());
+            LOG.warn("Failed to cleanup old screenshots: " + e.getMessage(), e);
         }
     }
     
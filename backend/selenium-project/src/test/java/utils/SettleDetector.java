@@ -0,0 +1,143 @@
+package utils;
+
+import driver.CdpSession;
+import logging.Logger;
+import metrics.TestMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import java.util.Map;
+
+/**
+ * DOM-quiescence settle detector - replaces fixed Thread.sleep pauses after gestures
+ *
+ * Features:
+ * - Resolves as soon as the page is stable: document loaded, no DOM mutations
+ *   and no pending fetch/XHR for a quiet window
+ * - Hard cap so a page that never settles (tickers, carousels) cannot stall a test
+ * - One executeAsyncScript round trip per settle
+ * - On Chromium the observer and fetch/XHR hooks are injected at document start
+ *   (Page.addScriptToEvaluateOnNewDocument), so requests fired while the page loads are counted;
+ *   other browsers get them on the first settle of each document
+ *
+ * Configuration (system properties):
+ * - settle.quietMillis: required quiet window (default 100)
+ * - settle.maxMillis: hard cap (default 2000)
+ * - settle.enabled: set to false to skip settling entirely (default true)
+ *
+ * Usage Examples:
+ * 1. Default: SettleDetector.waitForSettle(driver);
+ * 2. Custom: SettleDetector.waitForSettle(driver, 250, 5000);
+ * 3. Early hooks (DriverFactory does this): SettleDetector.install(driver);
+ */
+public class SettleDetector {
+
+    private static final Logger LOG = Logger.get(SettleDetector.class);
+
+    private static final long DEFAULT_QUIET_MILLIS = Long.getLong("settle.quietMillis", 100L);
+    private static final long DEFAULT_MAX_MILLIS = Long.getLong("settle.maxMillis", 2000L);
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("settle.enabled", "true"));
+
+    // Installs the observer and request hooks once per document; safe to evaluate again
+    private static final String HOOKS_SCRIPT =
+            "(function (w) {"
+            + "  if (w.__settle) { return; }"
+            + "  var now = function () { return performance.now(); };"
+            + "  var s = w.__settle = { inflight: 0, last: now() };"
+            + "  var touch = function () { s.last = now(); };"
+            + "  new MutationObserver(touch).observe(document, {"
+            + "    subtree: true, childList: true, attributes: true, characterData: true });"
+            + "  if (w.fetch) {"
+            + "    var originalFetch = w.fetch;"
+            + "    w.fetch = function () {"
+            + "      s.inflight++; touch();"
+            + "      return originalFetch.apply(this, arguments).finally(function () { s.inflight--; touch(); });"
+            + "    };"
+            + "  }"
+            + "  var originalSend = XMLHttpRequest.prototype.send;"
+            + "  XMLHttpRequest.prototype.send = function () {"
+            + "    s.inflight++; touch();"
+            + "    this.addEventListener('loadend', function () { s.inflight--; touch(); });"
+            + "    return originalSend.apply(this, arguments);"
+            + "  };"
+            + "})(window);";
+
+    private static final String SETTLE_SCRIPT = HOOKS_SCRIPT
+            + "var quiet = arguments[0], max = arguments[1], done = arguments[arguments.length - 1];"
+            + "var now = function () { return performance.now(); };"
+            + "var state = window.__settle, start = now();"
+            + "(function check() {"
+            + "  var t = now();"
+            + "  if (document.readyState === 'complete' && state.inflight <= 0 && t - state.last >= quiet) {"
+            + "    return done({ settled: true, waited: t - start });"
+            + "  }"
+            + "  if (t - start >= max) {"
+            + "    return done({ settled: false, waited: t - start, inflight: state.inflight });"
+            + "  }"
+            + "  setTimeout(check, Math.max(5, Math.min(quiet / 4, 25)));"
+            + "})();";
+
+    /**
+     * Inject the observer and fetch/XHR hooks into every new document of a Chromium session before
+     * any page script runs; without this, requests started during load are invisible to the first settle
+     * @param driver WebDriver instance (ignored unless it supports CDP)
+     */
+    public static void install(WebDriver driver) {
+        if (!ENABLED || !CdpSession.isSupported(driver)) {
+            return;
+        }
+        try {
+            CdpSession.of(driver).attachment(EarlyHooks.class, EarlyHooks::new);
+        } catch (RuntimeException e) {
+            LOG.warn("⚠️  Settle hooks not injected at document start, falling back to first settle: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Wait until the page settles, using the configured quiet window and cap
+     * @param driver WebDriver instance
+     * @return true if the page settled, false if the cap was hit
+     */
+    public static boolean waitForSettle(WebDriver driver) {
+        return waitForSettle(driver, DEFAULT_QUIET_MILLIS, DEFAULT_MAX_MILLIS);
+    }
+
+    /**
+     * Wait until no DOM mutations and no fetch/XHR happened for quietMillis
+     * @param driver WebDriver instance
+     * @param quietMillis Required quiet window in milliseconds
+     * @param maxMillis Hard cap in milliseconds
+     * @return true if the page settled, false if the cap was hit
+     */
+    public static boolean waitForSettle(WebDriver driver, long quietMillis, long maxMillis) {
+        if (!ENABLED || !(driver instanceof JavascriptExecutor)) {
+            return true;
+        }
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(SETTLE_SCRIPT, quietMillis, maxMillis);
+            if (result instanceof Map) {
+                return Boolean.TRUE.equals(((Map<?, ?>) result).get("settled"));
+            }
+            return true;
+        } catch (WebDriverException e) {
+            // The gesture started a navigation and unloaded the document mid-script;
+            // settle once more on the new page (it installs a fresh observer)
+            TestMetrics.RETRIES.labels("settle").inc();
+            try {
+                Object result = ((JavascriptExecutor) driver).executeAsyncScript(SETTLE_SCRIPT, quietMillis, maxMillis);
+                return !(result instanceof Map) || Boolean.TRUE.equals(((Map<?, ?>) result).get("settled"));
+            } catch (WebDriverException retryFailure) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Marks a CDP session whose new documents already receive HOOKS_SCRIPT
+     */
+    private static final class EarlyHooks {
+        private EarlyHooks(CdpSession cdp) {
+            cdp.send("Page.addScriptToEvaluateOnNewDocument", Map.of("source", HOOKS_SCRIPT));
+        }
+    }
+}
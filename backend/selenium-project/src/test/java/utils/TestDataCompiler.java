@@ -0,0 +1,373 @@
+package utils;
+
+import logging.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles test-data sources (.xlsx/.xls sheets, .json arrays of objects) into the binary format
+ * read by CompiledTestData
+ *
+ * Features:
+ * - Compiled file stored beside the source, named after the source, the sheet and the SHA-256
+ *   of the source content: "testdata.xlsx.Login.3f9a1c0d5e7b2a64.tdc"
+ * - A changed source has a new hash and is compiled again; older versions are deleted
+ * - Written to a temp file and renamed atomically, so parallel JVMs never read a partial file
+ *
+ * Format (big-endian):
+ * - Header: magic "TDC2", row count, column count, string count, string table offset, row table offset
+ * - Column names (string ids) and column types (one byte each: EMPTY, STRING, NUMBER, BOOLEAN, DATE, MIXED)
+ * - String table: stringCount + 1 offsets, then the UTF-8 bytes of every distinct string
+ * - Row table: rowCount + 1 absolute offsets of the row records
+ * - Rows: per cell a tag byte, then an int string id (STRING), a double (NUMBER), a long (LONG,
+ *   JSON integers) or a long of epoch millis in UTC (DATE); NULL, TRUE and FALSE have no payload
+ *
+ * Usage Examples:
+ * 1. Compile (done on demand by CompiledTestData.load): Path tdc = TestDataCompiler.compile(Paths.get("testdata.xlsx"), "Login");
+ * 2. JSON: Path tdc = TestDataCompiler.compile(Paths.get("testdata.json"), null);
+ */
+public final class TestDataCompiler {
+
+    private static final Logger LOG = Logger.get(TestDataCompiler.class);
+
+    static final int MAGIC = 0x54444332;
+    static final int HEADER_BYTES = 24;
+    static final byte TAG_NULL = 0;
+    static final byte TAG_STRING = 1;
+    static final byte TAG_NUMBER = 2;
+    static final byte TAG_TRUE = 3;
+    static final byte TAG_FALSE = 4;
+    static final byte TAG_DATE = 5;
+    static final byte TAG_LONG = 6;
+    static final String EXTENSION = ".tdc";
+    private static final String JSON_ROOT = "json";
+    private static final Pattern HASHED_NAME = Pattern.compile("[0-9a-f]{16}\\" + EXTENSION);
+
+    private TestDataCompiler() {
+    }
+
+    /**
+     * Get the compiled file of a source, compiling it when the current version is missing
+     * @param source Source file (.xlsx, .xls or .json)
+     * @param sheetName Sheet name; for JSON the property holding the array, or null for a root array
+     * @return Compiled file beside the source
+     */
+    public static Path compile(Path source, String sheetName) {
+        Path compiled = compiledPath(source, sheetName);
+        if (Files.exists(compiled)) {
+            return compiled;
+        }
+        long start = System.nanoTime();
+        Table table = read(source, sheetName);
+        byte[] bytes;
+        try {
+            bytes = encode(table);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compile test data: " + source, e);
+        }
+        Path temp = compiled.resolveSibling(compiled.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, compiled, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // Leftover temp file only
+            }
+            throw new RuntimeException("Failed to write compiled test data: " + compiled, e);
+        }
+        deleteOlderVersions(source, sheetName, compiled);
+        LOG.info("🗜️ Compiled " + source.getFileName() + " [" + label(sheetName) + "]: " + table.rows.size()
+                + " rows, " + bytes.length / 1024 + " KB in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return compiled;
+    }
+
+    /**
+     * Get the path the current version of a source compiles to (hashes the source content)
+     * @param source Source file
+     * @param sheetName Sheet name, or null for a JSON root array
+     * @return Compiled file path (may not exist yet)
+     */
+    public static Path compiledPath(Path source, String sheetName) {
+        Path absolute = source.toAbsolutePath().normalize();
+        return absolute.resolveSibling(prefix(absolute, sheetName) + contentHash(absolute) + EXTENSION);
+    }
+
+    private static String prefix(Path source, String sheetName) {
+        return source.getFileName() + "." + label(sheetName) + ".";
+    }
+
+    /**
+     * Check whether a compiled file is a version (any content hash) of a source sheet
+     * @param file Compiled file
+     * @param source Source file
+     * @param sheetName Sheet name, or null for a JSON root array
+     * @return true if file was compiled from some version of source/sheetName
+     */
+    static boolean isVersionOf(Path file, Path source, String sheetName) {
+        Path absolute = source.toAbsolutePath().normalize();
+        String name = file.getFileName().toString();
+        String prefix = prefix(absolute, sheetName);
+        // The hash pattern keeps sheet "Login" from matching the files of sheet "Login.v2"
+        return absolute.getParent().equals(file.getParent()) && name.startsWith(prefix)
+                && HASHED_NAME.matcher(name.substring(prefix.length())).matches();
+    }
+
+    private static String label(String sheetName) {
+        return sheetName == null ? JSON_ROOT : sheetName;
+    }
+
+    private static String contentHash(Path source) {
+        try (InputStream in = new DigestInputStream(Files.newInputStream(source), MessageDigest.getInstance("SHA-256"))) {
+            byte[] buffer = new byte[64 * 1024];
+            while (in.read(buffer) != -1) {
+                // Digest is updated while reading
+            }
+            byte[] digest = ((DigestInputStream) in).getMessageDigest().digest();
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read test data: " + source, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteOlderVersions(Path source, String sheetName, Path current) {
+        String prefix = prefix(source.toAbsolutePath().normalize(), sheetName);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(current.getParent(), prefix + "*" + EXTENSION)) {
+            for (Path file : files) {
+                if (!file.equals(current) && isVersionOf(file, source, sheetName)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("⚠️  Could not remove older compiled test data for " + source + ": " + e.getMessage());
+        }
+    }
+
+    private static Table read(Path source, String sheetName) {
+        String name = source.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".json")) {
+            return readJson(source, sheetName);
+        }
+        if (sheetName == null) {
+            throw new IllegalArgumentException("Sheet name required for " + source);
+        }
+        WorkbookCache.SheetData sheet = WorkbookCache.load(source.toAbsolutePath().normalize(), sheetName);
+        Table table = new Table(sheet.getHeaders());
+        for (int i = 1; i < sheet.getRowCount(); i++) {
+            Object[] row = new Object[table.headers.length];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = sheet.get(i, j);
+            }
+            table.rows.add(row);
+        }
+        return table;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Table readJson(Path source, String property) {
+        Object root;
+        try {
+            root = new Json().toType(Files.readString(source, StandardCharsets.UTF_8), Object.class);
+        } catch (IOException | JsonException e) {
+            throw new RuntimeException("Failed to read test data: " + source, e);
+        }
+        if (property != null) {
+            root = root instanceof Map ? ((Map<String, Object>) root).get(property) : null;
+        }
+        if (!(root instanceof List)) {
+            throw new RuntimeException("Expected a JSON array of objects" + (property == null ? "" : " in '" + property + "'")
+                    + " in " + source);
+        }
+        List<Map<String, Object>> objects = new ArrayList<>();
+        Set<String> columns = new LinkedHashSet<>();
+        for (Object element : (List<Object>) root) {
+            if (!(element instanceof Map)) {
+                throw new RuntimeException("Expected a JSON array of objects in " + source);
+            }
+            Map<String, Object> object = (Map<String, Object>) element;
+            objects.add(object);
+            columns.addAll(object.keySet());
+        }
+        Table table = new Table(columns.toArray(new String[0]));
+        for (Map<String, Object> object : objects) {
+            Object[] row = new Object[table.headers.length];
+            for (int j = 0; j < row.length; j++) {
+                Object value = object.get(table.headers[j]);
+                // Nested objects and arrays are kept as their JSON text
+                row[j] = value instanceof Map || value instanceof List ? new Json().toJson(value) : value;
+            }
+            table.rows.add(row);
+        }
+        return table;
+    }
+
+    private static byte[] encode(Table table) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        int columns = table.headers.length;
+        int[] headerIds = new int[columns];
+        for (int j = 0; j < columns; j++) {
+            headerIds[j] = intern(strings, table.headers[j]);
+        }
+
+        byte[] types = new byte[columns];
+        ByteArrayOutputStream rowBytes = new ByteArrayOutputStream();
+        DataOutputStream rowOut = new DataOutputStream(rowBytes);
+        int[] rowStarts = new int[table.rows.size() + 1];
+        for (int i = 0; i < table.rows.size(); i++) {
+            rowStarts[i] = rowOut.size();
+            Object[] row = table.rows.get(i);
+            for (int j = 0; j < columns; j++) {
+                byte tag = writeCell(rowOut, strings, row[j]);
+                types[j] = ColumnTypes.merge(types[j], tag);
+            }
+        }
+        rowStarts[table.rows.size()] = rowOut.size();
+
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        int[] stringStarts = new int[strings.size() + 1];
+        int index = 0;
+        for (String value : strings.keySet()) {
+            stringStarts[index++] = stringBytes.size();
+            stringBytes.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        stringStarts[index] = stringBytes.size();
+
+        int stringTableOffset = HEADER_BYTES + columns * 4 + columns;
+        int rowTableOffset = stringTableOffset + stringStarts.length * 4 + stringBytes.size();
+        int rowsOffset = rowTableOffset + rowStarts.length * 4;
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(rowsOffset + rowBytes.size());
+        DataOutputStream out = new DataOutputStream(file);
+        out.writeInt(MAGIC);
+        out.writeInt(table.rows.size());
+        out.writeInt(columns);
+        out.writeInt(strings.size());
+        out.writeInt(stringTableOffset);
+        out.writeInt(rowTableOffset);
+        for (int id : headerIds) {
+            out.writeInt(id);
+        }
+        out.write(types);
+        for (int start : stringStarts) {
+            out.writeInt(start);
+        }
+        stringBytes.writeTo(out);
+        for (int start : rowStarts) {
+            out.writeInt(rowsOffset + start);
+        }
+        rowBytes.writeTo(out);
+        out.flush();
+        return file.toByteArray();
+    }
+
+    private static byte writeCell(DataOutputStream out, Map<String, Integer> strings, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return TAG_NULL;
+        }
+        if (value instanceof Boolean) {
+            byte tag = (Boolean) value ? TAG_TRUE : TAG_FALSE;
+            out.writeByte(tag);
+            return tag;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(((Number) value).longValue());
+            return TAG_LONG;
+        }
+        if (value instanceof Number) {
+            out.writeByte(TAG_NUMBER);
+            out.writeDouble(((Number) value).doubleValue());
+            return TAG_NUMBER;
+        }
+        if (value instanceof LocalDateTime) {
+            out.writeByte(TAG_DATE);
+            out.writeLong(((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli());
+            return TAG_DATE;
+        }
+        out.writeByte(TAG_STRING);
+        out.writeInt(intern(strings, String.valueOf(value)));
+        return TAG_STRING;
+    }
+
+    private static int intern(Map<String, Integer> strings, String value) {
+        return strings.computeIfAbsent(value, key -> strings.size());
+    }
+
+    /**
+     * Column type byte: the cell type when every non-null cell agrees, otherwise MIXED
+     */
+    static final class ColumnTypes {
+        static final byte EMPTY = 0;
+        static final byte STRING = 1;
+        static final byte NUMBER = 2;
+        static final byte BOOLEAN = 3;
+        static final byte DATE = 4;
+        static final byte MIXED = 5;
+
+        private ColumnTypes() {
+        }
+
+        static byte merge(byte columnType, byte tag) {
+            byte cellType;
+            switch (tag) {
+                case TAG_STRING:
+                    cellType = STRING;
+                    break;
+                case TAG_NUMBER:
+                case TAG_LONG:
+                    cellType = NUMBER;
+                    break;
+                case TAG_TRUE:
+                case TAG_FALSE:
+                    cellType = BOOLEAN;
+                    break;
+                case TAG_DATE:
+                    cellType = DATE;
+                    break;
+                default:
+                    return columnType;
+            }
+            return columnType == EMPTY || columnType == cellType ? cellType : MIXED;
+        }
+    }
+
+    private static final class Table {
+        final String[] headers;
+        final List<Object[]> rows = new ArrayList<>();
+
+        Table(String[] headers) {
+            this.headers = headers;
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package utils;
+
+import logging.Logger;
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Visual regression checks - compares screenshots against stored baselines pixel by pixel
+ *
+ * Features:
+ * - Perceptual tolerance: colour distance in YIQ space (same metric as pixelmatch), so
+ *   anti-aliasing and compression noise below the threshold is not reported
+ * - Images are split into bands of rows compared in parallel on a dedicated ForkJoinPool
+ * - Rows are read straight from the raster of the decoded PNG (no copy into an ARGB image)
+ * - Decoded baselines are cached (keyed by file, size and modification time), so a repeated check
+ *   decodes only the capture
+ * - Ignore regions (ads, carousels, clocks) are excluded from the score
+ * - Diff image (unchanged pixels faded, mismatches red, ignored regions blue) rendered only on demand
+ * - Missing baselines are recorded on first run; -Dvisual.update=true re-records them
+ *
+ * Configuration (system properties):
+ * - visual.enabled: run the baseline checks of the live-site tests (default false; see isEnabled())
+ * - visual.baselineDir: baseline PNG directory (default src/test/resources/visual-baselines)
+ * - visual.diffDir: diff image directory (default test-output/visual-diffs)
+ * - visual.threshold: per-pixel colour tolerance 0..1 (default 0.1)
+ * - visual.maxMismatch: mismatching pixel ratio still reported as a match (default 0.001)
+ * - visual.update: overwrite baselines with the current captures (default false)
+ * - visual.threads: comparison threads (default: available processors)
+ * - visual.bandRows: rows per parallel work unit (default 64)
+ * - visual.baselineCache: decoded baselines kept in memory, least recently used dropped first (default 8)
+ *
+ * Usage Examples:
+ * 1. From a test: VisualDiff.Result result = screenshotUtils.compareWithBaseline("amazon_homepage");
+ * 2. Assert: Assert.assertTrue(result.isMatch(), result.toString());
+ * 3. Raw images: VisualDiff.compare(expected, actual, 0.1, List.of(new Rectangle(0, 0, 1920, 90)));
+ */
+public class VisualDiff {
+
+    private static final Logger LOG = Logger.get(VisualDiff.class);
+
+    // Largest possible YIQ delta between two colours (black vs white)
+    private static final double MAX_YIQ_DELTA = 35215;
+    private static final int MISMATCH_COLOR = 0xFFFF0000;
+    private static final int SIZE_MISMATCH_COLOR = 0xFFFF00FF;
+    private static final int IGNORED_COLOR = 0xFFD0E0FF;
+    private static final int BAND_ROWS = Math.max(1, Integer.getInteger("visual.bandRows", 64));
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+            Integer.getInteger("visual.threads", Runtime.getRuntime().availableProcessors()),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("visual-diff-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+
+    private static final int BASELINE_CACHE_SIZE = Math.max(0, Integer.getInteger("visual.baselineCache", 8));
+
+    private static volatile VisualDiff defaultInstance;
+
+    private final Path baselineDir;
+    private final Path diffDir;
+    private final double threshold;
+    private final double maxMismatchRatio;
+    private final boolean update;
+    // Access-ordered: the eldest entry is the least recently checked baseline
+    private final Map<Path, DecodedBaseline> baselines = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, DecodedBaseline> eldest) {
+            return size() > BASELINE_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Create a checker with explicit settings (tests); the framework uses getDefault()
+     * @param baselineDir Baseline PNG directory
+     * @param diffDir Diff image directory
+     * @param threshold Per-pixel colour tolerance 0..1
+     * @param maxMismatchRatio Mismatching pixel ratio still reported as a match
+     * @param update Overwrite existing baselines
+     */
+    public VisualDiff(Path baselineDir, Path diffDir, double threshold, double maxMismatchRatio, boolean update) {
+        this.baselineDir = baselineDir;
+        this.diffDir = diffDir;
+        this.threshold = threshold;
+        this.maxMismatchRatio = maxMismatchRatio;
+        this.update = update;
+    }
+
+    /**
+     * Get the checker configured from system properties
+     * @return Shared VisualDiff instance
+     */
+    public static VisualDiff getDefault() {
+        if (defaultInstance == null) {
+            synchronized (VisualDiff.class) {
+                if (defaultInstance == null) {
+                    defaultInstance = new VisualDiff(
+                            Paths.get(System.getProperty("visual.baselineDir", "src/test/resources/visual-baselines")),
+                            Paths.get(System.getProperty("visual.diffDir", "test-output/visual-diffs")),
+                            Double.parseDouble(System.getProperty("visual.threshold", "0.1")),
+                            Double.parseDouble(System.getProperty("visual.maxMismatch", "0.001")),
+                            Boolean.getBoolean("visual.update"));
+                }
+            }
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Check whether callers should run visual checks (-Dvisual.enabled=true). A check costs a second
+     * capture plus a synchronous diff, and records missing baselines into the baseline directory
+     * @return true if visual checks are enabled
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("visual.enabled");
+    }
+
+    /**
+     * Compare a capture with its baseline; records the baseline when there is none yet
+     * @param name Baseline name (file name without extension)
+     * @param png Current capture as PNG bytes
+     * @param ignoreRegions Regions excluded from the comparison, in image pixels
+     * @return Comparison result (diff image written to the diff directory when it does not match)
+     */
+    public Result check(String name, byte[] png, Rectangle... ignoreRegions) {
+        Path baseline = baselineDir.resolve(safeName(name) + ".png");
+        try {
+            if (update || !Files.exists(baseline)) {
+                writeAtomically(baseline, png);
+                synchronized (baselines) {
+                    baselines.remove(baseline);
+                }
+                LOG.info("🖼️  Baseline " + (update ? "updated" : "recorded") + ": " + baseline);
+                return new Result(name, 0, 0, 0, 0, 0, false, maxMismatchRatio, 0, null, true);
+            }
+            BufferedImage expected = baselineImage(baseline);
+            BufferedImage actual = decode(png, name);
+            Result result = compare(expected, actual, threshold, Arrays.asList(ignoreRegions)).named(name, maxMismatchRatio);
+            if (!result.isMatch()) {
+                // Drift within maxMismatch is reported but not rendered: the diff image is the costly part
+                Path diffFile = diffDir.resolve(safeName(name) + "_diff.png");
+                Files.createDirectories(diffDir);
+                ImageIO.write(result.getDiffImage(), "png", diffFile.toFile());
+                result.diffFile = diffFile;
+            }
+            if (result.isMatch()) {
+                LOG.info(() -> "🔍 Visual check passed: " + result);
+            } else {
+                LOG.warn("⚠️  Visual check failed: " + result);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed visual check: " + name, e);
+        }
+    }
+
+    /**
+     * Compare two images
+     * @param expected Baseline image
+     * @param actual Current image
+     * @param threshold Per-pixel colour tolerance 0..1 (0 = exact)
+     * @param ignoreRegions Regions excluded from the comparison
+     * @return Comparison result with diff image
+     */
+    public static Result compare(BufferedImage expected, BufferedImage actual, double threshold, List<Rectangle> ignoreRegions) {
+        long start = System.nanoTime();
+        int width = Math.max(expected.getWidth(), actual.getWidth());
+        int height = Math.max(expected.getHeight(), actual.getHeight());
+        boolean sizeMismatch = expected.getWidth() != actual.getWidth() || expected.getHeight() != actual.getHeight();
+        Comparison comparison = new Comparison(expected, actual, null, MAX_YIQ_DELTA * threshold * threshold,
+                ignoreRegions.toArray(new Rectangle[0]));
+        POOL.invoke(new BandTask(comparison, 0, comparison.mismatched.length));
+
+        long mismatchTotal = Arrays.stream(comparison.mismatched).sum();
+        long ignoredTotal = Arrays.stream(comparison.ignored).sum();
+        long elapsedMicros = (System.nanoTime() - start) / 1_000;
+        return new Result(null, width, height, mismatchTotal, (long) width * height - ignoredTotal, ignoredTotal,
+                sizeMismatch, 0, elapsedMicros, comparison, false);
+    }
+
+    /**
+     * Second pass over the same images that paints the diff image (only run when someone asks for it)
+     */
+    private static BufferedImage render(Comparison counted) {
+        BufferedImage diff = new BufferedImage(counted.width, counted.height, BufferedImage.TYPE_INT_ARGB);
+        Comparison comparison = new Comparison(counted.expected, counted.actual, diff, counted.maxDelta, counted.ignore);
+        POOL.invoke(new BandTask(comparison, 0, comparison.mismatched.length));
+        return diff;
+    }
+
+    /**
+     * Decoded baseline, from the cache unless the file changed since it was decoded
+     */
+    private BufferedImage baselineImage(Path baseline) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(baseline, BasicFileAttributes.class);
+        synchronized (baselines) {
+            DecodedBaseline cached = baselines.get(baseline);
+            if (cached != null && cached.isCurrent(attributes)) {
+                return cached.image;
+            }
+        }
+        BufferedImage image = decode(Files.readAllBytes(baseline), baseline.toString());
+        if (BASELINE_CACHE_SIZE > 0) {
+            synchronized (baselines) {
+                baselines.put(baseline, new DecodedBaseline(attributes, image));
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage decode(byte[] png, String source) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Not a readable image: " + source);
+        }
+        return image;
+    }
+
+    private static void writeAtomically(Path target, byte[] png) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".tmp");
+        Files.write(temp, png);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String safeName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    /**
+     * Decoded baseline image with the file attributes it was decoded from (images are only read, never drawn on)
+     */
+    private static final class DecodedBaseline {
+        final long size;
+        final long modifiedMillis;
+        final BufferedImage image;
+
+        DecodedBaseline(BasicFileAttributes attributes, BufferedImage image) {
+            this.size = attributes.size();
+            this.modifiedMillis = attributes.lastModifiedTime().toMillis();
+            this.image = image;
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return size == attributes.size() && modifiedMillis == attributes.lastModifiedTime().toMillis();
+        }
+    }
+
+    /**
+     * Shared state of one comparison pass; every band writes only its own rows and counter slots
+     */
+    private static final class Comparison {
+        final BufferedImage expected;
+        final BufferedImage actual;
+        final int[] diff;
+        final int width;
+        final int height;
+        final int commonWidth;
+        final int commonHeight;
+        final double maxDelta;
+        final Rectangle[] ignore;
+        final long[] mismatched;
+        final long[] ignored;
+
+        Comparison(BufferedImage expected, BufferedImage actual, BufferedImage diff, double maxDelta, Rectangle[] ignore) {
+            this.expected = expected;
+            this.actual = actual;
+            this.diff = diff == null ? null : ((DataBufferInt) diff.getRaster().getDataBuffer()).getData();
+            this.width = Math.max(expected.getWidth(), actual.getWidth());
+            this.height = Math.max(expected.getHeight(), actual.getHeight());
+            this.commonWidth = Math.min(expected.getWidth(), actual.getWidth());
+            this.commonHeight = Math.min(expected.getHeight(), actual.getHeight());
+            this.maxDelta = maxDelta;
+            this.ignore = ignore;
+            int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+            this.mismatched = new long[bands];
+            this.ignored = new long[bands];
+        }
+
+        void compareBand(int band) {
+            int firstRow = band * BAND_ROWS;
+            int lastRow = Math.min(firstRow + BAND_ROWS, height);
+            int[] expectedRow = new int[commonWidth];
+            int[] actualRow = new int[commonWidth];
+            boolean[] ignoreMask = ignore.length > 0 ? new boolean[width] : null;
+            long mismatchCount = 0;
+            long ignoredCount = 0;
+
+            for (int y = firstRow; y < lastRow; y++) {
+                boolean rowIgnored = ignoreMask != null && markIgnored(y, ignoreMask);
+                boolean common = y < commonHeight;
+                boolean counting = diff == null && common && !rowIgnored && width == commonWidth;
+                if (counting && sameRawRow(expected, actual, y)) {
+                    // Unchanged rows (most of a screenshot) are skipped with one vectorized array compare
+                    continue;
+                }
+                if (common) {
+                    readRow(expected, y, expectedRow);
+                    readRow(actual, y, actualRow);
+                }
+                if (counting) {
+                    for (int x = 0; x < width; x++) {
+                        int a = expectedRow[x];
+                        int b = actualRow[x];
+                        if (a != b && colorDelta(a, b) > maxDelta) {
+                            mismatchCount++;
+                        }
+                    }
+                    continue;
+                }
+                int offset = y * width;
+                for (int x = 0; x < width; x++) {
+                    int color;
+                    if (rowIgnored && ignoreMask[x]) {
+                        ignoredCount++;
+                        color = IGNORED_COLOR;
+                    } else if (!common || x >= commonWidth) {
+                        mismatchCount++;
+                        color = SIZE_MISMATCH_COLOR;
+                    } else {
+                        int a = expectedRow[x];
+                        int b = actualRow[x];
+                        if (a != b && colorDelta(a, b) > maxDelta) {
+                            mismatchCount++;
+                            color = MISMATCH_COLOR;
+                        } else {
+                            color = diff == null ? 0 : faded(a);
+                        }
+                    }
+                    if (diff != null) {
+                        diff[offset + x] = color;
+                    }
+                }
+            }
+            mismatched[band] = mismatchCount;
+            ignored[band] = ignoredCount;
+        }
+
+        private boolean markIgnored(int y, boolean[] mask) {
+            Arrays.fill(mask, false);
+            boolean any = false;
+            for (Rectangle region : ignore) {
+                if (y >= region.y && y < region.y + region.height) {
+                    int from = Math.max(0, region.x);
+                    int to = Math.min(width, region.x + region.width);
+                    if (from < to) {
+                        Arrays.fill(mask, from, to, true);
+                        any = true;
+                    }
+                }
+            }
+            return any;
+        }
+    }
+
+    /**
+     * Splits the band range until single bands are left (work stealing balances uneven bands)
+     */
+    private static final class BandTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Comparison comparison;
+        private final int from;
+        private final int to;
+
+        BandTask(Comparison comparison, int from, int to) {
+            this.comparison = comparison;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    comparison.compareBand(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BandTask(comparison, from, middle), new BandTask(comparison, middle, to));
+        }
+    }
+
+    /**
+     * Compare one row of two same-layout images byte for byte, without decoding pixels
+     * @return true if the raw rows are identical; false if they differ or the layouts cannot be compared raw
+     */
+    static boolean sameRawRow(BufferedImage first, BufferedImage second, int y) {
+        if (first.getType() != second.getType() || first.getWidth() != second.getWidth()
+                || !isPlain(first.getRaster()) || !isPlain(second.getRaster())) {
+            return false;
+        }
+        int width = first.getWidth();
+        switch (first.getType()) {
+            case BufferedImage.TYPE_INT_ARGB:
+            case BufferedImage.TYPE_INT_RGB: {
+                int from = y * width;
+                return Arrays.equals(((DataBufferInt) first.getRaster().getDataBuffer()).getData(), from, from + width,
+                        ((DataBufferInt) second.getRaster().getDataBuffer()).getData(), from, from + width);
+            }
+            case BufferedImage.TYPE_3BYTE_BGR:
+            case BufferedImage.TYPE_4BYTE_ABGR: {
+                int rowBytes = width * (first.getType() == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4);
+                int from = y * rowBytes;
+                return Arrays.equals(((DataBufferByte) first.getRaster().getDataBuffer()).getData(), from, from + rowBytes,
+                        ((DataBufferByte) second.getRaster().getDataBuffer()).getData(), from, from + rowBytes);
+            }
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isPlain(WritableRaster raster) {
+        return raster.getParent() == null
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0;
+    }
+
+    /**
+     * Read the leftmost out.length pixels of a row as ARGB; decoded PNGs are read from their raster directly
+     */
+    static void readRow(BufferedImage image, int y, int[] out) {
+        int width = out.length;
+        WritableRaster raster = image.getRaster();
+        if (isPlain(raster)) {
+            int stride = image.getWidth();
+            switch (image.getType()) {
+                case BufferedImage.TYPE_INT_ARGB: {
+                    int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+                    System.arraycopy(data, y * stride, out, 0, width);
+                    return;
+                }
+                case BufferedImage.TYPE_INT_RGB: {
+                    int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+                    int index = y * stride;
+                    for (int x = 0; x < width; x++) {
+                        out[x] = 0xFF000000 | data[index + x];
+                    }
+                    return;
+                }
+                case BufferedImage.TYPE_3BYTE_BGR: {
+                    byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+                    int index = y * stride * 3;
+                    for (int x = 0; x < width; x++, index += 3) {
+                        out[x] = 0xFF000000 | (data[index + 2] & 0xFF) << 16 | (data[index + 1] & 0xFF) << 8 | (data[index] & 0xFF);
+                    }
+                    return;
+                }
+                case BufferedImage.TYPE_4BYTE_ABGR: {
+                    byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+                    int index = y * stride * 4;
+                    for (int x = 0; x < width; x++, index += 4) {
+                        out[x] = (data[index] & 0xFF) << 24 | (data[index + 3] & 0xFF) << 16
+                                | (data[index + 2] & 0xFF) << 8 | (data[index + 1] & 0xFF);
+                    }
+                    return;
+                }
+                default:
+                    break;
+            }
+        }
+        image.getRGB(0, y, width, 1, out, 0, width);
+    }
+
+    /**
+     * Squared YIQ distance of two ARGB pixels, translucent pixels blended onto white
+     */
+    static double colorDelta(int first, int second) {
+        int alpha1 = first >>> 24;
+        int alpha2 = second >>> 24;
+        double r1 = blend(first >> 16 & 0xFF, alpha1);
+        double g1 = blend(first >> 8 & 0xFF, alpha1);
+        double b1 = blend(first & 0xFF, alpha1);
+        double r2 = blend(second >> 16 & 0xFF, alpha2);
+        double g2 = blend(second >> 8 & 0xFF, alpha2);
+        double b2 = blend(second & 0xFF, alpha2);
+
+        double dr = r1 - r2;
+        double dg = g1 - g2;
+        double db = b1 - b2;
+        double y = dr * 0.29889531 + dg * 0.58662247 + db * 0.11448223;
+        double i = dr * 0.59597799 - dg * 0.27417610 - db * 0.32180189;
+        double q = dr * 0.21147017 - dg * 0.52261711 + db * 0.31114694;
+        return 0.5053 * y * y + 0.299 * i * i + 0.1957 * q * q;
+    }
+
+    private static double blend(int channel, int alpha) {
+        return alpha == 255 ? channel : 255 + (channel - 255) * alpha / 255.0;
+    }
+
+    private static int faded(int argb) {
+        int luma = ((argb >> 16 & 0xFF) * 77 + (argb >> 8 & 0xFF) * 150 + (argb & 0xFF) * 29) >> 8;
+        int gray = 255 - ((255 - luma) * 26 >> 8);
+        return 0xFF000000 | gray << 16 | gray << 8 | gray;
+    }
+
+    /**
+     * Outcome of one comparison
+     */
+    public static final class Result {
+        private String name;
+        private final int width;
+        private final int height;
+        private final long mismatchedPixels;
+        private final long comparedPixels;
+        private final long ignoredPixels;
+        private final boolean sizeMismatch;
+        private double maxMismatchRatio;
+        private final long elapsedMicros;
+        private final Comparison comparison;
+        private BufferedImage diffImage;
+        private final boolean baselineCreated;
+        private Path diffFile;
+
+        Result(String name, int width, int height, long mismatchedPixels, long comparedPixels, long ignoredPixels,
+               boolean sizeMismatch, double maxMismatchRatio, long elapsedMicros, Comparison comparison,
+               boolean baselineCreated) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.mismatchedPixels = mismatchedPixels;
+            this.comparedPixels = comparedPixels;
+            this.ignoredPixels = ignoredPixels;
+            this.sizeMismatch = sizeMismatch;
+            this.maxMismatchRatio = maxMismatchRatio;
+            this.elapsedMicros = elapsedMicros;
+            this.comparison = comparison;
+            this.baselineCreated = baselineCreated;
+        }
+
+        private Result named(String name, double maxMismatchRatio) {
+            this.name = name;
+            this.maxMismatchRatio = maxMismatchRatio;
+            return this;
+        }
+
+        /**
+         * Get the mismatch score
+         * @return Mismatching pixels / compared pixels (0 = identical, 1 = every pixel differs)
+         */
+        public double getScore() {
+            return comparedPixels == 0 ? 0 : (double) mismatchedPixels / comparedPixels;
+        }
+
+        /**
+         * Check the score against the configured tolerance
+         * @return true if the capture matches its baseline (always true for a newly recorded baseline)
+         */
+        public boolean isMatch() {
+            return !sizeMismatch && getScore() <= maxMismatchRatio;
+        }
+
+        public long getMismatchedPixels() {
+            return mismatchedPixels;
+        }
+
+        public long getComparedPixels() {
+            return comparedPixels;
+        }
+
+        public long getIgnoredPixels() {
+            return ignoredPixels;
+        }
+
+        public boolean isSizeMismatch() {
+            return sizeMismatch;
+        }
+
+        public boolean isBaselineCreated() {
+            return baselineCreated;
+        }
+
+        public long getElapsedMicros() {
+            return elapsedMicros;
+        }
+
+        /**
+         * Get the diff image (faded original, red mismatches, magenta size difference, blue ignored regions);
+         * rendered on first call so that passing checks never pay for it
+         * @return Diff image, or null when a baseline was just recorded
+         */
+        public synchronized BufferedImage getDiffImage() {
+            if (diffImage == null && comparison != null) {
+                diffImage = render(comparison);
+            }
+            return diffImage;
+        }
+
+        /**
+         * Get the diff image written by check()
+         * @return Diff PNG path, or null when nothing differed
+         */
+        public Path getDiffFile() {
+            return diffFile;
+        }
+
+        @Override
+        public String toString() {
+            if (baselineCreated) {
+                return name + ": baseline recorded";
+            }
+            return String.format("%s: %.4f%% mismatch (%d of %d px, %d ignored, %dx%d%s) in %.1f ms%s",
+                    name, getScore() * 100, mismatchedPixels, comparedPixels, ignoredPixels, width, height,
+                    sizeMismatch ? ", size differs" : "", elapsedMicros / 1000.0,
+                    diffFile != null ? " -> " + diffFile : "");
+        }
+    }
+}
@@ -3,6 +3,8 @@ package utils;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.By;
+import metrics.TestMetrics;
+import network.NetworkActivity;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.FluentWait;
@@ -12,6 +14,8 @@ import org.openqa.selenium.TimeoutException;
 import java.time.Duration;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Custom Wait Strategies Utility Class
@@ -29,12 +33,32 @@ import java.util.function.Function;
  * 2. Wait for clickable: WaitUtils.waitForElementToBeClickable(driver, element, 15);
  * 3. Wait for page load: WaitUtils.waitForPageLoad(driver, 30);
  * 4. Custom wait: WaitUtils.waitForCustomCondition(driver, customFunction, 20);
+ * 5. Adaptive polling: waitUtils.setAdaptive(true);  (or -Dwait.mode=adaptive for every instance)
+ * 6. In-browser engine: waitUtils.setBrowserEngine(true);  (or -Dwait.engine=browser)
+ * 7. Network idle (SPAs): waitUtils.waitForNetworkIdle(0, 500);
+ *
+ * Every wait method records its latency in TestMetrics.WAIT_DURATION (label: method name).
+ *
+ * Wait modes:
+ * - fixed (default): WebDriverWait with its 500 ms polling interval
+ * - adaptive: AdaptiveWait - exponential back-off from 2 ms, per-locator latency
+ *   statistics and learned fail-fast timeouts for locators with enough history
+ *
+ * Wait engines:
+ * - driver (default): conditions are polled through WebDriver commands
+ * - browser: BrowserWait - one async script per wait, re-checked on DOM mutations.
+ *   Used by the presence, visibility, clickability, text, attribute and invisibility
+ *   methods for standard locators; the other methods always use the driver engine
+ *
+ * Thread safety: create one instance per driver, or share it through DriverContext.of(driver).waits().
  */
 public class WaitUtils {
     
-    private WebDriver driver;
-    private WebDriverWait wait;
-    private FluentWait<WebDriver> fluentWait;
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private final FluentWait<WebDriver> fluentWait;
+    private volatile boolean adaptive = AdaptiveWait.isEnabledByDefault();
+    private volatile boolean browserEngine = BrowserWait.isEnabledByDefault();
     
     /**
      * Constructor
@@ -49,6 +73,76 @@ public class WaitUtils {
                 .ignoring(NoSuchElementException.class);
     }
     
+    /**
+     * Switch between fixed and adaptive polling for this instance
+     * @param adaptive true for AdaptiveWait, false for WebDriverWait
+     */
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+    
+    /**
+     * Check whether this instance polls adaptively
+     * @return true in adaptive mode
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+    
+    /**
+     * Switch between the driver and the in-browser wait engine for this instance
+     * @param browserEngine true for BrowserWait, false for WebDriver polling
+     */
+    public void setBrowserEngine(boolean browserEngine) {
+        this.browserEngine = browserEngine;
+    }
+    
+    /**
+     * Check whether this instance waits in the browser
+     * @return true when the browser engine is active
+     */
+    public boolean isBrowserEngine() {
+        return browserEngine;
+    }
+    
+    /**
+     * Run a condition in the active wait mode
+     * @param key Locator key for adaptive statistics, or null when there is no stable locator
+     * @param timeoutInSeconds Timeout in seconds
+     * @param condition Condition to wait for
+     * @return Condition result
+     */
+    private <T> T until(String key, int timeoutInSeconds, Function<? super WebDriver, T> condition) {
+        if (adaptive) {
+            return AdaptiveWait.until(driver, key, condition, Duration.ofSeconds(timeoutInSeconds));
+        }
+        return new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds)).until(condition);
+    }
+    
+    /**
+     * Run a wait and record its latency in TestMetrics.WAIT_DURATION, also when it times out
+     * @param method Wait method name (histogram label)
+     * @param body Wait to run
+     * @return Wait result
+     */
+    private static <T> T timed(String method, Supplier<T> body) {
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            TestMetrics.WAIT_DURATION.labels(method).observe((System.nanoTime() - start) / 1e9);
+        }
+    }
+    
+    /**
+     * Check whether a locator wait should run in the browser
+     * @param locator By locator
+     * @return true if the browser engine is active and can evaluate the locator
+     */
+    private boolean inBrowser(By locator) {
+        return browserEngine && driver instanceof JavascriptExecutor && BrowserWait.supports(locator);
+    }
+    
     /**
      * Wait for element to be present in DOM
      * @param locator By locator
@@ -57,8 +151,12 @@ public class WaitUtils {
      */
     public WebElement waitForElementPresence(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            return timed("waitForElementPresence", () -> {
+                if (inBrowser(locator)) {
+                    return new BrowserWait(driver).untilElement(BrowserWait.present(locator), Duration.ofSeconds(timeoutInSeconds));
+                }
+                return until("presence " + locator, timeoutInSeconds, ExpectedConditions.presenceOfElementLocated(locator));
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Element not found within " + timeoutInSeconds + " seconds: " + locator, e);
         }
@@ -72,8 +170,12 @@ public class WaitUtils {
      */
     public WebElement waitForElementVisibility(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+            return timed("waitForElementVisibility", () -> {
+                if (inBrowser(locator)) {
+                    return new BrowserWait(driver).untilElement(BrowserWait.visible(locator), Duration.ofSeconds(timeoutInSeconds));
+                }
+                return until("visible " + locator, timeoutInSeconds, ExpectedConditions.visibilityOfElementLocated(locator));
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Element not visible within " + timeoutInSeconds + " seconds: " + locator, e);
         }
@@ -87,8 +189,7 @@ public class WaitUtils {
      */
     public WebElement waitForElementVisibility(WebElement element, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.visibilityOf(element));
+            return timed("waitForElementVisibility", () -> until(null, timeoutInSeconds, ExpectedConditions.visibilityOf(element)));
         } catch (TimeoutException e) {
             throw new RuntimeException("Element not visible within " + timeoutInSeconds + " seconds", e);
         }
@@ -102,8 +203,12 @@ public class WaitUtils {
      */
     public WebElement waitForElementToBeClickable(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.elementToBeClickable(locator));
+            return timed("waitForElementToBeClickable", () -> {
+                if (inBrowser(locator)) {
+                    return new BrowserWait(driver).untilElement(BrowserWait.clickable(locator), Duration.ofSeconds(timeoutInSeconds));
+                }
+                return until("clickable " + locator, timeoutInSeconds, ExpectedConditions.elementToBeClickable(locator));
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Element not clickable within " + timeoutInSeconds + " seconds: " + locator, e);
         }
@@ -117,8 +222,7 @@ public class WaitUtils {
      */
     public WebElement waitForElementToBeClickable(WebElement element, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.elementToBeClickable(element));
+            return timed("waitForElementToBeClickable", () -> until(null, timeoutInSeconds, ExpectedConditions.elementToBeClickable(element)));
         } catch (TimeoutException e) {
             throw new RuntimeException("Element not clickable within " + timeoutInSeconds + " seconds", e);
         }
@@ -132,8 +236,7 @@ public class WaitUtils {
      */
     public List<WebElement> waitForAllElementsPresence(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.presenceOfAllElementsLocatedBy(locator));
+            return timed("waitForAllElementsPresence", () -> until("presence-all " + locator, timeoutInSeconds, ExpectedConditions.presenceOfAllElementsLocatedBy(locator)));
         } catch (TimeoutException e) {
             throw new RuntimeException("Elements not found within " + timeoutInSeconds + " seconds: " + locator, e);
         }
@@ -148,8 +251,12 @@ public class WaitUtils {
      */
     public boolean waitForTextToBePresentInElement(By locator, String text, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.textToBePresentInElementLocated(locator, text));
+            return timed("waitForTextToBePresentInElement", () -> {
+                if (inBrowser(locator)) {
+                    return new BrowserWait(driver).until(BrowserWait.textPresent(locator, text), Duration.ofSeconds(timeoutInSeconds)) != null;
+                }
+                return until("text " + locator, timeoutInSeconds, ExpectedConditions.textToBePresentInElementLocated(locator, text));
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Text '" + text + "' not present in element within " + timeoutInSeconds + " seconds: " + locator, e);
         }
@@ -163,8 +270,12 @@ public class WaitUtils {
      */
     public boolean waitForElementToBeInvisible(By locator, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+            return timed("waitForElementToBeInvisible", () -> {
+                if (inBrowser(locator)) {
+                    return new BrowserWait(driver).until(BrowserWait.invisible(locator), Duration.ofSeconds(timeoutInSeconds)) != null;
+                }
+                return until("invisible " + locator, timeoutInSeconds, ExpectedConditions.invisibilityOfElementLocated(locator));
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Element still visible after " + timeoutInSeconds + " seconds: " + locator, e);
         }
@@ -178,8 +289,7 @@ public class WaitUtils {
      */
     public boolean waitForTitleContains(String title, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.titleContains(title));
+            return timed("waitForTitleContains", () -> until(null, timeoutInSeconds, ExpectedConditions.titleContains(title)));
         } catch (TimeoutException e) {
             throw new RuntimeException("Title does not contain '" + title + "' within " + timeoutInSeconds + " seconds", e);
         }
@@ -191,9 +301,11 @@ public class WaitUtils {
      */
     public void waitForPageLoad(int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            customWait.until(webDriver -> ((JavascriptExecutor) webDriver)
-                    .executeScript("return document.readyState").equals("complete"));
+            timed("waitForPageLoad", () -> {
+                until(null, timeoutInSeconds, webDriver -> ((JavascriptExecutor) webDriver)
+                        .executeScript("return document.readyState").equals("complete"));
+                return null;
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Page did not load completely within " + timeoutInSeconds + " seconds", e);
         }
@@ -205,10 +317,12 @@ public class WaitUtils {
      */
     public void waitForJQueryLoad(int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            customWait.until(webDriver -> {
-                JavascriptExecutor js = (JavascriptExecutor) webDriver;
-                return (Boolean) js.executeScript("return typeof jQuery !== 'undefined' && jQuery.active === 0");
+            timed("waitForJQueryLoad", () -> {
+                until(null, timeoutInSeconds, webDriver -> {
+                    JavascriptExecutor js = (JavascriptExecutor) webDriver;
+                    return (Boolean) js.executeScript("return typeof jQuery !== 'undefined' && jQuery.active === 0");
+                });
+                return null;
             });
         } catch (TimeoutException e) {
             throw new RuntimeException("jQuery did not load within " + timeoutInSeconds + " seconds", e);
@@ -221,16 +335,45 @@ public class WaitUtils {
      */
     public void waitForAngularLoad(int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            customWait.until(webDriver -> {
-                JavascriptExecutor js = (JavascriptExecutor) webDriver;
-                return (Boolean) js.executeScript("return typeof angular !== 'undefined' && angular.element(document).injector().get('$http').pendingRequests.length === 0");
+            timed("waitForAngularLoad", () -> {
+                until(null, timeoutInSeconds, webDriver -> {
+                    JavascriptExecutor js = (JavascriptExecutor) webDriver;
+                    return (Boolean) js.executeScript("return typeof angular !== 'undefined' && angular.element(document).injector().get('$http').pendingRequests.length === 0");
+                });
+                return null;
             });
         } catch (TimeoutException e) {
             throw new RuntimeException("Angular did not load within " + timeoutInSeconds + " seconds", e);
         }
     }
     
+    /**
+     * Wait until the network is idle, ignoring analytics/beacon traffic (-Dnetwork.idle.exclude)
+     * @param maxInflight Tolerated in-flight requests (0 = fully idle)
+     * @param quietMillis Required time without matching requests starting or finishing
+     */
+    public void waitForNetworkIdle(int maxInflight, long quietMillis) {
+        waitForNetworkIdle(maxInflight, quietMillis, NetworkActivity.UrlFilter.defaults(), 30);
+    }
+    
+    /**
+     * Wait until the network is idle, counting CDP Network events in the JVM (Chromium only)
+     * @param maxInflight Tolerated in-flight requests (0 = fully idle)
+     * @param quietMillis Required time without matching requests starting or finishing
+     * @param urlFilter Requests to count, e.g. NetworkActivity.UrlFilter.include("/api/")
+     * @param timeoutInSeconds Timeout in seconds
+     */
+    public void waitForNetworkIdle(int maxInflight, long quietMillis, Predicate<String> urlFilter, int timeoutInSeconds) {
+        try {
+            timed("waitForNetworkIdle", () -> {
+                NetworkActivity.of(driver).awaitIdle(maxInflight, quietMillis, urlFilter, Duration.ofSeconds(timeoutInSeconds));
+                return null;
+            });
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Network did not go idle within " + timeoutInSeconds + " seconds: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * Fluent wait for custom condition
      * @param condition Custom condition function
@@ -240,12 +383,17 @@ public class WaitUtils {
      */
     public <T> T waitForCustomCondition(Function<WebDriver, T> condition, int timeoutInSeconds, int pollingIntervalInSeconds) {
         try {
-            FluentWait<WebDriver> customFluentWait = new FluentWait<>(driver)
-                    .withTimeout(Duration.ofSeconds(timeoutInSeconds))
-                    .pollingEvery(Duration.ofSeconds(pollingIntervalInSeconds))
-                    .ignoring(NoSuchElementException.class);
+            return timed("waitForCustomCondition", () -> {
+                if (adaptive) {
+                    return AdaptiveWait.until(driver, null, condition, Duration.ofSeconds(timeoutInSeconds));
+                }
+                FluentWait<WebDriver> customFluentWait = new FluentWait<>(driver)
+                        .withTimeout(Duration.ofSeconds(timeoutInSeconds))
+                        .pollingEvery(Duration.ofSeconds(pollingIntervalInSeconds))
+                        .ignoring(NoSuchElementException.class);
             
-            return customFluentWait.until(condition);
+                return customFluentWait.until(condition);
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Custom condition not met within " + timeoutInSeconds + " seconds", e);
         }
@@ -261,8 +409,12 @@ public class WaitUtils {
      */
     public boolean waitForElementAttributeContains(By locator, String attribute, String value, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.attributeContains(locator, attribute, value));
+            return timed("waitForElementAttributeContains", () -> {
+                if (inBrowser(locator)) {
+                    return new BrowserWait(driver).until(BrowserWait.attributeContains(locator, attribute, value), Duration.ofSeconds(timeoutInSeconds)) != null;
+                }
+                return until("attribute " + attribute + " " + locator, timeoutInSeconds, ExpectedConditions.attributeContains(locator, attribute, value));
+            });
         } catch (TimeoutException e) {
             throw new RuntimeException("Element attribute '" + attribute + "' does not contain '" + value + "' within " + timeoutInSeconds + " seconds", e);
         }
@@ -276,8 +428,7 @@ public class WaitUtils {
      */
     public boolean waitForUrlContains(String urlFraction, int timeoutInSeconds) {
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            return customWait.until(ExpectedConditions.urlContains(urlFraction));
+            return timed("waitForUrlContains", () -> until(null, timeoutInSeconds, ExpectedConditions.urlContains(urlFraction)));
         } catch (TimeoutException e) {
             throw new RuntimeException("URL does not contain '" + urlFraction + "' within " + timeoutInSeconds + " seconds", e);
         }
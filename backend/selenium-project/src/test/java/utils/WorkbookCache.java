@@ -0,0 +1,486 @@
+package utils;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared cache of parsed Excel sheets for parallel data-driven tests
+ *
+ * Features:
+ * - Keyed by file path and sheet name; each entry remembers the file's modification time and
+ *   size, so an edited workbook is re-read on the next access
+ * - Typed cell values: String, Double, Boolean, LocalDateTime (date-formatted cells), formula
+ *   results instead of formula text; null for empty cells
+ * - Concurrent requests for the same sheet share one load; other sheets load in parallel
+ * - LRU eviction under a memory cap (estimated size of the cell values)
+ * - Hit / miss / load / eviction / invalidation counters (getStats, logged at suite end)
+ *
+ * Cached SheetData is immutable and safe to share between threads.
+ *
+ * Configuration (system properties):
+ * - excel.cache.maxMb: memory cap of the cached sheets (default 64)
+ *
+ * Usage Examples:
+ * 1. Data: WorkbookCache.SheetData data = WorkbookCache.getInstance().get("testdata.xlsx", "Routes");
+ * 2. DataProvider: return data.toDataProvider();
+ * 3. Stats: WorkbookCache.getInstance().getStats()
+ */
+public class WorkbookCache {
+
+    private static final WorkbookCache INSTANCE = new WorkbookCache(
+            Math.max(1, Long.getLong("excel.cache.maxMb", 64)) * 1024 * 1024);
+
+    private final long maxBytes;
+    // Access-ordered: iteration starts at the least recently used entry; guarded by "this"
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<LoadKey, CompletableFuture<SheetData>> loading = new ConcurrentHashMap<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long loads;
+    private long loadNanos;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Create a standalone cache (tests); the framework uses getInstance()
+     * @param maxBytes Memory cap of the cached sheets
+     */
+    public WorkbookCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get the JVM-wide cache
+     * @return WorkbookCache instance
+     */
+    public static WorkbookCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get a sheet, reading the workbook only when it is not cached or changed on disk
+     * @param filePath Path to Excel file (.xlsx or .xls)
+     * @param sheetName Sheet name
+     * @return Parsed sheet
+     */
+    public SheetData get(String filePath, String sheetName) {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        Key key = new Key(path, sheetName);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open Excel file: " + filePath, e);
+        }
+        long modified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.modified == modified && entry.size == size) {
+                hits++;
+                return entry.data;
+            }
+            if (entry != null) {
+                remove(key);
+                invalidations++;
+            }
+            misses++;
+        }
+
+        // One load per file version; callers asking for the same sheet meanwhile wait for it
+        LoadKey loadKey = new LoadKey(key, modified, size);
+        CompletableFuture<SheetData> created = new CompletableFuture<>();
+        CompletableFuture<SheetData> pending = loading.putIfAbsent(loadKey, created);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            long start = System.nanoTime();
+            SheetData data = load(path, sheetName);
+            synchronized (this) {
+                loads++;
+                loadNanos += System.nanoTime() - start;
+                put(key, new Entry(data, modified, size));
+            }
+            created.complete(data);
+            return data;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(loadKey);
+        }
+    }
+
+    /**
+     * Drop every cached sheet (counters are kept)
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get a snapshot of the counters
+     * @return Cache statistics
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, loads, loadNanos / 1_000_000, evictions, invalidations, entries.size(), bytes);
+    }
+
+    private void put(Key key, Entry entry) {
+        if (entry.data.estimatedBytes > maxBytes) {
+            // Larger than the whole cache: returned to the caller but not kept
+            return;
+        }
+        Entry current = entries.get(key);
+        if (current != null && current.modified > entry.modified) {
+            // A slower load of an older file version finished after the newer one
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.data.estimatedBytes;
+        }
+        bytes += entry.data.estimatedBytes;
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<Key, Entry> candidate = eldest.next();
+            if (candidate.getKey().equals(key)) {
+                continue;
+            }
+            bytes -= candidate.getValue().data.estimatedBytes;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.data.estimatedBytes;
+        }
+    }
+
+    /**
+     * Read a sheet without caching it (also used by TestDataCompiler)
+     * @param path Path to Excel file
+     * @param sheetName Sheet name
+     * @return Parsed sheet
+     */
+    static SheetData load(Path path, String sheetName) {
+        // File-based, read-only open: POI reads the zip in place instead of buffering the stream
+        try (Workbook workbook = WorkbookFactory.create(path.toFile(), null, true)) {
+            Sheet sheet = workbook.getSheet(sheetName);
+            if (sheet == null) {
+                throw new RuntimeException("Sheet '" + sheetName + "' not found in " + path);
+            }
+            // Rows are cut / padded to the header width, like getTestData always did
+            Row header = sheet.getRow(0);
+            int columnCount = header == null ? 0 : Math.max(0, header.getLastCellNum());
+            Object[][] cells = new Object[sheet.getLastRowNum() + 1][columnCount];
+            for (Row row : sheet) {
+                Object[] values = cells[row.getRowNum()];
+                for (Cell cell : row) {
+                    if (cell.getColumnIndex() < columnCount) {
+                        values[cell.getColumnIndex()] = cellValue(cell);
+                    }
+                }
+            }
+            return new SheetData(path, sheetName, cells);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open Excel file: " + path, e);
+        }
+    }
+
+    /**
+     * Get the typed value of a cell the way the cache stores it (also used by ExcelResultWriter)
+     * @param cell Cell
+     * @return String, Double, Boolean, LocalDateTime, or null for an empty cell
+     */
+    static Object cellValue(Cell cell) {
+        return value(cell, cell.getCellType());
+    }
+
+    private static Object value(Cell cell, CellType type) {
+        switch (type) {
+            case STRING:
+                return cell.getStringCellValue();
+            case NUMERIC:
+                return DateUtil.isCellDateFormatted(cell) ? cell.getLocalDateTimeCellValue() : (Object) cell.getNumericCellValue();
+            case BOOLEAN:
+                return cell.getBooleanCellValue();
+            case FORMULA:
+                return value(cell, cell.getCachedFormulaResultType());
+            case ERROR:
+                return FormulaError.forInt(cell.getErrorCellValue()).getString();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Parsed, immutable sheet: row 0 is the header row, every row has the header's width
+     */
+    public static final class SheetData {
+        private final Path path;
+        private final String sheetName;
+        private final Object[][] cells;
+        private final long estimatedBytes;
+
+        SheetData(Path path, String sheetName, Object[][] cells) {
+            this.path = path;
+            this.sheetName = sheetName;
+            this.cells = cells;
+            this.estimatedBytes = estimateBytes(cells);
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getSheetName() {
+            return sheetName;
+        }
+
+        /**
+         * Get the number of rows including the header row
+         * @return Row count
+         */
+        public int getRowCount() {
+            return cells.length;
+        }
+
+        public int getColumnCount() {
+            return cells.length == 0 ? 0 : cells[0].length;
+        }
+
+        /**
+         * Get a typed cell value
+         * @param row Row number (0-based, 0 = header)
+         * @param column Column number (0-based)
+         * @return String, Double, Boolean, LocalDateTime, or null for an empty cell
+         */
+        public Object get(int row, int column) {
+            return row < cells.length && column < cells[row].length ? cells[row][column] : null;
+        }
+
+        /**
+         * Get the header names (first row; empty cells as "")
+         * @return Header names
+         */
+        public String[] getHeaders() {
+            String[] headers = new String[getColumnCount()];
+            for (int i = 0; i < headers.length; i++) {
+                headers[i] = cells[0][i] == null ? "" : String.valueOf(cells[0][i]);
+            }
+            return headers;
+        }
+
+        /**
+         * Get the data rows (header excluded) for a TestNG DataProvider
+         * @return Copy of the typed values, one array per row
+         */
+        public Object[][] toDataProvider() {
+            Object[][] data = new Object[Math.max(0, cells.length - 1)][];
+            for (int i = 1; i < cells.length; i++) {
+                data[i - 1] = cells[i].clone();
+            }
+            return data;
+        }
+
+        /**
+         * Get the data rows as maps keyed by header
+         * @return One insertion-ordered map per data row
+         */
+        public List<Map<String, Object>> toMaps() {
+            String[] headers = getHeaders();
+            List<Map<String, Object>> rows = new ArrayList<>(Math.max(0, cells.length - 1));
+            for (int i = 1; i < cells.length; i++) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int j = 0; j < headers.length; j++) {
+                    row.put(headers[j], cells[i][j]);
+                }
+                rows.add(row);
+            }
+            return rows;
+        }
+
+        private static long estimateBytes(Object[][] cells) {
+            // Rough JVM footprint: array headers and references, boxed values, String contents
+            long total = 16 + 8L * cells.length;
+            for (Object[] row : cells) {
+                total += 16 + 8L * row.length;
+                for (Object value : row) {
+                    if (value instanceof String) {
+                        total += 40 + ((String) value).length();
+                    } else if (value instanceof Double) {
+                        total += 16;
+                    } else if (value instanceof LocalDateTime) {
+                        total += 72;
+                    }
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Cache counters
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long loads;
+        private final long loadMillis;
+        private final long evictions;
+        private final long invalidations;
+        private final int entries;
+        private final long bytes;
+
+        Stats(long hits, long misses, long loads, long loadMillis, long evictions, long invalidations, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.loads = loads;
+            this.loadMillis = loadMillis;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getLoads() {
+            return loads;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getInvalidations() {
+            return invalidations;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Get the share of requests served from the cache
+         * @return Hit ratio 0..1
+         */
+        public double getHitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Workbook cache: %d hits, %d misses (%.0f%% hit ratio), %d loads in %d ms, "
+                            + "%d evictions, %d invalidations, %d sheet(s) cached (%.1f MB)",
+                    hits, misses, getHitRatio() * 100, loads, loadMillis, evictions, invalidations, entries,
+                    bytes / 1048576.0);
+        }
+    }
+
+    private static final class Key {
+        final Path path;
+        final String sheetName;
+
+        Key(Path path, String sheetName) {
+            this.path = path;
+            this.sheetName = sheetName;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return path.equals(key.path) && sheetName.equals(key.sheetName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, sheetName);
+        }
+    }
+
+    private static final class LoadKey {
+        final Key key;
+        final long modified;
+        final long size;
+
+        LoadKey(Key key, long modified, long size) {
+            this.key = key;
+            this.modified = modified;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof LoadKey)) {
+                return false;
+            }
+            LoadKey loadKey = (LoadKey) other;
+            return key.equals(loadKey.key) && modified == loadKey.modified && size == loadKey.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, modified, size);
+        }
+    }
+
+    private static final class Entry {
+        final SheetData data;
+        final long modified;
+        final long size;
+
+        Entry(SheetData data, long modified, long size) {
+            this.data = data;
+            this.modified = modified;
+            this.size = size;
+        }
+    }
+}
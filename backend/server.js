@@ -18,7 +18,11 @@ const isHeadless =
   process.env.NODE_ENV === "production";
 
 app.use(cors());
-app.use(express.json());
+// /test-events batches (up to events.batchSize events with metric snapshots) get a larger limit
+const jsonBody = express.json();
+app.use((req, res, next) =>
+  req.path === "/test-events" ? next() : jsonBody(req, res, next)
+);
 app.use("/segments", express.static(path.join(__dirname, "segments")));
 app.use(
   "/test-reports",
@@ -535,6 +539,40 @@ app.get("/test-reports", (req, res) => {
   }
 });
 
+// Test events streamed in batches by the Java EventPipeline
+const MAX_TEST_EVENTS = 10000;
+const testEvents = [];
+const lastSeqByRun = new Map();
+
+app.post("/test-events", express.json({ limit: "10mb" }), (req, res) => {
+  const events = Array.isArray(req.body && req.body.events) ? req.body.events : [];
+  let accepted = 0;
+  for (const event of events) {
+    // Replayed batches may repeat events; seq is strictly increasing per run
+    const lastSeq = lastSeqByRun.get(event.runId) || 0;
+    if (typeof event.seq !== "number" || event.seq <= lastSeq) {
+      continue;
+    }
+    lastSeqByRun.set(event.runId, event.seq);
+    testEvents.push(event);
+    accepted++;
+  }
+  if (testEvents.length > MAX_TEST_EVENTS) {
+    testEvents.splice(0, testEvents.length - MAX_TEST_EVENTS);
+  }
+  res.json({ accepted, duplicates: events.length - accepted });
+});
+
+app.get("/test-events", (req, res) => {
+  const since = Number(req.query.since) || 0;
+  const runId = req.query.runId;
+  res.json(
+    testEvents.filter(
+      (event) => event.timestamp > since && (!runId || event.runId === runId)
+    )
+  );
+});
+
 // Add environment info endpoint
 app.get("/environment", (req, res) => {
   res.json({